@@ -25,6 +25,7 @@ package com.oracle.truffle.r.engine;
 import java.io.File;
 import java.util.Arrays;
 import java.util.List;
+import java.util.WeakHashMap;
 import java.util.stream.Collectors;
 
 import com.oracle.truffle.api.CallTarget;
@@ -37,6 +38,7 @@ import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.TruffleLanguage.ContextReference;
 import com.oracle.truffle.api.dsl.UnsupportedSpecializationException;
 import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.interop.TruffleObject;
@@ -102,9 +104,9 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.env.REnvironment;
 import com.oracle.truffle.r.runtime.interop.R2Foreign;
 import com.oracle.truffle.r.runtime.interop.R2ForeignNodeGen;
+import com.oracle.truffle.r.runtime.nodes.RBaseNode;
 import com.oracle.truffle.r.runtime.nodes.RCodeBuilder;
 import com.oracle.truffle.r.runtime.nodes.RNode;
-import com.oracle.truffle.r.runtime.nodes.RSyntaxElement;
 import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
 
 /**
@@ -137,15 +139,70 @@ final class REngine implements Engine, Engine.Timings {
      */
     private boolean suppressWarnings;
 
+    /**
+     * The call targets created by {@link #evalNode} for the language objects passed to
+     * {@code eval}, so that evaluating the same expression repeatedly, e.g., in a loop, runs (and
+     * eventually compiles) the same AST instead of a fresh copy each time. The copy specializes to
+     * the frame descriptor of the environment, therefore there is one call target per descriptor,
+     * up to {@link #evalCacheSize} of the most recently used ones. The language objects are held
+     * weakly.
+     */
+    private final WeakHashMap<RBaseNode, EvalCallTargets> evalCache = new WeakHashMap<>();
+    private final int evalCacheSize;
+
     private REngine(RContext context) {
         this.context = context;
         this.childTimes = new long[]{0, 0};
+        this.evalCacheSize = FastROptions.EvalCacheSize.getNonNegativeIntValue();
     }
 
     static REngine create(RContext context) {
         return new REngine(context);
     }
 
+    /**
+     * The call targets of one language object, by frame descriptor, the most recently used first.
+     * A call target specialized to a descriptor references it, so the descriptors cannot be held
+     * weakly by a map from them to the call targets. Instead, the least recently used entry is
+     * dropped when the cache is full, so that the descriptors of environments that are no longer
+     * used, e.g., of {@code eval(e, list(...))} in a loop, do not take the entries for good.
+     */
+    private static final class EvalCallTargets {
+        private final FrameDescriptor[] descriptors;
+        private final RootCallTarget[] callTargets;
+        private int count;
+
+        EvalCallTargets(int size) {
+            this.descriptors = new FrameDescriptor[size];
+            this.callTargets = new RootCallTarget[size];
+        }
+
+        RootCallTarget get(FrameDescriptor descriptor) {
+            for (int i = 0; i < count; i++) {
+                if (descriptors[i] == descriptor) {
+                    RootCallTarget callTarget = callTargets[i];
+                    moveToFront(i, descriptor, callTarget);
+                    return callTarget;
+                }
+            }
+            return null;
+        }
+
+        void put(FrameDescriptor descriptor, RootCallTarget callTarget) {
+            if (count < descriptors.length) {
+                count++;
+            }
+            moveToFront(count - 1, descriptor, callTarget);
+        }
+
+        private void moveToFront(int index, FrameDescriptor descriptor, RootCallTarget callTarget) {
+            System.arraycopy(descriptors, 0, descriptors, 1, index);
+            System.arraycopy(callTargets, 0, callTargets, 1, index);
+            descriptors[0] = descriptor;
+            callTargets[0] = callTarget;
+        }
+    }
+
     @Override
     public void activate(REnvironment.ContextStateImpl stateREnvironment) {
         RInstrumentation.activate(context);
@@ -409,7 +466,7 @@ final class REngine implements Engine, Engine.Timings {
                     throw RError.error(RError.SHOW_CALLER, RError.Message.ARGUMENT_MISSING, identifier);
                 }
             } else if (obj instanceof RLanguage) {
-                result = evalNode(((RLanguage) obj).getRep().asRSyntaxNode(), envir, caller);
+                result = evalNode(((RLanguage) obj).getRep(), envir, caller);
             } else {
                 result = obj;
             }
@@ -420,7 +477,7 @@ final class REngine implements Engine, Engine.Timings {
     @Override
     @TruffleBoundary
     public Object eval(RLanguage expr, REnvironment envir, RCaller caller) {
-        return evalNode(expr.getRep().asRSyntaxNode(), envir, caller);
+        return evalNode(expr.getRep(), envir, caller);
     }
 
     @Override
@@ -445,7 +502,14 @@ final class REngine implements Engine, Engine.Timings {
         if (n instanceof ConstantNode) {
             return ((ConstantNode) n).getValue();
         }
-        RootCallTarget callTarget = doMakeCallTarget(n, RSource.Internal.EVAL_WRAPPER.string, false, false);
+        // the node is not copied, so a call target created for it by a previous eval can be reused
+        RootNode root = n.getRootNode();
+        RootCallTarget callTarget;
+        if (root instanceof AnonymousRootNode && ((AnonymousRootNode) root).isEvalOf(n)) {
+            callTarget = root.getCallTarget();
+        } else {
+            callTarget = Truffle.getRuntime().createCallTarget(new AnonymousRootNode(n, RSource.Internal.EVAL_WRAPPER.string, false, false, true));
+        }
         return callTarget.call(frame);
     }
 
@@ -477,11 +541,23 @@ final class REngine implements Engine, Engine.Timings {
         return CallRFunctionNode.executeSlowpath(func, caller == null ? RArguments.getCall(actualFrame) : caller, actualFrame, newArgs, reorderedArgs.getSignature(), null);
     }
 
-    private Object evalNode(RSyntaxElement exprRep, REnvironment envir, RCaller caller) {
+    private Object evalNode(RBaseNode exprRep, REnvironment envir, RCaller caller) {
+        MaterializedFrame frame = envir.getFrame();
+        EvalCallTargets callTargets = null;
+        if (evalCacheSize > 0) {
+            callTargets = evalCache.computeIfAbsent(exprRep, rep -> new EvalCallTargets(evalCacheSize));
+            RootCallTarget callTarget = callTargets.get(frame.getFrameDescriptor());
+            if (callTarget != null) {
+                return evalTarget(callTarget, caller, envir);
+            }
+        }
         // we need to copy the node, otherwise it (and its children) will specialized to a specific
         // frame descriptor and will fail on subsequent re-executions
-        RSyntaxNode n = RContext.getASTBuilder().process(exprRep);
+        RSyntaxNode n = RContext.getASTBuilder().process(exprRep.asRSyntaxNode());
         RootCallTarget callTarget = doMakeCallTarget(n.asRNode(), RSource.Internal.EVAL_WRAPPER.string, false, false);
+        if (callTargets != null) {
+            callTargets.put(frame.getFrameDescriptor(), callTarget);
+        }
         return evalTarget(callTarget, caller, envir);
     }
 
@@ -514,7 +590,7 @@ final class REngine implements Engine, Engine.Timings {
      */
     @TruffleBoundary
     private RootCallTarget doMakeCallTarget(RNode body, String description, boolean printResult, boolean topLevel) {
-        return Truffle.getRuntime().createCallTarget(new AnonymousRootNode(body, description, printResult, topLevel));
+        return Truffle.getRuntime().createCallTarget(new AnonymousRootNode(body, description, printResult, topLevel, false));
     }
 
     /**
@@ -533,17 +609,30 @@ final class REngine implements Engine, Engine.Timings {
         private final String description;
         private final boolean printResult;
         private final boolean topLevel;
+        /**
+         * Whether this root node was created by {@link REngine#eval(RLanguage, MaterializedFrame)}
+         * for the (uncopied) {@link #body}.
+         */
+        private final boolean evalOfBody;
 
         @Child private RNode body;
         @Child private GetVisibilityNode visibility = GetVisibilityNode.create();
         @Child private SetVisibilityNode setVisibility = SetVisibilityNode.create();
 
-        protected AnonymousRootNode(RNode body, String description, boolean printResult, boolean topLevel) {
+        protected AnonymousRootNode(RNode body, String description, boolean printResult, boolean topLevel, boolean evalOfBody) {
             super(context.getLanguage());
             this.body = body;
             this.description = description;
             this.printResult = printResult;
             this.topLevel = topLevel;
+            this.evalOfBody = evalOfBody;
+        }
+
+        /**
+         * Determines whether this root node was created by {@code eval} for the given node.
+         */
+        boolean isEvalOf(RNode node) {
+            return evalOfBody && body == node;
         }
 
         @Override
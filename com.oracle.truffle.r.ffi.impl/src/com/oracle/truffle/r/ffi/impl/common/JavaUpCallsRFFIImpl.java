@@ -92,6 +92,7 @@ import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.data.RSymbol;
 import com.oracle.truffle.r.runtime.data.RTypedValue;
 import com.oracle.truffle.r.runtime.data.RUnboundValue;
+import com.oracle.truffle.r.runtime.data.RVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractComplexVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractContainer;
 import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
@@ -501,10 +502,18 @@ public abstract class JavaUpCallsRFFIImpl implements UpCallsRFFI {
         return 0;
     }
 
+    /**
+     * The native code may update the elements through the returned array.
+     */
+    private static <ArrayT> ArrayT elementsForUpdate(RVector<ArrayT> vector) {
+        vector.elementsModified();
+        return vector.getDataWithoutCopying();
+    }
+
     @Override
     public Object RAW(Object x) {
         if (x instanceof RRawVector) {
-            return ((RRawVector) x).getDataWithoutCopying();
+            return elementsForUpdate((RRawVector) x);
         } else if (x instanceof RRaw) {
             return new byte[]{((RRaw) x).getValue()};
         } else {
@@ -515,7 +524,7 @@ public abstract class JavaUpCallsRFFIImpl implements UpCallsRFFI {
     @Override
     public Object LOGICAL(Object x) {
         if (x instanceof RLogicalVector) {
-            return ((RLogicalVector) x).getDataWithoutCopying();
+            return elementsForUpdate((RLogicalVector) x);
         } else if (x instanceof Byte) {
             return new byte[]{(Byte) x};
         } else {
@@ -526,7 +535,7 @@ public abstract class JavaUpCallsRFFIImpl implements UpCallsRFFI {
     @Override
     public Object INTEGER(Object x) {
         if (x instanceof RIntVector) {
-            return ((RIntVector) x).getDataWithoutCopying();
+            return elementsForUpdate((RIntVector) x);
         } else if (x instanceof RIntSequence) {
             return ((RIntSequence) x).materialize().getDataWithoutCopying();
         } else if (x instanceof Integer) {
@@ -547,7 +556,7 @@ public abstract class JavaUpCallsRFFIImpl implements UpCallsRFFI {
     @Override
     public Object REAL(Object x) {
         if (x instanceof RDoubleVector) {
-            return ((RDoubleVector) x).getDataWithoutCopying();
+            return elementsForUpdate((RDoubleVector) x);
         } else if (x instanceof RDoubleSequence) {
             return ((RDoubleSequence) x).materialize().getDataWithoutCopying();
         } else {
@@ -1347,7 +1356,7 @@ public abstract class JavaUpCallsRFFIImpl implements UpCallsRFFI {
     public REnvironment R_NewHashedEnv(REnvironment parent, Object initialSize) {
         // We know this is an RIntVector from use site in gramRd.c
         REnvironment env = RDataFactory.createNewEnv(REnvironment.UNNAMED, true, ((RIntVector) initialSize).getDataAt(0));
-        RArguments.initializeEnclosingFrame(env.getFrame(), parent.getFrame());
+        env.initializeParent(parent);
         return env;
     }
 
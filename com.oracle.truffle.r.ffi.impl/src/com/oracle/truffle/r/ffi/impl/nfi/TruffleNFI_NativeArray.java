@@ -22,17 +22,36 @@
  */
 package com.oracle.truffle.r.ffi.impl.nfi;
 
+import static com.oracle.truffle.r.ffi.impl.interop.UnsafeAdapter.UNSAFE;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
 import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RLogicalVector;
+import com.oracle.truffle.r.runtime.data.RVector;
 import com.oracle.truffle.r.runtime.gnur.SEXPTYPE;
 
+import sun.misc.Unsafe;
+
 /**
  * Support for the {@code INTEGER, LOGICAL, ...} functions in the RFFI, which must return the same
  * array while an FFI call is in progress.
+ *
+ * The elements of an {@link RVector} are copied into a {@link Mirror}, native memory that is
+ * attached to the vector the first time it escapes to native code and is then reused by all
+ * subsequent calls, so there is no allocation (nor marshalling by NFI) per call. The Java array
+ * remains the primary store. When the call exits, the mirror is copied back, which makes updates by
+ * the native code visible in R (including updates of shared vectors, as done by e.g. data.table),
+ * and the two are in sync again. The mirror is only filled again on a later call if the elements
+ * were modified by R in the meantime, which the writers of the array record with
+ * {@link RVector#elementsModified()} (see {@link RVector#isNativeMirrorCurrent()}). The memory is
+ * freed once the vector has been collected.
  */
 public class TruffleNFI_NativeArray {
     private static int tableHwm;
@@ -48,19 +67,60 @@ public class TruffleNFI_NativeArray {
          * E.g., {@link RIntVector}.
          */
         Object x;
+        /**
+         * {@code x} if {@code array} is its store and {@code mirror} is attached to it, otherwise
+         * {@code mirror} is only used during the current call.
+         */
+        RVector<?> vector;
         /**
          * internal array, e.g. {@code int[]}.
          */
         Object array;
         /**
-         * {@code null} unless {@code x} is an {@link RLogicalVector}, in which case it is the
-         * underlying {@code byte[]}.
+         * The native copy of {@code array}, {@code null} for {@code CHARSXP}.
          */
-        byte[] logicalByteArray;
+        Mirror mirror;
+        SEXPTYPE type;
 
         long arrayAddress;
     }
 
+    private static final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    /**
+     * Keeps the mirrors reachable until their vectors are collected.
+     */
+    private static final Set<Mirror> liveMirrors = ConcurrentHashMap.newKeySet();
+
+    private static final class Mirror extends PhantomReference<Object> {
+        private final long address;
+        private final long byteSize;
+        private boolean freed;
+
+        /**
+         * @param owner the vector the mirror is attached to, or {@code null} for a mirror that is
+         *            only used during the current call
+         */
+        private Mirror(Object owner, long byteSize) {
+            super(owner, collected);
+            this.byteSize = byteSize;
+            // never zero, which denotes "no array" in this class
+            this.address = UNSAFE.allocateMemory(Math.max(byteSize, 8));
+            if (owner != null) {
+                liveMirrors.add(this);
+            }
+        }
+
+        private void free() {
+            if (!freed) {
+                freed = true;
+                // the mirror may be freed before its vector is collected
+                clear();
+                liveMirrors.remove(this);
+                UNSAFE.freeMemory(address);
+            }
+        }
+    }
+
     private static void initTableElements(int startIndex) {
         for (int i = startIndex; i < table.length; i++) {
             table[i] = new Info();
@@ -76,29 +136,62 @@ public class TruffleNFI_NativeArray {
         for (int i = oldHwm; i < tableHwm; i++) {
             Info info = table[i];
             if (info.x != null) {
-                if (info.logicalByteArray != null) {
-                    boolean seenNA = false;
-                    int[] xai = (int[]) info.array;
-                    for (int j = 0; j < xai.length; j++) {
-                        int xaival = xai[j];
-                        byte xal;
-                        if (xaival == RRuntime.INT_NA) {
-                            seenNA = true;
-                            xal = RRuntime.LOGICAL_NA;
-                        } else {
-                            xal = (byte) xaival;
-                        }
-                        info.logicalByteArray[j] = xal;
-                    }
-                    if (seenNA) {
-                        RLogicalVector lv = (RLogicalVector) info.x;
-                        lv.setComplete(false);
+                if (info.mirror != null) {
+                    if (info.vector == null) {
+                        info.mirror.free();
+                    } else {
+                        // the native code may have written into the mirror
+                        copyBack(info);
+                        info.vector.elementsModified();
+                        info.vector.nativeMirrorUpdated();
                     }
+                } else {
+                    TruffleNFI_Call.freeArray(info.arrayAddress);
                 }
-                TruffleNFI_Call.freeArray(info.arrayAddress);
+                info.x = null;
+                info.vector = null;
+                info.array = null;
+                info.mirror = null;
             }
         }
         tableHwm = oldHwm;
+        freeCollectedMirrors();
+    }
+
+    private static void copyBack(Info info) {
+        long address = info.mirror.address;
+        switch (info.type) {
+            case INTSXP:
+                UNSAFE.copyMemory(null, address, info.array, Unsafe.ARRAY_INT_BASE_OFFSET, info.mirror.byteSize);
+                break;
+            case REALSXP:
+                UNSAFE.copyMemory(null, address, info.array, Unsafe.ARRAY_DOUBLE_BASE_OFFSET, info.mirror.byteSize);
+                break;
+            case RAWSXP:
+                UNSAFE.copyMemory(null, address, info.array, Unsafe.ARRAY_BYTE_BASE_OFFSET, info.mirror.byteSize);
+                break;
+            case LGLSXP: {
+                boolean seenNA = false;
+                byte[] data = (byte[]) info.array;
+                for (int j = 0; j < data.length; j++) {
+                    int xaival = UNSAFE.getInt(address + (long) j * Unsafe.ARRAY_INT_INDEX_SCALE);
+                    byte xal;
+                    if (xaival == RRuntime.INT_NA) {
+                        seenNA = true;
+                        xal = RRuntime.LOGICAL_NA;
+                    } else {
+                        xal = (byte) xaival;
+                    }
+                    data[j] = xal;
+                }
+                if (seenNA) {
+                    ((RLogicalVector) info.vector).setComplete(false);
+                }
+                break;
+            }
+            default:
+                throw RInternalError.shouldNotReachHere();
+        }
     }
 
     /**
@@ -122,46 +215,116 @@ public class TruffleNFI_NativeArray {
      * @return the native array address
      */
     static long recordArray(Object x, Object array, SEXPTYPE type) {
-        Object xa;
-        byte[] logicalByteArray = null;
-        boolean isString = false;
+        Mirror mirror = null;
+        RVector<?> vector = null;
+        long arrayAddress;
+        if (type != SEXPTYPE.CHARSXP) {
+            if (x instanceof RVector && ((RVector<?>) x).getInternalStore() == array) {
+                vector = (RVector<?>) x;
+            }
+            mirror = getMirror(vector, getMirrorSize(array, type));
+            if (vector == null || !vector.isNativeMirrorCurrent()) {
+                copyIn(array, type, mirror);
+                if (vector != null) {
+                    vector.nativeMirrorUpdated();
+                }
+            }
+        }
+        if (mirror != null) {
+            arrayAddress = mirror.address;
+            TruffleNFI_Call.returnArrayExisting(type, arrayAddress);
+        } else {
+            arrayAddress = TruffleNFI_Call.returnArrayCreate(array, true);
+        }
+        if (tableHwm == table.length) {
+            table = Arrays.copyOf(table, table.length * 2);
+            initTableElements(tableHwm);
+        }
+        Info t = table[tableHwm];
+        t.x = x;
+        t.vector = vector;
+        t.array = array;
+        t.mirror = mirror;
+        t.type = type;
+        t.arrayAddress = arrayAddress;
+        tableHwm++;
+        return t.arrayAddress;
+    }
+
+    private static long getMirrorSize(Object array, SEXPTYPE type) {
         switch (type) {
             case INTSXP:
+                return (long) ((int[]) array).length * Unsafe.ARRAY_INT_INDEX_SCALE;
             case REALSXP:
+                return (long) ((double[]) array).length * Unsafe.ARRAY_DOUBLE_INDEX_SCALE;
             case RAWSXP:
-            case CHARSXP:
-                isString = type == SEXPTYPE.CHARSXP;
-                xa = array;
-                break;
+                return ((byte[]) array).length;
+            case LGLSXP:
+                // RFFI wants int*
+                return (long) ((byte[]) array).length * Unsafe.ARRAY_INT_INDEX_SCALE;
+            default:
+                throw RInternalError.shouldNotReachHere();
+        }
+    }
 
+    private static void copyIn(Object array, SEXPTYPE type, Mirror mirror) {
+        switch (type) {
+            case INTSXP:
+                UNSAFE.copyMemory(array, Unsafe.ARRAY_INT_BASE_OFFSET, null, mirror.address, mirror.byteSize);
+                break;
+            case REALSXP:
+                UNSAFE.copyMemory(array, Unsafe.ARRAY_DOUBLE_BASE_OFFSET, null, mirror.address, mirror.byteSize);
+                break;
+            case RAWSXP:
+                UNSAFE.copyMemory(array, Unsafe.ARRAY_BYTE_BASE_OFFSET, null, mirror.address, mirror.byteSize);
+                break;
             case LGLSXP: {
                 byte[] xal = (byte[]) array;
-                // RFFI wants int*
-                int[] xai = new int[xal.length];
-                for (int i = 0; i < xai.length; i++) {
+                for (int i = 0; i < xal.length; i++) {
                     byte lval = xal[i];
-                    xai[i] = RRuntime.isNA(lval) ? RRuntime.INT_NA : lval;
+                    UNSAFE.putInt(mirror.address + (long) i * Unsafe.ARRAY_INT_INDEX_SCALE, RRuntime.isNA(lval) ? RRuntime.INT_NA : lval);
                 }
-                xa = xai;
-                logicalByteArray = xal;
                 break;
             }
-
             default:
                 throw RInternalError.shouldNotReachHere();
+        }
+    }
 
+    /**
+     * @param vector the vector the mirror is attached to, or {@code null} for a mirror that is only
+     *            used during the current call
+     */
+    private static Mirror getMirror(RVector<?> vector, long byteSize) {
+        freeCollectedMirrors();
+        if (vector == null) {
+            return new Mirror(null, byteSize);
         }
-        if (tableHwm == table.length) {
-            table = Arrays.copyOf(table, table.length * 2);
-            initTableElements(tableHwm);
+        Object mirror = vector.getNativeMirror();
+        if (mirror instanceof Mirror && ((Mirror) mirror).byteSize == byteSize) {
+            return (Mirror) mirror;
         }
-        Info t = table[tableHwm];
-        t.x = x;
-        t.array = xa;
-        t.logicalByteArray = logicalByteArray;
-        t.arrayAddress = TruffleNFI_Call.returnArrayCreate(xa, isString);
-        tableHwm++;
-        return t.arrayAddress;
+        if (mirror instanceof Mirror && !isInUse((Mirror) mirror)) {
+            ((Mirror) mirror).free();
+        } // otherwise the native code may still use the old mirror, it is freed with the vector
+        Mirror newMirror = new Mirror(vector, byteSize);
+        vector.setNativeMirror(newMirror);
+        return newMirror;
+    }
+
+    private static boolean isInUse(Mirror mirror) {
+        for (int i = 0; i < tableHwm; i++) {
+            if (table[i].mirror == mirror) {
+                return true;
+            }
+        }
+        return false;
     }
 
+    private static void freeCollectedMirrors() {
+        Mirror mirror;
+        while ((mirror = (Mirror) collected.poll()) != null) {
+            mirror.free();
+        }
+    }
 }
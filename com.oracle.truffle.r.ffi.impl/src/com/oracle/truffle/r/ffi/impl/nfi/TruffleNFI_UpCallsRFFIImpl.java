@@ -23,6 +23,10 @@
 package com.oracle.truffle.r.ffi.impl.nfi;
 
 import com.oracle.truffle.r.ffi.impl.common.JavaUpCallsRFFIImpl;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.data.RLogicalVector;
+import com.oracle.truffle.r.runtime.data.RRawVector;
 import com.oracle.truffle.r.runtime.ffi.CharSXPWrapper;
 import com.oracle.truffle.r.runtime.gnur.SEXPTYPE;
 
@@ -34,11 +38,16 @@ public class TruffleNFI_UpCallsRFFIImpl extends JavaUpCallsRFFIImpl {
         return CharSXPWrapper.create(TruffleNFI_Utils.convertCstring(bytes, len));
     }
 
+    /*
+     * The native code gets the native mirror of a vector, not its array, so the elements are not
+     * marked as modified here but when the mirror is copied back (see TruffleNFI_NativeArray).
+     */
+
     @Override
     public Object INTEGER(Object x) {
         long arrayAddress = TruffleNFI_NativeArray.findArray(x);
         if (arrayAddress == 0) {
-            Object array = super.INTEGER(x);
+            Object array = x instanceof RIntVector ? ((RIntVector) x).getDataWithoutCopying() : super.INTEGER(x);
             arrayAddress = TruffleNFI_NativeArray.recordArray(x, array, SEXPTYPE.INTSXP);
         } else {
             TruffleNFI_Call.returnArrayExisting(SEXPTYPE.INTSXP, arrayAddress);
@@ -50,7 +59,7 @@ public class TruffleNFI_UpCallsRFFIImpl extends JavaUpCallsRFFIImpl {
     public Object LOGICAL(Object x) {
         long arrayAddress = TruffleNFI_NativeArray.findArray(x);
         if (arrayAddress == 0) {
-            Object array = super.LOGICAL(x);
+            Object array = x instanceof RLogicalVector ? ((RLogicalVector) x).getDataWithoutCopying() : super.LOGICAL(x);
             arrayAddress = TruffleNFI_NativeArray.recordArray(x, array, SEXPTYPE.LGLSXP);
         } else {
             TruffleNFI_Call.returnArrayExisting(SEXPTYPE.LGLSXP, arrayAddress);
@@ -63,7 +72,7 @@ public class TruffleNFI_UpCallsRFFIImpl extends JavaUpCallsRFFIImpl {
     public Object REAL(Object x) {
         long arrayAddress = TruffleNFI_NativeArray.findArray(x);
         if (arrayAddress == 0) {
-            Object array = super.REAL(x);
+            Object array = x instanceof RDoubleVector ? ((RDoubleVector) x).getDataWithoutCopying() : super.REAL(x);
             arrayAddress = TruffleNFI_NativeArray.recordArray(x, array, SEXPTYPE.REALSXP);
         } else {
             TruffleNFI_Call.returnArrayExisting(SEXPTYPE.REALSXP, arrayAddress);
@@ -76,7 +85,7 @@ public class TruffleNFI_UpCallsRFFIImpl extends JavaUpCallsRFFIImpl {
     public Object RAW(Object x) {
         long arrayAddress = TruffleNFI_NativeArray.findArray(x);
         if (arrayAddress == 0) {
-            Object array = super.RAW(x);
+            Object array = x instanceof RRawVector ? ((RRawVector) x).getDataWithoutCopying() : super.RAW(x);
             arrayAddress = TruffleNFI_NativeArray.recordArray(x, array, SEXPTYPE.RAWSXP);
         } else {
             TruffleNFI_Call.returnArrayExisting(SEXPTYPE.RAWSXP, arrayAddress);
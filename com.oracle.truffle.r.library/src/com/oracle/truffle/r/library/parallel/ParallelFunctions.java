@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2016, 2016, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016, 2017, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -22,10 +22,17 @@
  */
 package com.oracle.truffle.r.library.parallel;
 
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.integerValue;
+
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
+import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
+import com.oracle.truffle.r.runtime.rng.lecuyer.LecuyerCMRG;
 
 /**
  * The .Call support for the parallel package.
@@ -37,4 +44,50 @@ public class ParallelFunctions {
             return RRuntime.asLogical(RContext.getInstance().getParent() != null);
         }
     }
+
+    /**
+     * Common code of {@code nextStream} and {@code nextSubStream}, the argument is a
+     * {@code .Random.seed} of the "L'Ecuyer-CMRG" generator (checked in the R code).
+     */
+    abstract static class LecuyerStreamNode extends RExternalBuiltinNode.Arg1 {
+
+        protected static void initCasts(Casts casts) {
+            casts.arg(0).defaultError(RError.Message.INVALID_VALUE, "seed").mustBe(integerValue()).asIntegerVector();
+        }
+
+        protected static int[] getSeed(RAbstractIntVector seed) {
+            if (seed.getLength() < 7) {
+                throw RError.error(RError.SHOW_CALLER, RError.Message.INVALID_VALUE, "seed");
+            }
+            int[] result = new int[7];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = seed.getDataAt(i);
+            }
+            return result;
+        }
+    }
+
+    public abstract static class NextStream extends LecuyerStreamNode {
+
+        static {
+            initCasts(new Casts(NextStream.class));
+        }
+
+        @Specialization
+        protected RIntVector nextStream(RAbstractIntVector seed) {
+            return RDataFactory.createIntVector(LecuyerCMRG.nextStream(getSeed(seed)), RDataFactory.COMPLETE_VECTOR);
+        }
+    }
+
+    public abstract static class NextSubStream extends LecuyerStreamNode {
+
+        static {
+            initCasts(new Casts(NextSubStream.class));
+        }
+
+        @Specialization
+        protected RIntVector nextSubStream(RAbstractIntVector seed) {
+            return RDataFactory.createIntVector(LecuyerCMRG.nextSubStream(getSeed(seed)), RDataFactory.COMPLETE_VECTOR);
+        }
+    }
 }
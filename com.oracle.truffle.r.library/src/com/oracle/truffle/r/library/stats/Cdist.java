@@ -17,6 +17,9 @@ import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.missingValue
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.instanceOf;
 import static com.oracle.truffle.r.runtime.nmath.MathConstants.DBL_MIN;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.object.DynamicObject;
@@ -25,6 +28,7 @@ import com.oracle.truffle.r.nodes.attributes.SetAttributeNode;
 import com.oracle.truffle.r.nodes.attributes.SpecialAttributesFunctions.GetDimAttributeNode;
 import com.oracle.truffle.r.nodes.attributes.SpecialAttributesFunctions.SetClassAttributeNode;
 import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
+import com.oracle.truffle.r.runtime.ParallelTasks;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
@@ -32,10 +36,9 @@ import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
-import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
-    private static final NACheck naCheck = NACheck.create();
+    private static final int TILE_SIZE = 64;
 
     @Child private GetFixedAttributeNode getNamesAttrNode = GetFixedAttributeNode.createNames();
 
@@ -55,11 +58,18 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                     @Cached("create()") GetDimAttributeNode getDimNode) {
         int nr = getDimNode.nrows(x);
         int nc = getDimNode.ncols(x);
-        int n = nr * (nr - 1) / 2; /* avoid int overflow for N ~ 50,000 */
+        int n = (int) ((long) nr * (nr - 1) / 2); /* avoid int overflow for N ~ 50,000 */
         double[] ans = new double[n];
         RDoubleVector xm = x.materialize();
         rdistance(xm.getDataWithoutCopying(), nr, nc, ans, false, methodObj, p);
-        RDoubleVector result = RDataFactory.createDoubleVector(ans, naCheck.neverSeenNA());
+        boolean complete = true;
+        for (int i = 0; i < ans.length; i++) {
+            if (RRuntime.isNA(ans[i])) {
+                complete = false;
+                break;
+            }
+        }
+        RDoubleVector result = RDataFactory.createDoubleVector(ans, complete);
         DynamicObject resultAttrs = result.initAttributes();
 
         RStringVector names = (RStringVector) getNamesAttrNode.execute(list);
@@ -93,30 +103,54 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
         return Method.values()[method - 1];
     }
 
+    /**
+     * Computes the lower triangle of the distance matrix (in the column-major order of the
+     * {@code dist} class). The observations are first copied into a row-major matrix, so that
+     * every distance is computed on two contiguous rows. The result is then computed in square
+     * tiles of {@link #TILE_SIZE} x {@link #TILE_SIZE} pairs to keep both sets of rows in the
+     * cache, and the columns of tiles are distributed between threads.
+     */
+    @TruffleBoundary
     private void rdistance(double[] x, int nr, int nc, double[] d, boolean diag, Method method, double p) {
-        int ij; /* can exceed 2^31 - 1, but Java can't handle that */
-        //
         if (method == Method.MINKOWSKI) {
             if (!RRuntime.isFinite(p) || p <= 0) {
                 throw error(RError.Message.GENERIC, "distance(): invalid p");
             }
         }
         int dc = diag ? 0 : 1; /* diag=1: we do the diagonal */
-        ij = 0;
-        naCheck.enable(true);
-        for (int j = 0; j <= nr; j++) {
-            for (int i = j + dc; i < nr; i++) {
-                double r = method.dist(x, nr, nc, i, j, p);
-                naCheck.check(r);
-                d[ij++] = r;
+        double[] rows = new double[nr * nc];
+        for (int j = 0; j < nc; j++) {
+            for (int i = 0; i < nr; i++) {
+                rows[i * nc + j] = x[j * nr + i];
+            }
+        }
+        AtomicInteger nonFinite = new AtomicInteger();
+        int tiles = (nr + TILE_SIZE - 1) / TILE_SIZE;
+        ParallelTasks.forEach(tiles, (long) d.length * nc, tileCol -> {
+            int jFrom = tileCol * TILE_SIZE;
+            int jTo = Math.min(nr, jFrom + TILE_SIZE);
+            for (int iFrom = jFrom; iFrom < nr; iFrom += TILE_SIZE) {
+                int iTo = Math.min(nr, iFrom + TILE_SIZE);
+                for (int j = jFrom; j < jTo; j++) {
+                    /* index of the pair (j + dc, j) */
+                    int ij = (int) ((long) j * (nr - dc) - (long) j * (j - 1) / 2);
+                    for (int i = Math.max(iFrom, j + dc); i < iTo; i++) {
+                        d[ij + i - j - dc] = method.dist(rows, nc, i * nc, j * nc, p, nonFinite);
+                    }
+                }
             }
+        });
+        // warnings beyond the limit of stored warnings would be dropped anyway
+        int warnings = Math.min(nonFinite.get(), 50);
+        for (int i = 0; i < warnings; i++) {
+            RError.warning(RError.SHOW_CALLER2, RError.Message.GENERIC, "treating non-finite values as NA");
         }
     }
 
     public enum Method {
         EUCLIDEAN {
             @Override
-            public double dist(double[] x, int nr, int nc, final int i1in, final int i2in, double p) {
+            public double dist(double[] x, int nc, final int i1in, final int i2in, double p, AtomicInteger nonFinite) {
                 int i1 = i1in;
                 int i2 = i2in;
                 double dev;
@@ -134,8 +168,8 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                             count++;
                         }
                     }
-                    i1 += nr;
-                    i2 += nr;
+                    i1++;
+                    i2++;
                 }
                 if (count == 0) {
                     return RRuntime.DOUBLE_NA;
@@ -149,7 +183,7 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
         },
         MAXIMUM {
             @Override
-            public double dist(double[] x, int nr, int nc, final int i1in, final int i2in, double p) {
+            public double dist(double[] x, int nc, final int i1in, final int i2in, double p, AtomicInteger nonFinite) {
                 int i1 = i1in;
                 int i2 = i2in;
                 double dev;
@@ -169,8 +203,8 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                             count++;
                         }
                     }
-                    i1 += nr;
-                    i2 += nr;
+                    i1++;
+                    i2++;
                 }
                 if (count == 0) {
                     return RRuntime.DOUBLE_NA;
@@ -181,7 +215,7 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
         },
         MANHATTAN {
             @Override
-            public double dist(double[] x, int nr, int nc, final int i1in, final int i2in, double p) {
+            public double dist(double[] x, int nc, final int i1in, final int i2in, double p, AtomicInteger nonFinite) {
                 int i1 = i1in;
                 int i2 = i2in;
                 double dev;
@@ -199,8 +233,8 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                             count++;
                         }
                     }
-                    i1 += nr;
-                    i2 += nr;
+                    i1++;
+                    i2++;
                 }
                 if (count == 0) {
                     return RRuntime.DOUBLE_NA;
@@ -214,7 +248,7 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
         },
         CANBERRA {
             @Override
-            public double dist(double[] x, int nr, int nc, final int i1in, final int i2in, double p) {
+            public double dist(double[] x, int nc, final int i1in, final int i2in, double p, AtomicInteger nonFinite) {
                 int i1 = i1in;
                 int i2 = i2in;
                 double dev;
@@ -240,8 +274,8 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                             }
                         }
                     }
-                    i1 += nr;
-                    i2 += nr;
+                    i1++;
+                    i2++;
                 }
                 if (count == 0) {
                     return RRuntime.DOUBLE_NA;
@@ -255,7 +289,7 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
         },
         BINARY {
             @Override
-            public double dist(double[] x, int nr, int nc, final int i1in, final int i2in, double p) {
+            public double dist(double[] x, int nc, final int i1in, final int i2in, double p, AtomicInteger nonFinite) {
                 int i1 = i1in;
                 int i2 = i2in;
                 int total;
@@ -270,7 +304,7 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                 for (j = 0; j < nc; j++) {
                     if (bothNonNAN(x[i1], x[i2])) {
                         if (!bothFinite(x[i1], x[i2])) {
-                            RError.warning(RError.SHOW_CALLER2, RError.Message.GENERIC, "treating non-finite values as NA");
+                            nonFinite.incrementAndGet();
                         } else {
                             if (x[i1] != 0. || x[i2] != 0.) {
                                 count++;
@@ -281,8 +315,8 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                             total++;
                         }
                     }
-                    i1 += nr;
-                    i2 += nr;
+                    i1++;
+                    i2++;
                 }
 
                 if (total == 0) {
@@ -297,7 +331,7 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
         },
         MINKOWSKI {
             @Override
-            public double dist(double[] x, int nr, int nc, final int i1in, final int i2in, double p) {
+            public double dist(double[] x, int nc, final int i1in, final int i2in, double p, AtomicInteger nonFinite) {
                 int i1 = i1in;
                 int i2 = i2in;
                 double dev;
@@ -315,8 +349,8 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
                             count++;
                         }
                     }
-                    i1 += nr;
-                    i2 += nr;
+                    i1++;
+                    i2++;
                 }
                 if (count == 0) {
                     return RRuntime.DOUBLE_NA;
@@ -328,6 +362,11 @@ public abstract class Cdist extends RExternalBuiltinNode.Arg4 {
             }
         };
 
-        public abstract double dist(double[] x, int nr, int nc, int i1, int i2, double p);
+        /**
+         * Computes the distance between two observations stored at offsets {@code i1} and
+         * {@code i2} of the row-major matrix {@code x} with {@code nc} columns. Since this may run
+         * on a worker thread, conditions that require a warning are counted in {@code nonFinite}.
+         */
+        public abstract double dist(double[] x, int nc, int i1, int i2, double p, AtomicInteger nonFinite);
     }
 }
@@ -11,34 +11,42 @@
  */
 package com.oracle.truffle.r.library.stats;
 
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.gte;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.lte;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.nullValue;
-import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.eq;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
 
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.profiles.BranchProfile;
-import com.oracle.truffle.api.profiles.ConditionProfile;
-import com.oracle.truffle.api.profiles.LoopConditionProfile;
 import com.oracle.truffle.r.nodes.attributes.SpecialAttributesFunctions.GetDimAttributeNode;
 import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
+import com.oracle.truffle.r.runtime.ParallelTasks;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.Message;
+import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
-import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
 import com.oracle.truffle.r.runtime.nodes.RBaseNode;
-import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 /*
  * Logic derived from GNU-R, library/stats/src/cov.c
+ *
+ * The entries of the result are computed by tasks that each handle TILE_SIZE columns of x
+ * (i.e., rows of the result), these tasks are distributed between threads for large inputs. Within
+ * a task, each column of y is combined with all columns of the tile before moving on, so that it is
+ * read from memory only once per tile. Column means and standard deviations are computed once
+ * up-front and shared by all tasks.
  */
 public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
 
+    private static final int TILE_SIZE = 16;
+
     private final boolean isCor;
 
     public Covcor(boolean isCor) {
@@ -49,7 +57,7 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
         Casts casts = new Casts(Covcor.class);
         casts.arg(0).mustNotBeMissing().mustBe(nullValue().not(), Message.IS_NULL, "x").asDoubleVector();
         casts.arg(1).mustNotBeMissing().asDoubleVector();
-        casts.arg(2).asIntegerVector().findFirst().mustBe(eq(4), Message.NYI, "covcor: other method than 4 not implemented.");
+        casts.arg(2).asIntegerVector().findFirst().mustBe(gte(1).and(lte(5)), Message.GENERIC, "invalid 'use' (computational method)");
         casts.arg(3).asLogicalVector().findFirst().map(toBoolean());
     }
 
@@ -63,23 +71,13 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
         return corcov(x.materialize(), y.materialize(), method, iskendall, this);
     }
 
-    private final NACheck check = NACheck.create();
-
-    private final ConditionProfile noNAXProfile = ConditionProfile.createBinaryProfile();
-    private final ConditionProfile noNAYProfile = ConditionProfile.createBinaryProfile();
-    private final ConditionProfile xCompleteProfile = ConditionProfile.createBinaryProfile();
-    private final ConditionProfile yCompleteProfile = ConditionProfile.createBinaryProfile();
-    private final ConditionProfile bothZeroProfile = ConditionProfile.createBinaryProfile();
-    private final BranchProfile tooManyMissing = BranchProfile.create();
-    private final BranchProfile naInRes = BranchProfile.create();
-    private final BranchProfile error = BranchProfile.create();
-    private final BranchProfile warning = BranchProfile.create();
-
     @Child private GetDimAttributeNode getDimsNode = GetDimAttributeNode.create();
 
-    private final LoopConditionProfile loopLength = LoopConditionProfile.createCountingProfile();
-
-    public RDoubleVector corcov(RDoubleVector x, RDoubleVector y, @SuppressWarnings("unused") int method, boolean iskendall, RBaseNode invokingNode) throws RError {
+    @TruffleBoundary
+    public RDoubleVector corcov(RDoubleVector x, RDoubleVector y, int method, boolean iskendall, RBaseNode invokingNode) throws RError {
+        if (iskendall) {
+            throw error(Message.NYI, "covcor: Kendall's tau");
+        }
 
         boolean ansmat = getDimsNode.isMatrix(x);
         int n;
@@ -97,67 +95,75 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
             ncy = ncx;
         } else if (getDimsNode.isMatrix(y)) {
             if (nrows(y) != n) {
-                error.enter();
                 throw error("incompatible dimensions");
             }
             ncy = ncols(y);
             ansmat = true;
         } else {
             if (y.getLength() != n) {
-                error.enter();
                 throw error("incompatible dimensions");
             }
             ncy = 1;
         }
 
-        // TODO adopt full use semantics
-
         /* "default: complete" (easier for -Wall) */
         boolean naFail = false;
         boolean everything = false;
         boolean emptyErr = true;
+        boolean pair = false;
 
-        // case 4: /* "everything": NAs are propagated */
-        everything = true;
-        emptyErr = false;
+        switch (method) {
+            case 1: /* use all : no NAs */
+                naFail = true;
+                break;
+            case 2: /* complete */
+                /* did na.omit in R */
+                if (x.getLength() == 0) {
+                    throw error("no complete element pairs");
+                }
+                break;
+            case 3: /* pairwise.complete */
+                pair = true;
+                break;
+            case 4: /* "everything": NAs are propagated */
+                everything = true;
+                emptyErr = false;
+                break;
+            case 5: /* "na.or.complete": NAs are propagated */
+                emptyErr = false;
+                break;
+            default:
+                throw RInternalError.shouldNotReachHere();
+        }
 
         if (emptyErr && x.getLength() == 0) {
-            error.enter();
             throw error("'x' is empty");
         }
 
+        double[] xData = x.getDataWithoutCopying();
+        double[] yData = y == null ? null : y.getDataWithoutCopying();
         double[] answerData = new double[ncx * ncy];
 
-        double[] xm = new double[ncx];
         boolean sd0;
-        if (y == null) {
-            if (everything) {
-                sd0 = covNA1(n, ncx, x, xm, answerData, isCor, iskendall);
-            } else {
-                RIntVector ind = RDataFactory.createIntVector(n);
-                complete1(n, ncx, x, ind, naFail);
-                sd0 = covComplete1(n, ncx, x, xm, ind, answerData, isCor, iskendall);
-            }
+        if (everything) {
+            sd0 = covNA(n, ncx, ncy, xData, yData, answerData, isCor);
+        } else if (pair) {
+            sd0 = covPairwise(n, ncx, ncy, xData, yData, answerData, isCor);
         } else {
-            double[] ym = new double[ncy];
-            if (everything) {
-                sd0 = covNA2(n, ncx, ncy, x, y, xm, ym, answerData, isCor, iskendall);
-            } else {
-                RIntVector ind = RDataFactory.createIntVector(n);
-                complete2(n, ncx, ncy, x, y, ind, naFail);
-                sd0 = covComplete2(n, ncx, ncy, x, y, xm, ym, ind, answerData, isCor, iskendall);
+            boolean[] ind = complete(n, ncx, ncy, xData, yData, naFail);
+            if (emptyErr && !anyComplete(ind)) {
+                throw error("no complete element pairs");
             }
+            sd0 = covComplete(n, ncx, ncy, xData, yData, ind, answerData, isCor);
         }
 
         if (sd0) { /* only in cor() */
-            warning.enter();
             RError.warning(invokingNode, RError.Message.SD_ZERO);
         }
 
         boolean seenNA = false;
         for (int i = 0; i < answerData.length; i++) {
             if (RRuntime.isNA(answerData[i])) {
-                naInRes.enter();
                 seenNA = true;
                 break;
             }
@@ -182,250 +188,77 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
         return getDimsNode.getDimensions(x)[0];
     }
 
-    private void complete1(int n, int ncx, RDoubleVector x, RIntVector ind, boolean naFail) {
-        int i;
-        int j;
-        for (i = 0; i < n; i++) {
-            ind.updateDataAt(i, 1, check);
-        }
-        for (j = 0; j < ncx; j++) {
-            // z = &x[j * n];
-            for (i = 0; i < n; i++) {
-                if (Double.isNaN(x.getDataAt(j * n + i))) {
-                    if (naFail) {
-                        throw error("missing observations in cov/cor");
-                    } else {
-                        ind.updateDataAt(i, 0, check);
-                    }
-                }
-            }
-        }
-    }
-
-    private void complete2(int n, int ncx, int ncy, RDoubleVector x, RDoubleVector y, RIntVector ind, boolean naFail) {
-        int i;
-        int j;
-        for (i = 0; i < n; i++) {
-            ind.updateDataAt(i, 1, check);
-        }
-        for (j = 0; j < ncx; j++) {
-            // z = &x[j * n];
-            for (i = 0; i < n; i++) {
-                if (Double.isNaN(x.getDataAt(j * n + i))) {
-                    if (naFail) {
-                        throw error("missing observations in cov/cor");
-                    } else {
-                        ind.updateDataAt(i, 0, check);
-                    }
-                }
-            }
-        }
-
-        for (j = 0; j < ncy; j++) {
-            // z = &y[j * n];
-            for (i = 0; i < n; i++) {
-                if (Double.isNaN(y.getDataAt(j * n + i))) {
-                    if (naFail) {
-                        throw error("missing observations in cov/cor");
-                    } else {
-                        ind.updateDataAt(i, 0, check);
-                    }
-                }
-            }
-        }
+    @FunctionalInterface
+    private interface PairFunction {
+        double compute(int i, int j);
     }
 
-    private static boolean covComplete1(int n, int ncx, RDoubleVector x, double[] xm, RIntVector indInput, double[] ans, boolean cor, boolean kendall) {
-        int n1 = -1;
-        int nobs;
-        boolean isSd0 = false;
-
-        /* total number of complete observations */
-        nobs = 0;
-        for (int k = 0; k < n; k++) {
-            if (indInput.getDataAt(k) != 0) {
-                nobs++;
-            }
-        }
-        if (nobs <= 1) { /* too many missing */
-            for (int i = 0; i < ans.length; i++) {
-                ans[i] = RRuntime.DOUBLE_NA;
-            }
-            return isSd0;
-        }
-
-        RIntVector ind = indInput;
-        if (nobs == ind.getLength()) {
-            // No values of ind are zeroed.
-            ind = null;
-        }
-
-        if (!kendall) {
-            mean(x, xm, ind, n, ncx, nobs);
-            n1 = nobs - 1;
-        }
-        for (int i = 0; i < ncx; i++) {
-            if (!kendall) {
-                double xxm = xm[i];
-                for (int j = 0; j <= i; j++) {
-                    double yym = xm[j];
-                    double sum = 0.0;
-                    for (int k = 0; k < n; k++) {
-                        if (ind == null || ind.getDataAt(k) != 0) {
-                            sum += (x.getDataAt(i * n + k) - xxm) * (x.getDataAt(j * n + k) - yym);
-                        }
-                    }
-                    double r = sum / n1;
+    /**
+     * Sets {@code ans[i + j * ncx]} to {@code f(i, j)} for all columns {@code i} of x and
+     * {@code j} of y. If there is no y, the result is symmetric and only the pairs with
+     * {@code j <= i} are computed.
+     */
+    private static void forEachPair(int n, int ncx, int ncy, boolean symmetric, double[] ans, PairFunction f) {
+        int tiles = (ncx + TILE_SIZE - 1) / TILE_SIZE;
+        long work = (long) n * ncx * (symmetric ? (ncy + 1) / 2 : ncy);
+        ParallelTasks.forEach(tiles, work, tile -> {
+            int iFrom = tile * TILE_SIZE;
+            int iTo = Math.min(ncx, iFrom + TILE_SIZE);
+            int jTo = symmetric ? iTo : ncy;
+            for (int j = 0; j < jTo; j++) {
+                for (int i = symmetric ? Math.max(iFrom, j) : iFrom; i < iTo; i++) {
+                    double r = f.compute(i, j);
                     ans[i + j * ncx] = r;
-                    ans[j + i * ncx] = r;
-                }
-            } else { /* Kendall's tau */
-                throw new UnsupportedOperationException("kendall's unsupported");
-            }
-        }
-
-        if (cor) {
-            for (int i = 0; i < ncx; i++) {
-                xm[i] = Math.sqrt(ans[i + i * ncx]);
-            }
-            for (int i = 0; i < ncx; i++) {
-                for (int j = 0; j < i; j++) {
-                    if (xm[i] == 0 || xm[j] == 0) {
-                        isSd0 = true;
-                        ans[i + j * ncx] = RRuntime.DOUBLE_NA;
-                        ans[j + i * ncx] = RRuntime.DOUBLE_NA;
-                    } else {
-                        double sum = ans[i + j * ncx] / (xm[i] * xm[j]);
-                        if (sum > 1.0) {
-                            sum = 1.0;
-                        }
-                        ans[i + j * ncx] = sum;
-                        ans[j + i * ncx] = sum;
+                    if (symmetric) {
+                        ans[j + i * ncx] = r;
                     }
                 }
-                ans[i + i * ncx] = 1.0;
             }
-        }
-
-        return isSd0;
+        });
     }
 
-    private static boolean covComplete2(int n, int ncx, int ncy, RDoubleVector x, RDoubleVector y, double[] xm, double[] ym, RIntVector indInput, double[] ans, boolean cor, boolean kendall) {
-        int n1 = -1;
-        int nobs;
-        boolean isSd0 = false;
-
-        /* total number of complete observations */
-        nobs = 0;
-        for (int k = 0; k < n; k++) {
-            if (indInput.getDataAt(k) != 0) {
-                nobs++;
-            }
-        }
-        if (nobs <= 1) { /* too many missing */
-            for (int i = 0; i < ans.length; i++) {
-                ans[i] = RRuntime.DOUBLE_NA;
-            }
-            return isSd0;
-        }
-
-        RIntVector ind = indInput;
-        if (nobs == ind.getLength()) {
-            // No values of ind are zeroed.
-            ind = null;
-        }
-
-        if (!kendall) {
-            mean(x, xm, ind, n, ncx, nobs);
-            mean(y, ym, ind, n, ncy, nobs);
-            n1 = nobs - 1;
-        }
-        for (int i = 0; i < ncx; i++) {
-            if (!kendall) {
-                double xxm = xm[i];
-                for (int j = 0; j < ncy; j++) {
-                    double yym = ym[j];
-                    double sum = 0;
-                    for (int k = 0; k < n; k++) {
-                        if (ind == null || ind.getDataAt(k) != 0) {
-                            sum += (x.getDataAt(i * n + k) - xxm) * (y.getDataAt(j * n + k) - yym);
-                        }
-                    }
-                    ans[i + j * ncx] = (sum / n1);
-                }
-            } else { /* Kendall's tau */
-                throw new UnsupportedOperationException("kendall's unsupported");
-            }
-        }
-
-        if (cor) {
-            covsdev(x, xm, ind, n, ncx, n1, kendall); /* -> xm[.] */
-            covsdev(y, ym, ind, n, ncy, n1, kendall); /* -> ym[.] */
+    private RuntimeException error(String message) {
+        throw error(Message.GENERIC, message);
+    }
 
-            for (int i = 0; i < ncx; i++) {
-                for (int j = 0; j < ncy; j++) {
-                    double divisor = (xm[i] * ym[j]);
-                    if (divisor == 0.0) {
-                        isSd0 = true;
-                        ans[i + j * ncx] = RRuntime.DOUBLE_NA;
-                    } else {
-                        double value = ans[i + j * ncx] / divisor;
-                        if (value > 1) {
-                            value = 1;
-                        }
-                        ans[i + j * ncx] = value;
-                    }
-                }
-            }
-        }
-        return isSd0;
+    /**
+     * Computes the indicator of complete observations, i.e., rows without NA in both x and y.
+     */
+    private boolean[] complete(int n, int ncx, int ncy, double[] x, double[] y, boolean naFail) {
+        boolean[] ind = new boolean[n];
+        Arrays.fill(ind, true);
+        markIncomplete(n, ncx, x, ind, naFail);
+        if (y != null) {
+            markIncomplete(n, ncy, y, ind, naFail);
+        }
+        return ind;
     }
 
-    private static void covsdev(RDoubleVector vector, double[] vectorM, RIntVector ind, int n, int len, int n1, boolean kendall) {
-        for (int i = 0; i < len; i++) {
-            double sum = 0;
-            if (!kendall) {
-                double xxm = vectorM[i];
-                for (int k = 0; k < n; k++) {
-                    if (ind == null || ind.getDataAt(k) != 0) {
-                        double value = vector.getDataAt(i * n + k);
-                        sum += (value - xxm) * (value - xxm);
-                    }
-                }
-                sum /= n1;
-            } else { /* Kendall's tau */
-                throw new UnsupportedOperationException("kendall's unsupported");
+    private static boolean anyComplete(boolean[] ind) {
+        for (boolean complete : ind) {
+            if (complete) {
+                return true;
             }
-            vectorM[i] = Math.sqrt(sum);
         }
+        return false;
     }
 
-    private static void mean(RDoubleVector vector, double[] vectorM, RIntVector ind, int n, int len, int nobs) {
-        /* variable means */
-        for (int i = 0; i < len; i++) {
-            double sum = 0.0;
-            for (int k = 0; k < n; k++) {
-                if (ind == null || ind.getDataAt(k) != 0) {
-                    sum += vector.getDataAt(i * n + k);
-                }
-            }
-            double tmp = sum / nobs;
-            if (!Double.isInfinite(tmp)) {
-                sum = 0.0;
-                for (int k = 0; k < n; k++) {
-                    if (ind == null || ind.getDataAt(k) != 0) {
-                        sum += (vector.getDataAt(i * n + k) - tmp);
+    private void markIncomplete(int n, int nc, double[] z, boolean[] ind, boolean naFail) {
+        for (int j = 0; j < nc; j++) {
+            for (int i = 0; i < n; i++) {
+                if (Double.isNaN(z[j * n + i])) {
+                    if (naFail) {
+                        throw error("missing observations in cov/cor");
+                    } else {
+                        ind[i] = false;
                     }
                 }
-                tmp = tmp + sum / nobs;
             }
-            vectorM[i] = tmp;
         }
     }
 
-    private static boolean[] findNAs(int n, int nc, RDoubleVector v) {
+    private static boolean[] findNAs(int n, int nc, double[] data) {
         boolean[] hasNA = new boolean[nc];
-        double[] data = v.getDataWithoutCopying();
         for (int j = 0; j < nc; j++) {
             for (int i = 0; i < n; i++) {
                 if (Double.isNaN(data[j * n + i])) {
@@ -437,320 +270,277 @@ public abstract class Covcor extends RExternalBuiltinNode.Arg4 {
         return hasNA;
     }
 
-    private boolean covNA1(int n, int ncx, RDoubleVector x, double[] xm, double[] ans, boolean cor, boolean iskendall) {
-        double sum;
-        double xxm;
-        double yym;
-        int n1 = -1;
-        boolean sd0 = false;
-
-        double[] xData = x.getDataWithoutCopying();
-        boolean[] hasNAx = findNAs(n, ncx, x);
-
-        if (n <= 1) { /* too many missing */
-            tooManyMissing.enter();
-            Arrays.fill(ans, RRuntime.DOUBLE_NA);
-            return sd0;
-        }
-
-        if (!iskendall) {
-            if (xCompleteProfile.profile(x.isComplete())) {
-                meanNoNA(n, ncx, xData, xm, hasNAx);
-            } else {
-                mean(n, ncx, xData, xm, hasNAx);
-            }
-            n1 = n - 1;
-        }
-
-        for (int i = 0; i < ncx; i++) {
-            double[] temp = new double[n];
-            if (noNAXProfile.profile(!hasNAx[i])) {
-                if (!iskendall) {
-                    xxm = xm[i];
-                    for (int j = 0; j <= i; j++) {
-                        double r;
-                        if (noNAXProfile.profile(!hasNAx[j])) {
-                            yym = xm[j];
-                            if (checkNAs(xxm, yym)) {
-                                r = RRuntime.DOUBLE_NA;
-                            } else {
-                                sum = 0.0;
-                                loopLength.profileCounted(n);
-                                for (int k = 0; loopLength.inject(k < n); k++) {
-                                    double u = xData[i * n + k];
-                                    double v = xData[j * n + k];
-                                    temp[k] = (u - xxm) * (v - yym);
-                                }
-                                for (int k = 0; loopLength.inject(k < n); k++) {
-                                    sum += temp[k];
-                                }
-                                r = checkNAs(sum) ? RRuntime.DOUBLE_NA : sum / n1;
-                            }
-                        } else {
-                            r = RRuntime.DOUBLE_NA;
-                        }
-                        ans[j + i * ncx] = r;
-                        ans[i + j * ncx] = r;
-                    }
-                } else { /* Kendall's tau */
-                    throw new UnsupportedOperationException("kendall's unsupported");
-                }
-            } else {
-                for (int j = 0; j <= i; j++) {
-                    ans[j + i * ncx] = RRuntime.DOUBLE_NA;
-                    ans[i + j * ncx] = RRuntime.DOUBLE_NA;
-                }
-            }
-        }
-
-        if (cor) {
-            for (int i = 0; i < ncx; i++) {
-                if (noNAXProfile.profile(!hasNAx[i])) {
-                    double u = ans[i + i * ncx];
-                    xm[i] = checkNAs(u) ? RRuntime.DOUBLE_NA : Math.sqrt(u);
-                }
-            }
-            for (int i = 0; i < ncx; i++) {
-                if (noNAXProfile.profile(!hasNAx[i])) {
-                    for (int j = 0; j < i; j++) {
-                        if (bothZeroProfile.profile(xm[i] == 0 || xm[j] == 0)) {
-                            sd0 = true;
-                            ans[j + i * ncx] = RRuntime.DOUBLE_NA;
-                            ans[i + j * ncx] = RRuntime.DOUBLE_NA;
-                        } else {
-                            double u = ans[i + j * ncx];
-                            double v = xm[i];
-                            double w = xm[j];
-                            sum = checkNAs(u, v, w) ? RRuntime.DOUBLE_NA : u / (v * w);
-                            if (sum > 1.0) {
-                                sum = 1.0;
-                            }
-                            ans[j + i * ncx] = sum;
-                            ans[i + j * ncx] = sum;
-                        }
-                    }
-                }
-                ans[i + i * ncx] = 1.0;
-            }
-        }
-
-        return sd0;
-    }
-
-    private static void meanNoNA(int n, int ncx, double[] x, double[] xm, boolean[] hasNA) {
-        double sum;
-        double tmp;
-        /* variable means (has_na) */
-        for (int i = 0; i < ncx; i++) {
-            if (hasNA[i]) {
+    /**
+     * Computes the column means over the observations selected by {@code ind} ({@code null} for
+     * all), columns flagged in {@code hasNA} get {@code NA}.
+     */
+    private static double[] mean(int n, int nc, double[] x, boolean[] hasNA, boolean[] ind, int nobs) {
+        double[] xm = new double[nc];
+        for (int i = 0; i < nc; i++) {
+            double tmp;
+            if (hasNA != null && hasNA[i]) {
                 tmp = RRuntime.DOUBLE_NA;
             } else {
-                sum = 0.0;
+                double sum = 0.0;
                 for (int k = 0; k < n; k++) {
-                    double u = x[i * n + k];
-                    sum += u;
+                    if (ind == null || ind[k]) {
+                        sum += x[i * n + k];
+                    }
                 }
-                tmp = sum / n;
+                tmp = sum / nobs;
                 if (RRuntime.isFinite(tmp)) {
                     sum = 0.0;
                     for (int k = 0; k < n; k++) {
-                        double u = x[i * n + k];
-                        sum += u - tmp;
+                        if (ind == null || ind[k]) {
+                            sum += x[i * n + k] - tmp;
+                        }
                     }
-                    tmp += sum / n;
+                    tmp += sum / nobs;
                 }
             }
             xm[i] = tmp;
         }
+        return xm;
     }
 
-    private void mean(int n, int ncx, double[] x, double[] xm, boolean[] hasNA) {
-        double sum;
-        double tmp;
-        /* variable means (has_na) */
-        for (int i = 0; i < ncx; i++) {
-            if (hasNA[i]) {
-                tmp = RRuntime.DOUBLE_NA;
+    /**
+     * Computes the column standard deviations (with denominator {@code n1}) over the observations
+     * selected by {@code ind}, columns flagged in {@code hasNA} are skipped.
+     */
+    private static double[] sdev(int n, int n1, int nc, double[] x, double[] xm, boolean[] hasNA, boolean[] ind) {
+        double[] sd = new double[nc];
+        for (int i = 0; i < nc; i++) {
+            if (hasNA != null && hasNA[i]) {
+                continue;
+            }
+            double xxm = xm[i];
+            double sum;
+            if (RRuntime.isNA(xxm)) {
+                sum = RRuntime.DOUBLE_NA;
             } else {
                 sum = 0.0;
                 for (int k = 0; k < n; k++) {
-                    double u = x[i * n + k];
-                    if (checkNAs(u)) {
-                        sum = RRuntime.DOUBLE_NA;
-                        break;
-                    }
-                    sum += u;
-                }
-                tmp = checkNAs(sum) ? RRuntime.DOUBLE_NA : sum / n;
-                if (RRuntime.isFinite(tmp)) {
-                    sum = 0.0;
-                    for (int k = 0; k < n; k++) {
-                        double u = x[i * n + k];
-                        if (checkNAs(u)) {
-                            sum = RRuntime.DOUBLE_NA;
-                            break;
-                        }
-                        sum += u - tmp;
-                    }
-                    if (checkNAs(sum)) {
-                        tmp = RRuntime.DOUBLE_NA;
-                    } else {
-                        tmp += sum / n;
+                    if (ind == null || ind[k]) {
+                        double u = x[i * n + k] - xxm;
+                        sum += u * u;
                     }
                 }
+                sum /= n1;
             }
-            xm[i] = tmp;
+            sd[i] = RRuntime.isNA(sum) ? RRuntime.DOUBLE_NA : Math.sqrt(sum);
         }
+        return sd;
     }
 
-    private boolean covNA2(int n, int ncx, int ncy, RDoubleVector x, RDoubleVector y, double[] xm, double[] ym, double[] ans, boolean cor, boolean iskendall) {
-        double sum;
-        double xxm;
-        double yym;
-        int n1 = -1;
-        boolean sd0 = false;
-
-        double[] xData = x.getDataWithoutCopying();
-        double[] yData = y.getDataWithoutCopying();
-        boolean[] hasNAx = findNAs(n, ncx, x);
-        boolean[] hasNAy = findNAs(n, ncy, y);
-
-        if (n <= 1) { /* too many missing */
-            tooManyMissing.enter();
-            for (int i = 0; i < ncx; i++) {
-                for (int j = 0; j < ncy; j++) {
-                    ans[i + j * ncx] = RRuntime.DOUBLE_NA;
+    private static double crossSum(int n, double[] x, int i, double xxm, double[] y, int j, double yym, boolean[] ind) {
+        double sum = 0.0;
+        int xOffset = i * n;
+        int yOffset = j * n;
+        if (ind == null) {
+            for (int k = 0; k < n; k++) {
+                sum += (x[xOffset + k] - xxm) * (y[yOffset + k] - yym);
+            }
+        } else {
+            for (int k = 0; k < n; k++) {
+                if (ind[k]) {
+                    sum += (x[xOffset + k] - xxm) * (y[yOffset + k] - yym);
                 }
             }
-            return sd0;
         }
+        return sum;
+    }
 
-        if (!iskendall) {
-            if (xCompleteProfile.profile(x.isComplete())) {
-                meanNoNA(n, ncx, xData, xm, hasNAx);
-            } else {
-                mean(n, ncx, xData, xm, hasNAx);
-            }
-            if (yCompleteProfile.profile(y.isComplete())) {
-                meanNoNA(n, ncy, yData, ym, hasNAy);
-            } else {
-                mean(n, ncy, yData, ym, hasNAy);
+    /**
+     * Turns the covariances in the symmetric {@code ans} into correlations, using the square roots
+     * of the diagonal as standard deviations. Returns {@code true} if any of them was zero.
+     */
+    private static boolean covToCor1(int ncx, double[] ans, boolean[] hasNA) {
+        boolean sd0 = false;
+        double[] sd = new double[ncx];
+        for (int i = 0; i < ncx; i++) {
+            if (hasNA == null || !hasNA[i]) {
+                double u = ans[i + i * ncx];
+                sd[i] = RRuntime.isNA(u) ? RRuntime.DOUBLE_NA : Math.sqrt(u);
             }
-            n1 = n - 1;
         }
-
         for (int i = 0; i < ncx; i++) {
-            if (noNAXProfile.profile(!hasNAx[i])) {
-                if (!iskendall) {
-                    xxm = xm[i];
-                    for (int j = 0; j < ncy; j++) {
-                        double r;
-                        if (noNAYProfile.profile(!hasNAy[j])) {
-                            yym = ym[j];
-                            if (checkNAs(xxm, yym)) {
-                                r = RRuntime.DOUBLE_NA;
-                            } else {
-                                sum = 0.0;
-                                for (int k = 0; k < n; k++) {
-                                    double u = xData[i * n + k];
-                                    double v = yData[j * n + k];
-                                    sum += (u - xxm) * (v - yym);
-                                }
-                                r = checkNAs(sum) ? RRuntime.DOUBLE_NA : sum / n1;
-                            }
-                        } else {
-                            r = RRuntime.DOUBLE_NA;
+            if (hasNA == null || !hasNA[i]) {
+                for (int j = 0; j < i; j++) {
+                    double r;
+                    if (sd[i] == 0 || sd[j] == 0) {
+                        sd0 = true;
+                        r = RRuntime.DOUBLE_NA;
+                    } else {
+                        double u = ans[i + j * ncx];
+                        r = RRuntime.isNA(u) || RRuntime.isNA(sd[i]) || RRuntime.isNA(sd[j]) ? RRuntime.DOUBLE_NA : u / (sd[i] * sd[j]);
+                        if (r > 1.0) {
+                            r = 1.0;
                         }
-                        ans[i + j * ncx] = r;
                     }
-                } else { /* Kendall's tau */
-                    throw new UnsupportedOperationException("kendall's unsupported");
-                }
-            } else {
-                for (int j = 0; j < ncy; j++) {
-                    ans[i + j * ncx] = RRuntime.DOUBLE_NA;
+                    ans[j + i * ncx] = r;
+                    ans[i + j * ncx] = r;
                 }
             }
+            ans[i + i * ncx] = 1.0;
         }
+        return sd0;
+    }
 
-        if (cor) {
-            covsdev(n, n1, ncx, x, hasNAx, xm, iskendall);
-            covsdev(n, n1, ncy, y, hasNAy, ym, iskendall);
-
-            for (int i = 0; i < ncx; i++) {
-                if (noNAXProfile.profile(!hasNAx[i])) {
-                    for (int j = 0; j < ncy; j++) {
-                        if (noNAYProfile.profile(!hasNAy[j])) {
-                            if (xm[i] == 0.0 || ym[j] == 0.0) {
-                                sd0 = true;
+    /**
+     * Turns the covariances in {@code ans} into correlations, given the standard deviations of
+     * the columns of x and y. Returns {@code true} if any of them was zero.
+     */
+    private static boolean covToCor2(int ncx, int ncy, double[] ans, double[] xsd, double[] ysd, boolean[] hasNAx, boolean[] hasNAy) {
+        boolean sd0 = false;
+        for (int i = 0; i < ncx; i++) {
+            if (hasNAx == null || !hasNAx[i]) {
+                for (int j = 0; j < ncy; j++) {
+                    if (hasNAy == null || !hasNAy[j]) {
+                        if (xsd[i] == 0.0 || ysd[j] == 0.0) {
+                            sd0 = true;
+                            ans[i + j * ncx] = RRuntime.DOUBLE_NA;
+                        } else {
+                            if (RRuntime.isNA(xsd[i]) || RRuntime.isNA(ysd[j])) {
                                 ans[i + j * ncx] = RRuntime.DOUBLE_NA;
                             } else {
-                                double u = xm[i];
-                                double v = ym[j];
-                                if (checkNAs(u, v)) {
-                                    ans[i + j * ncx] = RRuntime.DOUBLE_NA;
-                                } else {
-                                    ans[i + j * ncx] /= u * v;
-                                }
-                                if (ans[i + j * ncx] > 1.0) {
-                                    ans[i + j * ncx] = 1.0;
-                                }
+                                ans[i + j * ncx] /= xsd[i] * ysd[j];
+                            }
+                            if (ans[i + j * ncx] > 1.0) {
+                                ans[i + j * ncx] = 1.0;
                             }
                         }
                     }
                 }
             }
         }
-
         return sd0;
     }
 
-    private void covsdev(int n, int n1, int ncx, RDoubleVector x, boolean[] hasNA, double[] xm, boolean iskendall) {
-        for (int i = 0; i < ncx; i++) {
-            if (!hasNA[i]) { /* Var(X[j]) */
-                double sum = 0.0;
-                if (!iskendall) {
-                    double xxm = xm[i];
-                    if (checkNAs(xxm)) {
-                        sum = RRuntime.DOUBLE_NA;
-                    } else {
-                        for (int k = 0; k < n; k++) {
-                            double u = x.getDataAt(i * n + k);
-                            double v = x.getDataAt(i * n + k);
-                            if (checkNAs(u, v)) {
-                                sum = RRuntime.DOUBLE_NA;
-                                break;
-                            }
-                            sum += (u - xxm) * (v - xxm);
-                        }
-                    }
-                    if (!checkNAs(sum)) {
-                        sum /= n1;
-                    }
-                } else { /* Kendall's tau */
-                    throw new UnsupportedOperationException("kendall's unsupported");
-                }
-                xm[i] = checkNAs(sum) ? RRuntime.DOUBLE_NA : Math.sqrt(sum);
-            }
+    /**
+     * "everything": columns containing NAs produce NA in their rows and columns of the result.
+     */
+    private static boolean covNA(int n, int ncx, int ncy, double[] x, double[] y, double[] ans, boolean cor) {
+        if (n <= 1) { /* too many missing */
+            Arrays.fill(ans, RRuntime.DOUBLE_NA);
+            return false;
+        }
+        boolean[] hasNAx = findNAs(n, ncx, x);
+        double[] xm = mean(n, ncx, x, hasNAx, null, n);
+        boolean[] hasNAy = y == null ? hasNAx : findNAs(n, ncy, y);
+        double[] ym = y == null ? xm : mean(n, ncy, y, hasNAy, null, n);
+        double[] yData = y == null ? x : y;
+        int n1 = n - 1;
+
+        forEachPair(n, ncx, ncy, y == null, ans, (i, j) -> {
+            if (hasNAx[i] || hasNAy[j] || RRuntime.isNA(xm[i]) || RRuntime.isNA(ym[j])) {
+                return RRuntime.DOUBLE_NA;
+            }
+            double sum = crossSum(n, x, i, xm[i], yData, j, ym[j], null);
+            return RRuntime.isNA(sum) ? RRuntime.DOUBLE_NA : sum / n1;
+        });
+
+        if (!cor) {
+            return false;
+        } else if (y == null) {
+            return covToCor1(ncx, ans, hasNAx);
+        } else {
+            return covToCor2(ncx, ncy, ans, sdev(n, n1, ncx, x, xm, hasNAx, null), sdev(n, n1, ncy, y, ym, hasNAy, null), hasNAx, hasNAy);
         }
     }
 
-    private RuntimeException error(String message) {
-        throw error(Message.GENERIC, message);
-    }
-
-    private boolean checkNAs(double... xs) {
-        for (double x : xs) {
-            check.enable(x);
-            if (check.check(x)) {
-                return true;
+    /**
+     * "complete.obs", "na.or.complete" and "all.obs": only the observations complete in all
+     * columns (as given by {@code indInput}) are used.
+     */
+    private static boolean covComplete(int n, int ncx, int ncy, double[] x, double[] y, boolean[] indInput, double[] ans, boolean cor) {
+        /* total number of complete observations */
+        int nobs = 0;
+        for (int k = 0; k < n; k++) {
+            if (indInput[k]) {
+                nobs++;
             }
         }
-        return false;
+        if (nobs <= 1) { /* too many missing */
+            Arrays.fill(ans, RRuntime.DOUBLE_NA);
+            return false;
+        }
+        // no need to check the observations if all of them are complete
+        boolean[] ind = nobs == n ? null : indInput;
+
+        double[] xm = mean(n, ncx, x, null, ind, nobs);
+        double[] ym = y == null ? xm : mean(n, ncy, y, null, ind, nobs);
+        double[] yData = y == null ? x : y;
+        int n1 = nobs - 1;
+
+        forEachPair(n, ncx, ncy, y == null, ans, (i, j) -> crossSum(n, x, i, xm[i], yData, j, ym[j], ind) / n1);
+
+        if (!cor) {
+            return false;
+        } else if (y == null) {
+            return covToCor1(ncx, ans, null);
+        } else {
+            return covToCor2(ncx, ncy, ans, sdev(n, n1, ncx, x, xm, null, ind), sdev(n, n1, ncy, y, ym, null, ind), null, null);
+        }
     }
 
-    private boolean checkNAs(double x) {
-        check.enable(x);
-        return check.check(x);
+    /**
+     * "pairwise.complete.obs": every pair of columns uses the observations complete in these two
+     * columns, so means and standard deviations have to be computed for each pair separately.
+     */
+    private static boolean covPairwise(int n, int ncx, int ncy, double[] x, double[] y, double[] ans, boolean cor) {
+        AtomicBoolean sd0 = new AtomicBoolean();
+        double[] yData = y == null ? x : y;
+        forEachPair(n, ncx, ncy, y == null, ans, (i, j) -> {
+            int xOffset = i * n;
+            int yOffset = j * n;
+            double xmean = 0;
+            double ymean = 0;
+            int nobs = 0;
+            for (int k = 0; k < n; k++) {
+                double u = x[xOffset + k];
+                double v = yData[yOffset + k];
+                if (!(Double.isNaN(u) || Double.isNaN(v))) {
+                    nobs++;
+                    xmean += u;
+                    ymean += v;
+                }
+            }
+            if (nobs < 2) {
+                return RRuntime.DOUBLE_NA;
+            }
+            xmean /= nobs;
+            ymean /= nobs;
+            int n1 = nobs - 1;
+            double xsd = 0;
+            double ysd = 0;
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                double u = x[xOffset + k];
+                double v = yData[yOffset + k];
+                if (!(Double.isNaN(u) || Double.isNaN(v))) {
+                    double xd = u - xmean;
+                    double yd = v - ymean;
+                    sum += xd * yd;
+                    if (cor) {
+                        xsd += xd * xd;
+                        ysd += yd * yd;
+                    }
+                }
+            }
+            if (cor) {
+                if (xsd == 0 || ysd == 0) {
+                    sd0.set(true);
+                    return RRuntime.DOUBLE_NA;
+                }
+                xsd /= n1;
+                ysd /= n1;
+                sum /= n1;
+                sum /= Math.sqrt(xsd) * Math.sqrt(ysd);
+                return sum > 1 ? 1 : sum;
+            } else {
+                return sum / n1;
+            }
+        });
+        return sd0.get();
     }
 }
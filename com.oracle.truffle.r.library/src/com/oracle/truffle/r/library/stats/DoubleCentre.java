@@ -55,6 +55,7 @@ public abstract class DoubleCentre extends RExternalBuiltinNode.Arg1 {
                 a[i + j * n] -= sum;
             }
         }
+        aVec.elementsModified();
         return aVec;
     }
 }
@@ -32,6 +32,7 @@ import com.oracle.truffle.r.nodes.function.opt.UpdateShareableChildValueNode;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.Message;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
@@ -72,8 +73,10 @@ public abstract class RMultinomNode extends RExternalBuiltinNode.Arg3 {
                     @Cached("createNames()") GetFixedAttributeNode getNamesNode,
                     @Cached("createDimNames()") SetFixedAttributeNode setDimNamesNode) {
         RAbstractDoubleVector nonSharedProbs = (RAbstractDoubleVector) reuseNonSharedNode.execute(probsVec);
-        double[] probs = nonSharedProbs.materialize().getDataWithoutCopying();
+        RDoubleVector probsVector = nonSharedProbs.materialize();
+        double[] probs = probsVector.getDataWithoutCopying();
         fixupProb(probs);
+        probsVector.elementsModified();
 
         RRNG.getRNGState();
         RandomNumberProvider rand = new RandomNumberProvider(randGeneratorClassProfile.profile(RRNG.currentGenerator()), RRNG.currentNormKind());
@@ -26,6 +26,7 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.LoopConditionProfile;
 import com.oracle.truffle.r.library.stats.RandFunctionsNodesFactory.ConvertToLengthNodeGen;
 import com.oracle.truffle.r.library.stats.RandFunctionsNodesFactory.RandFunction1NodeGen;
@@ -97,12 +98,20 @@ public final class RandFunctionsNodes {
     /**
      * Executor node handles the validation, the loop over all vector elements, the creation of the
      * result vector, and similar. The random function is provided as implementation of
-     * {@link RandFunction3_Double}.
+     * {@link RandFunction3_Double}. If all the parameters are scalars, which is the common case,
+     * the values are generated by {@link RandFunction3_Double#executeBulk}.
      */
     protected abstract static class RandFunctionExecutorBase extends RBaseNode {
+        /**
+         * Number of values generated at once by {@link RandFunction3_Double#executeBulk} for
+         * integer results.
+         */
+        static final int BULK_CHUNK = 4096;
+
         static final class RandGenerationNodeData {
             final BranchProfile nanResult = BranchProfile.create();
             final BranchProfile nan = BranchProfile.create();
+            final ConditionProfile scalarParameters = ConditionProfile.createBinaryProfile();
             final VectorLengthProfile resultVectorLengthProfile = VectorLengthProfile.create();
             final LoopConditionProfile loopConditionProfile = LoopConditionProfile.createCountingProfile();
 
@@ -182,6 +191,33 @@ public final class RandFunctionsNodes {
 
             boolean nans = false;
             int[] result = new int[length];
+            if (nodeData.scalarParameters.profile(aLength == 1 && bLength == 1 && cLength == 1)) {
+                double aValue = a.getDataAt(0);
+                double bValue = b.getDataAt(0);
+                double cValue = c.getDataAt(0);
+                double[] values = new double[Math.min(length, BULK_CHUNK)];
+                for (int start = 0; start < length; start += BULK_CHUNK) {
+                    if (length - start < values.length) {
+                        values = new double[length - start];
+                    }
+                    function.executeBulk(aValue, bValue, cValue, randProvider, values);
+                    for (int i = 0; i < values.length; i++) {
+                        double value = values[i];
+                        if (Double.isNaN(value) || value <= Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                            nodeData.nan.enter();
+                            nans = true;
+                            result[start + i] = RRuntime.INT_NA;
+                        } else {
+                            result[start + i] = (int) value;
+                        }
+                    }
+                }
+                putRNGState();
+                if (nans) {
+                    showNAWarning();
+                }
+                return RDataFactory.createIntVector(result, !nans);
+            }
             nodeData.loopConditionProfile.profileCounted(length);
             for (int i = 0; nodeData.loopConditionProfile.inject(i < length); i++) {
                 double aValue = a.getDataAt(i % aLength);
@@ -228,6 +264,21 @@ public final class RandFunctionsNodes {
             boolean nans = false;
             double[] result;
             result = new double[length];
+            if (nodeData.scalarParameters.profile(aLength == 1 && bLength == 1 && cLength == 1)) {
+                function.executeBulk(a.getDataAt(0), b.getDataAt(0), c.getDataAt(0), randProvider, result);
+                for (int i = 0; i < length; i++) {
+                    if (Double.isNaN(result[i])) {
+                        nodeData.nan.enter();
+                        nans = true;
+                        break;
+                    }
+                }
+                putRNGState();
+                if (nans) {
+                    showNAWarning();
+                }
+                return RDataFactory.createDoubleVector(result, !nans);
+            }
             nodeData.loopConditionProfile.profileCounted(length);
             for (int i = 0; nodeData.loopConditionProfile.inject(i < length); i++) {
                 double aValue = a.getDataAt(i % aLength);
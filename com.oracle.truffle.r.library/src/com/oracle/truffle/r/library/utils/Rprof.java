@@ -32,28 +32,16 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.function.Function;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.frame.Frame;
-import com.oracle.truffle.api.frame.FrameInstance.FrameAccess;
-import com.oracle.truffle.api.frame.VirtualFrame;
-import com.oracle.truffle.api.instrumentation.EventContext;
-import com.oracle.truffle.api.instrumentation.ExecutionEventListener;
-import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
-import com.oracle.truffle.api.instrumentation.StandardTags;
-import com.oracle.truffle.api.nodes.RootNode;
-import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
 import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
-import com.oracle.truffle.r.nodes.function.FunctionDefinitionNode;
-import com.oracle.truffle.r.nodes.instrumentation.RInstrumentation;
-import com.oracle.truffle.r.runtime.RArguments;
 import com.oracle.truffle.r.runtime.RCaller;
 import com.oracle.truffle.r.runtime.RError;
+import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RSource;
-import com.oracle.truffle.r.runtime.Utils;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.MemoryCopyTracer;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
@@ -62,8 +50,9 @@ import com.oracle.truffle.r.runtime.data.RObjectSize;
 import com.oracle.truffle.r.runtime.data.RTypedValue;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.instrument.InstrumentationState;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxCall;
 import com.oracle.truffle.r.runtime.nodes.RSyntaxElement;
-import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxLookup;
 
 /**
  * Implements the {@code Rprof} external.
@@ -77,9 +66,15 @@ import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
  * #File N: path
  * </pre>
  *
- * and then the {@code N} is used in line number references of the form {@code N#L},which precede
- * the function name.
+ * and then the {@code N} is used in line number references of the form {@code N#L}, which follow
+ * the function name and denote the location of the call, i.e., a line of the next function.
  *
+ * Sampling does not instrument the executed code: every function call publishes its
+ * {@link RCaller} in the {@link InstrumentationState} of the context (which costs a couple of
+ * stores per call, and nothing at all while {@code Rprof} is not running) and a separate thread
+ * walks the chain of callers at each interval. Like in GNU R, a function is named as in the call
+ * and builtins do not appear in the stacks, but unlike GNU R, time is measured in elapsed rather
+ * than CPU time and the current line of the innermost function is not known.
  */
 public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryCopyTracer.Listener {
 
@@ -119,11 +114,11 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
                     MemoryCopyTracer.setTracingState(true);
                 }
                 // interval is in seconds, we convert to millis
-                long intervalInMillis = (long) (1E3 * intervalD);
-                StatementListener statementListener = new StatementListener();
-                ProfileThread profileThread = new ProfileThread(intervalInMillis, statementListener);
+                long intervalInMillis = Math.max(1, (long) (1E3 * intervalD));
+                ProfileThread profileThread = new ProfileThread(intervalInMillis, RContext.getInstance().stateInstrumentation, profState);
                 profileThread.setDaemon(true);
-                profState.initialize(out, profileThread, statementListener, intervalInMillis, lineProfiling, memProfiling);
+                profState.initialize(out, profileThread, intervalInMillis, lineProfiling, memProfiling);
+                RContext.getInstance().stateInstrumentation.enableCallSampling();
                 profileThread.start();
             } catch (IOException ex) {
                 throw error(RError.Message.GENERIC, String.format("Rprof: cannot open profile file '%s'", filename));
@@ -143,12 +138,12 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
             long size = RObjectSize.getObjectSize(data, Rprofmem.myIgnoreObjectHandler);
             if (data instanceof RAbstractVector) {
                 if (size >= Rprofmem.LARGE_VECTOR) {
-                    profState.memoryQuad.largeV += size;
+                    profState.memoryQuad.addLargeV(size);
                 } else {
-                    profState.memoryQuad.smallV += size;
+                    profState.memoryQuad.addSmallV(size);
                 }
             } else {
-                profState.memoryQuad.nodes += size;
+                profState.memoryQuad.addNodes(size);
             }
         }
     };
@@ -157,7 +152,7 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
     @TruffleBoundary
     public void reportCopying(RAbstractVector source, RAbstractVector dest) {
         RprofState profState = RprofState.get();
-        profState.memoryQuad.copied += RObjectSize.getObjectSize(source, Rprofmem.myIgnoreObjectHandler);
+        profState.memoryQuad.addCopied(RObjectSize.getObjectSize(source, Rprofmem.myIgnoreObjectHandler));
     }
 
     private static void endProfiling() {
@@ -168,95 +163,74 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
     }
 
     private static String getPath(RSyntaxElement node) {
-        Source source = node.getSourceSection().getSource();
-        return RSource.getPath(source);
+        SourceSection ss = node.getSourceSection();
+        return ss == null ? null : RSource.getPath(ss.getSource());
     }
 
+    private static String getFunctionName(RSyntaxElement node) {
+        if (node instanceof RSyntaxCall) {
+            RSyntaxElement lhs = ((RSyntaxCall) node).getSyntaxLHS();
+            if (lhs instanceof RSyntaxLookup) {
+                return ((RSyntaxLookup) lhs).getIdentifier();
+            }
+        }
+        return "<Anonymous>";
+    }
+
+    /**
+     * Takes a sample of the calls active in the profiled context at each interval. The stacks are
+     * only turned into text when profiling ends, on the thread of the context.
+     */
     private static final class ProfileThread extends Thread {
         private final long interval;
-        private final StatementListener statementListener;
+        private final InstrumentationState instrumentation;
+        private final RprofState profState;
+        private final ArrayList<RCaller[]> intervalStacks = new ArrayList<>();
+        private final ArrayList<RprofState.MemoryQuad> intervalMemory = new ArrayList<>();
         private volatile boolean running = true;
 
-        private ProfileThread(long interval, StatementListener statementListener) {
+        private ProfileThread(long interval, InstrumentationState instrumentation, RprofState profState) {
+            super("Rprof sampler");
             this.interval = interval;
-            this.statementListener = statementListener;
+            this.instrumentation = instrumentation;
+            this.profState = profState;
         }
 
         @Override
         public void run() {
+            ArrayList<RCaller> stack = new ArrayList<>();
             while (running) {
                 try {
                     Thread.sleep(interval);
-                    statementListener.intervalElapsed();
                 } catch (InterruptedException ex) {
-
+                    // check whether to stop
+                    continue;
                 }
-            }
-        }
-    }
-
-    /**
-     * Emulates a sampling timer by checking when the sample interval rolls over and at that point
-     * collects the stack of functions.
-     */
-    private final class StatementListener implements ExecutionEventListener {
-        private final ArrayList<ArrayList<RSyntaxElement>> intervalStacks = new ArrayList<>();
-        private final ArrayList<RprofState.MemoryQuad> intervalMemory = new ArrayList<>();
-        private volatile boolean newInterval;
-
-        private StatementListener() {
-            SourceSectionFilter.Builder builder = SourceSectionFilter.newBuilder();
-            builder.tagIs(StandardTags.StatementTag.class);
-            SourceSectionFilter filter = builder.build();
-            RInstrumentation.getInstrumenter().attachListener(filter, this);
-        }
-
-        private void intervalElapsed() {
-            newInterval = true;
-        }
-
-        @Override
-        public void onEnter(EventContext context, VirtualFrame frame) {
-            if (newInterval) {
-                /* context tells here we are now, frame provides callers. */
-                final ArrayList<RSyntaxElement> stack = new ArrayList<>();
-                stack.add((RSyntaxElement) context.getInstrumentedNode());
-                collectStack(stack);
-                intervalStacks.add(stack);
-                RprofState profState = RprofState.get();
+                stack.clear();
+                for (RCaller call = instrumentation.getSampledCall(); call != null; call = call.getParent()) {
+                    if (call.isValidCaller() && !call.isPromise()) {
+                        stack.add(call);
+                    }
+                }
+                if (stack.isEmpty()) {
+                    // nothing but top-level code running (or idle), GNU R does not record these
+                    continue;
+                }
+                intervalStacks.add(stack.toArray(new RCaller[stack.size()]));
                 if (profState.memoryProfiling) {
                     intervalMemory.add(profState.memoryQuad.copyAndClear());
                 }
-
-                newInterval = false;
             }
         }
 
-        @TruffleBoundary
-        private void collectStack(final ArrayList<RSyntaxElement> stack) {
-            Utils.iterateRFrames(FrameAccess.READ_ONLY, new Function<Frame, Object>() {
-
-                @Override
-                public Object apply(Frame f) {
-                    RCaller call = RArguments.getCall(f);
-                    if (call != null && call.isValidCaller()) {
-                        while (call.isPromise()) {
-                            call = call.getParent();
-                        }
-                        RSyntaxElement syntaxNode = call.getSyntaxNode();
-                        stack.add(syntaxNode);
-                    }
-                    return null;
-                }
-            });
-        }
-
-        @Override
-        public void onReturnValue(EventContext context, VirtualFrame frame, Object result) {
-        }
-
-        @Override
-        public void onReturnExceptional(EventContext context, VirtualFrame frame, Throwable exception) {
+        private void finish() {
+            running = false;
+            interrupt();
+            try {
+                join();
+            } catch (InterruptedException e) {
+                throw new RInternalError(e, "interrupted while stopping the profiler");
+            }
         }
     }
 
@@ -266,19 +240,38 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
      */
     private static final class RprofState extends InstrumentationState.RprofState {
         private ProfileThread profileThread;
-        private StatementListener statementListener;
         private long intervalInMillis;
         private boolean lineProfiling;
         private boolean memoryProfiling;
         private MemoryQuad memoryQuad;
 
+        /**
+         * Counts allocations on the thread of the context, while the sampler thread takes (and
+         * resets) the counts at each interval, hence the synchronization.
+         */
         public static final class MemoryQuad {
             public long smallV;
             public long largeV;
             public long nodes;
             public long copied;
 
-            public MemoryQuad copyAndClear() {
+            public synchronized void addSmallV(long size) {
+                smallV += size;
+            }
+
+            public synchronized void addLargeV(long size) {
+                largeV += size;
+            }
+
+            public synchronized void addNodes(long size) {
+                nodes += size;
+            }
+
+            public synchronized void addCopied(long size) {
+                copied += size;
+            }
+
+            public synchronized MemoryQuad copyAndClear() {
                 MemoryQuad result = new MemoryQuad();
                 result.copied = copied;
                 result.largeV = largeV;
@@ -301,20 +294,19 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
             return state;
         }
 
-        public void initialize(PrintStream outA, ProfileThread profileThreadA, StatementListener statementListenerA, long intervalInMillisA,
-                        boolean lineProfilingA, boolean memoryProfilingA) {
-            setOut(outA);
+        public void initialize(PrintStream outA, ProfileThread profileThreadA, long intervalInMillisA, boolean lineProfilingA, boolean memoryProfilingA) {
             this.profileThread = profileThreadA;
-            this.statementListener = statementListenerA;
             this.intervalInMillis = intervalInMillisA;
             this.lineProfiling = lineProfilingA;
             this.memoryProfiling = memoryProfilingA;
             this.memoryQuad = memoryProfilingA ? new MemoryQuad() : null;
+            setOut(outA);
         }
 
         @Override
         public void cleanup(int status) {
-            profileThread.running = false;
+            profileThread.finish();
+            profileThread.instrumentation.disableCallSampling();
             HashMap<String, Integer> fileMap = null;
             PrintStream out = this.out();
             if (this.memoryProfiling) {
@@ -328,9 +320,9 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
                 // scan stacks to find files
                 fileMap = new HashMap<>();
                 int fileIndex = 0;
-                for (ArrayList<RSyntaxElement> intervalStack : statementListener.intervalStacks) {
-                    for (RSyntaxElement node : intervalStack) {
-                        String path = getPath(node);
+                for (RCaller[] intervalStack : profileThread.intervalStacks) {
+                    for (RCaller call : intervalStack) {
+                        String path = getPath(call.getSyntaxNode());
                         if (path != null && fileMap.get(path) == null) {
                             fileMap.put(path, ++fileIndex);
                             out.printf("#File %d: %s\n", fileIndex, path);
@@ -339,22 +331,19 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
                 }
             }
             int index = 0;
-            for (ArrayList<RSyntaxElement> intervalStack : statementListener.intervalStacks) {
+            for (RCaller[] intervalStack : profileThread.intervalStacks) {
                 if (this.memoryProfiling) {
-                    RprofState.MemoryQuad mq = statementListener.intervalMemory.get(index);
+                    RprofState.MemoryQuad mq = profileThread.intervalMemory.get(index);
                     out.printf(":%d:%d:%d:%d:", mq.largeV, mq.smallV, mq.nodes, mq.copied);
                 }
-                for (RSyntaxElement node : intervalStack) {
-                    RootNode rootNode = ((RSyntaxNode) node).asRNode().getRootNode();
-                    if (rootNode instanceof FunctionDefinitionNode) {
-                        String name = rootNode.getName();
-                        if (this.lineProfiling) {
-                            Integer fileIndex = fileMap.get(getPath(node));
-                            if (fileIndex != null) {
-                                out.printf("%d#%d ", fileIndex, node.getSourceSection().getStartLine());
-                            }
+                for (RCaller call : intervalStack) {
+                    RSyntaxElement node = call.getSyntaxNode();
+                    out.printf("\"%s\" ", getFunctionName(node));
+                    if (this.lineProfiling) {
+                        Integer fileIndex = fileMap.get(getPath(node));
+                        if (fileIndex != null) {
+                            out.printf("%d#%d ", fileIndex, node.getSourceSection().getStartLine());
                         }
-                        out.printf("\"%s\" ", name);
                     }
                 }
                 out.println();
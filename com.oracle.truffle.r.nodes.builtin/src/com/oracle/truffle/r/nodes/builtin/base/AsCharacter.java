@@ -39,6 +39,9 @@ import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RArgsValuesAndNames;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleSequence;
+import com.oracle.truffle.r.runtime.data.RIntSequence;
+import com.oracle.truffle.r.runtime.data.RStringSequence;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractListVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
@@ -50,7 +53,22 @@ public abstract class AsCharacter extends RBuiltinNode.Arg2 {
 
     static {
         Casts casts = new Casts(AsCharacter.class);
-        casts.arg("x").returnIf(missingValue().or(nullValue()), emptyStringVector()).mapIf(instanceOf(RAbstractListVector.class).not(), asStringVector());
+        casts.arg("x").returnIf(missingValue().or(nullValue()), emptyStringVector()).mapIf(
+                        instanceOf(RAbstractListVector.class).or(instanceOf(RIntSequence.class)).or(instanceOf(RDoubleSequence.class)).not(), asStringVector());
+    }
+
+    /**
+     * Sequences are converted lazily, e.g., {@code as.character(1:1e7)} does not create ten million
+     * strings up front.
+     */
+    @Specialization
+    protected RStringSequence asCharacter(RIntSequence v, @SuppressWarnings("unused") RArgsValuesAndNames dotdotdot) {
+        return RDataFactory.createStringSequence(v);
+    }
+
+    @Specialization
+    protected RStringSequence asCharacter(RDoubleSequence v, @SuppressWarnings("unused") RArgsValuesAndNames dotdotdot) {
+        return RDataFactory.createStringSequence(v);
     }
 
     @Specialization
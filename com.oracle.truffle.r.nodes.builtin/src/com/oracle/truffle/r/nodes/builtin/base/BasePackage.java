@@ -133,13 +133,19 @@ import com.oracle.truffle.r.nodes.builtin.fastr.FastrDqrlsNodeGen;
 import com.oracle.truffle.r.nodes.unary.UnaryArithmeticBuiltinNode;
 import com.oracle.truffle.r.nodes.unary.UnaryArithmeticSpecial;
 import com.oracle.truffle.r.nodes.builtin.fastr.memprof.FastRprofmem;
+import com.oracle.truffle.r.nodes.builtin.fastr.memprof.FastRprofmemFolded;
+import com.oracle.truffle.r.nodes.builtin.fastr.memprof.FastRprofmemFoldedNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.memprof.FastRprofmemNodeGen;
+import com.oracle.truffle.r.nodes.builtin.fastr.memprof.FastRprofmemSample;
+import com.oracle.truffle.r.nodes.builtin.fastr.memprof.FastRprofmemSampleNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.memprof.FastRprofmemShow;
 import com.oracle.truffle.r.nodes.builtin.fastr.memprof.FastRprofmemShowNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.memprof.FastRprofmemSnapshot;
 import com.oracle.truffle.r.nodes.builtin.fastr.memprof.FastRprofmemSnapshotNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.memprof.FastRprofmemSource;
 import com.oracle.truffle.r.nodes.builtin.fastr.memprof.FastRprofmemSourceNodeGen;
+import com.oracle.truffle.r.nodes.builtin.fastr.memprof.FastRprofmemTypes;
+import com.oracle.truffle.r.nodes.builtin.fastr.memprof.FastRprofmemTypesNodeGen;
 import com.oracle.truffle.r.nodes.unary.UnaryNotNode;
 import com.oracle.truffle.r.nodes.unary.UnaryNotNodeGen;
 import com.oracle.truffle.r.runtime.RVisibility;
@@ -452,6 +458,9 @@ public class BasePackage extends RBuiltinPackage {
         add(FastRprofmemShow.class, FastRprofmemShowNodeGen::create);
         add(FastRprofmemSource.class, FastRprofmemSourceNodeGen::create);
         add(FastRprofmemSnapshot.class, FastRprofmemSnapshotNodeGen::create);
+        add(FastRprofmemSample.class, FastRprofmemSampleNodeGen::create);
+        add(FastRprofmemFolded.class, FastRprofmemFoldedNodeGen::create);
+        add(FastRprofmemTypes.class, FastRprofmemTypesNodeGen::create);
         add(FileFunctions.BaseName.class, FileFunctionsFactory.BaseNameNodeGen::create);
         add(FileFunctions.DirCreate.class, FileFunctionsFactory.DirCreateNodeGen::create);
         add(FileFunctions.DirExists.class, FileFunctionsFactory.DirExistsNodeGen::create);
@@ -696,6 +705,7 @@ public class BasePackage extends RBuiltinPackage {
         add(SysFunctions.SysUnSetEnv.class, SysFunctionsFactory.SysUnSetEnvNodeGen::create);
         add(SystemFunction.class, SystemFunctionNodeGen::create);
         add(Tabulate.class, TabulateNodeGen::create);
+        add(Tcrossprod.class, TcrossprodNodeGen::create);
         add(TempDir.class, TempDirNodeGen::create);
         add(TempFile.class, TempFileNodeGen::create);
         add(ToLowerOrUpper.ToLower.class, ToLowerOrUpperFactory.ToLowerNodeGen::create);
@@ -54,7 +54,6 @@ import com.oracle.truffle.r.runtime.data.RExpression;
 import com.oracle.truffle.r.runtime.data.RLanguage;
 import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RNull;
-import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.data.RTypedValue;
 import com.oracle.truffle.r.runtime.data.model.RAbstractContainer;
 import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
@@ -123,8 +122,8 @@ public abstract class Cat extends RBuiltinNode.Arg6 {
         ArrayList<String> stringVecs = new ArrayList<>(length);
         for (int i = 0; i < length; i++) {
             Object obj = args.getDataAt(i);
-            if (obj instanceof RStringVector) {
-                RStringVector stringVec = (RStringVector) obj;
+            if (obj instanceof RAbstractStringVector) {
+                RAbstractStringVector stringVec = (RAbstractStringVector) obj;
                 for (int j = 0; j < stringVec.getLength(); j++) {
                     stringVecs.add(stringVec.getDataAt(j));
                 }
@@ -22,6 +22,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractLogicalVector;
 import com.oracle.truffle.r.runtime.ops.BinaryArithmetic;
+import com.oracle.truffle.r.runtime.ops.VectorReductions;
 
 //Implements .colMeans
 @RBuiltin(name = "colMeans", kind = INTERNAL, parameterNames = {"X", "m", "n", "na.rm"}, behavior = PURE)
@@ -36,6 +37,10 @@ public abstract class ColMeans extends ColSumsBase {
     @Specialization(guards = "!naRm")
     protected RDoubleVector colMeansNaRmFalse(RAbstractDoubleVector x, int rowNum, int colNum, @SuppressWarnings("unused") boolean naRm) {
         checkVectorLength(x, rowNum, colNum);
+        if (isBulk(x)) {
+            reportWork(x.getLength());
+            return createBulkResult(VectorReductions.columnSums(((RDoubleVector) x).getDataWithoutCopying(), rowNum, colNum, false, true));
+        }
 
         double[] result = new double[colNum];
         boolean isComplete = true;
@@ -63,6 +68,10 @@ public abstract class ColMeans extends ColSumsBase {
     @Specialization(guards = "naRm")
     protected RDoubleVector colMeansNaRmTrue(RAbstractDoubleVector x, int rowNum, int colNum, @SuppressWarnings("unused") boolean naRm) {
         checkVectorLength(x, rowNum, colNum);
+        if (isBulk(x)) {
+            reportWork(x.getLength());
+            return createBulkResult(VectorReductions.columnSums(((RDoubleVector) x).getDataWithoutCopying(), rowNum, colNum, true, true));
+        }
 
         double[] result = new double[colNum];
         boolean isComplete = true;
@@ -36,6 +36,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractLogicalVector;
 import com.oracle.truffle.r.runtime.ops.BinaryArithmetic;
+import com.oracle.truffle.r.runtime.ops.VectorReductions;
 
 @RBuiltin(name = "colSums", kind = INTERNAL, parameterNames = {"X", "m", "n", "na.rm"}, behavior = PURE)
 public abstract class ColSums extends ColSumsBase {
@@ -52,6 +53,10 @@ public abstract class ColSums extends ColSumsBase {
     @Specialization
     protected RDoubleVector colSums(RAbstractDoubleVector x, int rowNum, int colNum, boolean rnaParam) {
         checkVectorLength(x, rowNum, colNum);
+        if (isBulk(x)) {
+            reportWork(x.getLength());
+            return createBulkResult(VectorReductions.columnSums(((RDoubleVector) x).getDataWithoutCopying(), rowNum, colNum, rnaParam, false));
+        }
 
         double[] result = new double[colNum];
         boolean isComplete = true;
@@ -34,6 +34,7 @@ import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.ops.VectorReductions;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 /**
@@ -45,6 +46,7 @@ public abstract class ColSumsBase extends RBuiltinNode.Arg4 {
 
     protected final NACheck na = NACheck.create();
     private final ConditionProfile vectorLengthProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile bulkProfile = ConditionProfile.createBinaryProfile();
 
     protected static Casts createCasts(Class<? extends ColSumsBase> extCls) {
         Casts casts = new Casts(extCls);
@@ -61,6 +63,25 @@ public abstract class ColSumsBase extends RBuiltinNode.Arg4 {
         }
     }
 
+    /**
+     * Determines whether the sums or means of {@code x} are computed by {@link VectorReductions},
+     * which is the case for long double vectors.
+     */
+    protected final boolean isBulk(RAbstractVector x) {
+        return bulkProfile.profile(x instanceof RDoubleVector && x.getLength() >= VectorReductions.MIN_LENGTH);
+    }
+
+    protected static RDoubleVector createBulkResult(double[] result) {
+        boolean complete = RDataFactory.COMPLETE_VECTOR;
+        for (double d : result) {
+            if (RRuntime.isNA(d)) {
+                complete = RDataFactory.INCOMPLETE_VECTOR;
+                break;
+            }
+        }
+        return RDataFactory.createDoubleVector(result, complete);
+    }
+
     @Specialization(guards = {"rowNum == 0", "colNum == 0"})
     @SuppressWarnings("unused")
     protected static RDoubleVector doEmptyMatrix(Object x, int rowNum, int colNum, boolean naRm) {
@@ -883,25 +883,38 @@ public abstract class ConnectionFunctions {
             return result;
         }
 
+        /**
+         * Reads up to {@code length} bytes, directly from the memory of the connection if it
+         * supports that (see {@link RConnection#readBinView(int)}). The result is ready for reading.
+         */
+        private static ByteBuffer readBuffer(RConnection con, int length) throws IOException {
+            ByteBuffer view = con.readBinView(length);
+            if (view != null) {
+                return view;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            con.readBin(buffer);
+            buffer.flip();
+            return buffer;
+        }
+
         private static RIntVector readInteger(RConnection con, int n, int size, boolean swap, boolean signed) throws IOException {
-            ByteBuffer buffer = ByteBuffer.allocate(n * size);
-            int bytesRead = con.readBin(buffer);
+            ByteBuffer buffer = readBuffer(con, n * size);
+            int bytesRead = buffer.remaining();
             if (bytesRead == 0) {
                 return RDataFactory.createEmptyIntVector();
             }
-            buffer.flip();
             checkOrder(buffer, swap);
             int nInts = bytesRead / size;
             int[] data = new int[nInts];
             boolean complete = RDataFactory.COMPLETE_VECTOR;
             if (size == 4) {
-                IntBuffer intBuffer = buffer.asIntBuffer();
+                buffer.asIntBuffer().get(data);
                 for (int i = 0; i < nInts; i++) {
-                    int d = intBuffer.get();
-                    if (RRuntime.isNA(d)) {
+                    if (RRuntime.isNA(data[i])) {
                         complete = RDataFactory.INCOMPLETE_VECTOR;
+                        break;
                     }
-                    data[i] = d;
                 }
             } else if (size == 1) {
                 for (int i = 0; i < nInts; i++) {
@@ -919,33 +932,31 @@ public abstract class ConnectionFunctions {
         }
 
         private static RDoubleVector readDouble(RConnection con, int n, boolean swap) throws IOException {
-            ByteBuffer buffer = ByteBuffer.allocate(n * 8);
-            int bytesRead = con.readBin(buffer);
+            ByteBuffer buffer = readBuffer(con, n * 8);
+            int bytesRead = buffer.remaining();
             if (bytesRead == 0) {
                 return RDataFactory.createEmptyDoubleVector();
             }
-            buffer.flip();
             DoubleBuffer doubleBuffer = checkOrder(buffer, swap).asDoubleBuffer();
             int nDoubles = bytesRead / 8;
             boolean complete = RDataFactory.COMPLETE_VECTOR;
             double[] data = new double[nDoubles];
+            doubleBuffer.get(data);
             for (int i = 0; i < nDoubles; i++) {
-                double d = doubleBuffer.get();
-                if (RRuntime.isNA(d)) {
+                if (RRuntime.isNA(data[i])) {
                     complete = RDataFactory.INCOMPLETE_VECTOR;
+                    break;
                 }
-                data[i] = d;
             }
             return RDataFactory.createDoubleVector(data, complete);
         }
 
         private static RComplexVector readComplex(RConnection con, int n, boolean swap) throws IOException {
-            ByteBuffer buffer = ByteBuffer.allocate(n * 16);
-            int bytesRead = con.readBin(buffer);
+            ByteBuffer buffer = readBuffer(con, n * 16);
+            int bytesRead = buffer.remaining();
             if (bytesRead == 0) {
                 return RDataFactory.createEmptyComplexVector();
             }
-            buffer.flip();
             DoubleBuffer doubleBuffer = checkOrder(buffer, swap).asDoubleBuffer();
             int nComplex = bytesRead / 16;
             boolean complete = RDataFactory.COMPLETE_VECTOR;
@@ -984,24 +995,22 @@ public abstract class ConnectionFunctions {
         }
 
         private static RRawVector readRaw(RConnection con, int n) throws IOException {
-            ByteBuffer buffer = ByteBuffer.allocate(n);
-            int bytesRead = con.readBin(buffer);
+            ByteBuffer buffer = readBuffer(con, n);
+            int bytesRead = buffer.remaining();
             if (bytesRead == 0) {
                 return RDataFactory.createEmptyRawVector();
             }
-            buffer.flip();
             byte[] data = new byte[bytesRead];
             buffer.get(data);
             return RDataFactory.createRawVector(data);
         }
 
         private static RLogicalVector readLogical(RConnection con, int n, boolean swap) throws IOException {
-            ByteBuffer buffer = ByteBuffer.allocate(n * 4);
-            int bytesRead = con.readBin(buffer);
+            ByteBuffer buffer = readBuffer(con, n * 4);
+            int bytesRead = buffer.remaining();
             if (bytesRead == 0) {
                 return RDataFactory.createEmptyLogicalVector();
             }
-            buffer.flip();
             IntBuffer intBuffer = checkOrder(buffer, swap).asIntBuffer();
             int nInts = bytesRead / 4;
             byte[] data = new byte[nInts];
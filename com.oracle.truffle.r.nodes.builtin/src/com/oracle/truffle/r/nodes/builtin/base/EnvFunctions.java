@@ -517,7 +517,7 @@ public class EnvFunctions {
         @TruffleBoundary
         protected REnvironment newEnv(boolean hash, REnvironment parent, int size) {
             REnvironment env = RDataFactory.createNewEnv(null, hash, size);
-            RArguments.initializeEnclosingFrame(env.getFrame(), parent.getFrame());
+            env.initializeParent(parent);
             return env;
         }
     }
@@ -38,11 +38,14 @@ import com.oracle.truffle.api.nodes.NodeInfo;
 import com.oracle.truffle.r.nodes.attributes.SetFixedAttributeNode;
 import com.oracle.truffle.r.nodes.builtin.NodeWithArgumentCasts.Casts;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.FastROptions;
+import com.oracle.truffle.r.runtime.ParallelTasks;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RegExp;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RList;
@@ -206,16 +209,56 @@ public class GrepFunctions {
 
         protected PCRERFFI.Result compilePerlPattern(String pattern, boolean ignoreCase) {
             int cflags = ignoreCase ? PCRERFFI.CASELESS : 0;
-            long tables = maketablesNode.execute();
-            PCRERFFI.Result pcre = compileNode.execute(pattern, cflags, tables);
-            if (pcre.result == 0) {
-                // TODO output warning if pcre.errorMessage not NULL
-                throw error(RError.Message.INVALID_REGEXP, pattern);
+            RegExp.Cache cache = RContext.getInstance().regExpCache;
+            PCRERFFI.Result pcre = (PCRERFFI.Result) cache.get(RegExp.Engine.PCRE, pattern, cflags);
+            if (pcre == null) {
+                long tables = maketablesNode.execute();
+                pcre = compileNode.execute(pattern, cflags, tables);
+                if (pcre.result == 0) {
+                    // TODO output warning if pcre.errorMessage not NULL
+                    throw error(RError.Message.INVALID_REGEXP, pattern);
+                }
+                cache.put(RegExp.Engine.PCRE, pattern, cflags, pcre);
             }
             return pcre;
         }
     }
 
+    @TruffleBoundary
+    private static Pattern getJavaPattern(String pattern, boolean ignoreCase) {
+        return RContext.getInstance().regExpCache.getJavaPattern(pattern, ignoreCase ? Pattern.CASE_INSENSITIVE : 0);
+    }
+
+    /**
+     * The elements of a character vector are matched in chunks of this size, which are distributed
+     * between the threads of {@link ParallelTasks} for large vectors.
+     */
+    private static final int CHUNK_SIZE = 1024;
+
+    private interface ChunkBody {
+        void apply(String[] data, int from, int to);
+    }
+
+    /**
+     * Applies {@code body} to consecutive chunks of the elements of {@code vector}. Once the total
+     * length of the strings reaches {@link FastROptions#ParallelThreshold}, the chunks are
+     * processed in parallel, so the body must only store the results for the indices of its own
+     * chunk (which preserves their order) and it must neither use the R context nor raise R
+     * errors or warnings. The PCRE paths, which call native code through the FFI of the context,
+     * are therefore not executed this way.
+     */
+    private static void forEachChunk(RAbstractStringVector vector, ChunkBody body) {
+        String[] data = vector.materialize().getDataWithoutCopying();
+        int chunks = (data.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        long work = 0;
+        if (chunks > 1) {
+            for (String s : data) {
+                work += s.length();
+            }
+        }
+        ParallelTasks.forEach(chunks, work, chunk -> body.apply(data, chunk * CHUNK_SIZE, Math.min(data.length, (chunk + 1) * CHUNK_SIZE)));
+    }
+
     protected static final class GrepCommonCodeNode extends CommonCodeNode {
         @Child PCRERFFI.ExecNode execNode = RFFIFactory.getRFFI().getPCRERFFI().createExecNode();
 
@@ -231,7 +274,16 @@ public class GrepFunctions {
                 return value ? allStringNAResult(len) : allIntNAResult(len);
             }
             boolean[] matches = new boolean[len];
-            if (!perl) {
+            RegExp.Literal literal = fixed || ignoreCase ? null : RegExp.getLiteral(pattern, perl);
+            if (literal != null) {
+                forEachChunk(vector, (data, from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        if (!RRuntime.isNA(data[i])) {
+                            matches[i] = literal.find(data[i], 0) >= 0;
+                        }
+                    }
+                });
+            } else if (!perl) {
                 // TODO case
                 if (!fixed) {
                     pattern = RegExp.checkPreDefinedClasses(pattern);
@@ -300,21 +352,19 @@ public class GrepFunctions {
         }
 
         protected static void findAllMatches(boolean[] result, String pattern, RAbstractStringVector vector, boolean fixed, boolean ignoreCase) {
-            for (int i = 0; i < result.length; i++) {
-                String text = vector.getDataAt(i);
-                if (!RRuntime.isNA(text)) {
-                    if (fixed) {
-                        result[i] = text.contains(pattern);
-                    } else {
-                        result[i] = findMatch(pattern, text, ignoreCase);
+            Pattern compiled = fixed ? null : getJavaPattern(pattern, ignoreCase);
+            forEachChunk(vector, (data, from, to) -> {
+                for (int i = from; i < to; i++) {
+                    String text = data[i];
+                    if (!RRuntime.isNA(text)) {
+                        if (fixed) {
+                            result[i] = text.contains(pattern);
+                        } else {
+                            result[i] = compiled.matcher(text).find();
+                        }
                     }
                 }
-            }
-        }
-
-        protected static boolean findMatch(String pattern, String text, boolean ignoreCase) {
-            Matcher m = Regexpr.getPatternMatcher(pattern, text, ignoreCase);
-            return m.find();
+            });
         }
     }
 
@@ -437,107 +487,46 @@ public class GrepFunctions {
 
                 assert !(perl && fixed);
 
-                if (!fixed && isSimpleReplacement(pattern, replacement)) {
-                    perl = false;
-                    fixed = true;
+                RegExp.Literal literal = null;
+                if (!fixed && !ignoreCase && replacement.indexOf('\\') < 0) {
+                    // matches of a literal pattern can be replaced without a regex engine
+                    literal = RegExp.getLiteral(pattern, perl);
+                    if (literal != null) {
+                        perl = false;
+                    }
                 }
                 if (perl && isSimpleRegex(pattern, replacement)) {
                     perl = false;
                 }
 
                 PCRERFFI.Result pcre = null;
-                if (fixed) {
+                Pattern javaPattern = null;
+                if (fixed || literal != null) {
                     // TODO case
                 } else if (perl) {
                     pcre = compilePerlPattern(pattern, ignoreCase);
                 } else {
                     pattern = RegExp.checkPreDefinedClasses(pattern);
+                    javaPattern = getJavaPattern(pattern, false);
+                    replacement = convertGroups(replacement);
                 }
                 String[] result = new String[len];
-                for (int i = 0; i < len; i++) {
-                    String input = vector.getDataAt(i);
-                    if (RRuntime.isNA(input)) {
-                        result[i] = input;
-                        continue;
+                if (perl) {
+                    for (int i = 0; i < len; i++) {
+                        String input = vector.getDataAt(i);
+                        result[i] = RRuntime.isNA(input) ? input : substitutePerl(input, pcre, replacement, gsub);
                     }
-
-                    String value;
-                    if (fixed) {
-                        if (gsub) {
-                            value = input.replace(pattern, replacement);
-                        } else {
-                            int ix = input.indexOf(pattern);
-                            value = ix < 0 ? input : input.substring(0, ix) + replacement + input.substring(ix + pattern.length());
-                        }
-                    } else if (perl) {
-                        int lastEndOffset = 0;
-                        int lastEndIndex = 0;
-                        int[] ovector = new int[30];
-                        int nmatch = 0;
-                        int eflag = 0;
-                        int lastEnd = -1;
-                        int[] fromByteMapping = getFromByteMapping(input); // non-null if it's
-                                                                           // necessary
-
-                        StringBuilder sb = new StringBuilder();
-                        while (execNode.execute(pcre.result, 0, input, lastEndOffset, eflag, ovector) >= 0) {
-                            nmatch++;
-
-                            // offset == byte position
-                            // index == character position
-                            int startOffset = ovector[0];
-                            int endOffset = ovector[1];
-                            int startIndex = (fromByteMapping != null) ? fromByteMapping[startOffset] : startOffset;
-                            int endIndex = (fromByteMapping != null) ? fromByteMapping[endOffset] : endOffset;
-
-                            for (int j = lastEndIndex; j < startIndex; j++) {
-                                sb.append(input.charAt(j));
-                            }
-                            if (endOffset > lastEnd) {
-                                pcreStringAdj(sb, input, replacement, ovector, fromByteMapping);
-                                lastEnd = endOffset;
-                            }
-                            lastEndIndex = endIndex;
-                            lastEndOffset = endOffset;
-                            if (lastEndIndex >= input.length() || !gsub) {
-                                break;
-                            }
-                            if (startOffset == endOffset) {
-                                sb.append(input.charAt(lastEndIndex));
-                                if (fromByteMapping != null) {
-                                    for (int j = lastEndOffset + 1; j < fromByteMapping.length; j++) {
-                                        if (fromByteMapping[j] > 0) {
-                                            lastEndOffset = j;
-                                            lastEndIndex = fromByteMapping[lastEndOffset];
-                                            break;
-                                        }
-                                    }
-                                } else {
-                                    lastEndOffset++;
-                                    lastEndIndex++;
-                                }
-                            }
-                            eflag |= PCRERFFI.NOTBOL;
-                        }
-                        if (nmatch == 0) {
-                            value = input;
-                        } else {
-                            /* copy the tail */
-                            for (int j = lastEndIndex; j < input.length(); j++) {
-                                sb.append(input.charAt(j));
-                            }
-                            value = sb.toString();
-                        }
-                    } else {
-                        replacement = convertGroups(replacement);
-
-                        if (gsub) {
-                            value = input.replaceAll(pattern, replacement);
-                        } else {
-                            value = input.replaceFirst(pattern, replacement);
+                } else {
+                    String finalPattern = pattern;
+                    String finalReplacement = replacement;
+                    RegExp.Literal finalLiteral = literal;
+                    Pattern finalJavaPattern = javaPattern;
+                    forEachChunk(vector, (data, from, to) -> {
+                        for (int i = from; i < to; i++) {
+                            String input = data[i];
+                            result[i] = RRuntime.isNA(input) ? input : substitute(input, finalPattern, finalLiteral, finalJavaPattern, finalReplacement, gsub);
                         }
-                    }
-                    result[i] = value;
+                    });
                 }
                 RStringVector ret = RDataFactory.createStringVector(result, vector.isComplete());
                 ret.copyAttributesFrom(vector);
@@ -548,34 +537,101 @@ public class GrepFunctions {
             }
         }
 
-        private static final int SIMPLE_PATTERN_MAX_LENGTH = 5;
+        /**
+         * Replaces the match(es) of a literal pattern ({@code literal}), of a fixed pattern (if
+         * {@code javaPattern} is also {@code null}) or of a Java regular expression.
+         */
+        private static String substitute(String input, String pattern, RegExp.Literal literal, Pattern javaPattern, String replacement, boolean gsub) {
+            if (literal != null) {
+                return replaceLiteral(input, literal, replacement, gsub);
+            } else if (javaPattern == null) {
+                if (gsub) {
+                    return input.replace(pattern, replacement);
+                } else {
+                    int ix = input.indexOf(pattern);
+                    return ix < 0 ? input : input.substring(0, ix) + replacement + input.substring(ix + pattern.length());
+                }
+            } else if (gsub) {
+                return javaPattern.matcher(input).replaceAll(replacement);
+            } else {
+                return javaPattern.matcher(input).replaceFirst(replacement);
+            }
+        }
 
-        private static boolean isSimpleReplacement(String pattern, @SuppressWarnings("unused") String replacement) {
-            if (pattern.length() > SIMPLE_PATTERN_MAX_LENGTH) {
-                return false;
+        private String substitutePerl(String input, PCRERFFI.Result pcre, String replacement, boolean gsub) {
+            int lastEndOffset = 0;
+            int lastEndIndex = 0;
+            int[] ovector = new int[30];
+            int nmatch = 0;
+            int eflag = 0;
+            int lastEnd = -1;
+            int[] fromByteMapping = getFromByteMapping(input); // non-null if it's necessary
+
+            StringBuilder sb = new StringBuilder();
+            while (execNode.execute(pcre.result, 0, input, lastEndOffset, eflag, ovector) >= 0) {
+                nmatch++;
+
+                // offset == byte position
+                // index == character position
+                int startOffset = ovector[0];
+                int endOffset = ovector[1];
+                int startIndex = (fromByteMapping != null) ? fromByteMapping[startOffset] : startOffset;
+                int endIndex = (fromByteMapping != null) ? fromByteMapping[endOffset] : endOffset;
+
+                for (int j = lastEndIndex; j < startIndex; j++) {
+                    sb.append(input.charAt(j));
+                }
+                if (endOffset > lastEnd) {
+                    pcreStringAdj(sb, input, replacement, ovector, fromByteMapping);
+                    lastEnd = endOffset;
+                }
+                lastEndIndex = endIndex;
+                lastEndOffset = endOffset;
+                if (lastEndIndex >= input.length() || !gsub) {
+                    break;
+                }
+                if (startOffset == endOffset) {
+                    sb.append(input.charAt(lastEndIndex));
+                    if (fromByteMapping != null) {
+                        for (int j = lastEndOffset + 1; j < fromByteMapping.length; j++) {
+                            if (fromByteMapping[j] > 0) {
+                                lastEndOffset = j;
+                                lastEndIndex = fromByteMapping[lastEndOffset];
+                                break;
+                            }
+                        }
+                    } else {
+                        lastEndOffset++;
+                        lastEndIndex++;
+                    }
+                }
+                eflag |= PCRERFFI.NOTBOL;
             }
-            for (int i = 0; i < pattern.length(); i++) {
-                switch (pattern.charAt(i)) {
-                    case '.':
-                    case '^':
-                    case '$':
-                    case '*':
-                    case '+':
-                    case '?':
-                    case '(':
-                    case ')':
-                    case '[':
-                    case '{':
-                    case '\\':
-                    case '|':
-                        return false;
-                    default:
-                        break;
+            if (nmatch == 0) {
+                return input;
+            } else {
+                /* copy the tail */
+                for (int j = lastEndIndex; j < input.length(); j++) {
+                    sb.append(input.charAt(j));
                 }
+                return sb.toString();
             }
-            // TODO: since no groups were captured, do we need to check special chars in
-            // replacement?
-            return true;
+        }
+
+        private static String replaceLiteral(String input, RegExp.Literal literal, String replacement, boolean all) {
+            int index = literal.find(input, 0);
+            if (index < 0) {
+                return input;
+            }
+            int length = literal.getValue().length();
+            StringBuilder sb = new StringBuilder(input.length());
+            int lastEnd = 0;
+            while (index >= 0) {
+                sb.append(input, lastEnd, index).append(replacement);
+                lastEnd = index + length;
+                index = all ? literal.find(input, lastEnd) : -1;
+            }
+            return sb.append(input, lastEnd, input.length()).toString();
         }
 
         private static boolean isSimpleRegex(String pattern, @SuppressWarnings("unused") String replacement) {
@@ -805,8 +861,9 @@ public class GrepFunctions {
                 // emtpy pattern
                 Arrays.fill(result, 1);
             } else {
+                RegExp.Literal literal = fixed || ignoreCase ? null : RegExp.getLiteral(pattern, perl);
                 for (int i = 0; i < vector.getLength(); i++) {
-                    Info res = getInfo(common, pattern, vector.getDataAt(i), ignoreCase, perl, fixed).get(0);
+                    Info res = getInfo(common, pattern, literal, vector.getDataAt(i), ignoreCase, perl, fixed).get(0);
                     result[i] = res.index;
                     matchLength[i] = res.size;
                     if (res.hasCapture) {
@@ -851,9 +908,17 @@ public class GrepFunctions {
             return ret;
         }
 
-        protected List<Info> getInfo(CommonCodeNode common, String pattern, String text, boolean ignoreCase, boolean perl, boolean fixed) {
+        protected List<Info> getInfo(CommonCodeNode common, String pattern, RegExp.Literal literal, String text, boolean ignoreCase, boolean perl, boolean fixed) {
             List<Info> list = new ArrayList<>();
-            if (fixed) {
+            if (literal != null) {
+                int length = literal.getValue().length();
+                int index = literal.find(text, 0);
+                while (index >= 0) {
+                    // R starts counting at index 1
+                    list.add(new Info(index + 1, length, null, null, null));
+                    index = literal.find(text, index + length);
+                }
+            } else if (fixed) {
                 int index = 0;
                 while (true) {
                     if (ignoreCase) {
@@ -917,7 +982,7 @@ public class GrepFunctions {
 
         @TruffleBoundary
         private static Matcher getPatternMatcher(String pattern, String text, boolean ignoreCase) {
-            return Pattern.compile(pattern, ignoreCase ? Pattern.CASE_INSENSITIVE : 0).matcher(text);
+            return getJavaPattern(pattern, ignoreCase).matcher(text);
         }
     }
 
@@ -967,6 +1032,7 @@ public class GrepFunctions {
             RList ret = RDataFactory.createList(vector.getLength());
             String pattern = patternArg.getDataAt(0);
             pattern = RegExp.checkPreDefinedClasses(pattern);
+            RegExp.Literal literal = fixed || ignoreCase ? null : RegExp.getLiteral(pattern, false);
             // TODO: useBytes normally depends on the value of the parameter and (if false) on
             // whether the string is ASCII
             for (int i = 0; i < vector.getLength(); i++) {
@@ -977,7 +1043,7 @@ public class GrepFunctions {
                     matchPos = new int[]{1};
                     matchLength = new int[]{0};
                 } else {
-                    List<Info> res = getInfo(pattern, vector.getDataAt(i), ignoreCase, fixed);
+                    List<Info> res = getInfo(pattern, literal, vector.getDataAt(i), ignoreCase, fixed);
                     matchPos = new int[res.size()];
                     matchLength = new int[res.size()];
                     for (int j = 0; j < res.size(); j++) {
@@ -995,9 +1061,14 @@ public class GrepFunctions {
             return ret;
         }
 
-        protected List<Info> getInfo(String pattern, String text, boolean ignoreCase, boolean fixed) {
+        protected List<Info> getInfo(String pattern, RegExp.Literal literal, String text, boolean ignoreCase, boolean fixed) {
             List<Info> list = new ArrayList<>();
-            if (fixed) {
+            if (literal != null) {
+                int index = literal.find(text, 0);
+                if (index != -1) {
+                    list.add(new Info(index + 1, literal.getValue().length(), null, null, null));
+                }
+            } else if (fixed) {
                 int index;
                 if (ignoreCase) {
                     index = text.toLowerCase().indexOf(pattern.toLowerCase());
@@ -1024,7 +1095,7 @@ public class GrepFunctions {
 
         @TruffleBoundary
         private static Matcher getPatternMatcher(String pattern, String text, boolean ignoreCase) {
-            return Pattern.compile(pattern, ignoreCase ? Pattern.CASE_INSENSITIVE : 0).matcher(text);
+            return getJavaPattern(pattern, ignoreCase).matcher(text);
         }
     }
 
@@ -1086,6 +1157,7 @@ public class GrepFunctions {
             Object[] result = new Object[vector.getLength()];
             boolean hasAnyCapture = false;
             RStringVector captureNames = null;
+            RegExp.Literal literal = fixed || ignoreCase ? null : RegExp.getLiteral(pattern, perl);
             for (int i = 0; i < vector.getLength(); i++) {
                 RIntVector res;
                 if (pattern.length() == 0) {
@@ -1099,7 +1171,7 @@ public class GrepFunctions {
                         setUseBytesAttrNode.execute(res, RRuntime.LOGICAL_TRUE);
                     }
                 } else {
-                    List<Info> l = getInfo(common, pattern, vector.getDataAt(i), ignoreCase, perl, fixed);
+                    List<Info> l = getInfo(common, pattern, literal, vector.getDataAt(i), ignoreCase, perl, fixed);
                     res = toIndexOrSizeVector(l, true);
                     setMatchLengthAttrNode.execute(res, toIndexOrSizeVector(l, false));
                     if (useBytes) {
@@ -1348,20 +1420,24 @@ public class GrepFunctions {
             // treat split = NULL as split = ""
             RAbstractStringVector split = splitArg.getLength() == 0 ? RDataFactory.createStringVectorFromScalar("") : splitArg;
             String[] splits = new String[split.getLength()];
-            long pcreTables = perl ? common.maketablesNode.execute() : 0;
             PCRERFFI.Result[] pcreSplits = perl ? new PCRERFFI.Result[splits.length] : null;
+            // unanchored literal separators are split on as if fixed = TRUE
+            RegExp.Literal[] literals = new RegExp.Literal[splits.length];
 
             na.enable(x);
             for (int i = 0; i < splits.length; i++) {
                 String currentSplit = split.getDataAt(i);
                 splits[i] = fixed || perl ? split.getDataAt(i) : RegExp.checkPreDefinedClasses(split.getDataAt(i));
+                if (!fixed && !currentSplit.isEmpty()) {
+                    RegExp.Literal literal = RegExp.getLiteral(currentSplit, perl);
+                    if (literal != null && !literal.isAnchored()) {
+                        literals[i] = literal;
+                        continue;
+                    }
+                }
                 if (perl) {
                     if (!currentSplit.isEmpty()) {
-                        pcreSplits[i] = common.compileNode.execute(currentSplit, 0, pcreTables);
-                        if (pcreSplits[i].result == 0) {
-                            // TODO output warning if pcre.errorMessage not NULL
-                            throw error(RError.Message.INVALID_REGEXP, currentSplit);
-                        }
+                        pcreSplits[i] = common.compilePerlPattern(currentSplit, false);
                         // TODO pcre_study for vectors > 10 ? (cf GnuR)
                     }
                 }
@@ -1384,7 +1460,10 @@ public class GrepFunctions {
                     if (na.check(data)) {
                         resultItem = RDataFactory.createNAStringVector();
                     } else {
-                        if (perl) {
+                        RegExp.Literal literal = literals[i % splits.length];
+                        if (literal != null) {
+                            resultItem = splitIntl(data, literal.getValue(), true);
+                        } else if (perl) {
                             resultItem = splitPerl(data, pcreSplits[i % splits.length]);
                         } else {
                             resultItem = splitIntl(data, currentSplit, fixed);
@@ -1445,7 +1524,7 @@ public class GrepFunctions {
                 if (input.equals(separator)) {
                     return RDataFactory.createStringVector("");
                 } else {
-                    return RDataFactory.createStringVector(input.split(separator), true);
+                    return RDataFactory.createStringVector(getJavaPattern(separator, false).split(input), true);
                 }
             }
         }
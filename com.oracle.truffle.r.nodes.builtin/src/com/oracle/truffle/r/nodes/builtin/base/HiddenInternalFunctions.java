@@ -208,15 +208,14 @@ public class HiddenInternalFunctions {
             }
             String dbPath = datafile.getDataAt(0);
             String packageName = new File(dbPath).getName();
-            byte[] dbData = RContext.getInstance().stateLazyDBCache.getData(dbPath);
             int dotIndex;
             if ((dotIndex = packageName.lastIndexOf('.')) > 0) {
                 packageName = packageName.substring(0, dotIndex);
             }
             int offset = key.getDataAt(0);
             int length = key.getDataAt(1);
-            int outlen = getOutlen(dbData, offset); // length of uncompressed data
-            byte[] udata = null;
+            ByteBuffer dbData = RContext.getInstance().stateLazyDBCache.getData(dbPath, offset, length);
+            ByteBuffer udata = null;
             boolean rc = true;
             /*
              * compression may have value 0, 1, 2 or 3. Value 1 is gzip and the data starts at
@@ -226,25 +225,29 @@ public class HiddenInternalFunctions {
              * compression=2 and compression=3 is that type='Z' is only possible for the latter.
              */
             if (compression == 0) {
-                udata = new byte[length];
-                System.arraycopy(dbData, offset, udata, 0, length);
+                // uncompressed data is unserialized directly from the (shared) mapped file
+                udata = dbData;
             } else {
-                udata = new byte[outlen];
+                int outlen = dbData.getInt(0); // length of uncompressed data
+                byte[] uncompressed = new byte[outlen];
                 if (compression == 2 || compression == 3) {
-                    RCompression.Type type = RCompression.Type.fromTypeChar(dbData[4]);
+                    RCompression.Type type = RCompression.Type.fromTypeChar(dbData.get(4));
                     if (type == null) {
                         warning(RError.Message.GENERIC, "unknown compression type");
                         return RNull.instance;
                     }
                     byte[] data = new byte[length - 5];
-                    System.arraycopy(dbData, offset + 5, data, 0, data.length);
-                    rc = RCompression.uncompress(type, udata, data);
+                    dbData.position(5);
+                    dbData.get(data);
+                    rc = RCompression.uncompress(type, uncompressed, data);
                 } else {
                     // GnuR treats any other value as 1
                     byte[] data = new byte[length - 4];
-                    System.arraycopy(dbData, offset + 4, data, 0, data.length);
-                    rc = RCompression.uncompress(RCompression.Type.GZIP, udata, data);
+                    dbData.position(4);
+                    dbData.get(data);
+                    rc = RCompression.uncompress(RCompression.Type.GZIP, uncompressed, data);
                 }
+                udata = ByteBuffer.wrap(uncompressed);
             }
             if (!rc) {
                 throw error(RError.Message.LAZY_LOAD_DB_CORRUPT, dbPath);
@@ -264,13 +267,6 @@ public class HiddenInternalFunctions {
                 throw RInternalError.shouldNotReachHere(ex);
             }
         }
-
-        private static int getOutlen(byte[] dbData, int offset) {
-            ByteBuffer dataLengthBuf = ByteBuffer.allocate(4);
-            dataLengthBuf.put(dbData, offset, 4);
-            dataLengthBuf.position(0);
-            return dataLengthBuf.getInt();
-        }
     }
 
     @RBuiltin(name = "getRegisteredRoutines", kind = INTERNAL, parameterNames = "info", behavior = COMPLEX)
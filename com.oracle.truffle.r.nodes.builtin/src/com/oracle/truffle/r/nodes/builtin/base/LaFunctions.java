@@ -358,6 +358,7 @@ public class LaFunctions {
             if (info < 0) {
                 throw error(Message.LAPACK_ERROR, info, "dtrtrs");
             }
+            b.elementsModified();
             // TODO check complete
             return b;
         }
@@ -509,6 +510,7 @@ public class LaFunctions {
                     setDimNamesNode.setDimNames(a, RDataFactory.createList(dn2));
                 }
             }
+            a.elementsModified();
             return a;
         }
     }
@@ -687,6 +689,8 @@ public class LaFunctions {
                 System.arraycopy(aDouble.getDataWithoutCopying(), 0, avals, 0, n * p);
             } else {
                 avals = aDouble.getDataWithoutCopying();
+                // dgesv overwrites A with its factorization
+                aDouble.elementsModified();
             }
             int info = dgesvNode.execute(n, p, avals, n, ipiv, bData, n);
             if (info < 0) {
@@ -41,6 +41,7 @@ import com.oracle.truffle.r.nodes.attributes.SpecialAttributesFunctions.SetDimAt
 import com.oracle.truffle.r.nodes.attributes.SpecialAttributesFunctions.SetDimNamesAttributeNode;
 import com.oracle.truffle.r.nodes.binary.BinaryMapArithmeticFunctionNode;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.MatrixMultiply;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
@@ -64,7 +65,7 @@ import com.oracle.truffle.r.runtime.ops.na.NACheck;
 @RBuiltin(name = "%*%", kind = PRIMITIVE, parameterNames = {"", ""}, behavior = PURE)
 public abstract class MatMult extends RBuiltinNode.Arg2 {
 
-    private static final int BLOCK_SIZE = 64;
+    private static final int BLOCK_SIZE = MatrixMultiply.BLOCK_SIZE;
 
     @Child private BinaryMapArithmeticFunctionNode mult = new BinaryMapArithmeticFunctionNode(BinaryArithmetic.MULTIPLY.createOperation());
     @Child private BinaryMapArithmeticFunctionNode add = new BinaryMapArithmeticFunctionNode(BinaryArithmetic.ADD.createOperation());
@@ -147,6 +148,7 @@ public abstract class MatMult extends RBuiltinNode.Arg2 {
     }
 
     private final ConditionProfile bigProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile parallelProfile = ConditionProfile.createBinaryProfile();
     private final BranchProfile incompleteProfile = BranchProfile.create();
     @CompilationFinal private boolean seenLargeMatrix;
 
@@ -184,7 +186,9 @@ public abstract class MatMult extends RBuiltinNode.Arg2 {
             CompilerDirectives.transferToInterpreterAndInvalidate();
             seenLargeMatrix = true;
         }
-        if (seenLargeMatrix) {
+        if (seenLargeMatrix && parallelProfile.profile(MatrixMultiply.useParallel(aRows, aCols, bCols))) {
+            MatrixMultiply.multiply(dataA, dataB, result, aRows, aCols, bCols, aRowStride, aColStride, bRowStride, bColStride, mirrored);
+        } else if (seenLargeMatrix) {
             for (int row = 0; row < aRows; row += BLOCK_SIZE) {
                 for (int col = mirrored ? row : 0; col < bCols; col += BLOCK_SIZE) {
                     for (int k = 0; k < aCols; k += BLOCK_SIZE) {
@@ -31,6 +31,7 @@ import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 import java.util.Arrays;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -44,14 +45,25 @@ import com.oracle.truffle.r.nodes.helpers.InheritsCheckNode;
 import com.oracle.truffle.r.nodes.helpers.RFactorNodes;
 import com.oracle.truffle.r.nodes.unary.CastStringNode;
 import com.oracle.truffle.r.nodes.unary.CastStringNodeGen;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapCharacter;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapComplex;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapDouble;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapInt;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetCharacter;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetComplex;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetDouble;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetInt;
 import com.oracle.truffle.r.runtime.RError.Message;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RComplex;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.data.RVector;
 import com.oracle.truffle.r.runtime.data.closures.RClosures;
 import com.oracle.truffle.r.runtime.data.model.RAbstractComplexVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
@@ -190,6 +202,12 @@ public abstract class Match extends RBuiltinNode.Arg4 {
 
         private static final int TABLE_SIZE_FACTOR = 10;
 
+        /**
+         * Tables at least this long get their hash index cached on the vector, so that repeated
+         * lookups in the same table, e.g., {@code x %in% table} in a loop, need not rebuild it.
+         */
+        private static final int CACHED_INDEX_MIN_LENGTH = 1000;
+
         protected abstract Object execute(RAbstractVector x, RAbstractVector table, int noMatch);
 
         @Child private CastStringNode castString;
@@ -197,6 +215,7 @@ public abstract class Match extends RBuiltinNode.Arg4 {
         @Child private MatchInternalNode matchRecursive;
 
         private final ConditionProfile bigTableProfile = ConditionProfile.createBinaryProfile();
+        private final ConditionProfile cachedIndexProfile = ConditionProfile.createBinaryProfile();
 
         private RAbstractStringVector castString(RAbstractVector operand) {
             if (castString == null) {
@@ -210,23 +229,22 @@ public abstract class Match extends RBuiltinNode.Arg4 {
         protected RIntVector match(RAbstractIntVector x, RAbstractIntVector table, int nomatch) {
             int[] result = initResult(x.getLength(), nomatch);
             boolean matchAll = true;
-            NonRecursiveHashMapInt hashTable;
-            if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
-                hashTable = new NonRecursiveHashMapInt(x.getLength());
-                NonRecursiveHashSetInt hashSet = new NonRecursiveHashSetInt(x.getLength());
-                for (int i = 0; i < result.length; i++) {
-                    hashSet.add(x.getDataAt(i));
-                }
-                for (int i = table.getLength() - 1; i >= 0; i--) {
-                    int val = table.getDataAt(i);
-                    if (hashSet.contains(val)) {
-                        hashTable.put(val, i);
+            NonRecursiveHashMapInt hashTable = cachedIndexProfile.profile(isIndexCacheable(table)) ? getCachedIndex((RIntVector) table) : null;
+            if (hashTable == null) {
+                if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
+                    hashTable = new NonRecursiveHashMapInt(x.getLength());
+                    NonRecursiveHashSetInt hashSet = new NonRecursiveHashSetInt(x.getLength());
+                    for (int i = 0; i < result.length; i++) {
+                        hashSet.add(x.getDataAt(i));
                     }
-                }
-            } else {
-                hashTable = new NonRecursiveHashMapInt(table.getLength());
-                for (int i = table.getLength() - 1; i >= 0; i--) {
-                    hashTable.put(table.getDataAt(i), i);
+                    for (int i = 0; i < table.getLength(); i++) {
+                        int val = table.getDataAt(i);
+                        if (hashSet.contains(val)) {
+                            hashTable.putIfAbsent(val, i);
+                        }
+                    }
+                } else {
+                    hashTable = createIndex(table);
                 }
             }
             for (int i = 0; i < result.length; i++) {
@@ -245,32 +263,47 @@ public abstract class Match extends RBuiltinNode.Arg4 {
         protected RIntVector match(RAbstractDoubleVector x, RAbstractIntVector table, int nomatch) {
             int[] result = initResult(x.getLength(), nomatch);
             boolean matchAll = true;
-            NonRecursiveHashMapDouble hashTable;
-            if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
-                hashTable = new NonRecursiveHashMapDouble(x.getLength());
+            NonRecursiveHashMapInt tableIndex = cachedIndexProfile.profile(isIndexCacheable(table)) ? getCachedIndex((RIntVector) table) : null;
+            if (tableIndex == null && bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
+                NonRecursiveHashMapDouble hashTable = new NonRecursiveHashMapDouble(x.getLength());
                 NonRecursiveHashSetDouble hashSet = new NonRecursiveHashSetDouble(x.getLength());
                 for (int i = 0; i < result.length; i++) {
                     hashSet.add(x.getDataAt(i));
                 }
-                for (int i = table.getLength() - 1; i >= 0; i--) {
-                    int val = table.getDataAt(i);
-                    if (hashSet.contains(RRuntime.int2double(val))) {
-                        hashTable.put(RRuntime.int2double(val), i);
+                for (int i = 0; i < table.getLength(); i++) {
+                    double val = RRuntime.int2double(table.getDataAt(i));
+                    if (hashSet.contains(val)) {
+                        hashTable.putIfAbsent(val, i);
+                    }
+                }
+                for (int i = 0; i < result.length; i++) {
+                    int index = hashTable.get(x.getDataAt(i));
+                    if (index != -1) {
+                        result[i] = index + 1;
+                    } else {
+                        matchAll = false;
                     }
                 }
             } else {
-                hashTable = new NonRecursiveHashMapDouble(table.getLength());
-                for (int i = table.getLength() - 1; i >= 0; i--) {
-                    hashTable.put(RRuntime.int2double(table.getDataAt(i)), i);
+                if (tableIndex == null) {
+                    tableIndex = createIndex(table);
                 }
-            }
-            for (int i = 0; i < result.length; i++) {
-                double xx = x.getDataAt(i);
-                int index = hashTable.get(xx);
-                if (index != -1) {
-                    result[i] = index + 1;
-                } else {
-                    matchAll = false;
+                for (int i = 0; i < result.length; i++) {
+                    double xx = x.getDataAt(i);
+                    int index;
+                    if (RRuntime.isNA(xx)) {
+                        index = tableIndex.get(RRuntime.INT_NA);
+                    } else if (xx == (int) xx && (int) xx != RRuntime.INT_NA) {
+                        index = tableIndex.get((int) xx);
+                    } else {
+                        // NaN or not representable as a (non-NA) integer
+                        index = -1;
+                    }
+                    if (index != -1) {
+                        result[i] = index + 1;
+                    } else {
+                        matchAll = false;
+                    }
                 }
             }
             return RDataFactory.createIntVector(result, setCompleteState(matchAll, nomatch));
@@ -280,39 +313,40 @@ public abstract class Match extends RBuiltinNode.Arg4 {
         protected RIntVector match(RAbstractIntVector x, RAbstractDoubleVector table, int nomatch) {
             int[] result = initResult(x.getLength(), nomatch);
             boolean matchAll = true;
-            NonRecursiveHashMapInt hashTable;
-            if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
-                hashTable = new NonRecursiveHashMapInt(x.getLength());
+            NonRecursiveHashMapDouble tableIndex = cachedIndexProfile.profile(isIndexCacheable(table)) ? getCachedIndex((RDoubleVector) table) : null;
+            if (tableIndex == null && bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
+                NonRecursiveHashMapInt hashTable = new NonRecursiveHashMapInt(x.getLength());
                 NonRecursiveHashSetInt hashSet = new NonRecursiveHashSetInt(x.getLength());
                 for (int i = 0; i < result.length; i++) {
                     hashSet.add(x.getDataAt(i));
                 }
-                for (int i = table.getLength() - 1; i >= 0; i--) {
+                for (int i = 0; i < table.getLength(); i++) {
                     double val = table.getDataAt(i);
                     if (RRuntime.isNA(val) && hashSet.contains(RRuntime.INT_NA)) {
-                        hashTable.put(RRuntime.INT_NA, i);
-                    } else if (val == (int) val && hashSet.contains((int) val)) {
-                        hashTable.put((int) val, i);
+                        hashTable.putIfAbsent(RRuntime.INT_NA, i);
+                    } else if (val == (int) val && (int) val != RRuntime.INT_NA && hashSet.contains((int) val)) {
+                        hashTable.putIfAbsent((int) val, i);
                     }
                 }
-            } else {
-                hashTable = new NonRecursiveHashMapInt(table.getLength());
-                for (int i = table.getLength() - 1; i >= 0; i--) {
-                    double xx = table.getDataAt(i);
-                    if (RRuntime.isNA(xx)) {
-                        hashTable.put(RRuntime.INT_NA, i);
-                    } else if (xx == (int) xx) {
-                        hashTable.put((int) xx, i);
+                for (int i = 0; i < result.length; i++) {
+                    int index = hashTable.get(x.getDataAt(i));
+                    if (index != -1) {
+                        result[i] = index + 1;
+                    } else {
+                        matchAll = false;
                     }
                 }
-            }
-            for (int i = 0; i < result.length; i++) {
-                int xx = x.getDataAt(i);
-                int index = hashTable.get(xx);
-                if (index != -1) {
-                    result[i] = index + 1;
-                } else {
-                    matchAll = false;
+            } else {
+                if (tableIndex == null) {
+                    tableIndex = createIndex(table);
+                }
+                for (int i = 0; i < result.length; i++) {
+                    int index = tableIndex.get(RRuntime.int2double(x.getDataAt(i)));
+                    if (index != -1) {
+                        result[i] = index + 1;
+                    } else {
+                        matchAll = false;
+                    }
                 }
             }
             return RDataFactory.createIntVector(result, setCompleteState(matchAll, nomatch));
@@ -322,23 +356,22 @@ public abstract class Match extends RBuiltinNode.Arg4 {
         protected RIntVector match(RAbstractDoubleVector x, RAbstractDoubleVector table, int nomatch) {
             int[] result = initResult(x.getLength(), nomatch);
             boolean matchAll = true;
-            NonRecursiveHashMapDouble hashTable;
-            if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
-                hashTable = new NonRecursiveHashMapDouble(x.getLength());
-                NonRecursiveHashSetDouble hashSet = new NonRecursiveHashSetDouble(x.getLength());
-                for (int i = 0; i < result.length; i++) {
-                    hashSet.add(x.getDataAt(i));
-                }
-                for (int i = table.getLength() - 1; i >= 0; i--) {
-                    double val = table.getDataAt(i);
-                    if (hashSet.contains(val)) {
-                        hashTable.put(val, i);
+            NonRecursiveHashMapDouble hashTable = cachedIndexProfile.profile(isIndexCacheable(table)) ? getCachedIndex((RDoubleVector) table) : null;
+            if (hashTable == null) {
+                if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
+                    hashTable = new NonRecursiveHashMapDouble(x.getLength());
+                    NonRecursiveHashSetDouble hashSet = new NonRecursiveHashSetDouble(x.getLength());
+                    for (int i = 0; i < result.length; i++) {
+                        hashSet.add(x.getDataAt(i));
                     }
-                }
-            } else {
-                hashTable = new NonRecursiveHashMapDouble(table.getLength());
-                for (int i = table.getLength() - 1; i >= 0; i--) {
-                    hashTable.put(table.getDataAt(i), i);
+                    for (int i = 0; i < table.getLength(); i++) {
+                        double val = table.getDataAt(i);
+                        if (hashSet.contains(val)) {
+                            hashTable.putIfAbsent(val, i);
+                        }
+                    }
+                } else {
+                    hashTable = createIndex(table);
                 }
             }
             for (int i = 0; i < result.length; i++) {
@@ -414,23 +447,22 @@ public abstract class Match extends RBuiltinNode.Arg4 {
         protected RIntVector match(RAbstractStringVector x, RAbstractStringVector table, int nomatch) {
             int[] result = initResult(x.getLength(), nomatch);
             boolean matchAll = true;
-            NonRecursiveHashMapCharacter hashTable;
-            if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
-                hashTable = new NonRecursiveHashMapCharacter(x.getLength());
-                NonRecursiveHashSetCharacter hashSet = new NonRecursiveHashSetCharacter(x.getLength());
-                for (int i = 0; i < result.length; i++) {
-                    hashSet.add(x.getDataAt(i));
-                }
-                for (int i = table.getLength() - 1; i >= 0; i--) {
-                    String val = table.getDataAt(i);
-                    if (hashSet.contains(val)) {
-                        hashTable.put(val, i);
+            NonRecursiveHashMapCharacter hashTable = cachedIndexProfile.profile(isIndexCacheable(table)) ? getCachedIndex((RStringVector) table) : null;
+            if (hashTable == null) {
+                if (bigTableProfile.profile(table.getLength() > (x.getLength() * TABLE_SIZE_FACTOR))) {
+                    hashTable = new NonRecursiveHashMapCharacter(x.getLength());
+                    NonRecursiveHashSetCharacter hashSet = new NonRecursiveHashSetCharacter(x.getLength());
+                    for (int i = 0; i < result.length; i++) {
+                        hashSet.add(x.getDataAt(i));
                     }
-                }
-            } else {
-                hashTable = new NonRecursiveHashMapCharacter(table.getLength());
-                for (int i = table.getLength() - 1; i >= 0; i--) {
-                    hashTable.put(table.getDataAt(i), i);
+                    for (int i = 0; i < table.getLength(); i++) {
+                        String val = table.getDataAt(i);
+                        if (hashSet.contains(val)) {
+                            hashTable.putIfAbsent(val, i);
+                        }
+                    }
+                } else {
+                    hashTable = createIndex(table);
                 }
             }
             for (int i = 0; i < result.length; i++) {
@@ -504,10 +536,7 @@ public abstract class Match extends RBuiltinNode.Arg4 {
             int[] result = initResult(x.getLength(), nomatch);
             boolean matchAll = true;
             RAbstractStringVector stringTable = castString(table);
-            NonRecursiveHashMapCharacter hashTable = new NonRecursiveHashMapCharacter(table.getLength());
-            for (int i = table.getLength() - 1; i >= 0; i--) {
-                hashTable.put(stringTable.getDataAt(i), i);
-            }
+            NonRecursiveHashMapCharacter hashTable = createIndex(stringTable);
             for (int i = 0; i < result.length; i++) {
                 String xx = x.getDataAt(i);
                 int index = hashTable.get(xx);
@@ -531,16 +560,16 @@ public abstract class Match extends RBuiltinNode.Arg4 {
                 for (int i = 0; i < result.length; i++) {
                     hashSet.add(x.getDataAt(i));
                 }
-                for (int i = table.getLength() - 1; i >= 0; i--) {
+                for (int i = 0; i < table.getLength(); i++) {
                     RComplex val = table.getDataAt(i);
                     if (hashSet.contains(val)) {
-                        hashTable.put(val, i);
+                        hashTable.putIfAbsent(val, i);
                     }
                 }
             } else {
                 hashTable = new NonRecursiveHashMapComplex(table.getLength());
-                for (int i = table.getLength() - 1; i >= 0; i--) {
-                    hashTable.put(table.getDataAt(i), i);
+                for (int i = 0; i < table.getLength(); i++) {
+                    hashTable.putIfAbsent(table.getDataAt(i), i);
                 }
             }
             for (int i = 0; i < result.length; i++) {
@@ -569,328 +598,66 @@ public abstract class Match extends RBuiltinNode.Arg4 {
             return nomatch != RRuntime.INT_NA || matchAll ? RDataFactory.COMPLETE_VECTOR : RDataFactory.INCOMPLETE_VECTOR;
         }
 
-        // simple implementations of non-recursive hash-maps to enable compilation
-        // TODO: consider replacing with a more efficient library implementation
-
-        private abstract static class NonRecursiveHashMap {
-
-            protected final int[] values;
-            protected int naValue;
-
-            protected NonRecursiveHashMap(int entryCount) {
-                int capacity = Math.max(entryCount * 3 / 2, 1);
-                values = new int[Integer.highestOneBit(capacity) << 1];
-            }
-
-            protected int index(int hash) {
-                // Multiply by -127
-                return ((hash << 1) - (hash << 8)) & (values.length - 1);
-            }
-        }
-
-        private static final class NonRecursiveHashMapCharacter extends NonRecursiveHashMap {
-
-            private final String[] keys;
-
-            NonRecursiveHashMapCharacter(int approxCapacity) {
-                super(approxCapacity);
-                keys = new String[values.length];
-            }
-
-            public boolean put(String key, int value) {
-                assert value >= 0;
-                if (RRuntime.isNA(key)) {
-                    boolean ret = naValue == 0;
-                    naValue = value + 1;
-                    return ret;
-                } else {
-                    int ind = index(key.hashCode());
-                    while (true) {
-                        if (values[ind] == 0) {
-                            keys[ind] = key;
-                            values[ind] = value + 1;
-                            return false;
-                        } else if (key.equals(keys[ind])) {
-                            values[ind] = value + 1;
-                            return true;
-                        } else {
-                            ind++;
-                            if (ind == values.length) {
-                                ind = 0;
-                            }
-                        }
-                    }
-                }
-            }
-
-            public int get(String key) {
-                if (RRuntime.isNA(key)) {
-                    return naValue - 1;
-                } else {
-                    int ind = index(key.hashCode());
-                    int firstInd = ind;
-                    while (true) {
-                        if (key.equals(keys[ind])) {
-                            return values[ind] - 1;
-                        } else {
-                            ind++;
-                            if (ind == values.length) {
-                                ind = 0;
-                            }
-                            if (ind == firstInd || values[ind] == 0) {
-                                return -1;
-                            }
-                        }
-                    }
-                }
-            }
-        }
-
-        private static final class NonRecursiveHashMapComplex extends NonRecursiveHashMap {
-
-            private final RComplex[] keys;
-
-            NonRecursiveHashMapComplex(int approxCapacity) {
-                super(approxCapacity);
-                keys = new RComplex[values.length];
-            }
-
-            public boolean put(RComplex key, int value) {
-                assert value >= 0;
-                if (RRuntime.isNA(key)) {
-                    boolean ret = naValue == 0;
-                    naValue = value + 1;
-                    return ret;
-                } else {
-                    int ind = index(key.hashCode());
-                    while (true) {
-                        if (values[ind] == 0) {
-                            keys[ind] = key;
-                            values[ind] = value + 1;
-                            return false;
-                        } else if (key.equals(keys[ind])) {
-                            values[ind] = value + 1;
-                            return true;
-                        } else {
-                            ind++;
-                            if (ind == values.length) {
-                                ind = 0;
-                            }
-                        }
-                    }
-                }
-            }
-
-            public int get(RComplex key) {
-                if (RRuntime.isNA(key)) {
-                    return naValue - 1;
-                } else {
-                    int ind = index(key.hashCode());
-                    int firstInd = ind;
-                    while (true) {
-                        if (key.equals(keys[ind])) {
-                            return values[ind] - 1;
-                        } else {
-                            ind++;
-                            if (ind == values.length) {
-                                ind = 0;
-                            }
-                            if (ind == firstInd || values[ind] == 0) {
-                                return -1;
-                            }
-                        }
-                    }
-                }
-            }
+        private static boolean isIndexCacheable(RAbstractVector table) {
+            // only shared vectors, the others are likely temporary or about to be updated in place
+            return table instanceof RVector && table.getLength() >= CACHED_INDEX_MIN_LENGTH && ((RVector<?>) table).isShared();
         }
 
-        private static final class NonRecursiveHashMapDouble extends NonRecursiveHashMap {
-
-            private final double[] keys;
-            private int nanValue;
-
-            NonRecursiveHashMapDouble(int approxCapacity) {
-                super(approxCapacity);
-                keys = new double[values.length];
-                Arrays.fill(keys, RRuntime.DOUBLE_NA);
-            }
-
-            public boolean put(double key, int value) {
-                assert value >= 0;
-                if (RRuntime.isNA(key)) {
-                    boolean ret = naValue == 0;
-                    naValue = value + 1;
-                    return ret;
-                } else if (Double.isNaN(key)) {
-                    boolean ret = nanValue == 0;
-                    nanValue = value + 1;
-                    return ret;
-                } else {
-                    int ind = index(Double.hashCode(key));
-                    while (true) {
-                        if (values[ind] == 0) {
-                            keys[ind] = key;
-                            values[ind] = value + 1;
-                            return false;
-                        } else if (key == keys[ind]) {
-                            values[ind] = value + 1;
-                            return true;
-                        } else {
-                            ind++;
-                            if (ind == values.length) {
-                                ind = 0;
-                            }
-                        }
-                    }
-                }
-            }
-
-            public int get(double key) {
-                if (RRuntime.isNA(key)) {
-                    return naValue - 1;
-                } else if (Double.isNaN(key)) {
-                    return nanValue - 1;
-                } else {
-                    int ind = index(Double.hashCode(key));
-                    int firstInd = ind;
-                    while (true) {
-                        if (key == keys[ind]) {
-                            return values[ind] - 1;
-                        } else {
-                            ind++;
-                            if (ind == values.length) {
-                                ind = 0;
-                            }
-                            if (ind == firstInd || values[ind] == 0) {
-                                return -1;
-                            }
-                        }
-                    }
-                }
+        private static NonRecursiveHashMapInt createIndex(RAbstractIntVector table) {
+            NonRecursiveHashMapInt hashTable = new NonRecursiveHashMapInt(table.getLength());
+            for (int i = 0; i < table.getLength(); i++) {
+                hashTable.putIfAbsent(table.getDataAt(i), i);
             }
+            return hashTable;
         }
 
-        private static final class NonRecursiveHashMapInt extends NonRecursiveHashMap {
-
-            private final int[] keys;
-
-            NonRecursiveHashMapInt(int approxCapacity) {
-                super(approxCapacity);
-                keys = new int[values.length];
-                Arrays.fill(keys, RRuntime.INT_NA);
-            }
-
-            public boolean put(int key, int value) {
-                assert value >= 0;
-                if (RRuntime.isNA(key)) {
-                    boolean ret = naValue == 0;
-                    naValue = value + 1;
-                    return ret;
-                } else {
-                    int ind = index(Integer.hashCode(key));
-                    while (true) {
-                        if (values[ind] == 0) {
-                            keys[ind] = key;
-                            values[ind] = value + 1;
-                            return false;
-                        } else if (key == keys[ind]) {
-                            values[ind] = value + 1;
-                            return true;
-                        } else {
-                            ind++;
-                            if (ind == values.length) {
-                                ind = 0;
-                            }
-                        }
-                    }
-                }
-            }
-
-            public int get(int key) {
-                if (RRuntime.isNA(key)) {
-                    return naValue - 1;
-                } else {
-                    int ind = index(Integer.hashCode(key));
-                    int firstInd = ind;
-                    while (true) {
-                        if (key == keys[ind]) {
-                            return values[ind] - 1;
-                        } else {
-                            ind++;
-                            if (ind == values.length) {
-                                ind = 0;
-                            }
-                            if (ind == firstInd || values[ind] == 0) {
-                                return -1;
-                            }
-                        }
-                    }
-                }
+        private static NonRecursiveHashMapDouble createIndex(RAbstractDoubleVector table) {
+            NonRecursiveHashMapDouble hashTable = new NonRecursiveHashMapDouble(table.getLength());
+            for (int i = 0; i < table.getLength(); i++) {
+                hashTable.putIfAbsent(table.getDataAt(i), i);
             }
+            return hashTable;
         }
 
-        private static class NonRecursiveHashSetInt {
-            private final NonRecursiveHashMapInt map;
-
-            NonRecursiveHashSetInt(int approxCapacity) {
-                map = new NonRecursiveHashMapInt(approxCapacity);
-            }
-
-            public boolean add(int value) {
-                return map.put(value, 1);
-            }
-
-            public boolean contains(int value) {
-                return map.get(value) == 1 ? true : false;
+        private static NonRecursiveHashMapCharacter createIndex(RAbstractStringVector table) {
+            NonRecursiveHashMapCharacter hashTable = new NonRecursiveHashMapCharacter(table.getLength());
+            for (int i = 0; i < table.getLength(); i++) {
+                hashTable.putIfAbsent(table.getDataAt(i), i);
             }
+            return hashTable;
         }
 
-        private static class NonRecursiveHashSetDouble {
-            private final NonRecursiveHashMapDouble map;
-
-            NonRecursiveHashSetDouble(int approxCapacity) {
-                map = new NonRecursiveHashMapDouble(approxCapacity);
-            }
-
-            public boolean add(double value) {
-                return map.put(value, 1);
-            }
-
-            public boolean contains(double value) {
-                return map.get(value) == 1 ? true : false;
+        @TruffleBoundary
+        private static NonRecursiveHashMapInt getCachedIndex(RIntVector table) {
+            Object cached = table.getElementIndex();
+            if (cached instanceof NonRecursiveHashMapInt) {
+                return (NonRecursiveHashMapInt) cached;
             }
+            NonRecursiveHashMapInt index = createIndex(table);
+            table.setElementIndex(index);
+            return index;
         }
 
-        private static class NonRecursiveHashSetCharacter {
-            private final NonRecursiveHashMapCharacter map;
-
-            NonRecursiveHashSetCharacter(int approxCapacity) {
-                map = new NonRecursiveHashMapCharacter(approxCapacity);
-            }
-
-            public boolean add(String value) {
-                return map.put(value, 1);
-            }
-
-            public boolean contains(String value) {
-                return map.get(value) == 1 ? true : false;
+        @TruffleBoundary
+        private static NonRecursiveHashMapDouble getCachedIndex(RDoubleVector table) {
+            Object cached = table.getElementIndex();
+            if (cached instanceof NonRecursiveHashMapDouble) {
+                return (NonRecursiveHashMapDouble) cached;
             }
+            NonRecursiveHashMapDouble index = createIndex(table);
+            table.setElementIndex(index);
+            return index;
         }
 
-        private static class NonRecursiveHashSetComplex {
-            private final NonRecursiveHashMapComplex map;
-
-            NonRecursiveHashSetComplex(int approxCapacity) {
-                map = new NonRecursiveHashMapComplex(approxCapacity);
-            }
-
-            public boolean add(RComplex value) {
-                return map.put(value, 1);
-            }
-
-            public boolean contains(RComplex value) {
-                return map.get(value) == 1 ? true : false;
+        @TruffleBoundary
+        private static NonRecursiveHashMapCharacter getCachedIndex(RStringVector table) {
+            Object cached = table.getElementIndex();
+            if (cached instanceof NonRecursiveHashMapCharacter) {
+                return (NonRecursiveHashMapCharacter) cached;
             }
+            NonRecursiveHashMapCharacter index = createIndex(table);
+            table.setElementIndex(index);
+            return index;
         }
     }
 }
@@ -28,20 +28,28 @@ import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RComplex;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractComplexVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractLogicalVector;
 import com.oracle.truffle.r.runtime.ops.BinaryArithmetic;
+import com.oracle.truffle.r.runtime.ops.VectorReductions;
+import com.oracle.truffle.r.runtime.ops.VectorReductions.Operation;
+import com.oracle.truffle.r.runtime.ops.VectorReductions.Result;
 
 @RBuiltin(name = "mean", kind = INTERNAL, parameterNames = {"x"}, dispatch = INTERNAL_GENERIC, behavior = PURE_SUMMARY)
 public abstract class Mean extends RBuiltinNode.Arg1 {
 
     private final BranchProfile emptyProfile = BranchProfile.create();
+    private final ConditionProfile bulkProfile = ConditionProfile.createBinaryProfile();
 
     @Child private BinaryArithmetic add = BinaryArithmetic.ADD.createOperation();
     @Child private BinaryArithmetic div = BinaryArithmetic.DIV.createOperation();
@@ -56,6 +64,9 @@ public abstract class Mean extends RBuiltinNode.Arg1 {
             emptyProfile.enter();
             return Double.NaN;
         }
+        if (bulkProfile.profile(x instanceof RDoubleVector && x.getLength() >= VectorReductions.MIN_LENGTH)) {
+            return VectorReductions.mean(((RDoubleVector) x).getDataWithoutCopying(), x.getLength());
+        }
         double sum = x.getDataAt(0);
         for (int k = 1; k < x.getLength(); k++) {
             sum = add.op(sum, x.getDataAt(k));
@@ -69,6 +80,10 @@ public abstract class Mean extends RBuiltinNode.Arg1 {
             emptyProfile.enter();
             return Double.NaN;
         }
+        if (bulkProfile.profile(x instanceof RIntVector && x.getLength() >= VectorReductions.MIN_LENGTH)) {
+            Result sum = VectorReductions.reduce(Operation.SUM, ((RIntVector) x).getDataWithoutCopying(), x.getLength(), false);
+            return sum.na ? RRuntime.DOUBLE_NA : (double) sum.longValue / x.getLength();
+        }
         double sum = x.getDataAt(0);
         for (int k = 1; k < x.getLength(); k++) {
             sum = add.op(sum, x.getDataAt(k));
@@ -34,7 +34,6 @@ import com.oracle.truffle.r.nodes.builtin.RPrecedenceBuiltinNode;
 import com.oracle.truffle.r.nodes.builtin.base.OrderNodeGen.CmpNodeGen;
 import com.oracle.truffle.r.nodes.builtin.base.OrderNodeGen.IsAtomicNANodeGen;
 import com.oracle.truffle.r.nodes.builtin.base.OrderNodeGen.OrderVector1NodeGen;
-import com.oracle.truffle.r.nodes.builtin.base.SortFunctions.RadixSort;
 import com.oracle.truffle.r.nodes.unary.CastToVectorNode;
 import com.oracle.truffle.r.nodes.unary.CastToVectorNodeGen;
 import com.oracle.truffle.r.runtime.RError;
@@ -69,11 +68,6 @@ public abstract class Order extends RPrecedenceBuiltinNode {
     private final ConditionProfile notRemoveNAs = ConditionProfile.createBinaryProfile();
     private final ValueProfile vectorProfile = ValueProfile.createClassProfile();
 
-    /**
-     * For use by {@link RadixSort}.
-     */
-    public abstract Object execute(byte naLast, boolean decreasing, RArgsValuesAndNames args);
-
     private static final int[] SINCS = {1073790977, 268460033, 67121153, 16783361, 4197377, 1050113, 262913, 65921, 16577, 4193, 1073, 281, 77, 23, 8, 1, 0};
 
     private RIntVector executeOrderVector1(RAbstractVector v, byte naLast, boolean dec) {
@@ -17,6 +17,7 @@ import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.ValueProfile;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
 import com.oracle.truffle.r.runtime.RError;
@@ -25,6 +26,7 @@ import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RArgsValuesAndNames;
 import com.oracle.truffle.r.runtime.data.RComplex;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RTypedValue;
 import com.oracle.truffle.r.runtime.data.model.RAbstractComplexVector;
@@ -32,6 +34,8 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractLogicalVector;
 import com.oracle.truffle.r.runtime.ops.BinaryArithmetic;
+import com.oracle.truffle.r.runtime.ops.VectorReductions;
+import com.oracle.truffle.r.runtime.ops.VectorReductions.Operation;
 
 @RBuiltin(name = "prod", kind = PRIMITIVE, parameterNames = {"...", "na.rm"}, dispatch = SUMMARY_GROUP_GENERIC, behavior = PURE_SUMMARY)
 public abstract class Prod extends RBuiltinNode.Arg2 {
@@ -106,9 +110,14 @@ public abstract class Prod extends RBuiltinNode.Arg2 {
 
     private final ValueProfile intVecProfile = ValueProfile.createClassProfile();
 
+    private final ConditionProfile bulkProfile = ConditionProfile.createBinaryProfile();
+
     @Specialization
     protected double prod(RAbstractDoubleVector x) {
         RAbstractDoubleVector profiledVec = intVecProfile.profile(x);
+        if (bulkProfile.profile(profiledVec instanceof RDoubleVector && profiledVec.getLength() >= VectorReductions.MIN_LENGTH)) {
+            return VectorReductions.reduce(Operation.PRODUCT, ((RDoubleVector) profiledVec).getDataWithoutCopying(), profiledVec.getLength(), false, false).value;
+        }
         double product = 1;
         for (int k = 0; k < profiledVec.getLength(); k++) {
             product = prod.op(product, profiledVec.getDataAt(k));
@@ -150,6 +150,8 @@ public abstract class Repeat extends RBuiltinNode.Arg2 {
 
         private final ConditionProfile lengthOutOrTimes = ConditionProfile.createBinaryProfile();
         private final ConditionProfile oneTimeGiven = ConditionProfile.createBinaryProfile();
+        private final ConditionProfile constantProfile = ConditionProfile.createBinaryProfile();
+        private final ConditionProfile intConstantProfile = ConditionProfile.createBinaryProfile();
 
         @Child private GetNamesAttributeNode getNames = GetNamesAttributeNode.create();
 
@@ -178,9 +180,14 @@ public abstract class Repeat extends RBuiltinNode.Arg2 {
                         throw error(RError.Message.INVALID_ARGUMENT, "times");
                     }
                     int length = lengthOutOrTimes.profile(!RRuntime.isNA(lengthOut)) ? lengthOut : t;
+                    double value = doubleVector.getDataAt(0);
+                    if (constantProfile.profile(!Double.isNaN(value))) {
+                        // a constant vector is represented by a sequence with stride 0
+                        return RDataFactory.createDoubleSequence(value, 0, length);
+                    }
                     double[] data = new double[length];
-                    Arrays.fill(data, doubleVector.getDataAt(0));
-                    return RDataFactory.createDoubleVector(data, !RRuntime.isNA(doubleVector.getDataAt(0)));
+                    Arrays.fill(data, value);
+                    return RDataFactory.createDoubleVector(data, !RRuntime.isNA(value));
                 } else {
                     CompilerDirectives.transferToInterpreterAndInvalidate();
                     trySimple = false;
@@ -190,6 +197,13 @@ public abstract class Repeat extends RBuiltinNode.Arg2 {
         }
 
         private RAbstractVector repInternal(RAbstractVector x, RAbstractIntVector times, int lengthOut, int each, ConditionProfile hasNamesProfile) {
+            if (intConstantProfile.profile(x instanceof RAbstractIntVector && x.getLength() == 1 && times.getLength() == 1 && each == 1 && x.getAttributes() == null)) {
+                int value = ((RAbstractIntVector) x).getDataAt(0);
+                int t = times.getDataAt(0);
+                if (!RRuntime.isNA(value) && t >= 0) {
+                    return RDataFactory.createIntSequence(value, 0, RRuntime.isNA(lengthOut) ? t : lengthOut);
+                }
+            }
             RAbstractVector input = x;
             if (each != 1) {
                 if (each <= 0) {
@@ -19,6 +19,7 @@ import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
 import java.util.Arrays;
 
+import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
 import com.oracle.truffle.r.runtime.RError;
@@ -28,7 +29,9 @@ import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RComplex;
 import com.oracle.truffle.r.runtime.data.RComplexVector;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleSequence;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntSequence;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RLogicalVector;
@@ -36,8 +39,11 @@ import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RRaw;
 import com.oracle.truffle.r.runtime.data.RRawVector;
 import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
 
+@ImportStatic(RRuntime.class)
 @RBuiltin(name = "rep_len", kind = INTERNAL, parameterNames = {"x", "length.out"}, behavior = PURE)
 public abstract class RepeatLength extends RBuiltinNode.Arg2 {
 
@@ -67,14 +73,24 @@ public abstract class RepeatLength extends RBuiltinNode.Arg2 {
         return RDataFactory.createRawVector(array);
     }
 
-    @Specialization
+    @Specialization(guards = "!isNA(value)")
+    protected RIntSequence repLenConstant(int value, int length) {
+        return RDataFactory.createIntSequence(value, 0, length);
+    }
+
+    @Specialization(replaces = "repLenConstant")
     protected RIntVector repLen(int value, int length) {
         int[] array = new int[length];
         Arrays.fill(array, value);
         return RDataFactory.createIntVector(array, !RRuntime.isNA(value));
     }
 
-    @Specialization
+    @Specialization(guards = "!isNAorNaN(value)")
+    protected RDoubleSequence repLenConstant(double value, int length) {
+        return RDataFactory.createDoubleSequence(value, 0, length);
+    }
+
+    @Specialization(replaces = "repLenConstant")
     protected RDoubleVector repLen(double value, int length) {
         double[] array = new double[length];
         Arrays.fill(array, value);
@@ -119,7 +135,7 @@ public abstract class RepeatLength extends RBuiltinNode.Arg2 {
     }
 
     @Specialization
-    protected RDoubleVector repLen(RDoubleVector value, int length) {
+    protected RDoubleVector repLen(RAbstractDoubleVector value, int length) {
         double[] array = new double[length];
         for (int i = 0, j = 0; i < length; i++, j = Utils.incMod(j, value.getLength())) {
             array[i] = value.getDataAt(j);
@@ -128,7 +144,7 @@ public abstract class RepeatLength extends RBuiltinNode.Arg2 {
     }
 
     @Specialization
-    protected RStringVector repLen(RStringVector vectorToRepeat, int length) {
+    protected RStringVector repLen(RAbstractStringVector vectorToRepeat, int length) {
         String[] result = new String[length];
         int vectorToRepeatLength = vectorToRepeat.getLength();
         for (int i = 0; i < length; i++) {
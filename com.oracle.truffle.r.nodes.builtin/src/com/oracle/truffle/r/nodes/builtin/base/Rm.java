@@ -67,10 +67,14 @@ public abstract class Rm extends RBuiltinNode.Arg3 {
     protected Object rm(RAbstractStringVector list, REnvironment envir, @SuppressWarnings("unused") boolean inherits) {
         try {
             for (int i = 0; i < list.getLength(); i++) {
+                String name = list.getDataAt(i);
                 if (envir == REnvironment.globalEnv()) {
-                    removeFromFrame(envir.getFrame(), list.getDataAt(i));
+                    removeFromFrame(envir.getFrame(), name);
+                } else if (!envir.isLocked() && envir != REnvironment.baseEnv() && envir.get(name) == null) {
+                    // like in the global environment, an unknown object only produces a warning
+                    warning(RError.Message.UNKNOWN_OBJECT, name);
                 } else {
-                    envir.rm(list.getDataAt(i));
+                    envir.rm(name);
                 }
             }
         } catch (PutException ex) {
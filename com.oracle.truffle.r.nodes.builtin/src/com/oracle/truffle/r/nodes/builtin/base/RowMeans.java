@@ -30,6 +30,9 @@ public abstract class RowMeans extends RowSumsBase {
 
     @Specialization
     protected RDoubleVector rowMeans(RAbstractDoubleVector x, int rowNum, int colNum, boolean naRm) {
+        if (isBulk(x)) {
+            return accumulateRowsBulk((RDoubleVector) x, rowNum, colNum, naRm, true);
+        }
         return accumulateRows(x, rowNum, colNum, naRm, RowMeans::getMean, (v, nacheck, i) -> v.getDataAt(i));
     }
 
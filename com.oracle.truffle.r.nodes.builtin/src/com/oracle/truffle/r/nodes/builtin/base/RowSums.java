@@ -29,6 +29,9 @@ public abstract class RowSums extends RowSumsBase {
 
     @Specialization
     protected RDoubleVector rowSums(RAbstractDoubleVector x, int rowNum, int colNum, boolean naRm) {
+        if (isBulk(x)) {
+            return accumulateRowsBulk((RDoubleVector) x, rowNum, colNum, naRm, false);
+        }
         return accumulateRows(x, rowNum, colNum, naRm, (sum, cnt) -> sum, (v, nacheck, i) -> v.getDataAt(i));
     }
 
@@ -29,6 +29,7 @@ import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.ops.BinaryArithmetic;
+import com.oracle.truffle.r.runtime.ops.VectorReductions;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 /**
@@ -58,6 +59,12 @@ public abstract class RowSumsBase extends ColSumsBase {
         double get(double sum, int notNACount);
     }
 
+    protected final RDoubleVector accumulateRowsBulk(RDoubleVector x, int rowNum, int colNum, boolean naRm, boolean mean) {
+        checkVectorLength(x, rowNum, colNum);
+        reportWork(x.getLength());
+        return createBulkResult(VectorReductions.rowSums(x.getDataWithoutCopying(), rowNum, colNum, naRm, mean));
+    }
+
     protected final <T extends RAbstractVector> RDoubleVector accumulateRows(T x, int rowNum, int colNum, boolean naRm, FinalTransform finalTransform, RowSumsBase.GetFunction<T> get) {
         reportWork(x.getLength());
         double[] result = new double[rowNum];
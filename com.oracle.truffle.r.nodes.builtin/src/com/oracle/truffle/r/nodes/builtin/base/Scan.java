@@ -42,7 +42,9 @@ import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.Message;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.conn.ConnectionSupport.BaseRConnection;
 import com.oracle.truffle.r.runtime.conn.RConnection;
 import com.oracle.truffle.r.runtime.conn.StdConnections;
 import com.oracle.truffle.r.runtime.data.RComplex;
@@ -184,14 +186,37 @@ public abstract class Scan extends RBuiltinNode.Arg19 {
         data.skipNull = skipNull;
 
         // TODO: quite a few more things happen in GNU R around connections
-        data.con = RConnection.fromIndex(file);
+        BaseRConnection con = RConnection.fromIndex(file);
+        data.con = con;
 
         data.save = 0;
 
+        // the column reader reads ahead, which is only allowed if the connection is read until
+        // the end or closed afterwards
+        boolean wasOpen = con.isOpen();
         try (RConnection openConn = data.con.forceOpen("r")) {
             if (nskip > 0) {
                 openConn.readLines(nskip, true, skipNull);
             }
+            if (what instanceof RList && !flush && !escapes && !skipNull && ((nmax == 0 && nlines == 0) || !wasOpen) && ScanColumnReader.isSupported(con, sep, dec, quotes, commentChar)) {
+                RType[] types = getColumnTypes((RList) what);
+                if (types != null) {
+                    boolean[] stripColumns = new boolean[types.length];
+                    for (int i = 0; i < types.length; i++) {
+                        stripColumns[i] = stripVec.getDataAt(stripVec.getLength() == 1 ? 0 : i) == RRuntime.LOGICAL_TRUE;
+                    }
+                    ScanColumnReader reader = new ScanColumnReader(this, con, types, stripColumns, sep, quotes, data.decchar, commentChar == NO_COMCHAR ? -1 : commentChar, naStringsVec, fill,
+                                    multiLine, blSkip, nmax, nlines);
+                    RList list = reader.read();
+                    list.setNames(getNames.getNames(what));
+                    if (!quiet) {
+                        int records = ((RAbstractVector) list.getDataAt(0)).getLength();
+                        String s = String.format("Read %d record%s", records, (records == 1) ? "" : "s");
+                        StdConnections.getStdout().writeString(s, true);
+                    }
+                    return list;
+                }
+            }
             if (what instanceof RList) {
                 return scanFrame((RList) what, nmax, nlines, flush, fill, strip == RRuntime.LOGICAL_TRUE, blSkip, multiLine, data);
             } else {
@@ -202,6 +227,28 @@ public abstract class Scan extends RBuiltinNode.Arg19 {
         }
     }
 
+    /**
+     * Returns the column types if all of them are supported by {@link ScanColumnReader},
+     * {@code null} otherwise.
+     */
+    private RType[] getColumnTypes(RList what) {
+        int nc = what.getLength();
+        if (nc == 0) {
+            return null;
+        }
+        RType[] types = new RType[nc];
+        for (int i = 0; i < nc; i++) {
+            if (what.getDataAt(i) == RNull.instance) {
+                return null;
+            }
+            types[i] = castVector(what.getDataAt(i)).getRType();
+            if (!ScanColumnReader.isSupported(types[i])) {
+                return null;
+            }
+        }
+        return types;
+    }
+
     private static int getFirstQuoteInd(String str, char quotechar, Character sepChar) {
         int quoteInd = str.indexOf(quotechar);
         if (quoteInd >= 0) {
@@ -0,0 +1,702 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.ParallelTasks;
+import com.oracle.truffle.r.runtime.RError;
+import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.conn.ConnectionSupport.BaseRConnection;
+import com.oracle.truffle.r.runtime.conn.FileConnections.CompressedRConnection;
+import com.oracle.truffle.r.runtime.conn.FileConnections.FileRConnection;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
+import com.oracle.truffle.r.runtime.nodes.RBaseNode;
+
+/**
+ * Bulk implementation of {@code scan(what = list(...))} on file connections, which is what
+ * {@code read.table} ends up calling. Instead of reading the input line by line into
+ * {@link String}s and splitting those, the bytes are read in large blocks from the connection and
+ * the fields are located in place. Numeric fields are parsed directly from the bytes into the
+ * column buffers and only character fields are decoded into strings. Converting the fields of a
+ * block, which is the expensive part, is distributed by {@link ParallelTasks}.
+ *
+ * The tokenizer works on bytes and therefore requires an ASCII compatible encoding and single byte
+ * separators, quotes, decimal points and comment characters, see {@link #isSupported}.
+ */
+final class ScanColumnReader {
+
+    private static final int BLOCK_SIZE = 1 << 20;
+    private static final int CHUNK_SIZE = 4096;
+    /**
+     * Rough number of elementary operations needed to convert one byte of input (scanning,
+     * trimming, parsing or decoding), see {@link ParallelTasks#isParallel(long)}.
+     */
+    private static final int CONVERSION_COST_PER_BYTE = 8;
+    private static final int INITIAL_CAPACITY = 1000;
+
+    private static final byte QUOTED = 1;
+
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final RBaseNode node;
+    private final BaseRConnection con;
+    private final Charset charset;
+    private final RType[] types;
+    private final boolean[] strip;
+    /** The field separator or {@code -1} if fields are separated by white space. */
+    private final int sep;
+    private final byte[] quotes;
+    private final byte dec;
+    /** The comment character or {@code -1}. */
+    private final int comment;
+    private final byte[][] naStrings;
+    private final boolean fill;
+    private final boolean multiLine;
+    private final boolean blankLinesSkip;
+    private final int maxRecords;
+    private final int maxLines;
+
+    private final Object[] columns;
+    private final boolean[] complete;
+    private int capacity;
+    private int records;
+    private int lines;
+    /** The column of the next field of the current record. */
+    private int column;
+    private boolean done;
+
+    /*
+     * The fields of the current block.
+     */
+    private int fieldCount;
+    private int[] fieldStart = new int[CHUNK_SIZE];
+    private int[] fieldEnd = new int[CHUNK_SIZE];
+    private int[] fieldRecord = new int[CHUNK_SIZE];
+    private int[] fieldColumn = new int[CHUNK_SIZE];
+    private byte[] fieldFlags = new byte[CHUNK_SIZE];
+
+    ScanColumnReader(RBaseNode node, BaseRConnection con, RType[] types, boolean[] strip, String sep, String quotes, char dec, int comment, RAbstractStringVector naStrings, boolean fill,
+                    boolean multiLine, boolean blankLinesSkip, int maxRecords, int maxLines) {
+        this.node = node;
+        this.con = con;
+        this.charset = con.getEncoding();
+        this.types = types;
+        this.strip = strip;
+        this.sep = sep.isEmpty() ? -1 : sep.charAt(0);
+        this.quotes = quotes.getBytes(StandardCharsets.US_ASCII);
+        this.dec = (byte) dec;
+        this.comment = comment;
+        this.naStrings = new byte[naStrings.getLength()][];
+        for (int i = 0; i < naStrings.getLength(); i++) {
+            this.naStrings[i] = naStrings.getDataAt(i).getBytes(charset);
+        }
+        this.fill = fill;
+        this.multiLine = multiLine;
+        this.blankLinesSkip = blankLinesSkip;
+        this.maxRecords = maxRecords;
+        this.maxLines = maxLines;
+        this.columns = new Object[types.length];
+        this.complete = new boolean[types.length];
+        Arrays.fill(complete, true);
+        ensureCapacity(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns {@code true} if the input from {@code con} can be tokenized by this class, i.e., if
+     * it is a file connection with an ASCII compatible encoding and all the special characters are
+     * ASCII. The column types and the remaining arguments are checked by {@link Scan}.
+     */
+    static boolean isSupported(BaseRConnection con, String sep, String dec, String quotes, int comment) {
+        if (!(con instanceof FileRConnection || con instanceof CompressedRConnection)) {
+            return false;
+        }
+        Charset charset = con.getEncoding();
+        if (!(StandardCharsets.UTF_8.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset) || StandardCharsets.US_ASCII.equals(charset))) {
+            return false;
+        }
+        if (sep.length() > 1 || (sep.length() == 1 && !isAscii(sep.charAt(0))) || !isAscii(dec.charAt(0)) || comment >= 128) {
+            return false;
+        }
+        for (int i = 0; i < quotes.length(); i++) {
+            if (!isAscii(quotes.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isSupported(RType type) {
+        return type == RType.Logical || type == RType.Integer || type == RType.Double || type == RType.Character;
+    }
+
+    private static boolean isAscii(char c) {
+        return c > 0 && c < 128;
+    }
+
+    /**
+     * Reads the records and returns the columns (without names). Lines that were pushed back to
+     * the connection are read first.
+     */
+    @TruffleBoundary
+    RList read() throws IOException {
+        byte[] buf = new byte[BLOCK_SIZE];
+        int len = 0;
+        int pushBack = con.pushBackLength();
+        if (pushBack > 0) {
+            for (String line : con.readLines(pushBack, false, false)) {
+                byte[] bytes = (line + '\n').getBytes(charset);
+                if (len + bytes.length > buf.length) {
+                    buf = Arrays.copyOf(buf, Math.max(buf.length * 2, len + bytes.length));
+                }
+                System.arraycopy(bytes, 0, buf, len, bytes.length);
+                len += bytes.length;
+            }
+        }
+        // the channel of the connection also works in text mode and shares the read cache
+        ByteChannel channel = con.getChannel();
+        boolean eof = false;
+        while (true) {
+            while (!eof && len < buf.length) {
+                int read = channel.read(ByteBuffer.wrap(buf, len, buf.length - len));
+                if (read <= 0) {
+                    eof = true;
+                } else {
+                    len += read;
+                }
+            }
+            int consumed = tokenize(buf, len, eof);
+            boolean last = done || (eof && consumed == len);
+            if (last && column > 0) {
+                if (!fill) {
+                    RError.warning(node, RError.Message.ITEMS_NOT_MULTIPLE);
+                }
+                padRecord();
+            }
+            convertFields(buf, consumed);
+            if (last) {
+                break;
+            }
+            len -= consumed;
+            System.arraycopy(buf, consumed, buf, 0, len);
+            if (len == buf.length) {
+                // a single line does not fit into the buffer
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+        }
+        return createColumns();
+    }
+
+    /**
+     * Splits the complete lines in {@code buf[0..limit)} into fields and assigns them to records
+     * and columns. Returns the start of the first line that was not processed.
+     */
+    private int tokenize(byte[] buf, int limit, boolean eof) {
+        int pos = 0;
+        while (!done && pos < limit) {
+            int first = fieldCount;
+            int end = parseLine(buf, pos, limit, eof);
+            if (end < 0) {
+                // incomplete line, needs more input
+                fieldCount = first;
+                return pos;
+            }
+            if (fieldCount == first) {
+                // blank line
+                if (blankLinesSkip) {
+                    pos = end;
+                    continue;
+                }
+                addField(pos, pos, (byte) 0);
+            }
+            pos = end;
+            endLine(first);
+        }
+        return pos;
+    }
+
+    private void endLine(int first) {
+        lines++;
+        int last = fieldCount;
+        for (int i = first; i < last; i++) {
+            fieldRecord[i] = records;
+            fieldColumn[i] = column;
+            if (++column == types.length) {
+                column = 0;
+                records++;
+                if (records == maxRecords) {
+                    // ignore the rest of the line
+                    fieldCount = i + 1;
+                    done = true;
+                    return;
+                }
+            }
+        }
+        if (column > 0) {
+            if (fill) {
+                padRecord();
+            } else if (!multiLine) {
+                throw RError.error(node, RError.Message.LINE_ELEMENTS, lines, types.length);
+            }
+        }
+        if (lines == maxLines) {
+            done = true;
+        }
+    }
+
+    private void padRecord() {
+        while (column < types.length) {
+            addField(0, 0, (byte) 0);
+            fieldRecord[fieldCount - 1] = records;
+            fieldColumn[fieldCount - 1] = column++;
+        }
+        column = 0;
+        records++;
+        if (records == maxRecords) {
+            done = true;
+        }
+    }
+
+    private void addField(int start, int end, byte flags) {
+        if (fieldCount == fieldStart.length) {
+            int newLength = fieldCount * 2;
+            fieldStart = Arrays.copyOf(fieldStart, newLength);
+            fieldEnd = Arrays.copyOf(fieldEnd, newLength);
+            fieldRecord = Arrays.copyOf(fieldRecord, newLength);
+            fieldColumn = Arrays.copyOf(fieldColumn, newLength);
+            fieldFlags = Arrays.copyOf(fieldFlags, newLength);
+        }
+        fieldStart[fieldCount] = start;
+        fieldEnd[fieldCount] = end;
+        fieldFlags[fieldCount] = flags;
+        fieldCount++;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private boolean isQuote(byte b) {
+        for (byte q : quotes) {
+            if (q == b) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isLineEnd(byte b) {
+        return b == '\n' || b == '\r' || b == comment;
+    }
+
+    /**
+     * Adds the fields of the line starting at {@code pos}. Returns the start of the next line, or
+     * {@code -1} if the line is not complete within {@code buf[pos..limit)}.
+     */
+    private int parseLine(byte[] buf, int pos, int limit, boolean eof) {
+        int i = pos;
+        while (i < limit && isBlank(buf[i])) {
+            i++;
+        }
+        if (i == limit) {
+            return eof ? limit : -1;
+        }
+        if (isLineEnd(buf[i])) {
+            return skipLineEnd(buf, i, limit, eof);
+        }
+        if (sep >= 0) {
+            // leading blanks belong to the first field
+            i = pos;
+        }
+        while (true) {
+            if (sep < 0) {
+                while (i < limit && isBlank(buf[i])) {
+                    i++;
+                }
+            }
+            if (i == limit) {
+                return eof ? limit : -1;
+            }
+            if (isLineEnd(buf[i])) {
+                return skipLineEnd(buf, i, limit, eof);
+            }
+            int start = i;
+            byte flags = 0;
+            int j = i;
+            while (j < limit && isBlank(buf[j])) {
+                j++;
+            }
+            if (j < limit && isQuote(buf[j])) {
+                flags = QUOTED;
+                byte quote = buf[j++];
+                while (true) {
+                    if (j >= limit - 1 && !eof) {
+                        // the closing (or doubled) quote may be in the next block
+                        return -1;
+                    }
+                    if (j >= limit) {
+                        break;
+                    }
+                    byte b = buf[j];
+                    if (b == quote) {
+                        if (sep >= 0 && j + 1 < limit && buf[j + 1] == quote) {
+                            j += 2;
+                            continue;
+                        }
+                        j++;
+                        break;
+                    } else if (b == '\\' && sep < 0) {
+                        j += 2;
+                    } else {
+                        j++;
+                    }
+                }
+            } else {
+                j = i;
+            }
+            while (j < limit && !isLineEnd(buf[j]) && (sep >= 0 ? buf[j] != sep : !isBlank(buf[j]))) {
+                j++;
+            }
+            if (j == limit && !eof) {
+                return -1;
+            }
+            addField(start, Math.min(j, limit), flags);
+            if (sep >= 0 && j < limit && buf[j] == sep) {
+                i = j + 1;
+                if (i == limit || isLineEnd(buf[i])) {
+                    // trailing separator: empty last field
+                    if (i == limit && !eof) {
+                        return -1;
+                    }
+                    addField(i, i, (byte) 0);
+                }
+            } else {
+                i = j;
+            }
+        }
+    }
+
+    private int skipLineEnd(byte[] buf, int pos, int limit, boolean eof) {
+        int i = pos;
+        if (buf[i] != '\n' && buf[i] != '\r') {
+            // comment
+            while (i < limit && buf[i] != '\n' && buf[i] != '\r') {
+                i++;
+            }
+            if (i == limit) {
+                return eof ? limit : -1;
+            }
+        }
+        if (buf[i] == '\r') {
+            if (i + 1 == limit) {
+                return eof ? limit : -1;
+            }
+            return buf[i + 1] == '\n' ? i + 2 : i + 1;
+        }
+        return i + 1;
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(size, capacity * 2);
+        for (int i = 0; i < types.length; i++) {
+            Object col = columns[i];
+            switch (types[i]) {
+                case Logical:
+                    columns[i] = col == null ? new byte[newCapacity] : Arrays.copyOf((byte[]) col, newCapacity);
+                    break;
+                case Integer:
+                    columns[i] = col == null ? new int[newCapacity] : Arrays.copyOf((int[]) col, newCapacity);
+                    break;
+                case Double:
+                    columns[i] = col == null ? new double[newCapacity] : Arrays.copyOf((double[]) col, newCapacity);
+                    break;
+                case Character:
+                    columns[i] = col == null ? new String[newCapacity] : Arrays.copyOf((String[]) col, newCapacity);
+                    break;
+                default:
+                    throw RInternalError.shouldNotReachHere();
+            }
+        }
+        capacity = newCapacity;
+    }
+
+    /**
+     * Converts the fields of the current block into the column buffers. Every field is stored in
+     * its own cell, so the chunks can be converted in parallel.
+     */
+    private void convertFields(byte[] buf, int blockLength) {
+        ensureCapacity(records);
+        int count = fieldCount;
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        ParallelTasks.forEach(chunks, (long) blockLength * CONVERSION_COST_PER_BYTE, chunk -> convertFields(buf, chunk * CHUNK_SIZE, Math.min(count, (chunk + 1) * CHUNK_SIZE)));
+        fieldCount = 0;
+    }
+
+    private void convertFields(byte[] buf, int from, int to) {
+        for (int f = from; f < to; f++) {
+            int col = fieldColumn[f];
+            int rec = fieldRecord[f];
+            int start = fieldStart[f];
+            int end = fieldEnd[f];
+            String quoted = (fieldFlags[f] & QUOTED) != 0 ? unquote(buf, start, end) : null;
+            RType type = types[col];
+            if (type == RType.Character) {
+                String value;
+                if (quoted != null) {
+                    value = isNaString(quoted) ? RRuntime.STRING_NA : quoted;
+                } else {
+                    if (strip[col]) {
+                        while (start < end && isBlank(buf[start])) {
+                            start++;
+                        }
+                        while (end > start && isBlank(buf[end - 1])) {
+                            end--;
+                        }
+                    }
+                    value = isNaString(buf, start, end) ? RRuntime.STRING_NA : new String(buf, start, end - start, charset);
+                }
+                ((String[]) columns[col])[rec] = value;
+                if (RRuntime.isNA(value)) {
+                    complete[col] = false;
+                }
+                continue;
+            }
+            boolean na;
+            if (quoted != null) {
+                quoted = quoted.trim();
+                na = quoted.isEmpty() || isNaString(quoted);
+            } else {
+                while (start < end && isBlank(buf[start])) {
+                    start++;
+                }
+                while (end > start && isBlank(buf[end - 1])) {
+                    end--;
+                }
+                na = start == end || isNaString(buf, start, end);
+            }
+            switch (type) {
+                case Logical: {
+                    byte value = na ? RRuntime.LOGICAL_NA : RRuntime.string2logicalNoCheck(quoted != null ? quoted : new String(buf, start, end - start, charset));
+                    ((byte[]) columns[col])[rec] = value;
+                    if (RRuntime.isNA(value)) {
+                        complete[col] = false;
+                    }
+                    break;
+                }
+                case Integer: {
+                    int value = na ? RRuntime.INT_NA : quoted != null ? RRuntime.string2intNoCheck(quoted) : parseInt(buf, start, end);
+                    ((int[]) columns[col])[rec] = value;
+                    if (RRuntime.isNA(value)) {
+                        complete[col] = false;
+                    }
+                    break;
+                }
+                case Double: {
+                    double value = na ? RRuntime.DOUBLE_NA : quoted != null ? parseDoubleSlowPath(quoted) : parseDouble(buf, start, end);
+                    ((double[]) columns[col])[rec] = value;
+                    if (RRuntime.isNA(value)) {
+                        complete[col] = false;
+                    }
+                    break;
+                }
+                default:
+                    throw RInternalError.shouldNotReachHere();
+            }
+        }
+    }
+
+    /**
+     * Removes the quotes from a quoted field. Within the quotes, doubled quotes (with a separator)
+     * or quotes escaped by a backslash (with white space separation) denote the quote itself.
+     */
+    private String unquote(byte[] buf, int start, int end) {
+        byte[] result = new byte[end - start];
+        int len = 0;
+        int i = start;
+        while (i < end && isBlank(buf[i])) {
+            result[len++] = buf[i++];
+        }
+        byte quote = buf[i++];
+        while (i < end) {
+            byte b = buf[i];
+            if (b == quote) {
+                if (sep >= 0 && i + 1 < end && buf[i + 1] == quote) {
+                    result[len++] = quote;
+                    i += 2;
+                    continue;
+                }
+                i++;
+                break;
+            } else if (b == '\\' && sep < 0 && i + 1 < end && buf[i + 1] == quote) {
+                result[len++] = quote;
+                i += 2;
+            } else {
+                result[len++] = b;
+                i++;
+            }
+        }
+        while (i < end) {
+            result[len++] = buf[i++];
+        }
+        return new String(result, 0, len, charset);
+    }
+
+    private boolean isNaString(byte[] buf, int start, int end) {
+        for (byte[] na : naStrings) {
+            if (na.length == end - start) {
+                int i = 0;
+                while (i < na.length && na[i] == buf[start + i]) {
+                    i++;
+                }
+                if (i == na.length) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isNaString(String value) {
+        byte[] bytes = value.getBytes(charset);
+        return isNaString(bytes, 0, bytes.length);
+    }
+
+    private int parseInt(byte[] buf, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (buf[i] == '-' || buf[i] == '+') {
+            negative = buf[i] == '-';
+            i++;
+        }
+        if (i == end || end - i > 9) {
+            return RRuntime.string2intNoCheck(new String(buf, start, end - start, charset));
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            int digit = buf[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return RRuntime.string2intNoCheck(new String(buf, start, end - start, charset));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses plain decimal numbers with at most 15 significant digits and a small exponent, which
+     * can be computed exactly by a single multiplication or division. Everything else is handed to
+     * {@link #parseDoubleSlowPath(String)}.
+     */
+    private double parseDouble(byte[] buf, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (buf[i] == '-' || buf[i] == '+') {
+            negative = buf[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significant = 0;
+        int scale = 0;
+        boolean digits = false;
+        for (; i < end && buf[i] >= '0' && buf[i] <= '9'; i++) {
+            digits = true;
+            if (mantissa != 0 || buf[i] != '0') {
+                mantissa = mantissa * 10 + (buf[i] - '0');
+                significant++;
+            }
+        }
+        if (i < end && buf[i] == dec) {
+            for (i++; i < end && buf[i] >= '0' && buf[i] <= '9'; i++) {
+                digits = true;
+                if (mantissa != 0 || buf[i] != '0') {
+                    mantissa = mantissa * 10 + (buf[i] - '0');
+                    significant++;
+                }
+                scale--;
+            }
+        }
+        if (digits && i < end && (buf[i] == 'e' || buf[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+                negativeExponent = buf[i] == '-';
+                i++;
+            }
+            int exponent = 0;
+            int exponentStart = i;
+            for (; i < end && buf[i] >= '0' && buf[i] <= '9' && i - exponentStart < 5; i++) {
+                exponent = exponent * 10 + (buf[i] - '0');
+            }
+            if (i == exponentStart) {
+                digits = false;
+            }
+            scale += negativeExponent ? -exponent : exponent;
+        }
+        if (!digits || i != end || significant > 15 || scale < -22 || scale > 22) {
+            return parseDoubleSlowPath(new String(buf, start, end - start, charset));
+        }
+        double value = scale >= 0 ? mantissa * POWERS_OF_TEN[scale] : mantissa / POWERS_OF_TEN[-scale];
+        return negative ? -value : value;
+    }
+
+    private double parseDoubleSlowPath(String value) {
+        return RRuntime.string2doubleNoCheck(dec == '.' ? value : value.replace((char) dec, '.'));
+    }
+
+    private RList createColumns() {
+        Object[] data = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Object col = columns[i];
+            switch (types[i]) {
+                case Logical:
+                    data[i] = RDataFactory.createLogicalVector(Arrays.copyOf((byte[]) col, records), complete[i]);
+                    break;
+                case Integer:
+                    data[i] = RDataFactory.createIntVector(Arrays.copyOf((int[]) col, records), complete[i]);
+                    break;
+                case Double:
+                    data[i] = RDataFactory.createDoubleVector(Arrays.copyOf((double[]) col, records), complete[i]);
+                    break;
+                case Character:
+                    data[i] = RDataFactory.createStringVector(Arrays.copyOf((String[]) col, records), complete[i]);
+                    break;
+                default:
+                    throw RInternalError.shouldNotReachHere();
+            }
+        }
+        return RDataFactory.createList(data);
+    }
+}
@@ -45,6 +45,7 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.r.nodes.builtin.NodeWithArgumentCasts.Casts;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
 import com.oracle.truffle.r.runtime.RError;
+import com.oracle.truffle.r.runtime.RadixSorter;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RArgsValuesAndNames;
@@ -60,6 +61,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractListVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractLogicalVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 
 /**
  * The internal functions mandated by {@code base/sort.R}. N.B. We use the standard JDK sorting
@@ -265,12 +267,13 @@ public class SortFunctions {
     /**
      * This a helper function for the code in sort.R. It does NOT return the input vectors sorted,
      * but returns an {@link RIntVector} of indices (positions) indicating the sort order (Or
-     * {@link RNull#instance} if no vectors). In short it is a special variant of {@code order}. For
-     * now we delegate to {@code order} and do not implement the {@code retgrp} argument.
+     * {@link RNull#instance} if no vectors). In short it is a special variant of {@code order}
+     * that supports a separate {@code decreasing} value per key and, if {@code retgrp == TRUE},
+     * returns the group boundaries in the {@code starts} and {@code maxgrpn} attributes. The actual
+     * sorting is done by {@link RadixSorter} in linear time.
      */
     @RBuiltin(name = "radixsort", kind = INTERNAL, parameterNames = {"na.last", "decreasing", "retgrp", "sortstr", "..."}, behavior = PURE)
     public abstract static class RadixSort extends RBuiltinNode.Arg5 {
-        @Child private Order orderNode = OrderNodeGen.create();
 
         static {
             Casts casts = new Casts(RadixSort.class);
@@ -280,14 +283,9 @@ public class SortFunctions {
             casts.arg("sortstr").asLogicalVector().findFirst().map(toBoolean());
         }
 
-        @SuppressWarnings("unused")
         @Specialization
+        @TruffleBoundary
         protected Object radixSort(byte naLast, RAbstractLogicalVector decreasingVec, boolean retgrp, boolean sortstr, RArgsValuesAndNames zz) {
-            // Partial implementation just to get startup to work
-            if (retgrp) {
-                // sortstr only has an effect when retrgrp == true
-                throw RError.nyi(this, "radixsort: retgrp == TRUE not implemented");
-            }
             int nargs = zz.getLength();
             if (nargs == 0) {
                 return RNull.instance;
@@ -295,26 +293,60 @@ public class SortFunctions {
             if (nargs != decreasingVec.getLength()) {
                 throw error(RError.Message.RADIX_SORT_DEC_MATCH);
             }
-            /*
-             * Order takes a single decreasing argument that applies to all the vectors. We
-             * potentially have a different value for each vector, so we have to process one by one.
-             * However, OrderNode can't yet handle that, so we abort if nargs > 1 and the decreasing
-             * values don't match.
-             */
-            byte lastdb = RRuntime.LOGICAL_NA;
             for (int i = 0; i < nargs; i++) {
-                byte db = decreasingVec.getDataAt(i);
-                if (RRuntime.isNA(db)) {
+                if (RRuntime.isNA(decreasingVec.getDataAt(i))) {
                     throw error(RError.Message.RADIX_SORT_DEC_NOT_LOGICAL);
                 }
-                if (lastdb != RRuntime.LOGICAL_NA && db != lastdb) {
-                    throw RError.nyi(this, "radixsort: args > 1 with differing 'decreasing' values not implemented");
+            }
+            Object[] args = new Object[nargs];
+            int n = -1;
+            for (int i = 0; i < nargs; i++) {
+                Object arg = RRuntime.asAbstractVector(zz.getArgument(i));
+                if (!(arg instanceof RAbstractVector)) {
+                    throw error(RError.Message.NOT_A_VECTOR, i + 1);
+                }
+                int len = ((RAbstractVector) arg).getLength();
+                if (n != -1 && len != n) {
+                    throw error(RError.Message.ARGUMENT_LENGTHS_DIFFER);
                 }
-                lastdb = db;
+                n = len;
+                args[i] = arg;
+            }
+            RadixSorter sorter = new RadixSorter(n, nargs);
+            for (int i = 0; i < nargs; i++) {
+                addKey(sorter, args[i], i, RRuntime.fromLogical(decreasingVec.getDataAt(i)), sortstr);
+            }
+            int naLastMode = RRuntime.isNA(naLast) ? 0 : RRuntime.fromLogical(naLast) ? 1 : -1;
+            int[] order = sorter.order(naLastMode, retgrp);
+            for (int i = 0; i < order.length; i++) {
+                order[i]++;
+            }
+            RIntVector result = RDataFactory.createIntVector(order, RDataFactory.COMPLETE_VECTOR);
+            if (retgrp) {
+                result.setAttr("starts", RDataFactory.createIntVector(sorter.getGroupStarts(), RDataFactory.COMPLETE_VECTOR));
+                result.setAttr("maxgrpn", sorter.getMaxGroupSize());
             }
-            boolean decreasing = RRuntime.fromLogical(decreasingVec.getDataAt(0));
-            Object result = orderNode.execute(naLast, decreasing, zz);
             return result;
         }
+
+        private void addKey(RadixSorter sorter, Object arg, int index, boolean decreasing, boolean sortstr) {
+            int n = sorter.getLength();
+            if (arg instanceof RAbstractIntVector) {
+                sorter.addIntKey(((RAbstractIntVector) arg).materialize().getDataWithoutCopying(), decreasing);
+            } else if (arg instanceof RAbstractDoubleVector) {
+                sorter.addDoubleKey(((RAbstractDoubleVector) arg).materialize().getDataWithoutCopying(), decreasing);
+            } else if (arg instanceof RAbstractLogicalVector) {
+                RAbstractLogicalVector vec = (RAbstractLogicalVector) arg;
+                int[] data = new int[n];
+                for (int i = 0; i < n; i++) {
+                    data[i] = RRuntime.logical2int(vec.getDataAt(i));
+                }
+                sorter.addIntKey(data, decreasing);
+            } else if (arg instanceof RAbstractStringVector) {
+                sorter.addStringKey(((RAbstractStringVector) arg).materialize().getDataWithoutCopying(), decreasing, sortstr);
+            } else {
+                throw error(RError.Message.UNIMPLEMENTED_ARG_TYPE, index + 1);
+            }
+        }
     }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.complexValue;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.numericValue;
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.r.nodes.attributes.SpecialAttributesFunctions.GetDimAttributeNode;
+import com.oracle.truffle.r.nodes.attributes.SpecialAttributesFunctions.GetDimNamesAttributeNode;
+import com.oracle.truffle.r.nodes.attributes.SpecialAttributesFunctions.SetDimNamesAttributeNode;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RError;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+
+/**
+ * Computes {@code x %*% t(y)}. For double matrices, the transposition is expressed by strides
+ * passed to {@link MatMult#doubleMatrixMultiply}, so that no transposed copy of {@code y} is
+ * created.
+ */
+@RBuiltin(name = "tcrossprod", kind = INTERNAL, parameterNames = {"x", "y"}, behavior = PURE)
+public abstract class Tcrossprod extends RBuiltinNode.Arg2 {
+
+    @Child private MatMult matMultNoDimNames = MatMultNodeGen.create(/* promoteDimNames: */ false);
+    @Child private MatMult matMult;
+    @Child private Transpose transpose;
+    @Child private GetDimNamesAttributeNode getXDimNamesNode = GetDimNamesAttributeNode.create();
+    @Child private GetDimNamesAttributeNode getYDimNamesNode = GetDimNamesAttributeNode.create();
+    @Child private SetDimNamesAttributeNode setDimNamesNode = SetDimNamesAttributeNode.create();
+
+    private final ConditionProfile noDimNames = ConditionProfile.createBinaryProfile();
+
+    static {
+        Casts casts = new Casts(Tcrossprod.class);
+        casts.arg("x").mustBe(numericValue().or(complexValue()), RError.Message.NUMERIC_COMPLEX_MATRIX_VECTOR).boxPrimitive();
+        casts.arg("y").defaultError(RError.Message.NUMERIC_COMPLEX_MATRIX_VECTOR).allowNull().mustBe(numericValue().or(complexValue())).boxPrimitive();
+    }
+
+    private Object matMult(Object op1, Object op2) {
+        if (matMult == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            matMult = insert(MatMultNodeGen.create(/* promoteDimNames: */ true));
+        }
+        return matMult.executeObject(op1, op2);
+    }
+
+    private Object transpose(RAbstractVector value) {
+        if (transpose == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            transpose = insert(TransposeNodeGen.create());
+        }
+        return transpose.execute(value);
+    }
+
+    /**
+     * The result has the row names of {@code x} and of {@code y} as its dimnames.
+     */
+    private RDoubleVector setRowNames(RDoubleVector result, RAbstractVector x, RAbstractVector y) {
+        RList xDimNames = getXDimNamesNode.getDimNames(x);
+        RList yDimNames = getYDimNamesNode.getDimNames(y);
+        Object rowNames = xDimNames == null || xDimNames.getLength() == 0 ? RNull.instance : xDimNames.getDataAt(0);
+        Object colNames = yDimNames == null || yDimNames.getLength() == 0 ? RNull.instance : yDimNames.getDataAt(0);
+        if (noDimNames.profile(rowNames == RNull.instance && colNames == RNull.instance)) {
+            return result;
+        }
+        setDimNamesNode.setDimNames(result, RDataFactory.createList(new Object[]{rowNames, colNames}));
+        return result;
+    }
+
+    @Specialization(guards = {"x.isMatrix()", "y.isMatrix()"})
+    protected RDoubleVector tcrossprod(RAbstractDoubleVector x, RAbstractDoubleVector y,
+                    @Cached("create()") GetDimAttributeNode getXDimsNode,
+                    @Cached("create()") GetDimAttributeNode getYDimsNode) {
+        int[] xDims = getXDimsNode.getDimensions(x);
+        int[] yDims = getYDimsNode.getDimensions(y);
+        int xRows = xDims[0];
+        int xCols = xDims[1];
+        int yRows = yDims[0];
+        int yCols = yDims[1];
+        return setRowNames(matMultNoDimNames.doubleMatrixMultiply(x, y, xRows, xCols, yCols, yRows, 1, xRows, yRows, 1, false), x, y);
+    }
+
+    @Specialization
+    protected Object tcrossprod(RAbstractVector x, RAbstractVector y) {
+        return matMult(x, transpose(y));
+    }
+
+    @Specialization(guards = "x.isMatrix()")
+    protected RDoubleVector tcrossprodDoubleMatrix(RAbstractDoubleVector x, @SuppressWarnings("unused") RNull y,
+                    @Cached("create()") GetDimAttributeNode getDimsNode,
+                    @Cached("create()") GetDimAttributeNode getResultDimsNode) {
+        int[] xDims = getDimsNode.getDimensions(x);
+        int xRows = xDims[0];
+        int xCols = xDims[1];
+        RDoubleVector result = matMultNoDimNames.doubleMatrixMultiply(x, x, xRows, xCols, xCols, xRows, 1, xRows, xRows, 1, true);
+        return setRowNames(Crossprod.mirror(result, getResultDimsNode), x, x);
+    }
+
+    @Specialization
+    protected Object tcrossprod(RAbstractVector x, @SuppressWarnings("unused") RNull y) {
+        return matMult(x, transpose(x));
+    }
+}
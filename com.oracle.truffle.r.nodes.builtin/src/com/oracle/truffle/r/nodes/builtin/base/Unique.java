@@ -35,10 +35,11 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
-import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSet;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetCharacter;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetComplex;
 import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetDouble;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashSetInt;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.Message;
 import com.oracle.truffle.r.runtime.RRuntime;
@@ -51,7 +52,6 @@ import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RLogicalVector;
 import com.oracle.truffle.r.runtime.data.RNull;
-import com.oracle.truffle.r.runtime.data.RRaw;
 import com.oracle.truffle.r.runtime.data.RRawVector;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractComplexVector;
@@ -62,15 +62,8 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractRawVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
 
 @RBuiltin(name = "unique", kind = INTERNAL, parameterNames = {"x", "incomparables", "fromLast", "nmax"}, behavior = PURE)
-// TODO A more efficient implementation is in order; GNU R uses hash tables so perhaps we should
-// consider using one of the existing libraries that offer hash table implementations for primitive
-// types
 public abstract class Unique extends RBuiltinNode.Arg4 {
 
-    private static final long BIG_THRESHOLD = 100;
-
-    private final ConditionProfile bigProfile = ConditionProfile.createBinaryProfile();
-
     static {
         Casts casts = new Casts(Unique.class);
         // these are similar to those in DuplicatedFunctions.java
@@ -98,29 +91,16 @@ public abstract class Unique extends RBuiltinNode.Arg4 {
                     @Cached("vecIn.getClass()") Class<? extends RAbstractStringVector> vecClass) {
         RAbstractStringVector vec = vecClass.cast(vecIn);
         reportWork(vec.getLength());
-        if (bigProfile.profile(vec.getLength() * (long) vec.getLength() > BIG_THRESHOLD)) {
-            NonRecursiveHashSet<String> set = new NonRecursiveHashSet<>(vec.getLength());
-            String[] data = new String[vec.getLength()];
-            int ind = 0;
-            for (int i = 0; i < vec.getLength(); i++) {
-                String val = vec.getDataAt(i);
-                if (!set.add(val)) {
-                    data[ind++] = val;
-                }
-            }
-            return RDataFactory.createStringVector(Arrays.copyOf(data, ind), vec.isComplete());
-        } else {
-            ArrayList<String> dataList = new ArrayList<>(vec.getLength());
-            for (int i = 0; i < vec.getLength(); i++) {
-                String s = vec.getDataAt(i);
-                if (!dataList.contains(s)) {
-                    dataList.add(s);
-                }
+        NonRecursiveHashSetCharacter set = new NonRecursiveHashSetCharacter(vec.getLength());
+        String[] data = new String[vec.getLength()];
+        int ind = 0;
+        for (int i = 0; i < vec.getLength(); i++) {
+            String val = vec.getDataAt(i);
+            if (!set.add(val)) {
+                data[ind++] = val;
             }
-            String[] data = new String[dataList.size()];
-            dataList.toArray(data);
-            return RDataFactory.createStringVector(data, vec.isComplete());
         }
+        return RDataFactory.createStringVector(Arrays.copyOf(data, ind), vec.isComplete());
     }
 
     @Specialization(replaces = "doUniqueCachedString")
@@ -128,156 +108,22 @@ public abstract class Unique extends RBuiltinNode.Arg4 {
         return doUniqueCachedString(vec, incomparables, fromLast, nmax, RAbstractStringVector.class);
     }
 
-    // these are intended to stay private as they will go away once we figure out which external
-    // library to use
-
-    private static class IntArray {
-        int[] backingArray;
-        int index;
-
-        IntArray(int len) {
-            this.backingArray = new int[len];
-            index = 0;
-        }
-
-        public boolean contains(int val) {
-            for (int i = 0; i < index; i++) {
-                if (backingArray[i] == val) {
-                    return true;
-                }
-            }
-            return false;
-        }
-
-        public void add(int val) {
-            backingArray[index++] = val;
-        }
-
-        public int[] toArray() {
-            int[] newArray = new int[index];
-            System.arraycopy(backingArray, 0, newArray, 0, index);
-            return newArray;
-        }
-    }
-
-    private static class DoubleArray {
-        double[] backingArray;
-        int index;
-
-        DoubleArray(int len) {
-            this.backingArray = new double[len];
-            index = 0;
-        }
-
-        public boolean contains(double val) {
-            for (int i = 0; i < index; i++) {
-                if (backingArray[i] == val) {
-                    return true;
-                }
-            }
-            return false;
-        }
-
-        public void add(double val) {
-            backingArray[index++] = val;
-        }
-
-        public double[] toArray() {
-            double[] newArray = new double[index];
-            System.arraycopy(backingArray, 0, newArray, 0, index);
-            return newArray;
-        }
-    }
-
-    private static class DoubleArrayForComplex {
-        double[] backingArray;
-        int index;
-
-        DoubleArrayForComplex(int len) {
-            this.backingArray = new double[len << 1];
-            index = 0;
-        }
-
-        public boolean contains(RComplex val) {
-            for (int i = 0; i < index; i++) {
-                if (backingArray[i << 1] == val.getRealPart() && backingArray[(i << 1) + 1] == val.getImaginaryPart()) {
-                    return true;
-                }
-            }
-            return false;
-        }
-
-        public void add(RComplex val) {
-            backingArray[index++] = val.getRealPart();
-            backingArray[index++] = val.getImaginaryPart();
-        }
-
-        public double[] toArray() {
-            double[] newArray = new double[index];
-            System.arraycopy(backingArray, 0, newArray, 0, index);
-            return newArray;
-        }
-    }
-
-    private static class ByteArray {
-        byte[] backingArray;
-        int index;
-
-        ByteArray(int len) {
-            this.backingArray = new byte[len];
-            index = 0;
-        }
-
-        public boolean contains(byte val) {
-            for (int i = 0; i < index; i++) {
-                if (backingArray[i] == val) {
-                    return true;
-                }
-            }
-            return false;
-        }
-
-        public void add(byte val) {
-            backingArray[index++] = val;
-        }
-
-        public byte[] toArray() {
-            byte[] newArray = new byte[index];
-            System.arraycopy(backingArray, 0, newArray, 0, index);
-            return newArray;
-        }
-    }
-
     @SuppressWarnings("unused")
     @Specialization(guards = "vecIn.getClass() == vecClass")
     protected RIntVector doUniqueCached(RAbstractIntVector vecIn, byte incomparables, byte fromLast, int nmax,
                     @Cached("vecIn.getClass()") Class<? extends RAbstractIntVector> vecClass) {
         RAbstractIntVector vec = vecClass.cast(vecIn);
         reportWork(vec.getLength());
-        if (bigProfile.profile(vec.getLength() * (long) vec.getLength() > BIG_THRESHOLD)) {
-            NonRecursiveHashSetInt set = new NonRecursiveHashSetInt();
-            int[] data = new int[16];
-            int ind = 0;
-            for (int i = 0; i < vec.getLength(); i++) {
-                int val = vec.getDataAt(i);
-                if (!set.add(val)) {
-                    if (ind == data.length) {
-                        data = Arrays.copyOf(data, data.length << 1);
-                    }
-                    data[ind++] = val;
-                }
-            }
-            return RDataFactory.createIntVector(Arrays.copyOf(data, ind), vec.isComplete());
-        } else {
-            IntArray dataList = new IntArray(vec.getLength());
-            for (int i = 0; i < vec.getLength(); i++) {
-                int val = vec.getDataAt(i);
-                if (!dataList.contains(val)) {
-                    dataList.add(val);
-                }
+        NonRecursiveHashSetInt set = new NonRecursiveHashSetInt(vec.getLength());
+        int[] data = new int[vec.getLength()];
+        int ind = 0;
+        for (int i = 0; i < vec.getLength(); i++) {
+            int val = vec.getDataAt(i);
+            if (!set.add(val)) {
+                data[ind++] = val;
             }
-            return RDataFactory.createIntVector(dataList.toArray(), vec.isComplete());
         }
+        return RDataFactory.createIntVector(Arrays.copyOf(data, ind), vec.isComplete());
     }
 
     @Specialization(replaces = "doUniqueCached")
@@ -333,148 +179,72 @@ public abstract class Unique extends RBuiltinNode.Arg4 {
         return list.getLength() == 1;
     }
 
-    private static final class NonRecursiveHashSetInt {
-
-        private int[] keys;
-        private int size;
-        private boolean containsZero;
-
-        NonRecursiveHashSetInt() {
-            keys = new int[64];
-        }
-
-        public boolean add(int key) {
-            if (key == 0) {
-                if (containsZero) {
-                    return true;
-                } else {
-                    containsZero = true;
-                    return false;
-                }
-            }
-            int ind = Math.abs(Integer.hashCode(key)) & (keys.length - 1);
-            while (true) {
-                if (keys[ind] == 0) {
-                    keys[ind] = key;
-                    size++;
-                    if (size << 1 == keys.length) {
-                        int[] newKeys = new int[keys.length << 1];
-                        for (int rehashKey : keys) {
-                            if (rehashKey != 0) {
-                                int tmpInd = Math.abs(Integer.hashCode(rehashKey)) & (newKeys.length - 1);
-                                while (newKeys[tmpInd] != 0) {
-                                    assert newKeys[tmpInd] != rehashKey;
-                                    tmpInd = (tmpInd + 1) & (newKeys.length - 1);
-                                }
-                                newKeys[tmpInd] = rehashKey;
-                            }
-                        }
-
-                        keys = newKeys;
-                    }
-                    return false;
-                } else if (key == keys[ind]) {
-                    return true;
-                } else {
-                    ind = (ind + 1) & (keys.length - 1);
-                }
-            }
-        }
-    }
-
     @SuppressWarnings("unused")
     @Specialization
     protected RDoubleVector doUnique(RAbstractDoubleVector vec, byte incomparables, byte fromLast, int nmax) {
         reportWork(vec.getLength());
-        if (bigProfile.profile(vec.getLength() * (long) vec.getLength() > BIG_THRESHOLD)) {
-            NonRecursiveHashSetDouble set = new NonRecursiveHashSetDouble(vec.getLength());
-            double[] data = new double[vec.getLength()];
-            int ind = 0;
-            for (int i = 0; i < vec.getLength(); i++) {
-                double val = vec.getDataAt(i);
-                if (!set.add(val)) {
-                    data[ind++] = val;
-                }
-            }
-            return RDataFactory.createDoubleVector(Arrays.copyOf(data, ind), vec.isComplete());
-        } else {
-            DoubleArray dataList = new DoubleArray(vec.getLength());
-            for (int i = 0; i < vec.getLength(); i++) {
-                double val = vec.getDataAt(i);
-                if (!dataList.contains(val)) {
-                    dataList.add(val);
-                }
+        NonRecursiveHashSetDouble set = new NonRecursiveHashSetDouble(vec.getLength());
+        double[] data = new double[vec.getLength()];
+        int ind = 0;
+        for (int i = 0; i < vec.getLength(); i++) {
+            double val = vec.getDataAt(i);
+            if (!set.add(val)) {
+                data[ind++] = val;
             }
-            return RDataFactory.createDoubleVector(dataList.toArray(), vec.isComplete());
         }
+        return RDataFactory.createDoubleVector(Arrays.copyOf(data, ind), vec.isComplete());
     }
 
     @SuppressWarnings("unused")
     @Specialization
     protected RLogicalVector doUnique(RAbstractLogicalVector vec, byte incomparables, byte fromLast, int nmax) {
         reportWork(vec.getLength());
-        ByteArray dataList = new ByteArray(vec.getLength());
-        for (int i = 0; i < vec.getLength(); i++) {
+        // TRUE, FALSE and NA are the only possible values, no need to hash
+        boolean[] seen = new boolean[256];
+        byte[] data = new byte[3];
+        int ind = 0;
+        for (int i = 0; i < vec.getLength() && ind < data.length; i++) {
             byte val = vec.getDataAt(i);
-            if (!dataList.contains(val)) {
-                dataList.add(val);
+            if (!seen[val & 0xff]) {
+                seen[val & 0xff] = true;
+                data[ind++] = val;
             }
         }
-        return RDataFactory.createLogicalVector(dataList.toArray(), vec.isComplete());
+        return RDataFactory.createLogicalVector(Arrays.copyOf(data, ind), vec.isComplete());
     }
 
     @SuppressWarnings("unused")
     @Specialization
     protected RComplexVector doUnique(RAbstractComplexVector vec, byte incomparables, byte fromLast, int nmax) {
         reportWork(vec.getLength());
-        if (bigProfile.profile(vec.getLength() * (long) vec.getLength() > BIG_THRESHOLD)) {
-            NonRecursiveHashSet<RComplex> set = new NonRecursiveHashSet<>(vec.getLength());
-            double[] data = new double[vec.getLength() * 2];
-            int ind = 0;
-            for (int i = 0; i < vec.getLength(); i++) {
-                RComplex val = vec.getDataAt(i);
-                if (!set.add(val)) {
-                    data[ind++] = val.getRealPart();
-                    data[ind++] = val.getImaginaryPart();
-                }
-            }
-            return RDataFactory.createComplexVector(Arrays.copyOf(data, ind), vec.isComplete());
-        } else {
-            DoubleArrayForComplex dataList = new DoubleArrayForComplex(vec.getLength());
-            for (int i = 0; i < vec.getLength(); i++) {
-                RComplex s = vec.getDataAt(i);
-                if (!dataList.contains(s)) {
-                    dataList.add(s);
-                }
+        NonRecursiveHashSetComplex set = new NonRecursiveHashSetComplex(vec.getLength());
+        double[] data = new double[vec.getLength() * 2];
+        int ind = 0;
+        for (int i = 0; i < vec.getLength(); i++) {
+            RComplex val = vec.getDataAt(i);
+            if (!set.add(val)) {
+                data[ind++] = val.getRealPart();
+                data[ind++] = val.getImaginaryPart();
             }
-            return RDataFactory.createComplexVector(dataList.toArray(), vec.isComplete());
         }
+        return RDataFactory.createComplexVector(Arrays.copyOf(data, ind), vec.isComplete());
     }
 
     @SuppressWarnings("unused")
     @Specialization
     protected RRawVector doUnique(RAbstractRawVector vec, byte incomparables, byte fromLast, int nmax) {
         reportWork(vec.getLength());
-        if (bigProfile.profile(vec.getLength() * (long) vec.getLength() > BIG_THRESHOLD)) {
-            NonRecursiveHashSet<RRaw> set = new NonRecursiveHashSet<>(vec.getLength());
-            byte[] data = new byte[vec.getLength()];
-            int ind = 0;
-            for (int i = 0; i < vec.getLength(); i++) {
-                RRaw val = vec.getDataAt(i);
-                if (!set.add(val)) {
-                    data[ind++] = val.getValue();
-                }
-            }
-            return RDataFactory.createRawVector(Arrays.copyOf(data, ind));
-        } else {
-            ByteArray dataList = new ByteArray(vec.getLength());
-            for (int i = 0; i < vec.getLength(); i++) {
-                byte val = vec.getDataAt(i).getValue();
-                if (!dataList.contains(val)) {
-                    dataList.add(val);
-                }
-            }
-            return RDataFactory.createRawVector(dataList.toArray());
-        }
+        // there are only 256 raw values, no need to hash
+        boolean[] seen = new boolean[256];
+        byte[] data = new byte[Math.min(vec.getLength(), seen.length)];
+        int ind = 0;
+        for (int i = 0; i < vec.getLength() && ind < data.length; i++) {
+            byte val = vec.getRawDataAt(i);
+            if (!seen[val & 0xff]) {
+                seen[val & 0xff] = true;
+                data[ind++] = val;
+            }
+        }
+        return RDataFactory.createRawVector(Arrays.copyOf(data, ind));
     }
 }
@@ -209,8 +209,8 @@ public abstract class VApply extends RBuiltinNode.Arg4 {
             RStringVector newNames = null;
             if (names != null) {
                 newNames = names;
-            } else if (vecMat instanceof RStringVector) {
-                newNames = (RStringVector) vecMat.copy();
+            } else if (vecMat instanceof RAbstractStringVector) {
+                newNames = (RStringVector) ((RAbstractStringVector) vecMat).materialize().copy();
             }
             if (newNames != null) {
                 setNamesNode.setNames(result, newNames);
@@ -214,8 +214,8 @@ public abstract class WriteTable extends RExternalBuiltinNode.Arg11 {
         if (indx < 0 || indx >= x.getLength()) {
             throw new IllegalArgumentException("index out of range");
         }
-        if (x instanceof RStringVector) {
-            RStringVector sx = (RStringVector) x;
+        if (x instanceof RAbstractStringVector) {
+            RAbstractStringVector sx = (RAbstractStringVector) x;
             String p0 = /* translateChar */sx.getDataAt(indx);
             return encodeStringElement(p0, quote, qmethod);
         }
@@ -252,8 +252,8 @@ public abstract class WriteTable extends RExternalBuiltinNode.Arg11 {
             return RRuntime.isNA(((RDoubleVector) x).getDataAt(indx));
         } else if (x instanceof RIntVector) {
             return RRuntime.isNA(((RIntVector) x).getDataAt(indx));
-        } else if (x instanceof RStringVector) {
-            return RRuntime.isNA(((RStringVector) x).getDataAt(indx));
+        } else if (x instanceof RAbstractStringVector) {
+            return RRuntime.isNA(((RAbstractStringVector) x).getDataAt(indx));
         } else if (x instanceof RComplexVector) {
             RComplexVector cvec = (RComplexVector) x;
             RComplex c = cvec.getDataAt(indx);
@@ -87,6 +87,7 @@ import com.oracle.truffle.r.runtime.data.RRaw;
 import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractLogicalVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractRawVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.interop.Foreign2R;
@@ -581,6 +582,9 @@ public class FastRInterop {
         @TruffleBoundary
         public Object toArray(RAbstractLogicalVector vec, @SuppressWarnings("unused") RMissing className, boolean flat,
                         @Cached("createR2Foreign()") R2Foreign r2Foreign) {
+            if (isOneDimensional(flat, vec)) {
+                return JavaInterop.asTruffleObject(toBooleanArray(vec));
+            }
             return toArray(vec, flat, boolean.class, (array, i) -> Array.set(array, i, r2Foreign.execute(vec.getDataAt(i))));
         }
 
@@ -588,32 +592,71 @@ public class FastRInterop {
         @TruffleBoundary
         public Object toArray(RAbstractLogicalVector vec, String className, boolean flat,
                         @Cached("createR2Foreign()") R2Foreign r2Foreign) {
-            return toArray(vec, flat, getClazz(className), (array, i) -> Array.set(array, i, r2Foreign.execute(vec.getDataAt(i))));
+            Class<?> clazz = getClazz(className);
+            if (clazz == boolean.class && isOneDimensional(flat, vec)) {
+                return JavaInterop.asTruffleObject(toBooleanArray(vec));
+            }
+            return toArray(vec, flat, clazz, (array, i) -> Array.set(array, i, r2Foreign.execute(vec.getDataAt(i))));
         }
 
         @Specialization
         @TruffleBoundary
         public Object toArray(RAbstractIntVector vec, @SuppressWarnings("unused") RMissing className, boolean flat,
                         @Cached("createR2Foreign()") R2Foreign r2Foreign) {
+            if (isOneDimensional(flat, vec)) {
+                return JavaInterop.asTruffleObject(vec.materialize().getDataCopy());
+            }
             return toArray(vec, flat, int.class, (array, i) -> Array.set(array, i, r2Foreign.execute(vec.getDataAt(i))));
         }
 
         @Specialization
         @TruffleBoundary
         public Object toArray(RAbstractIntVector vec, String className, boolean flat) {
-            return toArray(vec, flat, getClazz(className), (array, i) -> Array.set(array, i, vec.getDataAt(i)));
+            Class<?> clazz = getClazz(className);
+            if (clazz == int.class && isOneDimensional(flat, vec)) {
+                return JavaInterop.asTruffleObject(vec.materialize().getDataCopy());
+            }
+            return toArray(vec, flat, clazz, (array, i) -> Array.set(array, i, vec.getDataAt(i)));
         }
 
         @Specialization
         @TruffleBoundary
         public Object toArray(RAbstractDoubleVector vec, @SuppressWarnings("unused") RMissing className, boolean flat) {
+            if (isOneDimensional(flat, vec)) {
+                return JavaInterop.asTruffleObject(vec.materialize().getDataCopy());
+            }
             return toArray(vec, flat, double.class, (array, i) -> Array.set(array, i, vec.getDataAt(i)));
         }
 
         @Specialization
         @TruffleBoundary
         public Object toArray(RAbstractDoubleVector vec, String className, boolean flat) {
-            return toArray(vec, flat, getClazz(className), (array, i) -> Array.set(array, i, vec.getDataAt(i)));
+            Class<?> clazz = getClazz(className);
+            if (clazz == double.class && isOneDimensional(flat, vec)) {
+                return JavaInterop.asTruffleObject(vec.materialize().getDataCopy());
+            }
+            return toArray(vec, flat, clazz, (array, i) -> Array.set(array, i, vec.getDataAt(i)));
+        }
+
+        @Specialization
+        @TruffleBoundary
+        public Object toArray(RAbstractRawVector vec, @SuppressWarnings("unused") RMissing className, boolean flat,
+                        @Cached("createR2Foreign()") R2Foreign r2Foreign) {
+            if (isOneDimensional(flat, vec)) {
+                return JavaInterop.asTruffleObject(vec.materialize().getDataCopy());
+            }
+            return toArray(vec, flat, byte.class, (array, i) -> Array.set(array, i, r2Foreign.execute(vec.getDataAt(i))));
+        }
+
+        @Specialization
+        @TruffleBoundary
+        public Object toArray(RAbstractRawVector vec, String className, boolean flat,
+                        @Cached("createR2Foreign()") R2Foreign r2Foreign) {
+            Class<?> clazz = getClazz(className);
+            if (clazz == byte.class && isOneDimensional(flat, vec)) {
+                return JavaInterop.asTruffleObject(vec.materialize().getDataCopy());
+            }
+            return toArray(vec, flat, clazz, (array, i) -> Array.set(array, i, r2Foreign.execute(vec.getDataAt(i))));
         }
 
         @Specialization
@@ -675,6 +718,23 @@ public class FastRInterop {
             return dims;
         }
 
+        /**
+         * Vectors that end up in a one-dimensional Java array whose component type matches the
+         * vector store are converted in bulk by copying the store instead of setting the elements
+         * one by one via reflection.
+         */
+        private static boolean isOneDimensional(boolean flat, RAbstractVector vec) {
+            return getDim(flat, vec).length == 1;
+        }
+
+        private static boolean[] toBooleanArray(RAbstractLogicalVector vec) {
+            boolean[] result = new boolean[vec.getLength()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = RRuntime.fromLogical(vec.getDataAt(i));
+            }
+            return result;
+        }
+
         private static Object toArray(RAbstractVector vec, boolean flat, Class<?> clazz, VecElementToArray vecToArray) throws IllegalArgumentException, ArrayIndexOutOfBoundsException {
             int[] dims = getDim(flat, vec);
             final Object array = Array.newInstance(clazz, dims);
@@ -732,12 +792,14 @@ public class FastRInterop {
     }
 
     @ImportStatic({Message.class, RRuntime.class})
-    @RBuiltin(name = ".fastr.interop.fromArray", visibility = ON, kind = PRIMITIVE, parameterNames = {"array"}, behavior = COMPLEX)
-    public abstract static class FromForeignArray extends RBuiltinNode.Arg1 {
+    @RBuiltin(name = ".fastr.interop.fromArray", visibility = ON, kind = PRIMITIVE, parameterNames = {"array", "share"}, behavior = COMPLEX)
+    public abstract static class FromForeignArray extends RBuiltinNode.Arg2 {
 
         static {
             Casts casts = new Casts(FromForeignArray.class);
             casts.arg("array").mustNotBeMissing();
+            casts.arg("share").mapMissing(Predef.constant(RRuntime.LOGICAL_FALSE)).mustBe(logicalValue()).asLogicalVector().mustBe(singleElement()).findFirst().mustBe(
+                            notLogicalNA()).map(Predef.toBoolean());
         }
 
         private final ConditionProfile isArrayProfile = ConditionProfile.createBinaryProfile();
@@ -748,10 +810,17 @@ public class FastRInterop {
 
         @Specialization(guards = {"isForeignObject(obj)"})
         @TruffleBoundary
-        public Object fromArray(TruffleObject obj,
+        public Object fromArray(TruffleObject obj, boolean share,
                         @Cached("HAS_SIZE.createNode()") Node hasSize,
                         @Cached("createForeignArray2R()") ForeignArray2R array2R) {
             if (isArrayProfile.profile(ForeignAccess.sendHasSize(hasSize, obj))) {
+                if (share) {
+                    // Java double[] and int[] can back an R vector directly, anything else is copied
+                    RAbstractVector wrapped = ForeignArray2R.wrapJavaArray(obj);
+                    if (wrapped != null) {
+                        return wrapped;
+                    }
+                }
                 return array2R.execute(obj);
             } else {
                 throw error(RError.Message.GENERIC, "not a java array");
@@ -759,7 +828,7 @@ public class FastRInterop {
         }
 
         @Fallback
-        public Object fromObject(@SuppressWarnings("unused") Object obj) {
+        public Object fromObject(@SuppressWarnings("unused") Object obj, @SuppressWarnings("unused") Object share) {
             throw error(RError.Message.GENERIC, "not a java array");
         }
     }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2016, 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr.memprof;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.gte;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.singleElement;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
+import static com.oracle.truffle.r.runtime.RVisibility.OFF;
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.IO;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.instrument.memprof.MemAllocSampler;
+
+/**
+ * Starts ({@code on = TRUE}) or stops the sampling of allocations by call stack and type, see
+ * {@link MemAllocSampler}. Starting discards the data of a previous session.
+ */
+@RBuiltin(name = ".fastr.profmem.sample", visibility = OFF, kind = PRIMITIVE, parameterNames = {"on", "interval"}, behavior = IO)
+public abstract class FastRprofmemSample extends RBuiltinNode.Arg2 {
+
+    public static final double DEFAULT_INTERVAL = 512 * 1024;
+
+    static {
+        Casts casts = new Casts(FastRprofmemSample.class);
+        casts.arg("on").asLogicalVector().mustBe(singleElement()).findFirst().map(toBoolean());
+        casts.arg("interval").asDoubleVector().mustBe(singleElement()).findFirst().mustBe(gte(0.0));
+    }
+
+    @Override
+    public Object[] getDefaultParameterValues() {
+        return new Object[]{RRuntime.LOGICAL_TRUE, DEFAULT_INTERVAL};
+    }
+
+    @Specialization
+    @TruffleBoundary
+    public Object doSample(boolean on, double interval) {
+        MemAllocSampler sampler = MemAllocSampler.get();
+        if (on) {
+            sampler.start((long) interval);
+        } else {
+            sampler.stop();
+        }
+        return RNull.instance;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2016, 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr.memprof;
+
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.IO;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.instrument.memprof.MemAllocSampler;
+
+/**
+ * Returns the allocations sampled by {@code .fastr.profmem.sample} aggregated by the type of the
+ * allocated values, as a list with the components {@code type}, {@code bytes} and {@code samples}.
+ */
+@RBuiltin(name = ".fastr.profmem.types", kind = PRIMITIVE, parameterNames = {}, behavior = IO)
+public abstract class FastRprofmemTypes extends RBuiltinNode.Arg0 {
+
+    private static final String[] NAMES = new String[]{"type", "bytes", "samples"};
+
+    @Specialization
+    @TruffleBoundary
+    public RList doTypes() {
+        MemAllocSampler sampler = MemAllocSampler.get();
+        RType[] types = sampler.getSampledTypes();
+        String[] typeNames = new String[types.length];
+        double[] bytes = new double[types.length];
+        double[] samples = new double[types.length];
+        for (int i = 0; i < types.length; i++) {
+            long[] totals = sampler.getTypeTotals(types[i]);
+            typeNames[i] = types[i].getName();
+            bytes[i] = totals[0];
+            samples[i] = totals[1];
+        }
+        Object[] data = new Object[]{RDataFactory.createStringVector(typeNames, true), RDataFactory.createDoubleVector(bytes, true), RDataFactory.createDoubleVector(samples, true)};
+        return RDataFactory.createList(data, RDataFactory.createStringVector(NAMES, true));
+    }
+}
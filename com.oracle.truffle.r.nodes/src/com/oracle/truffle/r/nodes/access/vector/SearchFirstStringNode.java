@@ -187,7 +187,7 @@ final class SearchFirstStringNode extends Node {
             for (int i = 0; i < targetLength; i++) {
                 String name = target.getDataAt(i);
                 if (!targetNACheck.check(name)) {
-                    map.put(name, i);
+                    map.putIfAbsent(name, i);
                 }
             }
         } else {
@@ -264,7 +264,7 @@ abstract class WriteIndexedVectorNode extends Node {
         int stride = strideProfile.profile(position.getStride());
         int end = start + positionLength * stride;
 
-        if (start < 0 || end <= 0) {
+        if (start < 0 || end <= 0 || stride == 0) {
             throw new SlowPathException("rewrite to doIntegerPosition");
         }
 
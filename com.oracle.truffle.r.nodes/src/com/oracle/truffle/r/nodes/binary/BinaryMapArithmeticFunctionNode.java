@@ -260,6 +260,11 @@ public final class BinaryMapArithmeticFunctionNode extends BinaryMapNAFunctionNo
                 return null;
             }
         }
+        if (!RRuntime.isFinite(newStart) || !RRuntime.isFinite(newStride)) {
+            // e.g. a zero stride times Inf, or a sign change divided by zero: the elements are
+            // not start + i * stride any more
+            return null;
+        }
         return RDataFactory.createDoubleSequence(newStart, newStride, castSequence.getLength());
     }
 
@@ -294,6 +299,10 @@ public final class BinaryMapArithmeticFunctionNode extends BinaryMapNAFunctionNo
                 return null;
             }
         }
+        if (!RRuntime.isFinite(newStart) || !RRuntime.isFinite(newStride)) {
+            // see foldDoubleSequence
+            return null;
+        }
         return RDataFactory.createDoubleSequence(newStart, newStride, castSequence.getLength());
     }
 
@@ -58,6 +58,7 @@ import com.oracle.truffle.r.runtime.RArguments;
 import com.oracle.truffle.r.runtime.RArguments.DispatchArgs;
 import com.oracle.truffle.r.runtime.RArguments.S3Args;
 import com.oracle.truffle.r.runtime.RArguments.S4Args;
+import com.oracle.truffle.r.runtime.RCaller;
 import com.oracle.truffle.r.runtime.RDeparse;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RErrorHandling;
@@ -73,6 +74,7 @@ import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RPairList;
 import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor;
 import com.oracle.truffle.r.runtime.env.frame.RFrameSlot;
+import com.oracle.truffle.r.runtime.instrument.InstrumentationState;
 import com.oracle.truffle.r.runtime.nodes.RCodeBuilder;
 import com.oracle.truffle.r.runtime.nodes.RNode;
 import com.oracle.truffle.r.runtime.nodes.RSyntaxCall;
@@ -269,6 +271,16 @@ public final class FunctionDefinitionNode extends RRootNode implements RSyntaxNo
 
     @Override
     public Object execute(VirtualFrame frame) {
+        InstrumentationState sampling = null;
+        RCaller previousCall = null;
+        if (!InstrumentationState.getNoCallSamplingAssumption().isValid()) {
+            // a sampling profiler (Rprof) is running in some context
+            InstrumentationState state = RContext.getInstance().stateInstrumentation;
+            if (state.isCallSampling()) {
+                sampling = state;
+                previousCall = sampling.enterSampledCall(RArguments.getCall(frame));
+            }
+        }
         boolean runOnExitHandlers = true;
         try {
             verifyEnclosingAssumptions(frame);
@@ -310,6 +322,9 @@ public final class FunctionDefinitionNode extends RRootNode implements RSyntaxNo
             runOnExitHandlers = false;
             throw e instanceof RInternalError ? (RInternalError) e : new RInternalError(e, e.toString());
         } finally {
+            if (sampling != null) {
+                sampling.exitSampledCall(previousCall);
+            }
             /*
              * Although a user function may throw an exception from an onExit handler, all
              * evaluations are wrapped in an anonymous function (see REngine.makeCallTarget) that
@@ -19,6 +19,7 @@ import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.CompilerDirectives.ValueType;
 import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.FrameSlotTypeException;
 import com.oracle.truffle.api.frame.MaterializedFrame;
@@ -38,6 +39,7 @@ import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.S3DispatchTable;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RFunction;
@@ -415,6 +417,11 @@ public abstract class S3FunctionLookupNode extends RBaseNode {
         }
     }
 
+    /**
+     * The megamorphic case: the lookup is performed from scratch, but its results are kept in the
+     * {@link S3DispatchTable} of the context, so that dispatch on classes that were already seen
+     * does not need to walk the environments again.
+     */
     private static final class UseMethodFunctionLookupGenericNode extends S3FunctionLookupNode {
 
         protected UseMethodFunctionLookupGenericNode(boolean throwsError, boolean nextMethod) {
@@ -428,36 +435,57 @@ public abstract class S3FunctionLookupNode extends RBaseNode {
 
         @TruffleBoundary
         private Result executeInternal(String genericName, RStringVector type, String group, MaterializedFrame callerFrame, MaterializedFrame genericDefFrame) {
-            LookupOperation op = (lookupFrame, name, inMethodsTable) -> {
-                return ReadVariableNode.lookupFunction(name, lookupFrame, inMethodsTable, true);
-            };
+            Object methodsTable = getMethodsTable(genericDefFrame);
+            MaterializedFrame methodsTableFrame = methodsTable == null ? null : ((REnvironment) methodsTable).getFrame();
+
+            S3DispatchTable dispatchTable = RContext.getInstance().s3DispatchTable;
+            FrameDescriptor callerDescriptor = callerFrame.getFrameDescriptor();
+            Result result = (Result) dispatchTable.get(genericName, type, group, nextMethod, callerDescriptor, methodsTableFrame);
+            if (result != null) {
+                return result;
+            }
 
-            GetMethodsTable getTable = () -> {
-                FrameSlot slot = genericDefFrame == null ? null : genericDefFrame.getFrameDescriptor().findFrameSlot(RRuntime.RS3MethodsTable);
-                if (slot == null) {
-                    return null;
-                }
-                try {
-                    return FrameSlotChangeMonitor.getObject(slot, genericDefFrame);
-                } catch (FrameSlotTypeException e) {
-                    throw RInternalError.shouldNotReachHere();
-                }
+            S3DispatchTable.Dependencies dependencies = new S3DispatchTable.Dependencies();
+            LookupOperation op = (lookupFrame, name, inMethodsTable) -> {
+                RFunction function = ReadVariableNode.lookupFunction(name, lookupFrame, inMethodsTable, true);
+                dependencies.add(lookupFrame, name, function);
+                return function;
             };
 
-            Result result = performLookup(callerFrame, genericName, group, type, nextMethod, op, getTable);
+            result = performLookup(callerFrame, genericName, group, type, nextMethod, op, () -> methodsTable);
 
             if (result == null) {
                 if (throwsError) {
                     RFunction function = RContext.getInstance().lookupBuiltin(genericName);
                     if (function != null) {
-                        return new Result(genericName, function, RNull.instance, genericName, false);
+                        result = new Result(genericName, function, RNull.instance, genericName, false);
+                        dispatchTable.put(genericName, type, group, nextMethod, callerDescriptor, methodsTableFrame, result, dependencies);
+                        return result;
                     }
                     throw RError.error(this, RError.Message.UNKNOWN_FUNCTION_USE_METHOD, genericName, RRuntime.toString(type));
                 } else {
                     return null;
                 }
             }
+            dispatchTable.put(genericName, type, group, nextMethod, callerDescriptor, methodsTableFrame, result, dependencies);
             return result;
         }
+
+        private static Object getMethodsTable(MaterializedFrame genericDefFrame) {
+            FrameSlot slot = genericDefFrame == null ? null : genericDefFrame.getFrameDescriptor().findFrameSlot(RRuntime.RS3MethodsTable);
+            if (slot == null) {
+                return null;
+            }
+            Object methodsTable;
+            try {
+                methodsTable = FrameSlotChangeMonitor.getObject(slot, genericDefFrame);
+            } catch (FrameSlotTypeException e) {
+                throw RInternalError.shouldNotReachHere();
+            }
+            if (methodsTable instanceof RPromise) {
+                methodsTable = PromiseHelperNode.evaluateSlowPath((RPromise) methodsTable);
+            }
+            return methodsTable;
+        }
     }
 }
@@ -38,8 +38,8 @@ import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RLogicalVector;
 import com.oracle.truffle.r.runtime.data.RNull;
-import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.data.RSymbol;
+import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.interop.ForeignArray2R;
 import com.oracle.truffle.r.runtime.interop.ForeignArray2RNodeGen;
@@ -105,7 +105,7 @@ public abstract class CastSymbolNode extends CastBaseNode {
     }
 
     @Specialization(guards = "value.getLength() > 0")
-    protected RSymbol doStringVector(RStringVector value) {
+    protected RSymbol doStringVector(RAbstractStringVector value) {
         // Only element 0 interpreted
         return doString(value.getDataAt(0));
     }
@@ -45,6 +45,7 @@ import com.oracle.truffle.r.runtime.data.RPairList;
 import com.oracle.truffle.r.runtime.data.RRaw;
 import com.oracle.truffle.r.runtime.data.RRawVector;
 import com.oracle.truffle.r.runtime.data.RS4Object;
+import com.oracle.truffle.r.runtime.data.RStringSequence;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.data.RSymbol;
 import com.oracle.truffle.r.runtime.env.REnvironment;
@@ -143,6 +144,11 @@ public abstract class PrecedenceNode extends RBaseNode {
         return STRING_PRECEDENCE;
     }
 
+    @Specialization
+    protected int doString(RStringSequence val, boolean recursive) {
+        return STRING_PRECEDENCE;
+    }
+
     @Specialization
     protected int doFunction(RFunction func, boolean recursive) {
         return LIST_PRECEDENCE;
@@ -39,11 +39,15 @@ import com.oracle.truffle.r.runtime.data.RLogicalVector;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RRaw;
 import com.oracle.truffle.r.runtime.data.RRawVector;
+import com.oracle.truffle.r.runtime.data.RStringSequence;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.data.RTypes;
 import com.oracle.truffle.r.runtime.nodes.RBaseNode;
 import com.oracle.truffle.r.runtime.ops.BinaryArithmetic;
 import com.oracle.truffle.r.runtime.ops.BinaryArithmeticFactory;
+import com.oracle.truffle.r.runtime.ops.VectorReductions;
+import com.oracle.truffle.r.runtime.ops.VectorReductions.Operation;
+import com.oracle.truffle.r.runtime.ops.VectorReductions.Result;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 /**
@@ -67,11 +71,19 @@ public abstract class UnaryArithmeticReduceNode extends RBaseNode {
 
     private final NACheck na = NACheck.create();
     private final ConditionProfile naRmProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile bulkProfile = ConditionProfile.createBinaryProfile();
+
+    /**
+     * The operation if long vectors can be reduced by {@link VectorReductions}, {@code null}
+     * otherwise.
+     */
+    private final Operation bulkOperation;
 
     protected UnaryArithmeticReduceNode(ReduceSemantics semantics, BinaryArithmeticFactory factory) {
         this.factory = factory;
         this.semantics = semantics;
         this.arithmetic = factory.createOperation();
+        this.bulkOperation = VectorReductions.getOperation(factory);
     }
 
     private String handleString(RStringVector operand, boolean naRm, boolean finite, int offset) {
@@ -208,10 +220,26 @@ public abstract class UnaryArithmeticReduceNode extends RBaseNode {
     protected int doIntVector(RIntVector operand, boolean naRm, boolean finite) {
         RBaseNode.reportWork(this, operand.getLength());
         boolean profiledNaRm = naRmProfile.profile(naRm || finite);
-        int result = semantics.getIntStart();
+        if (bulkProfile.profile(bulkOperation != null && bulkOperation != Operation.PRODUCT && operand.getLength() >= VectorReductions.MIN_LENGTH)) {
+            Result bulk = VectorReductions.reduce(bulkOperation, operand.getDataWithoutCopying(), operand.getLength(), profiledNaRm);
+            if (bulk.na) {
+                return RRuntime.INT_NA;
+            } else if (bulk.count == 0) {
+                emptyWarning();
+                return semantics.getIntStart();
+            } else if (bulk.longValue > Integer.MAX_VALUE || bulk.longValue <= Integer.MIN_VALUE) {
+                naResultWarning();
+                return RRuntime.INT_NA;
+            }
+            return (int) bulk.longValue;
+        }
         na.enable(operand);
-        int opCount = 0;
         int[] data = operand.getDataWithoutCopying();
+        if (bulkOperation == Operation.SUM) {
+            return sumIntVector(data, operand.getLength(), profiledNaRm);
+        }
+        int result = semantics.getIntStart();
+        int opCount = 0;
         for (int i = 0; i < operand.getLength(); i++) {
             int d = data[i];
             if (na.check(d)) {
@@ -235,6 +263,30 @@ public abstract class UnaryArithmeticReduceNode extends RBaseNode {
         return result;
     }
 
+    /**
+     * Like GNU R's {@code irsum}, the sum is accumulated exactly and only the final value is checked
+     * for integer overflow, which is also what {@link VectorReductions} does for long vectors.
+     */
+    private int sumIntVector(int[] data, int length, boolean profiledNaRm) {
+        long result = 0;
+        for (int i = 0; i < length; i++) {
+            int d = data[i];
+            if (na.check(d)) {
+                if (profiledNaRm) {
+                    continue;
+                } else {
+                    return RRuntime.INT_NA;
+                }
+            }
+            result += d;
+        }
+        if (result > Integer.MAX_VALUE || result <= Integer.MIN_VALUE) {
+            naResultWarning();
+            return RRuntime.INT_NA;
+        }
+        return (int) result;
+    }
+
     @Specialization
     protected double doDoubleVector(RDoubleVector operand, boolean naRm, boolean finite,
                     @Cached("createBinaryProfile()") ConditionProfile finiteProfile,
@@ -242,6 +294,13 @@ public abstract class UnaryArithmeticReduceNode extends RBaseNode {
         RBaseNode.reportWork(this, operand.getLength());
         boolean profiledNaRm = naRmProfile.profile(naRm || finite);
         boolean profiledFinite = finiteProfile.profile(finite);
+        if (bulkProfile.profile(bulkOperation != null && operand.getLength() >= VectorReductions.MIN_LENGTH)) {
+            Result bulk = VectorReductions.reduce(bulkOperation, operand.getDataWithoutCopying(), operand.getLength(), profiledNaRm, profiledFinite);
+            if (!bulk.na && bulk.count == 0) {
+                emptyWarning();
+            }
+            return bulk.value;
+        }
         double result = semantics.getDoubleStart();
         na.enable(operand);
         int opCount = 0;
@@ -414,6 +473,18 @@ public abstract class UnaryArithmeticReduceNode extends RBaseNode {
         }
     }
 
+    @Specialization
+    protected String doStringSequence(RStringSequence operand, boolean naRm, boolean finite) {
+        RStringVector vector = operand.materialize();
+        if (vector.getLength() == 0) {
+            return doStringVectorEmpty(vector, naRm, finite);
+        } else if (vector.getLength() == 1) {
+            return doStringVectorOneElem(vector, naRm, finite);
+        } else {
+            return doStringVector(vector, naRm, finite);
+        }
+    }
+
     @SuppressWarnings("unused")
     @Specialization
     protected RRaw doString(RRawVector operand, boolean naRm, boolean finite) {
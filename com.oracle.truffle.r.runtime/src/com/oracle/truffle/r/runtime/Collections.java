@@ -22,234 +22,337 @@
  */
 package com.oracle.truffle.r.runtime;
 
-import java.util.Arrays;
-
 import com.oracle.truffle.r.runtime.data.RComplex;
 
+/**
+ * Primitive-specialized hash maps and sets shared by {@code match}, {@code unique},
+ * {@code duplicated} and the other builtins that look up vector elements by value. The maps use
+ * open addressing with linear probing over power-of-two tables that grow to keep the load factor
+ * at or below one half, so no element is boxed and no node is allocated per entry.
+ *
+ * Keys are compared the way R compares vector elements: {@code NA} and {@code NaN} are distinct
+ * keys, each equal only to itself, {@code -0} equals {@code 0}, strings are equal when their
+ * contents are equal (except for {@code NA}) and a complex number with {@code NA} or {@code NaN}
+ * in either part equals any other such number, as in GnuR.
+ */
 public final class Collections {
 
     private Collections() {
         // private
     }
 
-    // simple implementations of non-recursive hash-maps to enable compilation
-    // TODO: consider replacing with a more efficient library implementation
-
-    public static class NonRecursiveHashSet<KEY> {
-
-        private Object[] keys;
-
-        public NonRecursiveHashSet(int approxCapacity) {
-            keys = new Object[Math.max(approxCapacity, 1)];
-        }
-
-        public boolean add(KEY key) {
-            int ind = Math.abs(key.hashCode()) % keys.length;
-            int firstInd = ind;
-            while (true) {
-                if (keys[ind] == null) {
-                    keys[ind] = key;
-                    return false;
-                } else if (key.equals(keys[ind])) {
-                    return true;
-                } else {
-                    ind = (ind + 1) % keys.length;
-                    if (ind == firstInd) {
-                        // resize
-                        Object[] newKeys = new Object[keys.length + keys.length / 2];
-                        for (int i = 0; i < keys.length; i++) {
-                            if (keys[i] != null) {
-                                int tmpInd = Math.abs(keys[i].hashCode()) % newKeys.length;
-                                while (true) {
-                                    if (newKeys[tmpInd] == null) {
-                                        newKeys[tmpInd] = keys[i];
-                                        break;
-                                    } else {
-                                        assert !keys[i].equals(newKeys[tmpInd]);
-                                        tmpInd = (tmpInd + 1) % newKeys.length;
-                                    }
-                                }
-                            }
-                        }
-
-                        keys = newKeys;
-
-                        // start hashing from the beginning
-                        ind = Math.abs(key.hashCode()) % keys.length;
-                    }
-                }
+    private abstract static class NonRecursiveHashMap {
+
+        private static final int MIN_CAPACITY = 16;
+        private static final int MAX_CAPACITY = 1 << 30;
+
+        /**
+         * The value stored in each slot plus one, {@code 0} marks a free slot.
+         */
+        protected int[] values;
+        protected int size;
+        private int shift;
+
+        protected NonRecursiveHashMap(int entryCount) {
+            int capacity = MIN_CAPACITY;
+            while (capacity < 2L * entryCount && capacity < MAX_CAPACITY) {
+                capacity <<= 1;
             }
+            values = new int[capacity];
+            shift = Integer.numberOfLeadingZeros(capacity) + 1;
         }
-    }
 
-    public static class NonRecursiveHashSetDouble {
+        protected final int index(int hash) {
+            // Fibonacci hashing, spreads clustered keys (e.g. small integers) over the table
+            return (hash * 0x9E3779B9) >>> shift;
+        }
 
-        private double[] keys;
+        protected final int next(int ind) {
+            return (ind + 1) & (values.length - 1);
+        }
 
-        public NonRecursiveHashSetDouble(int approxCapacity) {
-            keys = new double[Math.max(approxCapacity, 1)];
-            Arrays.fill(keys, RRuntime.DOUBLE_NA);
+        /**
+         * Accounts for a newly inserted key and answers whether the table needs to grow.
+         */
+        protected final boolean added() {
+            size++;
+            return size > (values.length >> 1) && values.length < MAX_CAPACITY;
         }
 
-        public boolean add(double key) {
-            int ind = Math.abs(Double.hashCode(key)) % keys.length;
-            int firstInd = ind;
-            while (true) {
-                if (RRuntime.isNAorNaN(keys[ind])) {
-                    keys[ind] = key;
-                    return false;
-                } else if (key == keys[ind]) {
-                    return true;
-                } else {
-                    ind = (ind + 1) % keys.length;
-                    if (ind == firstInd) {
-                        // resize
-                        double[] newKeys = new double[keys.length + keys.length / 2];
-                        Arrays.fill(newKeys, RRuntime.DOUBLE_NA);
-                        for (int i = 0; i < keys.length; i++) {
-                            if (!RRuntime.isNAorNaN(keys[i])) {
-                                int tmpInd = Math.abs(Double.hashCode(keys[i])) % newKeys.length;
-                                while (true) {
-                                    if (RRuntime.isNAorNaN(newKeys[tmpInd])) {
-                                        newKeys[tmpInd] = keys[i];
-                                        break;
-                                    } else {
-                                        assert keys[i] != newKeys[tmpInd];
-                                        tmpInd = (tmpInd + 1) % newKeys.length;
-                                    }
-                                }
-                            }
-                        }
-
-                        keys = newKeys;
-
-                        // start hashing from the beginning
-                        ind = Math.abs(Double.hashCode(key)) % keys.length;
-                    }
-                }
-            }
+        /**
+         * Replaces {@link #values} with an empty table of twice the size and returns the old one.
+         */
+        protected final int[] grow() {
+            int[] oldValues = values;
+            values = new int[oldValues.length << 1];
+            shift--;
+            return oldValues;
+        }
+
+        /**
+         * The number of distinct keys in the map.
+         */
+        public final int size() {
+            return size;
         }
     }
 
-    public static class NonRecursiveHashSetInt {
+    public static final class NonRecursiveHashMapInt extends NonRecursiveHashMap {
 
         private int[] keys;
 
-        public NonRecursiveHashSetInt(int approxCapacity) {
-            keys = new int[Math.max(approxCapacity, 1)];
-            Arrays.fill(keys, RRuntime.INT_NA);
+        public NonRecursiveHashMapInt(int approxCapacity) {
+            super(approxCapacity);
+            keys = new int[values.length];
         }
 
-        public boolean add(int key) {
-            int ind = Math.abs(Integer.hashCode(key)) % keys.length;
-            int firstInd = ind;
-            while (true) {
-                if (RRuntime.isNA(keys[ind])) {
-                    keys[ind] = key;
-                    return false;
-                } else if (key == keys[ind]) {
-                    return true;
-                } else {
-                    ind = (ind + 1) % keys.length;
-                    if (ind == firstInd) {
-                        // resize
-                        int[] newKeys = new int[keys.length + keys.length / 2];
-                        Arrays.fill(newKeys, RRuntime.INT_NA);
-                        for (int i = 0; i < keys.length; i++) {
-                            if (!RRuntime.isNA(keys[i])) {
-                                int tmpInd = Math.abs(Integer.hashCode(keys[i])) % newKeys.length;
-                                while (true) {
-                                    if (RRuntime.isNA(newKeys[tmpInd])) {
-                                        newKeys[tmpInd] = keys[i];
-                                        break;
-                                    } else {
-                                        assert keys[i] != newKeys[tmpInd];
-                                        tmpInd = (tmpInd + 1) % newKeys.length;
-                                    }
-                                }
-                            }
-                        }
-
-                        keys = newKeys;
-
-                        // start hashing from the beginning
-                        ind = Math.abs(Integer.hashCode(key)) % keys.length;
+        /**
+         * Associates {@code value} with {@code key} and answers whether the key was present.
+         */
+        public boolean put(int key, int value) {
+            return insert(key, value, true) != -1;
+        }
+
+        /**
+         * Associates {@code value} with {@code key} unless the key is present, returns the value
+         * associated before or {@code -1}.
+         */
+        public int putIfAbsent(int key, int value) {
+            return insert(key, value, false);
+        }
+
+        private int insert(int key, int value, boolean replace) {
+            assert value >= 0;
+            int ind = index(key);
+            while (values[ind] != 0) {
+                if (keys[ind] == key) {
+                    int old = values[ind] - 1;
+                    if (replace) {
+                        values[ind] = value + 1;
+                    }
+                    return old;
+                }
+                ind = next(ind);
+            }
+            keys[ind] = key;
+            values[ind] = value + 1;
+            if (added()) {
+                rehash();
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the value associated with {@code key} or {@code -1}.
+         */
+        public int get(int key) {
+            int ind = index(key);
+            while (values[ind] != 0) {
+                if (keys[ind] == key) {
+                    return values[ind] - 1;
+                }
+                ind = next(ind);
+            }
+            return -1;
+        }
+
+        private void rehash() {
+            int[] oldKeys = keys;
+            int[] oldValues = grow();
+            keys = new int[values.length];
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != 0) {
+                    int ind = index(oldKeys[i]);
+                    while (values[ind] != 0) {
+                        ind = next(ind);
                     }
+                    keys[ind] = oldKeys[i];
+                    values[ind] = oldValues[i];
                 }
             }
         }
     }
 
-    private abstract static class NonRecursiveHashMap {
+    public static final class NonRecursiveHashMapDouble extends NonRecursiveHashMap {
 
-        protected final int[] values;
-        protected int naValue;
+        private static final long NA_BITS = Double.doubleToRawLongBits(RRuntime.DOUBLE_NA);
+        private static final long NAN_BITS = Double.doubleToLongBits(Double.NaN);
 
-        protected NonRecursiveHashMap(int entryCount) {
-            int capacity = Math.max(entryCount * 3 / 2, 1);
-            values = new int[Integer.highestOneBit(capacity) << 1];
+        private long[] keys;
+
+        public NonRecursiveHashMapDouble(int approxCapacity) {
+            super(approxCapacity);
+            keys = new long[values.length];
+        }
+
+        static long keyBits(double key) {
+            if (Double.isNaN(key)) {
+                // all NaN payloads other than NA denote the same key
+                return RRuntime.isNA(key) ? NA_BITS : NAN_BITS;
+            }
+            // also folds -0 into 0
+            return key == 0 ? 0L : Double.doubleToRawLongBits(key);
+        }
+
+        static int hash(long bits) {
+            return (int) (bits ^ (bits >>> 32));
+        }
+
+        /**
+         * Associates {@code value} with {@code key} and answers whether the key was present.
+         */
+        public boolean put(double key, int value) {
+            return insert(keyBits(key), value, true) != -1;
+        }
+
+        /**
+         * Associates {@code value} with {@code key} unless the key is present, returns the value
+         * associated before or {@code -1}.
+         */
+        public int putIfAbsent(double key, int value) {
+            return insert(keyBits(key), value, false);
+        }
+
+        private int insert(long bits, int value, boolean replace) {
+            assert value >= 0;
+            int ind = index(hash(bits));
+            while (values[ind] != 0) {
+                if (keys[ind] == bits) {
+                    int old = values[ind] - 1;
+                    if (replace) {
+                        values[ind] = value + 1;
+                    }
+                    return old;
+                }
+                ind = next(ind);
+            }
+            keys[ind] = bits;
+            values[ind] = value + 1;
+            if (added()) {
+                rehash();
+            }
+            return -1;
         }
 
-        protected int index(int hash) {
-            // Multiply by -127
-            return ((hash << 1) - (hash << 8)) & (values.length - 1);
+        /**
+         * Returns the value associated with {@code key} or {@code -1}.
+         */
+        public int get(double key) {
+            long bits = keyBits(key);
+            int ind = index(hash(bits));
+            while (values[ind] != 0) {
+                if (keys[ind] == bits) {
+                    return values[ind] - 1;
+                }
+                ind = next(ind);
+            }
+            return -1;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldValues = grow();
+            keys = new long[values.length];
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != 0) {
+                    int ind = index(hash(oldKeys[i]));
+                    while (values[ind] != 0) {
+                        ind = next(ind);
+                    }
+                    keys[ind] = oldKeys[i];
+                    values[ind] = oldValues[i];
+                }
+            }
         }
     }
 
     public static final class NonRecursiveHashMapCharacter extends NonRecursiveHashMap {
 
-        private final String[] keys;
+        private String[] keys;
+        private int naValue;
 
         public NonRecursiveHashMapCharacter(int approxCapacity) {
             super(approxCapacity);
             keys = new String[values.length];
         }
 
+        /**
+         * Associates {@code value} with {@code key} and answers whether the key was present.
+         */
         public boolean put(String key, int value) {
+            return insert(key, value, true) != -1;
+        }
+
+        /**
+         * Associates {@code value} with {@code key} unless the key is present, returns the value
+         * associated before or {@code -1}.
+         */
+        public int putIfAbsent(String key, int value) {
+            return insert(key, value, false);
+        }
+
+        private int insert(String key, int value, boolean replace) {
             assert value >= 0;
             if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
-                return ret;
-            } else {
-                int keyHash = key.hashCode();
-                int ind = index(keyHash);
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (keys[ind].hashCode() == keyHash && key.equals(keys[ind])) {
+                // NA is a distinct key even though its contents equal "NA"
+                int old = naValue - 1;
+                if (replace || naValue == 0) {
+                    naValue = value + 1;
+                }
+                return old;
+            }
+            int keyHash = key.hashCode();
+            int ind = index(keyHash);
+            while (values[ind] != 0) {
+                String k = keys[ind];
+                if (k == key || (k.hashCode() == keyHash && k.equals(key))) {
+                    int old = values[ind] - 1;
+                    if (replace) {
                         values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
                     }
+                    return old;
                 }
+                ind = next(ind);
             }
+            keys[ind] = key;
+            values[ind] = value + 1;
+            if (added()) {
+                rehash();
+            }
+            return -1;
         }
 
+        /**
+         * Returns the value associated with {@code key} or {@code -1}.
+         */
         public int get(String key) {
             if (RRuntime.isNA(key)) {
                 return naValue - 1;
-            } else {
-                int ind = index(key.hashCode());
-                int firstInd = ind;
-                while (true) {
-                    if (key.equals(keys[ind])) {
-                        return values[ind] - 1;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
+            }
+            int keyHash = key.hashCode();
+            int ind = index(keyHash);
+            while (values[ind] != 0) {
+                String k = keys[ind];
+                if (k == key || (k.hashCode() == keyHash && k.equals(key))) {
+                    return values[ind] - 1;
+                }
+                ind = next(ind);
+            }
+            return -1;
+        }
+
+        private void rehash() {
+            String[] oldKeys = keys;
+            int[] oldValues = grow();
+            keys = new String[values.length];
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != 0) {
+                    int ind = index(oldKeys[i].hashCode());
+                    while (values[ind] != 0) {
+                        ind = next(ind);
                     }
+                    keys[ind] = oldKeys[i];
+                    values[ind] = oldValues[i];
                 }
             }
         }
@@ -257,184 +360,189 @@ public final class Collections {
 
     public static final class NonRecursiveHashMapComplex extends NonRecursiveHashMap {
 
-        private final RComplex[] keys;
+        private long[] realKeys;
+        private long[] imaginaryKeys;
+        private int naValue;
 
         public NonRecursiveHashMapComplex(int approxCapacity) {
             super(approxCapacity);
-            keys = new RComplex[values.length];
+            realKeys = new long[values.length];
+            imaginaryKeys = new long[values.length];
+        }
+
+        private static int hash(long re, long im) {
+            return NonRecursiveHashMapDouble.hash(re) * 31 + NonRecursiveHashMapDouble.hash(im);
+        }
+
+        /**
+         * All numbers with {@code NA} or {@code NaN} in either part denote the same key.
+         */
+        private static boolean isNaNKey(RComplex key) {
+            return RRuntime.isNAorNaN(key.getRealPart()) || RRuntime.isNAorNaN(key.getImaginaryPart());
         }
 
+        /**
+         * Associates {@code value} with {@code key} and answers whether the key was present.
+         */
         public boolean put(RComplex key, int value) {
+            return insert(key, value, true) != -1;
+        }
+
+        /**
+         * Associates {@code value} with {@code key} unless the key is present, returns the value
+         * associated before or {@code -1}.
+         */
+        public int putIfAbsent(RComplex key, int value) {
+            return insert(key, value, false);
+        }
+
+        private int insert(RComplex key, int value, boolean replace) {
             assert value >= 0;
-            if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
-                return ret;
-            } else {
-                int ind = index(key.hashCode());
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (key.equals(keys[ind])) {
+            if (isNaNKey(key)) {
+                int old = naValue - 1;
+                if (replace || naValue == 0) {
+                    naValue = value + 1;
+                }
+                return old;
+            }
+            long re = NonRecursiveHashMapDouble.keyBits(key.getRealPart());
+            long im = NonRecursiveHashMapDouble.keyBits(key.getImaginaryPart());
+            int ind = index(hash(re, im));
+            while (values[ind] != 0) {
+                if (realKeys[ind] == re && imaginaryKeys[ind] == im) {
+                    int old = values[ind] - 1;
+                    if (replace) {
                         values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
                     }
+                    return old;
                 }
+                ind = next(ind);
             }
+            realKeys[ind] = re;
+            imaginaryKeys[ind] = im;
+            values[ind] = value + 1;
+            if (added()) {
+                rehash();
+            }
+            return -1;
         }
 
+        /**
+         * Returns the value associated with {@code key} or {@code -1}.
+         */
         public int get(RComplex key) {
-            if (RRuntime.isNA(key)) {
+            if (isNaNKey(key)) {
                 return naValue - 1;
-            } else {
-                int ind = index(key.hashCode());
-                int firstInd = ind;
-                while (true) {
-                    if (key.equals(keys[ind])) {
-                        return values[ind] - 1;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
+            }
+            long re = NonRecursiveHashMapDouble.keyBits(key.getRealPart());
+            long im = NonRecursiveHashMapDouble.keyBits(key.getImaginaryPart());
+            int ind = index(hash(re, im));
+            while (values[ind] != 0) {
+                if (realKeys[ind] == re && imaginaryKeys[ind] == im) {
+                    return values[ind] - 1;
+                }
+                ind = next(ind);
+            }
+            return -1;
+        }
+
+        private void rehash() {
+            long[] oldRealKeys = realKeys;
+            long[] oldImaginaryKeys = imaginaryKeys;
+            int[] oldValues = grow();
+            realKeys = new long[values.length];
+            imaginaryKeys = new long[values.length];
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != 0) {
+                    int ind = index(hash(oldRealKeys[i], oldImaginaryKeys[i]));
+                    while (values[ind] != 0) {
+                        ind = next(ind);
                     }
+                    realKeys[ind] = oldRealKeys[i];
+                    imaginaryKeys[ind] = oldImaginaryKeys[i];
+                    values[ind] = oldValues[i];
                 }
             }
         }
     }
 
-    public static final class NonRecursiveHashMapDouble extends NonRecursiveHashMap {
+    public static final class NonRecursiveHashSetInt {
 
-        private final double[] keys;
-        private int nanValue;
+        private final NonRecursiveHashMapInt map;
 
-        public NonRecursiveHashMapDouble(int approxCapacity) {
-            super(approxCapacity);
-            keys = new double[values.length];
-            Arrays.fill(keys, RRuntime.DOUBLE_NA);
+        public NonRecursiveHashSetInt(int approxCapacity) {
+            map = new NonRecursiveHashMapInt(approxCapacity);
         }
 
-        public boolean put(double key, int value) {
-            assert value >= 0;
-            if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
-                return ret;
-            } else if (Double.isNaN(key)) {
-                boolean ret = nanValue == 0;
-                nanValue = value + 1;
-                return ret;
-            } else {
-                int ind = index(Double.hashCode(key));
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (key == keys[ind]) {
-                        values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                    }
-                }
-            }
+        /**
+         * Adds {@code key} and answers whether it was already present.
+         */
+        public boolean add(int key) {
+            return map.putIfAbsent(key, 0) != -1;
         }
 
-        public int get(double key) {
-            if (RRuntime.isNA(key)) {
-                return naValue - 1;
-            } else if (Double.isNaN(key)) {
-                return nanValue - 1;
-            } else {
-                int ind = index(Double.hashCode(key));
-                int firstInd = ind;
-                while (true) {
-                    if (key == keys[ind]) {
-                        return values[ind] - 1;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
-                    }
-                }
-            }
+        public boolean contains(int key) {
+            return map.get(key) != -1;
         }
     }
 
-    public static final class NonRecursiveHashMapInt extends NonRecursiveHashMap {
+    public static final class NonRecursiveHashSetDouble {
 
-        private final int[] keys;
+        private final NonRecursiveHashMapDouble map;
 
-        public NonRecursiveHashMapInt(int approxCapacity) {
-            super(approxCapacity);
-            keys = new int[values.length];
-            Arrays.fill(keys, RRuntime.INT_NA);
+        public NonRecursiveHashSetDouble(int approxCapacity) {
+            map = new NonRecursiveHashMapDouble(approxCapacity);
         }
 
-        public boolean put(int key, int value) {
-            assert value >= 0;
-            if (RRuntime.isNA(key)) {
-                boolean ret = naValue == 0;
-                naValue = value + 1;
-                return ret;
-            } else {
-                int ind = index(Integer.hashCode(key));
-                while (true) {
-                    if (values[ind] == 0) {
-                        keys[ind] = key;
-                        values[ind] = value + 1;
-                        return false;
-                    } else if (key == keys[ind]) {
-                        values[ind] = value + 1;
-                        return true;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                    }
-                }
-            }
+        /**
+         * Adds {@code key} and answers whether it was already present.
+         */
+        public boolean add(double key) {
+            return map.putIfAbsent(key, 0) != -1;
         }
 
-        public int get(int key) {
-            if (RRuntime.isNA(key)) {
-                return naValue - 1;
-            } else {
-                int ind = index(Integer.hashCode(key));
-                int firstInd = ind;
-                while (true) {
-                    if (key == keys[ind]) {
-                        return values[ind] - 1;
-                    } else {
-                        ind++;
-                        if (ind == values.length) {
-                            ind = 0;
-                        }
-                        if (ind == firstInd || values[ind] == 0) {
-                            return -1;
-                        }
-                    }
-                }
-            }
+        public boolean contains(double key) {
+            return map.get(key) != -1;
+        }
+    }
+
+    public static final class NonRecursiveHashSetCharacter {
+
+        private final NonRecursiveHashMapCharacter map;
+
+        public NonRecursiveHashSetCharacter(int approxCapacity) {
+            map = new NonRecursiveHashMapCharacter(approxCapacity);
+        }
+
+        /**
+         * Adds {@code key} and answers whether it was already present.
+         */
+        public boolean add(String key) {
+            return map.putIfAbsent(key, 0) != -1;
+        }
+
+        public boolean contains(String key) {
+            return map.get(key) != -1;
+        }
+    }
+
+    public static final class NonRecursiveHashSetComplex {
+
+        private final NonRecursiveHashMapComplex map;
+
+        public NonRecursiveHashSetComplex(int approxCapacity) {
+            map = new NonRecursiveHashMapComplex(approxCapacity);
+        }
+
+        /**
+         * Adds {@code key} and answers whether it was already present.
+         */
+        public boolean add(RComplex key) {
+            return map.putIfAbsent(key, 0) != -1;
+        }
+
+        public boolean contains(RComplex key) {
+            return map.get(key) != -1;
         }
     }
 }
@@ -68,6 +68,14 @@ public enum FastROptions {
     EagerEvalDefault("Enables optimistic eager evaluation of single variables reads (for default parameters)", false),
     EagerEvalExpressions("Enables optimistic eager evaluation of trivial expressions", false),
     PromiseCacheSize("Enables inline caches for promises evaluation", "3", true),
+    EvalCacheSize("Number of environment layouts for which eval caches the call target of a language object (0 disables)", "4", true),
+
+    // Multi-threaded builtins (%*%, dist, cor, ...)
+    ParallelThreshold("Number of elementary operations from which builtins split their work between threads (0 disables)", "2097152", true),
+    ParallelThreads("Number of threads used by multi-threaded builtins (0 means the number of available processors)", "0", true),
+
+    // Connections
+    MappedFileThreshold("Size in bytes from which files opened for binary reading are memory-mapped (0 disables)", "1048576", true),
 
     // Miscellaneous
 
@@ -23,35 +23,164 @@
 package com.oracle.truffle.r.runtime;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.HashMap;
 import java.util.Map;
 
 import com.oracle.truffle.r.runtime.context.RContext;
 
+/**
+ * Cache for the contents of package lazy-load databases ({@code .rdb} files). The files are
+ * memory-mapped once per process and the mapping is shared by all {@link RContext}s that load the
+ * same database, so spawned contexts do not hold their own heap copy of e.g. the {@code base},
+ * {@code stats} and {@code utils} databases. Each context keeps track of the databases it uses and
+ * the shared mapping is dropped when the last context releases it (by {@code lazyLoadDBflush} or
+ * when it is destroyed). A file too large to be mapped as a whole (over {@link Integer#MAX_VALUE}
+ * bytes) is kept open instead and each entry is read from it when it is fetched.
+ */
 public class LazyDBCache {
 
-    public static final class ContextStateImpl implements RContext.ContextState {
-        private final Map<String, byte[]> dbCache = new HashMap<>();
-
-        public byte[] getData(String dbPath) {
-            byte[] dbData = dbCache.get(dbPath);
-            if (dbData == null) {
-                try {
-                    dbData = Files.readAllBytes(FileSystems.getDefault().getPath(dbPath));
-                } catch (IOException ex) {
-                    // unexpected
-                    throw RInternalError.shouldNotReachHere(ex);
+    /**
+     * A mapped database file. The {@link #refCount} is guarded by the {@link #sharedCache} lock.
+     */
+    private static final class MappedDB {
+        private final String path;
+        /**
+         * The mapping of the whole file, or {@code null} if the file is too large to be mapped, in
+         * which case the entries are read from the {@link #channel}.
+         */
+        private final MappedByteBuffer buffer;
+        private final FileChannel channel;
+        private final long size;
+        private final long lastModified;
+        private int refCount;
+
+        MappedDB(String path, MappedByteBuffer buffer, FileChannel channel, long size, long lastModified) {
+            this.path = path;
+            this.buffer = buffer;
+            this.channel = channel;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        boolean isCurrent(BasicFileAttributes attrs) {
+            return attrs.size() == size && attrs.lastModifiedTime().toMillis() == lastModified;
+        }
+
+        /**
+         * Returns the {@code length} bytes at {@code offset}. Every user gets its own read-only
+         * view of the mapping, so that position and limit are not shared.
+         */
+        ByteBuffer entry(int offset, int length) {
+            if (buffer != null) {
+                ByteBuffer view = buffer.asReadOnlyBuffer();
+                view.position(offset);
+                view.limit(offset + length);
+                return view.slice();
+            }
+            ByteBuffer data = ByteBuffer.allocate(length);
+            try {
+                while (data.hasRemaining() && channel.read(data, (long) offset + data.position()) >= 0) {
+                    // positional reads, the channel is shared by all contexts
+                }
+            } catch (IOException ex) {
+                // unexpected
+                throw RInternalError.shouldNotReachHere(ex);
+            }
+            data.flip();
+            return data;
+        }
+    }
+
+    private static final Map<String, MappedDB> sharedCache = new HashMap<>();
+
+    private static MappedDB acquire(String dbPath) {
+        Path path = FileSystems.getDefault().getPath(dbPath);
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            synchronized (sharedCache) {
+                MappedDB db = sharedCache.get(dbPath);
+                if (db == null || !db.isCurrent(attrs)) {
+                    // the file was (re)written since it was mapped, existing users keep the old one
+                    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                    long size = channel.size();
+                    if (size > Integer.MAX_VALUE) {
+                        // a buffer cannot be larger, the channel is closed by release
+                        db = new MappedDB(dbPath, null, channel, attrs.size(), attrs.lastModifiedTime().toMillis());
+                    } else {
+                        try {
+                            db = new MappedDB(dbPath, channel.map(FileChannel.MapMode.READ_ONLY, 0, size), null, attrs.size(), attrs.lastModifiedTime().toMillis());
+                        } finally {
+                            channel.close();
+                        }
+                    }
+                    sharedCache.put(dbPath, db);
+                }
+                db.refCount++;
+                return db;
+            }
+        } catch (IOException ex) {
+            // unexpected
+            throw RInternalError.shouldNotReachHere(ex);
+        }
+    }
+
+    private static void release(MappedDB db) {
+        synchronized (sharedCache) {
+            assert db.refCount > 0;
+            if (--db.refCount == 0) {
+                if (sharedCache.get(db.path) == db) {
+                    // the mapping itself is released when the buffer is garbage collected
+                    sharedCache.remove(db.path);
+                }
+                if (db.channel != null) {
+                    try {
+                        db.channel.close();
+                    } catch (IOException ex) {
+                        // nothing is read from it anymore
+                    }
                 }
-                dbCache.put(dbPath, dbData);
             }
-            return dbData;
+        }
+    }
+
+    public static final class ContextStateImpl implements RContext.ContextState {
+        private final Map<String, MappedDB> dbCache = new HashMap<>();
+
+        /**
+         * Returns the {@code length} bytes at {@code offset} in the database file, with position
+         * {@code 0}. The data is not copied unless the file is too large to be mapped.
+         */
+        public ByteBuffer getData(String dbPath, int offset, int length) {
+            MappedDB db = dbCache.get(dbPath);
+            if (db == null) {
+                db = acquire(dbPath);
+                dbCache.put(dbPath, db);
+            }
+            return db.entry(offset, length);
         }
 
         public void remove(String dbPath) {
             // no an error if missing
-            dbCache.remove(dbPath);
+            MappedDB db = dbCache.remove(dbPath);
+            if (db != null) {
+                release(db);
+            }
+        }
+
+        @Override
+        public void beforeDestroy(RContext context) {
+            for (MappedDB db : dbCache.values()) {
+                release(db);
+            }
+            dbCache.clear();
         }
 
         public static ContextStateImpl newContextState() {
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import java.util.concurrent.RecursiveAction;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Cache-blocked multiplication of double matrices that distributes the blocks of the result
+ * between the threads of the {@link ParallelTasks} pool. It is used by {@code %*%},
+ * {@code crossprod} and {@code tcrossprod} for matrices large enough to pay for the task overhead.
+ *
+ * The result is split recursively along its larger dimension at block boundaries, so that every
+ * element of the result is written by exactly one task. Within a task the blocks are processed in
+ * the same order as by the sequential implementation in {@code MatMult}, therefore the result does
+ * not depend on the number of threads.
+ */
+public final class MatrixMultiply {
+
+    public static final int BLOCK_SIZE = 64;
+
+    /**
+     * Number of multiply-add operations below which a task is not split any further.
+     */
+    private static final long TASK_GRAIN = 4L * BLOCK_SIZE * BLOCK_SIZE * BLOCK_SIZE;
+
+    private MatrixMultiply() {
+        // only static members
+    }
+
+    /**
+     * Determines whether a multiplication of an {@code aRows x aCols} by an {@code aCols x bCols}
+     * matrix should be performed in parallel.
+     */
+    @TruffleBoundary
+    public static boolean useParallel(int aRows, int aCols, int bCols) {
+        return (aRows > BLOCK_SIZE || bCols > BLOCK_SIZE) && ParallelTasks.isParallel((long) aRows * aCols * bCols);
+    }
+
+    /**
+     * Adds the product of {@code a} and {@code b} to {@code result}, which is a column-major
+     * {@code aRows x bCols} matrix. The parameters have the same meaning as in
+     * {@code MatMult.doubleMatrixMultiply}, in particular {@code mirrored} restricts the
+     * computation to the upper right triangle of the result.
+     */
+    @TruffleBoundary
+    public static void multiply(double[] a, double[] b, double[] result, int aRows, int aCols, int bCols, int aRowStride, int aColStride, int bRowStride, int bColStride, boolean mirrored) {
+        ParallelTasks.getPool().invoke(new MultiplyTask(a, b, result, aRows, aCols, aRowStride, aColStride, bRowStride, bColStride, mirrored, 0, aRows, 0, bCols));
+    }
+
+    private static final class MultiplyTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] a;
+        private final double[] b;
+        private final double[] result;
+        private final int aRows;
+        private final int aCols;
+        private final int aRowStride;
+        private final int aColStride;
+        private final int bRowStride;
+        private final int bColStride;
+        private final boolean mirrored;
+        private final int rowFrom;
+        private final int rowTo;
+        private final int colFrom;
+        private final int colTo;
+
+        MultiplyTask(double[] a, double[] b, double[] result, int aRows, int aCols, int aRowStride, int aColStride, int bRowStride, int bColStride, boolean mirrored, int rowFrom, int rowTo,
+                        int colFrom, int colTo) {
+            this.a = a;
+            this.b = b;
+            this.result = result;
+            this.aRows = aRows;
+            this.aCols = aCols;
+            this.aRowStride = aRowStride;
+            this.aColStride = aColStride;
+            this.bRowStride = bRowStride;
+            this.bColStride = bColStride;
+            this.mirrored = mirrored;
+            this.rowFrom = rowFrom;
+            this.rowTo = rowTo;
+            this.colFrom = colFrom;
+            this.colTo = colTo;
+        }
+
+        private MultiplyTask part(int newRowFrom, int newRowTo, int newColFrom, int newColTo) {
+            return new MultiplyTask(a, b, result, aRows, aCols, aRowStride, aColStride, bRowStride, bColStride, mirrored, newRowFrom, newRowTo, newColFrom, newColTo);
+        }
+
+        @Override
+        protected void compute() {
+            int rows = rowTo - rowFrom;
+            int cols = colTo - colFrom;
+            if ((long) rows * cols * aCols <= TASK_GRAIN || (rows <= BLOCK_SIZE && cols <= BLOCK_SIZE)) {
+                multiplyBlocks();
+            } else if (cols >= rows) {
+                int mid = colFrom + splitBlocks(cols);
+                invokeAll(part(rowFrom, rowTo, colFrom, mid), part(rowFrom, rowTo, mid, colTo));
+            } else {
+                int mid = rowFrom + splitBlocks(rows);
+                invokeAll(part(rowFrom, mid, colFrom, colTo), part(mid, rowTo, colFrom, colTo));
+            }
+        }
+
+        private static int splitBlocks(int length) {
+            int blocks = (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            return (blocks / 2) * BLOCK_SIZE;
+        }
+
+        private void multiplyBlocks() {
+            for (int row = rowFrom; row < rowTo; row += BLOCK_SIZE) {
+                int remainingRows = Math.min(BLOCK_SIZE, rowTo - row);
+                for (int col = mirrored ? Math.max(row, colFrom) : colFrom; col < colTo; col += BLOCK_SIZE) {
+                    int remainingCols = Math.min(BLOCK_SIZE, colTo - col);
+                    for (int k = 0; k < aCols; k += BLOCK_SIZE) {
+                        multiplyBlock(row, col, k, remainingRows, remainingCols, Math.min(BLOCK_SIZE, aCols - k));
+                    }
+                }
+            }
+        }
+
+        private void multiplyBlock(int row, int col, int k, int remainingRows, int remainingCols, int remainingK) {
+            for (int innerCol = 0; innerCol < remainingCols; innerCol++) {
+                for (int innerRow = 0; innerRow < remainingRows; innerRow++) {
+                    int bIndex = (col + innerCol) * bColStride + k * bRowStride;
+                    int aIndex = k * aColStride + (row + innerRow) * aRowStride;
+                    double x = 0.0;
+                    for (int innerK = 0; innerK < remainingK; innerK++) {
+                        x += a[aIndex] * b[bIndex];
+                        aIndex += aColStride;
+                        bIndex += bRowStride;
+                    }
+                    result[(col + innerCol) * aRows + row + innerRow] += x;
+                }
+            }
+        }
+    }
+}
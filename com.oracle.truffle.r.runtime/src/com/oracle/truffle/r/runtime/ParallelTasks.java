@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * The fork/join pool shared by builtins that split their work between multiple threads (e.g.,
+ * {@code %*%}, {@code dist} or {@code cor}). The tasks run outside of any R context, so they must
+ * neither evaluate R code nor raise R warnings or errors; the callers collect such conditions and
+ * report them once the parallel part is finished.
+ *
+ * The size of the pool is given by {@link FastROptions#ParallelThreads}, and work below
+ * {@link FastROptions#ParallelThreshold} elementary operations is always done sequentially.
+ */
+public final class ParallelTasks {
+
+    private static volatile ForkJoinPool pool;
+
+    private ParallelTasks() {
+        // only static members
+    }
+
+    public static ForkJoinPool getPool() {
+        ForkJoinPool result = pool;
+        if (result == null) {
+            synchronized (ParallelTasks.class) {
+                result = pool;
+                if (result == null) {
+                    int threads = FastROptions.ParallelThreads.getNonNegativeIntValue();
+                    result = new ForkJoinPool(threads == 0 ? Runtime.getRuntime().availableProcessors() : threads);
+                    pool = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Determines whether multi-threading is enabled at all, i.e., whether the threshold is not
+     * {@code 0} and the pool has more than one thread.
+     */
+    @TruffleBoundary
+    public static boolean isEnabled() {
+        return FastROptions.ParallelThreshold.getNonNegativeIntValue() != 0 && getPool().getParallelism() > 1;
+    }
+
+    /**
+     * Determines whether it is worth to split work consisting of the given number of elementary
+     * operations between multiple threads.
+     */
+    @TruffleBoundary
+    public static boolean isParallel(long work) {
+        return isEnabled() && work >= FastROptions.ParallelThreshold.getNonNegativeIntValue();
+    }
+
+    /**
+     * Invokes {@code body} for all indices from {@code 0} to {@code count - 1}. The invocations
+     * are distributed between the threads of the pool if {@code work}, the total number of
+     * elementary operations, is large enough (see {@link #isParallel(long)}). The invocations for
+     * different indices must not depend on each other.
+     */
+    @TruffleBoundary
+    public static void forEach(int count, long work, IntConsumer body) {
+        if (count > 1 && isParallel(work)) {
+            getPool().invoke(new ForEachTask(0, count, body));
+        } else {
+            for (int i = 0; i < count; i++) {
+                body.accept(i);
+            }
+        }
+    }
+
+    private static final class ForEachTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer body;
+
+        ForEachTask(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ForEachTask(from, mid, body), new ForEachTask(mid, to, body));
+            }
+        }
+    }
+}
@@ -38,23 +38,39 @@ import com.oracle.truffle.r.runtime.data.RAttributable;
 import com.oracle.truffle.r.runtime.data.RAttributeStorage;
 import com.oracle.truffle.r.runtime.data.RAttributesLayout;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.REmpty;
 import com.oracle.truffle.r.runtime.data.RFunction;
 import com.oracle.truffle.r.runtime.data.RLanguage;
 import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.RMissing;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RPromise;
 import com.oracle.truffle.r.runtime.data.RPromise.Closure;
 import com.oracle.truffle.r.runtime.data.RPromise.PromiseState;
 import com.oracle.truffle.r.runtime.data.RShareable;
+import com.oracle.truffle.r.runtime.data.RSymbol;
 import com.oracle.truffle.r.runtime.data.RUnboundValue;
+import com.oracle.truffle.r.runtime.data.model.RAbstractAtomicVector;
 import com.oracle.truffle.r.runtime.env.REnvironment;
 import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor;
 import com.oracle.truffle.r.runtime.env.frame.REnvTruffleFrameAccess;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxCall;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxConstant;
 import com.oracle.truffle.r.runtime.nodes.RSyntaxElement;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxFunction;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxLookup;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxVisitor;
 
 /**
  * Implementation of a channel abstraction used for communication between parallel contexts in
  * shared memory space.
+ *
+ * Messages are not serialized as a whole. Atomic vectors (and lists consisting of them) are handed
+ * over by reference after being made permanently shared, so that any update on either side creates
+ * a private copy. Language objects and promises are transferred as their syntax trees, from which
+ * the receiving context builds its own ASTs, and closures carry a private copy of their
+ * environment. Stand-alone environments, connections and language objects whose syntax trees embed
+ * constants other than scalars and atomic vectors still go through {@link RSerialize}.
  */
 public class RChannel {
 
@@ -305,6 +321,25 @@ public class RChannel {
             }
         }
 
+        protected static class SerializedLanguage {
+
+            private final DynamicObject attributes;
+            private final RSyntaxElement serializedExpr;
+
+            public SerializedLanguage(DynamicObject attributes, RSyntaxElement serializedExpr) {
+                this.attributes = attributes;
+                this.serializedExpr = serializedExpr;
+            }
+
+            public DynamicObject getAttributes() {
+                return attributes;
+            }
+
+            public RSyntaxElement getSerializedExpr() {
+                return serializedExpr;
+            }
+        }
+
         protected static class SerializedFunction {
             private final DynamicObject attributes;
             private final Object env;
@@ -454,6 +489,107 @@ public class RChannel {
             }
         }
 
+        private Object convertPrivateLanguage(Object msg) throws IOException {
+            RLanguage lang = (RLanguage) msg;
+            RSyntaxElement expr = lang.getRep().asRSyntaxNode();
+            if (!shareableConstants(expr)) {
+                // the receiving context would share e.g. closures or environments embedded in the
+                // AST with this context
+                return convertPrivateAttributable(lang);
+            }
+            shareConstants(expr);
+            DynamicObject attributes = lang.getAttributes();
+            return new SerializedLanguage(attributes == null ? null : createShareableSlow(attributes, true), expr);
+        }
+
+        /**
+         * Checks whether the ASTs built from {@code element} by the receiving context can use the
+         * same constants as this context. This holds for scalars and for atomic vectors without
+         * attributes, once the latter are shared (see {@link #shareConstants(RSyntaxElement)}).
+         */
+        @TruffleBoundary
+        private static boolean shareableConstants(RSyntaxElement element) {
+            return new RSyntaxVisitor<Boolean>() {
+
+                private boolean acceptAll(RSyntaxElement[] elements) {
+                    for (RSyntaxElement e : elements) {
+                        if (e != null && !accept(e)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+
+                @Override
+                protected Boolean visit(RSyntaxCall call) {
+                    return accept(call.getSyntaxLHS()) && acceptAll(call.getSyntaxArguments());
+                }
+
+                @Override
+                protected Boolean visit(RSyntaxConstant constant) {
+                    Object value = constant.getValue();
+                    if (value instanceof RAbstractAtomicVector) {
+                        return ((RAbstractAtomicVector) value).getAttributes() == null;
+                    }
+                    return value instanceof String || value instanceof Integer || value instanceof Double || value instanceof Byte || value instanceof RNull || value instanceof RMissing ||
+                                    value instanceof REmpty || (value instanceof RSymbol && ((RSymbol) value).getAttributes() == null);
+                }
+
+                @Override
+                protected Boolean visit(RSyntaxLookup lookup) {
+                    return true;
+                }
+
+                @Override
+                protected Boolean visit(RSyntaxFunction function) {
+                    return acceptAll(function.getSyntaxArgumentDefaults()) && accept(function.getSyntaxBody());
+                }
+            }.accept(element);
+        }
+
+        /**
+         * Makes the vector constants in {@code element} permanently shared like the vectors sent
+         * directly, so that neither context updates them in place.
+         */
+        @TruffleBoundary
+        private static void shareConstants(RSyntaxElement element) {
+            new RSyntaxVisitor<Void>() {
+
+                private void acceptAll(RSyntaxElement[] elements) {
+                    for (RSyntaxElement e : elements) {
+                        if (e != null) {
+                            accept(e);
+                        }
+                    }
+                }
+
+                @Override
+                protected Void visit(RSyntaxCall call) {
+                    accept(call.getSyntaxLHS());
+                    acceptAll(call.getSyntaxArguments());
+                    return null;
+                }
+
+                @Override
+                protected Void visit(RSyntaxConstant constant) {
+                    makeShared(constant.getValue());
+                    return null;
+                }
+
+                @Override
+                protected Void visit(RSyntaxLookup lookup) {
+                    return null;
+                }
+
+                @Override
+                protected Void visit(RSyntaxFunction function) {
+                    acceptAll(function.getSyntaxArgumentDefaults());
+                    accept(function.getSyntaxBody());
+                    return null;
+                }
+            }.accept(element);
+        }
+
         private SerializedFunction convertPrivateFunction(Object msg) throws IOException {
             RFunction fn = (RFunction) msg;
             Object env = convertPrivate(REnvironment.frameToEnvironment(fn.getEnclosingFrame()));
@@ -495,7 +631,7 @@ public class RChannel {
         }
 
         private static boolean serializeObject(Object o) {
-            return o instanceof REnvironment || o instanceof RConnection || o instanceof RLanguage;
+            return o instanceof REnvironment || o instanceof RConnection;
         }
 
         private Object convertPrivate(Object o) throws IOException {
@@ -507,6 +643,8 @@ public class RChannel {
                 return convertPrivatePromise(o);
             } else if (o instanceof RFunction) {
                 return convertPrivateFunction(o);
+            } else if (o instanceof RLanguage) {
+                return convertPrivateLanguage(o);
             } else if (!serializeObject(o)) {
                 // we need to make internal values (permanently) shared to avoid updates to ref
                 // count by different threads
@@ -611,6 +749,8 @@ public class RChannel {
                     ret = unserializePromise((SerializedPromise) el);
                 } else if (el instanceof SerializedFunction) {
                     ret = unserializeFunction((SerializedFunction) el);
+                } else if (el instanceof SerializedLanguage) {
+                    ret = unserializeLanguage((SerializedLanguage) el);
                 } else if (el instanceof SerializedAttributable) {
                     ret = unserializeAttributable((SerializedAttributable) el);
                 }
@@ -667,6 +807,17 @@ public class RChannel {
             }
         }
 
+        @TruffleBoundary
+        private static RLanguage unserializeLanguage(SerializedLanguage l) {
+            RLanguage lang = RDataFactory.createLanguage(RContext.getASTBuilder().process(l.getSerializedExpr()).asRNode());
+            DynamicObject attributes = l.getAttributes();
+            if (attributes != null) {
+                // attributes unserialized in caller methods
+                lang.initAttributes(attributes);
+            }
+            return lang;
+        }
+
         @TruffleBoundary
         private RFunction unserializeFunction(SerializedFunction f) throws IOException {
             REnvironment env = (REnvironment) unserializeObject(f.getEnv());
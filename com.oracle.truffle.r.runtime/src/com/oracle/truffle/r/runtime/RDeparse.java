@@ -930,7 +930,9 @@ public class RDeparse {
             }
             RAbstractIntVector intVec = (RAbstractIntVector) vec;
             if (vec instanceof RIntSequence) {
-                return (RIntSequence) vec;
+                // the "from:to" syntax can only express sequences with stride 1 or -1
+                RIntSequence sequence = (RIntSequence) vec;
+                return Math.abs(sequence.getStride()) == 1 ? sequence : null;
             }
             assert vec.getLength() >= 2;
             int start = intVec.getDataAt(0);
@@ -11,13 +11,16 @@
  */
 package com.oracle.truffle.r.runtime;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
@@ -175,24 +178,6 @@ public class RSerialize {
         }
     }
 
-    /**
-     * Provides access to the underlying byte array.
-     */
-    private static class PByteArrayInputStream extends ByteArrayInputStream {
-
-        public PByteArrayInputStream(byte[] buf) {
-            super(buf);
-        }
-
-        byte[] getData() {
-            return buf;
-        }
-
-        int pos() {
-            return pos;
-        }
-    }
-
     public interface CallHook {
         Object eval(Object arg);
     }
@@ -306,9 +291,14 @@ public class RSerialize {
         serializeContextState.saveDeparse = status;
     }
 
+    /**
+     * Unserializes from the connection's channel. The data is decoded in bulk from a fixed-size
+     * read buffer, so the serialized form is never materialized as a whole.
+     */
     @TruffleBoundary
     public static Object unserialize(RConnection conn) throws IOException {
-        Input instance = trace() ? new TracingInput(conn) : new Input(conn);
+        ReadableByteChannel channel = conn.getChannel();
+        Input instance = trace() ? new TracingInput(channel, null, null, null) : new Input(channel, null, null, null);
         Object result = instance.unserialize();
         return result;
     }
@@ -317,9 +307,9 @@ public class RSerialize {
     public static Object unserialize(RAbstractRawVector data) {
         byte[] buffer = data.materialize().getDataWithoutCopying();
         try {
-            return new Input(new ByteArrayInputStream(buffer)).unserialize();
+            return new Input(ByteBuffer.wrap(buffer), null, null, null).unserialize();
         } catch (IOException e) {
-            throw RInternalError.shouldNotReachHere("ByteArrayInputStream should not throw IOExceptiopn");
+            throw RInternalError.shouldNotReachHere("ByteBuffer should not throw IOExceptiopn");
         }
     }
 
@@ -332,8 +322,18 @@ public class RSerialize {
      */
     @TruffleBoundary
     public static Object unserialize(byte[] data, CallHook hook, String packageName, String functionName) throws IOException {
-        InputStream is = new PByteArrayInputStream(data);
-        Input instance = trace() ? new TracingInput(is, hook, packageName, functionName) : new Input(is, hook, packageName, functionName);
+        return unserialize(ByteBuffer.wrap(data), hook, packageName, functionName);
+    }
+
+    /**
+     * Variant of {@link #unserialize(byte[], CallHook, String, String)} that reads the data between
+     * the position and the limit of the given buffer, which may be a slice of a memory-mapped
+     * lazy-load database shared between contexts.
+     */
+    @TruffleBoundary
+    public static Object unserialize(ByteBuffer data, CallHook hook, String packageName, String functionName) throws IOException {
+        ByteBuffer buf = data.slice();
+        Input instance = trace() ? new TracingInput(buf, hook, packageName, functionName) : new Input(buf, hook, packageName, functionName);
         Object result = instance.unserialize();
         return result;
     }
@@ -360,32 +360,37 @@ public class RSerialize {
          */
         private int langDepth;
 
-        private Input(RConnection conn) throws IOException {
-            this(conn.getInputStream(), null, null, null);
+        private Input(ReadableByteChannel channel, CallHook hook, String packageName, String functionName) throws IOException {
+            this(XdrInputFormat.emptyReadBuffer(), channel, hook, packageName, functionName);
         }
 
-        private Input(InputStream input) throws IOException {
-            this(input, null, null, null);
+        private Input(ByteBuffer data, CallHook hook, String packageName, String functionName) throws IOException {
+            this(data, null, hook, packageName, functionName);
         }
 
-        private Input(InputStream is, CallHook hook, String packageName, String functionName) throws IOException {
+        /**
+         * @param buf the data to read, if {@code channel} is {@code null}, or else the initial
+         *            content of the buffer used for reading from {@code channel}
+         */
+        private Input(ByteBuffer buf, ReadableByteChannel channel, CallHook hook, String packageName, String functionName) throws IOException {
             super(hook);
             this.packageName = packageName;
             this.functionName = functionName;
-            byte[] buf = new byte[2];
-            is.read(buf);
-            switch (buf[0]) {
+            XdrInputFormat.fill(buf, channel, 2);
+            byte format = buf.get();
+            buf.get();
+            switch (format) {
                 case 'A':
                 case 'B':
-                    throw formatError(buf[0], true);
+                    throw formatError(format, true);
                 case 'X':
-                    stream = new XdrInputFormat(is);
+                    stream = new XdrInputFormat(buf, channel);
                     break;
                 case '\n':
                     // special case in 'A'
                     throw formatError((byte) 'A', true);
                 default:
-                    throw formatError(buf[0], false);
+                    throw formatError(format, false);
             }
         }
 
@@ -702,13 +707,13 @@ public class RSerialize {
                 case INTSXP: {
                     int len = stream.readInt();
                     int[] data = new int[len];
+                    stream.readInts(data);
                     boolean complete = RDataFactory.COMPLETE_VECTOR;
                     for (int i = 0; i < len; i++) {
-                        int intVal = stream.readInt();
-                        if (intVal == RRuntime.INT_NA) {
+                        if (data[i] == RRuntime.INT_NA) {
                             complete = false;
+                            break;
                         }
-                        data[i] = intVal;
                     }
                     result = RDataFactory.createIntVector(data, complete);
                     break;
@@ -716,10 +721,12 @@ public class RSerialize {
 
                 case LGLSXP: {
                     int len = stream.readInt();
+                    int[] intData = new int[len];
+                    stream.readInts(intData);
                     byte[] data = new byte[len];
                     boolean complete = RDataFactory.COMPLETE_VECTOR;
                     for (int i = 0; i < len; i++) {
-                        int intVal = stream.readInt();
+                        int intVal = intData[i];
                         if (intVal == RRuntime.INT_NA) {
                             complete = false;
                             data[i] = RRuntime.LOGICAL_NA;
@@ -734,13 +741,13 @@ public class RSerialize {
                 case REALSXP: {
                     int len = stream.readInt();
                     double[] data = new double[len];
+                    stream.readDoubles(data);
                     boolean complete = RDataFactory.COMPLETE_VECTOR;
                     for (int i = 0; i < len; i++) {
-                        double doubleVal = stream.readDouble();
-                        if (RRuntime.isNA(doubleVal)) {
+                        if (RRuntime.isNA(data[i])) {
                             complete = false;
+                            break;
                         }
-                        data[i] = doubleVal;
                     }
                     result = RDataFactory.createDoubleVector(data, complete);
                     break;
@@ -749,23 +756,18 @@ public class RSerialize {
                 case CPLXSXP: {
                     int len = stream.readInt();
                     double[] data = new double[2 * len];
+                    stream.readDoubles(data);
                     boolean complete = RDataFactory.COMPLETE_VECTOR;
                     for (int i = 0; i < len; i++) {
                         int ix = 2 * i;
-                        double reVal = stream.readDouble();
-                        if (RRuntime.isNA(reVal)) {
+                        double reVal = data[ix];
+                        double imVal = data[ix + 1];
+                        if (RRuntime.isNA(reVal) || RRuntime.isNA(imVal)) {
                             complete = false;
-                        }
-                        double imVal = stream.readDouble();
-                        if (RRuntime.isNA(imVal)) {
-                            complete = false;
-                        }
-                        if (RRuntime.isNA(reVal) && RRuntime.isNA(imVal)) {
-                            data[ix] = RRuntime.COMPLEX_NA_REAL_PART;
-                            data[ix + 1] = RRuntime.COMPLEX_NA_IMAGINARY_PART;
-                        } else {
-                            data[ix] = reVal;
-                            data[ix + 1] = imVal;
+                            if (RRuntime.isNA(reVal) && RRuntime.isNA(imVal)) {
+                                data[ix] = RRuntime.COMPLEX_NA_REAL_PART;
+                                data[ix + 1] = RRuntime.COMPLEX_NA_IMAGINARY_PART;
+                            }
                         }
                     }
                     result = RDataFactory.createComplexVector(data, complete);
@@ -1026,11 +1028,6 @@ public class RSerialize {
     }
 
     private abstract static class PInputStream {
-        protected InputStream is;
-
-        PInputStream(InputStream is) {
-            this.is = is;
-        }
 
         abstract int readInt() throws IOException;
 
@@ -1040,179 +1037,193 @@ public class RSerialize {
 
         abstract void readRaw(byte[] data) throws IOException;
 
+        /**
+         * Bulk variant of {@link #readInt()} that fills the whole array.
+         */
+        abstract void readInts(int[] data) throws IOException;
+
+        /**
+         * Bulk variant of {@link #readDouble()} that fills the whole array.
+         */
+        abstract void readDoubles(double[] data) throws IOException;
+
     }
 
     @SuppressWarnings("unused")
     private abstract static class AsciiInputFormat extends PInputStream {
-        AsciiInputFormat(InputStream is) {
-            super(is);
-        }
     }
 
     @SuppressWarnings("unused")
     private abstract static class BinaryInputFormat extends PInputStream {
-        BinaryInputFormat(InputStream is) {
-            super(is);
-        }
     }
 
+    /**
+     * Reads XDR data from a {@link ByteBuffer}. If there is no channel, the buffer holds all the
+     * data, which may be a heap array or e.g. a memory-mapped file. Otherwise the buffer is a
+     * fixed-size window that is refilled from the channel. Vectors are decoded with bulk
+     * {@link IntBuffer}/{@link DoubleBuffer} copies directly into the result arrays, so no
+     * intermediate copy of the serialized form of a vector is ever created.
+     */
     private static final class XdrInputFormat extends PInputStream {
 
         private static final int READ_BUFFER_SIZE = 32 * 1024;
 
-        private final class Buffer {
-            private final byte[] buf;
-            private int size;
-            private int offset;
+        private ByteBuffer buf;
+        private final ReadableByteChannel channel;
 
-            Buffer(byte[] buf) {
-                this.buf = buf;
-            }
+        private final WeakHashMap<String, WeakReference<String>> strings = RContext.getInstance().stringMap;
 
-            int readInt() {
-                return ((buf[offset++] & 0xff) << 24 | (buf[offset++] & 0xff) << 16 | (buf[offset++] & 0xff) << 8 | (buf[offset++] & 0xff));
-            }
+        XdrInputFormat(ByteBuffer buf, ReadableByteChannel channel) {
+            assert buf.order() == ByteOrder.BIG_ENDIAN;
+            this.buf = buf;
+            this.channel = channel;
+        }
 
-            double readDouble() {
-                long val = ((long) (buf[offset++] & 0xff) << 56 | (long) (buf[offset++] & 0xff) << 48 | (long) (buf[offset++] & 0xff) << 40 | (long) (buf[offset++] & 0xff) << 32 |
-                                (long) (buf[offset++] & 0xff) << 24 | (long) (buf[offset++] & 0xff) << 16 | (long) (buf[offset++] & 0xff) << 8 | buf[offset++] & 0xff);
-                return Double.longBitsToDouble(val);
-            }
+        static ByteBuffer emptyReadBuffer() {
+            ByteBuffer result = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            result.flip();
+            return result;
+        }
 
-            @SuppressWarnings("deprecation")
-            String readString(int len) {
-                /*
-                 * This fast path uses a cheaper String constructor if all incoming bytes are in the
-                 * 0-127 range.
-                 */
-                boolean fastEncode = true;
-                for (int i = 0; i < len; i++) {
-                    byte b = buf[offset + i];
-                    if (b < 0) {
-                        fastEncode = false;
-                        break;
-                    }
-                }
-                String result;
-                if (fastEncode) {
-                    result = new String(buf, 0, offset, len);
-                } else {
-                    result = new String(buf, offset, len, StandardCharsets.UTF_8);
-                }
-                offset += len;
-                WeakReference<String> entry;
-                if ((entry = strings.get(result)) != null) {
-                    String string = entry.get();
-                    if (string != null) {
-                        return string;
-                    }
-                }
-                strings.put(result, new WeakReference<>(result));
-                return result;
+        /**
+         * Makes sure that at least {@code n} bytes (which must fit into the buffer) are available
+         * in {@code buf}, reading more data from {@code channel} if necessary.
+         */
+        static void fill(ByteBuffer buf, ReadableByteChannel channel, int n) throws IOException {
+            if (buf.remaining() >= n) {
+                return;
             }
-
-            void readRaw(byte[] data) {
-                System.arraycopy(buf, offset, data, 0, data.length);
-                offset += data.length;
+            if (channel == null) {
+                throw new IOException("Premature EOF");
             }
-
-            void readData(int n) throws IOException {
-                if (offset + n > size) {
-                    if (offset != size) {
-                        // copy end piece to beginning
-                        System.arraycopy(buf, offset, buf, 0, size - offset);
-                    }
-                    size -= offset;
-                    offset = 0;
-                    while (size < n) {
-                        // read some more data
-                        int nread = is.read(buf, size, buf.length - size);
-                        if (nread <= 0) {
-                            throw RInternalError.unimplemented("handle unexpected eof");
-                        }
-                        size += nread;
+            buf.compact();
+            try {
+                while (buf.position() < n) {
+                    if (channel.read(buf) < 0) {
+                        throw new IOException("Premature EOF");
                     }
                 }
+            } finally {
+                buf.flip();
             }
         }
 
-        /**
-         * This buffer is used under normal circumstances, i.e. when the read data blocks are
-         * smaller than the initial buffer. The ensureData method creates a special buffer for
-         * reading big chunks of data exceeding the default buffer.
-         */
-        private final Buffer defaultBuffer;
-
-        private final WeakHashMap<String, WeakReference<String>> strings = RContext.getInstance().stringMap;
-
-        XdrInputFormat(InputStream is) {
-            super(is);
-            if (is instanceof PByteArrayInputStream) {
-                // we already have the data and we have read the beginning
-                PByteArrayInputStream pbis = (PByteArrayInputStream) is;
-                defaultBuffer = new Buffer(pbis.getData());
-                defaultBuffer.size = pbis.getData().length;
-                defaultBuffer.offset = pbis.pos();
-            } else {
-                defaultBuffer = new Buffer(new byte[READ_BUFFER_SIZE]);
-                defaultBuffer.size = 0;
-                defaultBuffer.offset = 0;
+        private ByteBuffer ensureData(int n) throws IOException {
+            if (n > buf.capacity()) {
+                // only happens for very long strings, which need to be in one piece
+                ByteBuffer enlarged = ByteBuffer.allocate(n);
+                enlarged.put(buf);
+                enlarged.flip();
+                buf = enlarged;
             }
+            fill(buf, channel, n);
+            return buf;
         }
 
         @Override
         int readInt() throws IOException {
-            return ensureData(4).readInt();
+            return ensureData(4).getInt();
         }
 
         @Override
         double readDouble() throws IOException {
-            return ensureData(8).readDouble();
+            return ensureData(8).getDouble();
         }
 
         @SuppressWarnings("deprecation")
         @Override
         String readString(int len) throws IOException {
-            return ensureData(len).readString(len);
+            ByteBuffer data = ensureData(len);
+            byte[] bytes;
+            int offset;
+            if (data.hasArray()) {
+                bytes = data.array();
+                offset = data.arrayOffset() + data.position();
+                data.position(data.position() + len);
+            } else {
+                bytes = new byte[len];
+                offset = 0;
+                data.get(bytes);
+            }
+            /*
+             * This fast path uses a cheaper String constructor if all incoming bytes are in the
+             * 0-127 range.
+             */
+            boolean fastEncode = true;
+            for (int i = 0; i < len; i++) {
+                byte b = bytes[offset + i];
+                if (b < 0) {
+                    fastEncode = false;
+                    break;
+                }
+            }
+            String result;
+            if (fastEncode) {
+                result = new String(bytes, 0, offset, len);
+            } else {
+                result = new String(bytes, offset, len, StandardCharsets.UTF_8);
+            }
+            WeakReference<String> entry;
+            if ((entry = strings.get(result)) != null) {
+                String string = entry.get();
+                if (string != null) {
+                    return string;
+                }
+            }
+            strings.put(result, new WeakReference<>(result));
+            return result;
         }
 
         @Override
         void readRaw(byte[] data) throws IOException {
-            ensureData(data.length).readRaw(data);
+            int pos = 0;
+            while (pos < data.length) {
+                int n = Math.min(data.length - pos, available(1));
+                buf.get(data, pos, n);
+                pos += n;
+            }
         }
 
-        private Buffer ensureData(int n) throws IOException {
-            Buffer usedBuffer;
-            if (n > defaultBuffer.buf.length) {
-                if (is instanceof PByteArrayInputStream) {
-                    // If the input stream is instance of PByteArrayInputStream, the buffer is
-                    // preloaded and thus no more data can be read beyond the current buffer.
-                    throw new IOException("Premature EOF");
-                }
+        @Override
+        void readInts(int[] data) throws IOException {
+            int pos = 0;
+            while (pos < data.length) {
+                int n = Math.min(data.length - pos, available(Integer.BYTES) / Integer.BYTES);
+                buf.asIntBuffer().get(data, pos, n);
+                buf.position(buf.position() + n * Integer.BYTES);
+                pos += n;
+            }
+        }
 
-                // create an enlarged copy of the default buffer
-                byte[] enlargedBuf = new byte[n];
-                System.arraycopy(defaultBuffer.buf, defaultBuffer.offset, enlargedBuf, defaultBuffer.offset, defaultBuffer.size - defaultBuffer.offset);
-                usedBuffer = new Buffer(enlargedBuf);
-                usedBuffer.offset = defaultBuffer.offset;
-                usedBuffer.size = defaultBuffer.size;
-
-                // reset the default buffer
-                defaultBuffer.offset = defaultBuffer.size = 0;
-
-                usedBuffer.readData(n);
-                // The previous statement should entirely fill the temporary buffer.
-                // It is assumed that the caller will read n bytes, making the temporary buffer
-                // disposable. Next time, the default buffer will be used again, unless
-                // n > defaultBuffer.buf.length.
-                assert usedBuffer.size == n;
-            } else {
-                usedBuffer = defaultBuffer;
-                usedBuffer.readData(n);
+        @Override
+        void readDoubles(double[] data) throws IOException {
+            int pos = 0;
+            while (pos < data.length) {
+                int n = Math.min(data.length - pos, available(Double.BYTES) / Double.BYTES);
+                buf.asDoubleBuffer().get(data, pos, n);
+                buf.position(buf.position() + n * Double.BYTES);
+                pos += n;
             }
-            return usedBuffer;
         }
 
+        /**
+         * Returns the number of bytes available in the buffer, reading more if there are less than
+         * {@code min}.
+         */
+        private int available(int min) throws IOException {
+            if (buf.remaining() < min) {
+                fill(buf, channel, min);
+            } else if (channel != null && buf.remaining() < buf.capacity() / 2) {
+                // use the full buffer for the bulk copy
+                buf.compact();
+                try {
+                    channel.read(buf);
+                } finally {
+                    buf.flip();
+                }
+            }
+            return buf.remaining();
+        }
     }
 
     /**
@@ -1221,12 +1232,12 @@ public class RSerialize {
     private static final class TracingInput extends Input {
         private int nesting;
 
-        private TracingInput(RConnection conn) throws IOException {
-            this(conn.getInputStream(), null, null, null);
+        private TracingInput(ReadableByteChannel channel, CallHook hook, String packageName, String functionName) throws IOException {
+            super(channel, hook, packageName, functionName);
         }
 
-        private TracingInput(InputStream is, CallHook hook, String packageName, String functionName) throws IOException {
-            super(is, hook, packageName, functionName);
+        private TracingInput(ByteBuffer data, CallHook hook, String packageName, String functionName) throws IOException {
+            super(data, hook, packageName, functionName);
         }
 
         @Override
@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Stable multi-key radix sort used by {@code .Internal(radixsort)}. Each key is first transformed
+ * into an unsigned integer key relative to the minimum (or maximum when {@code decreasing}) of its
+ * non-{@code NA} values, so that keys with a small range need only a single counting pass. The
+ * keys are then processed least significant first with a stable LSD radix sort on 8-bit digits,
+ * skipping digits that are the same for all elements. {@code NA} (and {@code NaN}) values are
+ * moved to the front or back by an additional stable bucket pass.
+ *
+ * The group boundaries (as required for {@code retgrp == TRUE}) are computed from the final order
+ * by comparing adjacent elements, which is a single linear pass over all keys.
+ */
+public final class RadixSorter {
+
+    private static final int DIGIT_BITS = 8;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    private static final int DIGIT_MASK = RADIX - 1;
+
+    private static final byte NOT_NA = 0;
+    private static final byte NA = 1;
+
+    private static final class Key {
+        /** Transformed key values, only meaningful where {@link #naClass} is {@link #NOT_NA}. */
+        private final long[] values;
+        /** {@code null} if there are no {@code NA} values in this key. */
+        private final byte[] naClass;
+        /** Number of significant bits in {@link #values}. */
+        private final int bits;
+
+        Key(long[] values, byte[] naClass, int bits) {
+            this.values = values;
+            this.naClass = naClass;
+            this.bits = bits;
+        }
+
+        boolean isNA(int row) {
+            return naClass != null && naClass[row] != NOT_NA;
+        }
+
+        boolean equal(int row1, int row2) {
+            if (naClass != null) {
+                byte c1 = naClass[row1];
+                if (c1 != naClass[row2]) {
+                    return false;
+                }
+                if (c1 != NOT_NA) {
+                    return true;
+                }
+            }
+            return values[row1] == values[row2];
+        }
+    }
+
+    private final int length;
+    private final Key[] keys;
+    private int keyCount;
+
+    private int[] groupStarts;
+    private int maxGroupSize;
+
+    public RadixSorter(int length, int keyCount) {
+        this.length = length;
+        this.keys = new Key[keyCount];
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    private void addKey(Key key) {
+        assert key.values.length == length;
+        keys[keyCount++] = key;
+    }
+
+    private static int bitsNeeded(long range) {
+        return 64 - Long.numberOfLeadingZeros(range);
+    }
+
+    /**
+     * Adds an integer (or logical/factor) key. {@link RRuntime#INT_NA} is treated as {@code NA}.
+     */
+    public void addIntKey(int[] data, boolean decreasing) {
+        long[] values = new long[length];
+        byte[] naClass = null;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < length; i++) {
+            int v = data[i];
+            if (v == RRuntime.INT_NA) {
+                if (naClass == null) {
+                    naClass = new byte[length];
+                }
+                naClass[i] = NA;
+            } else {
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+        }
+        if (min > max) {
+            // only NAs
+            addKey(new Key(values, naClass, 0));
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            if (naClass == null || naClass[i] == NOT_NA) {
+                values[i] = decreasing ? (long) max - data[i] : (long) data[i] - min;
+            }
+        }
+        addKey(new Key(values, naClass, bitsNeeded((long) max - min)));
+    }
+
+    /**
+     * Maps a double to a long such that the unsigned order of the result is the numeric order of
+     * the input. Negative zero is mapped to positive zero so that they form a single group.
+     */
+    private static long twiddle(double d) {
+        long bits = Double.doubleToRawLongBits(d == 0 ? 0d : d);
+        return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Adds a double key. As in GnuR, {@code NA} and {@code NaN} values are not distinguished, they
+     * form a single group and keep their relative order.
+     */
+    public void addDoubleKey(double[] data, boolean decreasing) {
+        long[] values = new long[length];
+        byte[] naClass = null;
+        long min = -1L;
+        long max = 0L;
+        for (int i = 0; i < length; i++) {
+            double v = data[i];
+            if (Double.isNaN(v)) {
+                if (naClass == null) {
+                    naClass = new byte[length];
+                }
+                naClass[i] = NA;
+            } else {
+                long t = twiddle(v);
+                values[i] = t;
+                if (Long.compareUnsigned(t, min) < 0) {
+                    min = t;
+                }
+                if (Long.compareUnsigned(t, max) > 0) {
+                    max = t;
+                }
+            }
+        }
+        if (Long.compareUnsigned(min, max) > 0) {
+            // only NAs
+            addKey(new Key(values, naClass, 0));
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            if (naClass == null || naClass[i] == NOT_NA) {
+                values[i] = decreasing ? max - values[i] : values[i] - min;
+            }
+        }
+        addKey(new Key(values, naClass, bitsNeeded(max - min)));
+    }
+
+    /**
+     * Adds a character key. If {@code sortStr} is {@code true}, strings are ordered in the C
+     * locale, otherwise they are ordered by first appearance (which is sufficient for grouping).
+     */
+    public void addStringKey(String[] data, boolean decreasing, boolean sortStr) {
+        long[] values = new long[length];
+        byte[] naClass = null;
+        HashMap<String, Integer> ranks = new HashMap<>();
+        for (int i = 0; i < length; i++) {
+            String v = data[i];
+            if (RRuntime.isNA(v)) {
+                if (naClass == null) {
+                    naClass = new byte[length];
+                }
+                naClass[i] = NA;
+            } else {
+                Integer rank = ranks.get(v);
+                if (rank == null) {
+                    rank = ranks.size();
+                    ranks.put(v, rank);
+                }
+                values[i] = rank;
+            }
+        }
+        int unique = ranks.size();
+        if (unique == 0) {
+            addKey(new Key(values, naClass, 0));
+            return;
+        }
+        if (sortStr) {
+            String[] sorted = ranks.keySet().toArray(new String[unique]);
+            Arrays.sort(sorted);
+            int[] remap = new int[unique];
+            for (int i = 0; i < unique; i++) {
+                int target = decreasing ? unique - 1 - i : i;
+                remap[ranks.get(sorted[i])] = target;
+            }
+            for (int i = 0; i < length; i++) {
+                if (naClass == null || naClass[i] == NOT_NA) {
+                    values[i] = remap[(int) values[i]];
+                }
+            }
+        }
+        addKey(new Key(values, naClass, bitsNeeded(unique - 1)));
+    }
+
+    /**
+     * Computes the (0-based) ordering of the rows.
+     *
+     * @param naLast {@code 1} to put {@code NA}s last, {@code -1} to put them first, {@code 0} to
+     *            remove rows that have an {@code NA} in any of the keys.
+     */
+    public int[] order(int naLast, boolean computeGroups) {
+        assert keyCount == keys.length;
+        int[] o = initialOrder(naLast == 0);
+        int[] tmp = new int[o.length];
+        long[] k = new long[o.length];
+        long[] ktmp = new long[o.length];
+        for (int i = keyCount - 1; i >= 0; i--) {
+            Key key = keys[i];
+            if (sortByValue(o, tmp, k, ktmp, key)) {
+                int[] swap = o;
+                o = tmp;
+                tmp = swap;
+            }
+            if (naLast != 0 && key.naClass != null) {
+                sortByNAClass(o, tmp, key.naClass, naLast > 0);
+                int[] swap = o;
+                o = tmp;
+                tmp = swap;
+            }
+        }
+        if (computeGroups) {
+            computeGroups(o);
+        }
+        return o;
+    }
+
+    /**
+     * The 1-based starting positions of the groups of equal keys within the result of the last
+     * {@link #order(int, boolean)} call.
+     */
+    public int[] getGroupStarts() {
+        return groupStarts;
+    }
+
+    public int getMaxGroupSize() {
+        return maxGroupSize;
+    }
+
+    private int[] initialOrder(boolean removeNAs) {
+        int count = length;
+        if (removeNAs) {
+            for (int row = 0; row < length; row++) {
+                if (isNARow(row)) {
+                    count--;
+                }
+            }
+        }
+        int[] o = new int[count];
+        for (int row = 0, pos = 0; row < length; row++) {
+            if (count == length || !isNARow(row)) {
+                o[pos++] = row;
+            }
+        }
+        return o;
+    }
+
+    private boolean isNARow(int row) {
+        for (int i = 0; i < keyCount; i++) {
+            if (keys[i].isNA(row)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stable LSD radix sort of {@code o} by the key values. Returns {@code true} if the result is
+     * in {@code tmp} rather than in {@code o}.
+     */
+    private static boolean sortByValue(int[] o, int[] tmp, long[] k, long[] ktmp, Key key) {
+        int n = o.length;
+        if (n < 2 || key.bits == 0) {
+            return false;
+        }
+        long[] values = key.values;
+        byte[] naClass = key.naClass;
+        for (int i = 0; i < n; i++) {
+            int row = o[i];
+            k[i] = naClass == null || naClass[row] == NOT_NA ? values[row] : 0L;
+        }
+        int passes = (key.bits + DIGIT_BITS - 1) / DIGIT_BITS;
+        // histograms for all digits are computed in a single sweep
+        int[][] counts = new int[passes][RADIX];
+        for (int i = 0; i < n; i++) {
+            long v = k[i];
+            for (int p = 0; p < passes; p++) {
+                counts[p][(int) (v >>> (p * DIGIT_BITS)) & DIGIT_MASK]++;
+            }
+        }
+        int[] src = o;
+        int[] dst = tmp;
+        long[] ksrc = k;
+        long[] kdst = ktmp;
+        boolean swapped = false;
+        for (int p = 0; p < passes; p++) {
+            int[] count = counts[p];
+            int shift = p * DIGIT_BITS;
+            if (count[(int) (ksrc[0] >>> shift) & DIGIT_MASK] == n) {
+                // all elements share this digit
+                continue;
+            }
+            int sum = 0;
+            for (int d = 0; d < RADIX; d++) {
+                int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < n; i++) {
+                long v = ksrc[i];
+                int pos = count[(int) (v >>> shift) & DIGIT_MASK]++;
+                dst[pos] = src[i];
+                kdst[pos] = v;
+            }
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+            long[] kswap = ksrc;
+            ksrc = kdst;
+            kdst = kswap;
+            swapped = !swapped;
+        }
+        return swapped;
+    }
+
+    /**
+     * Stable partition of {@code o} into {@code tmp} by the {@code NA} class of the rows.
+     */
+    private static void sortByNAClass(int[] o, int[] tmp, byte[] naClass, boolean naLast) {
+        int n = o.length;
+        int[] count = new int[2];
+        for (int i = 0; i < n; i++) {
+            count[naClass[o[i]]]++;
+        }
+        int[] start = new int[2];
+        if (naLast) {
+            start[NOT_NA] = 0;
+            start[NA] = count[NOT_NA];
+        } else {
+            start[NA] = 0;
+            start[NOT_NA] = count[NA];
+        }
+        for (int i = 0; i < n; i++) {
+            int row = o[i];
+            tmp[start[naClass[row]]++] = row;
+        }
+    }
+
+    private void computeGroups(int[] o) {
+        int n = o.length;
+        int[] starts = new int[Math.max(n, 1)];
+        int groups = 0;
+        int max = 0;
+        int groupStart = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || !rowsEqual(o[i - 1], o[i])) {
+                max = Math.max(max, i - groupStart);
+                groupStart = i;
+                starts[groups++] = i + 1;
+            }
+        }
+        maxGroupSize = Math.max(max, n - groupStart);
+        groupStarts = Arrays.copyOf(starts, groups);
+    }
+
+    private boolean rowsEqual(int row1, int row2) {
+        for (int i = 0; i < keyCount; i++) {
+            if (!keys[i].equal(row1, row2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
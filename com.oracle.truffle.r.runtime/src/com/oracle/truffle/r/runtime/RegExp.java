@@ -22,6 +22,10 @@
  */
 package com.oracle.truffle.r.runtime;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 /**
@@ -106,4 +110,205 @@ public class RegExp {
         }
         return result;
     }
+
+    /**
+     * The regular expression engines whose compiled patterns are kept in a {@link Cache}.
+     */
+    public enum Engine {
+        JAVA,
+        PCRE
+    }
+
+    /**
+     * A (per context) least-recently-used cache of compiled patterns, keyed by the engine, the
+     * pattern and the compile flags, so that builtins called repeatedly with the same pattern do
+     * not compile it over and over again.
+     */
+    public static final class Cache {
+        private static final int MAX_ENTRIES = 128;
+
+        private static final class Key {
+            private final Engine engine;
+            private final String pattern;
+            private final int flags;
+
+            private Key(Engine engine, String pattern, int flags) {
+                this.engine = engine;
+                this.pattern = pattern;
+                this.flags = flags;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                if (!(obj instanceof Key)) {
+                    return false;
+                }
+                Key other = (Key) obj;
+                return engine == other.engine && flags == other.flags && pattern.equals(other.pattern);
+            }
+
+            @Override
+            public int hashCode() {
+                return (pattern.hashCode() * 31 + flags) * 31 + engine.ordinal();
+            }
+        }
+
+        @SuppressWarnings("serial")
+        private final LinkedHashMap<Key, Object> entries = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+
+        /**
+         * @return the compiled pattern or {@code null} if it is not in the cache
+         */
+        @TruffleBoundary
+        public synchronized Object get(Engine engine, String pattern, int flags) {
+            return entries.get(new Key(engine, pattern, flags));
+        }
+
+        @TruffleBoundary
+        public synchronized void put(Engine engine, String pattern, int flags, Object compiled) {
+            entries.put(new Key(engine, pattern, flags), compiled);
+        }
+
+        /**
+         * Returns the compiled Java pattern, compiling it if it is not in the cache. Throws
+         * {@link java.util.regex.PatternSyntaxException} for an invalid pattern.
+         */
+        @TruffleBoundary
+        public Pattern getJavaPattern(String pattern, int flags) {
+            Pattern compiled = (Pattern) get(Engine.JAVA, pattern, flags);
+            if (compiled == null) {
+                compiled = Pattern.compile(pattern, flags);
+                put(Engine.JAVA, pattern, flags, compiled);
+            }
+            return compiled;
+        }
+    }
+
+    /**
+     * A regular expression that only matches a literal string, possibly anchored at the start
+     * and/or at the end of the text. Such patterns can be searched for with {@link String#indexOf}
+     * instead of running a regular expression engine.
+     */
+    public static final class Literal {
+        private final String value;
+        private final boolean atStart;
+        private final boolean atEnd;
+        private final boolean perl;
+
+        private Literal(String value, boolean atStart, boolean atEnd, boolean perl) {
+            this.value = value;
+            this.atStart = atStart;
+            this.atEnd = atEnd;
+            this.perl = perl;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public boolean isAnchored() {
+            return atStart || atEnd;
+        }
+
+        /**
+         * Returns the index of the first match in {@code text} at or after {@code from}, or
+         * {@code -1}, with the semantics of the engine the pattern was meant for.
+         */
+        public int find(String text, int from) {
+            if (atStart && from > 0) {
+                return -1;
+            }
+            if (atEnd) {
+                // '$' also matches before a line terminator that ends the text
+                int end = text.length();
+                int terminator = finalTerminatorLength(text);
+                if (terminator > 0 && matchesAt(text, end - terminator - value.length(), from)) {
+                    return end - terminator - value.length();
+                }
+                return matchesAt(text, end - value.length(), from) ? end - value.length() : -1;
+            } else if (atStart) {
+                return text.startsWith(value) ? 0 : -1;
+            } else {
+                return text.indexOf(value, from);
+            }
+        }
+
+        private boolean matchesAt(String text, int index, int from) {
+            return index >= from && (!atStart || index == 0) && text.startsWith(value, index);
+        }
+
+        private int finalTerminatorLength(String text) {
+            int n = text.length();
+            if (n == 0) {
+                return 0;
+            }
+            char c = text.charAt(n - 1);
+            if (c == '\n') {
+                return !perl && n > 1 && text.charAt(n - 2) == '\r' ? 2 : 1;
+            } else if (!perl && (c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029')) {
+                return 1;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Checks whether {@code pattern} is a (possibly anchored) literal string, i.e., it contains
+     * no metacharacters other than a leading {@code ^}, a trailing {@code $} and escaped
+     * punctuation characters.
+     *
+     * @param perl whether the pattern is meant for PCRE, which only differs in which line
+     *            terminators a trailing {@code $} can match before
+     * @return the literal or {@code null} if the pattern is not a non-empty literal string
+     */
+    @TruffleBoundary
+    public static Literal getLiteral(String pattern, boolean perl) {
+        int length = pattern.length();
+        boolean atStart = length > 0 && pattern.charAt(0) == '^';
+        boolean atEnd = false;
+        StringBuilder value = new StringBuilder(length);
+        for (int i = atStart ? 1 : 0; i < length; i++) {
+            char c = pattern.charAt(i);
+            switch (c) {
+                case '\\':
+                    if (i + 1 < length) {
+                        char next = pattern.charAt(i + 1);
+                        if (next < 128 && !Character.isLetterOrDigit(next)) {
+                            value.append(next);
+                            i++;
+                            break;
+                        }
+                    }
+                    return null;
+                case '$':
+                    if (i != length - 1) {
+                        return null;
+                    }
+                    atEnd = true;
+                    break;
+                case '.':
+                case '^':
+                case '*':
+                case '+':
+                case '?':
+                case '(':
+                case ')':
+                case '[':
+                case ']':
+                case '{':
+                case '}':
+                case '|':
+                    return null;
+                default:
+                    value.append(c);
+                    break;
+            }
+        }
+        return value.length() == 0 ? null : new Literal(value.toString(), atStart, atEnd, perl);
+    }
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.MaterializedFrame;
+import com.oracle.truffle.api.nodes.InvalidAssumptionException;
+import com.oracle.truffle.r.runtime.data.RPromise;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor;
+import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor.LookupResult;
+
+/**
+ * A (per context) table of S3 dispatch results for call sites that have seen too many different
+ * classes to be handled by the inline caches of the S3 function lookup. There is one table per
+ * generic, keyed by the class vector, the group, the frame descriptor of the caller and the S3
+ * methods table, so that repeated dispatch on the same classes does not walk the environments
+ * again.
+ *
+ * An entry records the {@link FrameSlotChangeMonitor#lookup lookups} of all method names that
+ * were tried when the result was computed, together with the values they delivered. It is valid
+ * as long as these lookups are valid and still deliver the same values, i.e., methods that are
+ * defined or removed later invalidate the entries that depend on them. Dispatch results that
+ * cannot be expressed in terms of such lookups are not cached.
+ */
+public final class S3DispatchTable {
+    private static final int MAX_ENTRIES_PER_GENERIC = 64;
+
+    private static final class Key {
+        private final String[] classes;
+        private final String group;
+        private final boolean nextMethod;
+        private final FrameDescriptor callerDescriptor;
+        private final MaterializedFrame methodsTable;
+        private final int hash;
+
+        private Key(String[] classes, String group, boolean nextMethod, FrameDescriptor callerDescriptor, MaterializedFrame methodsTable) {
+            this.classes = classes;
+            this.group = group;
+            this.nextMethod = nextMethod;
+            this.callerDescriptor = callerDescriptor;
+            this.methodsTable = methodsTable;
+            this.hash = (Arrays.hashCode(classes) * 31 + System.identityHashCode(callerDescriptor)) * 31 + System.identityHashCode(methodsTable);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return callerDescriptor == other.callerDescriptor && methodsTable == other.methodsTable && nextMethod == other.nextMethod &&
+                            (group == null ? other.group == null : group.equals(other.group)) && Arrays.equals(classes, other.classes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final LookupResult[] lookups;
+        private final Object[] values;
+        private final Object result;
+
+        private Entry(LookupResult[] lookups, Object[] values, Object result) {
+            this.lookups = lookups;
+            this.values = values;
+            this.result = result;
+        }
+
+        private boolean isValid() {
+            for (int i = 0; i < lookups.length; i++) {
+                if (!lookups[i].isValid() || getValue(lookups[i]) != values[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Collects the lookups a dispatch result depends on, see {@link #add}.
+     */
+    public static final class Dependencies {
+        private final ArrayList<LookupResult> lookups = new ArrayList<>();
+        private final ArrayList<Object> values = new ArrayList<>();
+        private boolean cacheable = true;
+
+        /**
+         * Records that looking up the function {@code name} starting at {@code frame} delivered
+         * {@code value} ({@code null} if there was no such function).
+         */
+        @TruffleBoundary
+        public void add(Frame frame, String name, Object value) {
+            if (!cacheable) {
+                return;
+            }
+            LookupResult lookup = FrameSlotChangeMonitor.lookup(frame, name);
+            // e.g., a non-function binding that shadows the function cannot be replayed
+            if (lookup == null || getValue(lookup) != value) {
+                cacheable = false;
+            } else {
+                lookups.add(lookup);
+                values.add(value);
+            }
+        }
+    }
+
+    private final HashMap<String, LinkedHashMap<Key, Entry>> tables = new HashMap<>();
+
+    private static Object getValue(LookupResult lookup) {
+        try {
+            Object value = lookup.getValue();
+            if (value instanceof RPromise) {
+                RPromise promise = (RPromise) value;
+                // unevaluated promises never match a recorded function
+                return promise.isEvaluated() ? promise.getValue() : promise;
+            }
+            return value;
+        } catch (InvalidAssumptionException e) {
+            return e;
+        }
+    }
+
+    /**
+     * @return the dispatch result for the given generic and classes, or {@code null} if there is
+     *         no valid entry
+     */
+    @TruffleBoundary
+    public synchronized Object get(String generic, RStringVector type, String group, boolean nextMethod, FrameDescriptor callerDescriptor, MaterializedFrame methodsTable) {
+        LinkedHashMap<Key, Entry> table = tables.get(generic);
+        if (table == null) {
+            return null;
+        }
+        Key key = new Key(type.getDataWithoutCopying(), group, nextMethod, callerDescriptor, methodsTable);
+        Entry entry = table.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.isValid()) {
+            table.remove(key);
+            return null;
+        }
+        return entry.result;
+    }
+
+    @TruffleBoundary
+    public synchronized void put(String generic, RStringVector type, String group, boolean nextMethod, FrameDescriptor callerDescriptor, MaterializedFrame methodsTable, Object result,
+                    Dependencies dependencies) {
+        if (!dependencies.cacheable) {
+            return;
+        }
+        LinkedHashMap<Key, Entry> table = tables.get(generic);
+        if (table == null) {
+            @SuppressWarnings("serial")
+            LinkedHashMap<Key, Entry> newTable = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                    return size() > MAX_ENTRIES_PER_GENERIC;
+                }
+            };
+            table = newTable;
+            tables.put(generic, table);
+        }
+        Key key = new Key(type.getDataCopy(), group, nextMethod, callerDescriptor, methodsTable);
+        LookupResult[] lookups = dependencies.lookups.toArray(new LookupResult[dependencies.lookups.size()]);
+        table.put(key, new Entry(lookups, dependencies.values.toArray(), result));
+    }
+}
@@ -460,6 +460,11 @@ public class ConnectionSupport {
             throw RInternalError.shouldNotReachHere("INVALID CONNECTION");
         }
 
+        @Override
+        public ByteBuffer readBinView(int length) throws IOException {
+            throw RInternalError.shouldNotReachHere("INVALID CONNECTION");
+        }
+
         @Override
         public byte[] readBinChars() throws IOException {
             throw RInternalError.shouldNotReachHere("INVALID CONNECTION");
@@ -815,6 +820,12 @@ public class ConnectionSupport {
             return theConnection.readBin(buffer);
         }
 
+        @Override
+        public ByteBuffer readBinView(int length) throws IOException {
+            checkOpen();
+            return theConnection.readBinView(length);
+        }
+
         @Override
         public byte[] readBinChars() throws IOException {
             checkOpen();
@@ -556,6 +556,11 @@ abstract class DelegateRConnection implements RConnection, ByteChannel {
         return read < 0 ? 0 : read;
     }
 
+    @Override
+    public ByteBuffer readBinView(int length) throws IOException {
+        return null;
+    }
+
     /**
      * Reads null-terminated character strings from a {@link ReadableByteChannel}.
      */
@@ -24,6 +24,7 @@ package com.oracle.truffle.r.runtime.conn;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -39,7 +40,6 @@ import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 import org.tukaani.xz.LZMA2Options;
 import org.tukaani.xz.XZ;
@@ -47,6 +47,7 @@ import org.tukaani.xz.XZInputStream;
 import org.tukaani.xz.XZOutputStream;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.FastROptions;
 import com.oracle.truffle.r.runtime.RCompression;
 import com.oracle.truffle.r.runtime.RCompression.Type;
 import com.oracle.truffle.r.runtime.RError;
@@ -137,7 +138,7 @@ public class FileConnections {
                 delegate = new FileReadTextRConnection(base);
                 break;
             case ReadBinary:
-                delegate = new FileReadBinaryRConnection(base);
+                delegate = createReadBinaryConnection(base);
                 break;
             case Write:
                 delegate = new FileWriteTextRConnection(base, false);
@@ -171,13 +172,13 @@ public class FileConnections {
         switch (base.getOpenMode().abstractOpenMode) {
             case Read:
             case ReadBinary:
-                return new CompressedInputRConnection(base, new GZIPInputStream(new FileInputStream(base.path), GZIP_BUFFER_SIZE));
+                return new CompressedInputRConnection(base, ReadAheadInputStream.create(new GZIPInputStream(new FileInputStream(base.path), GZIP_BUFFER_SIZE)));
             case Append:
             case AppendBinary:
-                return new CompressedOutputRConnection(base, new GZIPOutputStream(new FileOutputStream(base.path, true), GZIP_BUFFER_SIZE), true);
+                return new CompressedOutputRConnection(base, ParallelGZIPOutputStream.create(new FileOutputStream(base.path, true), GZIP_BUFFER_SIZE), true);
             case Write:
             case WriteBinary:
-                return new CompressedOutputRConnection(base, new GZIPOutputStream(new FileOutputStream(base.path, false), GZIP_BUFFER_SIZE), true);
+                return new CompressedOutputRConnection(base, ParallelGZIPOutputStream.create(new FileOutputStream(base.path, false), GZIP_BUFFER_SIZE), true);
             default:
                 throw RError.nyi(RError.SHOW_CALLER2, "open mode: " + base.getOpenMode());
         }
@@ -264,6 +265,17 @@ public class FileConnections {
         }
     }
 
+    private static DelegateRConnection createReadBinaryConnection(BasePathRConnection base) throws IOException {
+        int threshold = FastROptions.MappedFileThreshold.getNonNegativeIntValue();
+        if (threshold != 0) {
+            File file = new File(base.path);
+            if (file.isFile() && file.length() >= threshold) {
+                return new FileReadMappedRConnection(base);
+            }
+        }
+        return new FileReadBinaryRConnection(base);
+    }
+
     static class FileReadBinaryRConnection extends DelegateReadRConnection {
 
         private final FileChannel channel;
@@ -290,6 +302,46 @@ public class FileConnections {
 
     }
 
+    /**
+     * Binary read connection on a memory-mapped file (see {@link FastROptions#MappedFileThreshold}).
+     * {@code readBin} decodes directly from the mapping and {@code seek} only changes the position.
+     */
+    static class FileReadMappedRConnection extends DelegateReadRConnection {
+
+        private final MappedByteChannel channel;
+
+        FileReadMappedRConnection(BasePathRConnection base) throws IOException {
+            // no read cache, the data is in memory anyway
+            super(base, 0);
+            channel = new MappedByteChannel(FileChannel.open(Paths.get(base.path), StandardOpenOption.READ));
+        }
+
+        @Override
+        public boolean isSeekable() {
+            return true;
+        }
+
+        @Override
+        public long seekInternal(long offset, SeekMode seekMode, SeekRWMode seekRWMode) throws IOException {
+            return DelegateRConnection.seek(channel, offset, seekMode, seekRWMode);
+        }
+
+        @Override
+        public ByteChannel getChannel() {
+            return channel;
+        }
+
+        @Override
+        protected int readInternal() throws IOException {
+            return channel.readByte();
+        }
+
+        @Override
+        public ByteBuffer readBinView(int length) throws IOException {
+            return channel.view(length);
+        }
+    }
+
     static class FileReadTextRConnection extends FileReadBinaryRConnection {
 
         FileReadTextRConnection(BasePathRConnection base) throws IOException {
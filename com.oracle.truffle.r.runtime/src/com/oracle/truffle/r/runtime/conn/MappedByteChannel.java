@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.conn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+import sun.misc.Cleaner;
+import sun.nio.ch.DirectBuffer;
+
+/**
+ * A read-only channel on a memory-mapped file. The file is mapped in windows of at most
+ * {@link #WINDOW_SIZE} bytes, only the window around the current position is mapped at any time.
+ * Positioning the channel does not involve any system call.
+ *
+ * The file may change while the channel is open: every bulk read, and a single-byte read at the
+ * end of the file, re-reads its size, so that growth is seen and no window extends past the end of
+ * a truncated file. An access that still hits a page removed by a concurrent truncation is reported
+ * as an {@link IOException}.
+ */
+final class MappedByteChannel implements SeekableByteChannel {
+
+    private static final int WINDOW_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private long size;
+    private long position;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    /**
+     * Takes ownership of {@code channel}, which is closed together with this channel.
+     */
+    MappedByteChannel(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    private void checkOpen() throws ClosedChannelException {
+        if (!channel.isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * Re-reads the size of the file and drops the window if the size has changed, since the window
+     * may then end before the end of the file or extend past it.
+     */
+    private void updateSize() throws IOException {
+        long newSize = channel.size();
+        if (newSize != size) {
+            size = newSize;
+            unmapWindow();
+        }
+    }
+
+    /**
+     * Unmaps the window right away instead of leaving it to the GC, so that e.g. the file can be
+     * deleted or renamed after closing the channel. No view of the window may be used afterwards.
+     */
+    private void unmapWindow() {
+        if (window != null) {
+            Cleaner cleaner = ((DirectBuffer) window).cleaner();
+            if (cleaner != null) {
+                cleaner.clean();
+            }
+            window = null;
+        }
+    }
+
+    /**
+     * Returns a view of the window containing {@code pos}, which must be below {@link #size},
+     * positioned at {@code pos}.
+     */
+    private ByteBuffer windowAt(long pos) throws IOException {
+        if (window == null || pos < windowStart || pos >= windowStart + window.capacity()) {
+            unmapWindow();
+            windowStart = pos - pos % WINDOW_SIZE;
+            window = channel.map(MapMode.READ_ONLY, windowStart, Math.min(WINDOW_SIZE, size - windowStart));
+        }
+        ByteBuffer result = window.duplicate();
+        result.position((int) (pos - windowStart));
+        return result;
+    }
+
+    /**
+     * Converts the error raised by an access to a page that was removed by truncating the file.
+     */
+    private IOException truncated(InternalError e) throws IOException {
+        updateSize();
+        unmapWindow();
+        return new IOException("file truncated while reading", e);
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        checkOpen();
+        updateSize();
+        return readMapped(dst);
+    }
+
+    private int readMapped(ByteBuffer dst) throws IOException {
+        if (position >= size) {
+            return -1;
+        }
+        int total = 0;
+        try {
+            while (dst.hasRemaining() && position < size) {
+                ByteBuffer segment = windowAt(position);
+                int n = Math.min(dst.remaining(), segment.remaining());
+                segment.limit(segment.position() + n);
+                dst.put(segment);
+                position += n;
+                total += n;
+            }
+        } catch (InternalError e) {
+            throw truncated(e);
+        }
+        return total;
+    }
+
+    /**
+     * Reads a single byte, returns {@code -1} at the end of the file.
+     */
+    int readByte() throws IOException {
+        checkOpen();
+        if (position >= size) {
+            updateSize();
+            if (position >= size) {
+                return -1;
+            }
+        }
+        int b;
+        try {
+            if (window != null && position >= windowStart && position < windowStart + window.capacity()) {
+                b = window.get((int) (position - windowStart)) & 0xFF;
+            } else {
+                b = windowAt(position).get() & 0xFF;
+            }
+        } catch (InternalError e) {
+            throw truncated(e);
+        }
+        position++;
+        return b;
+    }
+
+    /**
+     * Returns a read-only view of the next {@code length} bytes (fewer at the end of the file) and
+     * advances the position past them. The view is only valid until the next operation on this
+     * channel. Only a view crossing the boundary of two windows is copied.
+     */
+    ByteBuffer view(int length) throws IOException {
+        checkOpen();
+        updateSize();
+        int n = (int) Math.max(0, Math.min(length, size - position));
+        if (n == 0) {
+            return ByteBuffer.allocate(0);
+        }
+        ByteBuffer segment = windowAt(position);
+        if (segment.remaining() < n) {
+            ByteBuffer result = ByteBuffer.allocate(n);
+            readMapped(result);
+            result.flip();
+            return result;
+        }
+        segment.limit(segment.position() + n);
+        position += n;
+        return segment.slice();
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        checkOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        checkOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException();
+        }
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        checkOpen();
+        updateSize();
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long newSize) throws IOException {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        unmapWindow();
+        channel.close();
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.conn;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import com.oracle.truffle.r.runtime.ParallelTasks;
+
+/**
+ * A replacement for {@link GZIPOutputStream} that compresses blocks of the input in parallel in
+ * the style of {@code pigz}: every block is compressed by its own {@link Deflater}, primed with the
+ * last 32K of the preceding input as dictionary, and ends with a sync flush (the last one with the
+ * final block). The compressed blocks are written in order, so that the output is a single, valid
+ * gzip member that can be read by any gzip implementation.
+ *
+ * As with {@link GZIPOutputStream}, {@link #flush()} does not force out the data of an incomplete
+ * block.
+ */
+final class ParallelGZIPOutputStream extends OutputStream {
+
+    private static final int BLOCK_SIZE = 128 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    /**
+     * Header without file name, modification time and flags, as written by
+     * {@link GZIPOutputStream}.
+     */
+    private static final byte[] HEADER = {(byte) 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private final OutputStream out;
+    private final int maxPending;
+    private final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+    private final CRC32 crc = new CRC32();
+    private long size;
+
+    private byte[] block = new byte[BLOCK_SIZE];
+    private int blockLength;
+    private byte[] dictionary;
+    private boolean closed;
+
+    private ParallelGZIPOutputStream(OutputStream out) throws IOException {
+        this.out = out;
+        this.maxPending = 2 * ParallelTasks.getPool().getParallelism();
+        out.write(HEADER);
+    }
+
+    /**
+     * Creates a gzip stream writing to {@code out}, which compresses in parallel if
+     * multi-threading is enabled (see {@link ParallelTasks#isEnabled()}).
+     */
+    static OutputStream create(OutputStream out, int bufferSize) throws IOException {
+        if (ParallelTasks.isEnabled()) {
+            return new ParallelGZIPOutputStream(out);
+        }
+        return new GZIPOutputStream(out, bufferSize);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("write to closed stream");
+        }
+        crc.update(b, off, len);
+        size += len;
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            int n = Math.min(remaining, BLOCK_SIZE - blockLength);
+            System.arraycopy(b, offset, block, blockLength, n);
+            blockLength += n;
+            offset += n;
+            remaining -= n;
+            if (blockLength == BLOCK_SIZE) {
+                submitBlock(false);
+            }
+        }
+    }
+
+    private void submitBlock(boolean last) throws IOException {
+        byte[] input = block;
+        int length = blockLength;
+        byte[] dict = dictionary;
+        dictionary = nextDictionary(dict, input, length);
+        pending.add(ParallelTasks.getPool().submit(() -> deflate(input, length, dict, last)));
+        block = new byte[BLOCK_SIZE];
+        blockLength = 0;
+        while (pending.size() > maxPending) {
+            writeCompleted();
+        }
+    }
+
+    private static byte[] nextDictionary(byte[] dict, byte[] input, int length) {
+        if (length >= DICTIONARY_SIZE || dict == null) {
+            return Arrays.copyOfRange(input, Math.max(0, length - DICTIONARY_SIZE), length);
+        }
+        int keep = Math.min(dict.length, DICTIONARY_SIZE - length);
+        byte[] result = Arrays.copyOfRange(dict, dict.length - keep, dict.length + length);
+        System.arraycopy(input, 0, result, keep, length);
+        return result;
+    }
+
+    private static byte[] deflate(byte[] input, int length, byte[] dict, boolean last) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            if (dict != null && dict.length > 0) {
+                deflater.setDictionary(dict);
+            }
+            deflater.setInput(input, 0, length);
+            ByteArrayOutputStream result = new ByteArrayOutputStream(length / 2 + 64);
+            byte[] buf = new byte[64 * 1024];
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(buf);
+                    result.write(buf, 0, n);
+                }
+            } else {
+                int n;
+                do {
+                    n = deflater.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH);
+                    result.write(buf, 0, n);
+                } while (n == buf.length);
+            }
+            return result.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeCompleted() throws IOException {
+        Future<byte[]> next = pending.removeFirst();
+        try {
+            out.write(next.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        while (!pending.isEmpty()) {
+            writeCompleted();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            submitBlock(true);
+            while (!pending.isEmpty()) {
+                writeCompleted();
+            }
+            int crcValue = (int) crc.getValue();
+            int sizeValue = (int) size;
+            out.write(new byte[]{(byte) crcValue, (byte) (crcValue >> 8), (byte) (crcValue >> 16), (byte) (crcValue >> 24), (byte) sizeValue, (byte) (sizeValue >> 8), (byte) (sizeValue >> 16),
+                            (byte) (sizeValue >> 24)});
+        } finally {
+            out.close();
+        }
+    }
+}
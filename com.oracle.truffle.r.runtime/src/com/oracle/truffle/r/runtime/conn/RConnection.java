@@ -196,6 +196,16 @@ public interface RConnection extends AutoCloseable, RTruffleObject {
      */
     int readBin(ByteBuffer buffer) throws IOException;
 
+    /**
+     * Internal support for the {@code readBin} builtin on connections whose data is already in
+     * memory, e.g., memory-mapped files. Returns a read-only view of the next {@code length} bytes
+     * (or fewer at the end of the data) and advances the position past them, so that the caller
+     * can decode directly from the view. The view is only valid until the next operation on the
+     * connection. Returns {@code null} if the connection does not support this, in which case
+     * {@link #readBin(ByteBuffer)} has to be used.
+     */
+    ByteBuffer readBinView(int length) throws IOException;
+
     /**
      * Internal connection-specific support for the {@code readBin} builtin on character data.
      * character data is null-terminated and, therefore of length unknown to the caller. The result
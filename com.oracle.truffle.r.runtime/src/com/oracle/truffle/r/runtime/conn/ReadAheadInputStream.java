@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.conn;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.oracle.truffle.r.runtime.ParallelTasks;
+
+/**
+ * Reads (and thereby decompresses) an input stream ahead on a background thread, so that the
+ * decompression of e.g. a gzip file overlaps with the processing of the data, such as
+ * unserializing or parsing. The thread stops at the end of the input or when the stream is closed,
+ * or collected without having been closed (e.g. a connection that was left open after a partial
+ * read). Only the thread reads from the underlying stream, so it is also the one that closes it:
+ * closing the stream while a read is in progress breaks e.g. {@link java.util.zip.GZIPInputStream}.
+ */
+final class ReadAheadInputStream extends InputStream {
+
+    private static final int CHUNK_SIZE = 256 * 1024;
+    private static final int MAX_CHUNKS = 4;
+    private static final byte[] END = new byte[0];
+    /**
+     * How often a reader waiting for free space in the queue checks whether it is still needed.
+     */
+    private static final long CHECK_INTERVAL_MS = 1000;
+
+    private final Reader reader;
+
+    private byte[] current;
+    private int position;
+    private boolean atEnd;
+
+    /**
+     * The state shared with the background thread, which must not reference the stream itself so
+     * that an abandoned stream can be collected.
+     */
+    private static final class Reader implements Runnable {
+        private final InputStream in;
+        private final WeakReference<ReadAheadInputStream> owner;
+        private final ArrayBlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(MAX_CHUNKS);
+        private volatile IOException error;
+        private volatile boolean closed;
+
+        private Reader(InputStream in, ReadAheadInputStream owner) {
+            this.in = in;
+            this.owner = new WeakReference<>(owner);
+        }
+
+        @Override
+        public void run() {
+            try {
+                readChunks();
+            } finally {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    // the data has been read or is not needed anymore
+                }
+            }
+        }
+
+        private void readChunks() {
+            try {
+                while (!closed) {
+                    byte[] buf = new byte[CHUNK_SIZE];
+                    int length = 0;
+                    int n;
+                    while (length < buf.length && (n = in.read(buf, length, buf.length - length)) > 0) {
+                        length += n;
+                    }
+                    if (length > 0 && !put(length == buf.length ? buf : Arrays.copyOf(buf, length))) {
+                        return;
+                    }
+                    if (length < buf.length) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                error = e;
+            } catch (InterruptedException e) {
+                // closed
+                return;
+            }
+            try {
+                put(END);
+            } catch (InterruptedException e) {
+                // closed
+            }
+        }
+
+        /**
+         * Waits for free space in the queue, returns {@code false} if the stream was closed or
+         * abandoned in the meantime.
+         */
+        private boolean put(byte[] chunk) throws InterruptedException {
+            while (!chunks.offer(chunk, CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                if (closed || owner.get() == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private ReadAheadInputStream(InputStream in) {
+        this.reader = new Reader(in, this);
+        Thread thread = new Thread(reader, "FastR read-ahead");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Wraps {@code in} if multi-threading is enabled (see {@link ParallelTasks#isEnabled()}).
+     */
+    static InputStream create(InputStream in) {
+        if (ParallelTasks.isEnabled()) {
+            return new ReadAheadInputStream(in);
+        }
+        return in;
+    }
+
+    private boolean fill() throws IOException {
+        while (current == null || position == current.length) {
+            if (atEnd) {
+                return false;
+            }
+            byte[] next;
+            try {
+                next = reader.chunks.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            if (next == END) {
+                atEnd = true;
+                if (reader.error != null) {
+                    throw reader.error;
+                }
+                return false;
+            }
+            current = next;
+            position = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return fill() ? current[position++] & 0xff : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return current == null ? 0 : current.length - position;
+    }
+
+    @Override
+    public void close() {
+        reader.closed = true;
+        // frees the queue, so that a reader waiting for space notices the close right away
+        reader.chunks.clear();
+    }
+}
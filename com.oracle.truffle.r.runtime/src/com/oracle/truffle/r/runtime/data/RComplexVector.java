@@ -80,6 +80,7 @@ public final class RComplexVector extends RVector<double[]> implements RAbstract
     @Override
     public void setDataAt(Object store, int index, RComplex value) {
         assert data == store;
+        elementsModified();
         double[] array = (double[]) store;
         array[index << 1] = value.getRealPart();
         array[(index << 1) + 1] = value.getImaginaryPart();
@@ -136,6 +137,7 @@ public final class RComplexVector extends RVector<double[]> implements RAbstract
 
     private RComplexVector updateDataAt(int i, RComplex right, NACheck rightNACheck) {
         assert !this.isShared();
+        elementsModified();
         int index = i << 1;
         data[index] = right.getRealPart();
         data[index + 1] = right.getImaginaryPart();
@@ -187,6 +189,7 @@ public final class RComplexVector extends RVector<double[]> implements RAbstract
 
     @Override
     public void transferElementSameType(int toIndex, RAbstractVector fromVector, int fromIndex) {
+        elementsModified();
         RAbstractComplexVector other = (RAbstractComplexVector) fromVector;
         int toIndex2 = toIndex << 1;
         RComplex value = other.getDataAt(fromIndex);
@@ -257,6 +257,10 @@ public final class RDataFactory {
         return traceDataCreated(new RDoubleSequence(start, stride, length));
     }
 
+    public static RStringSequence createStringSequence(RSequence sequence) {
+        return traceDataCreated(new RStringSequence(sequence));
+    }
+
     public static RIntVector createEmptyIntVector() {
         return createIntVector(new int[0], true);
     }
@@ -524,10 +528,7 @@ public final class RDataFactory {
 
     @TruffleBoundary
     public static REnvironment createNewEnv(String name, boolean hashed, int initialSize) {
-        REnvironment.NewEnv env = new REnvironment.NewEnv(RRuntime.createNonFunctionFrame("<new-env-" + environmentCount.incrementAndGet() + ">"), name);
-        env.setHashed(hashed);
-        env.setInitialSize(initialSize);
-        return traceDataCreated(env);
+        return traceDataCreated(new REnvironment.NewEnv(RRuntime.createNonFunctionFrame("<new-env-" + environmentCount.incrementAndGet() + ">"), name, hashed, initialSize));
     }
 
     public static RS4Object createS4Object() {
@@ -608,7 +609,6 @@ public final class RDataFactory {
 
     @TruffleBoundary
     private static void reportDataCreated(Object data) {
-        System.out.println("reportDataCreated " + listeners.size() + " " + allocationTracingEnabled);
         if (allocationTracingEnabled) {
             RContext ctx = RContext.getThreadLocalInstance();
             assert ctx != null;
@@ -656,7 +656,11 @@ public final class RDataFactory {
         return data;
     }
 
-    private static long getSize(RTypedValue data) {
+    /**
+     * A cheap estimate of the size of an allocated value in bytes, which, unlike
+     * {@link RObjectSize}, does not traverse the object.
+     */
+    public static long getSize(RTypedValue data) {
         long multiplier = 8;
         switch (data.getRType()) {
             case Complex:
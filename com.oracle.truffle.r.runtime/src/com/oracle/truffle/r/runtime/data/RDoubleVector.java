@@ -78,6 +78,7 @@ public final class RDoubleVector extends RVector<double[]> implements RAbstractD
     @Override
     public void setDataAt(Object store, int index, double value) {
         assert data == store;
+        elementsModified();
         ((double[]) store)[index] = value;
     }
 
@@ -148,6 +149,7 @@ public final class RDoubleVector extends RVector<double[]> implements RAbstractD
 
     public RDoubleVector updateDataAt(int i, double right, NACheck valueNACheck) {
         assert !this.isShared();
+        elementsModified();
         data[i] = right;
         if (valueNACheck.check(right)) {
             complete = false;
@@ -200,6 +202,7 @@ public final class RDoubleVector extends RVector<double[]> implements RAbstractD
 
     @Override
     public void transferElementSameType(int toIndex, RAbstractVector fromVector, int fromIndex) {
+        elementsModified();
         RAbstractDoubleVector other = (RAbstractDoubleVector) fromVector;
         data[toIndex] = other.getDataAt(fromIndex);
     }
@@ -84,6 +84,7 @@ public final class RIntVector extends RVector<int[]> implements RAbstractIntVect
     @Override
     public void setDataAt(Object store, int index, int value) {
         assert data == store;
+        elementsModified();
         ((int[]) store)[index] = value;
     }
 
@@ -148,6 +149,7 @@ public final class RIntVector extends RVector<int[]> implements RAbstractIntVect
 
     public RIntVector updateDataAt(int i, int right, NACheck valueNACheck) {
         assert !this.isShared();
+        elementsModified();
         data[i] = right;
         if (valueNACheck.check(right)) {
             setComplete(false);
@@ -199,6 +201,7 @@ public final class RIntVector extends RVector<int[]> implements RAbstractIntVect
 
     @Override
     public void transferElementSameType(int toIndex, RAbstractVector fromVector, int fromIndex) {
+        elementsModified();
         RAbstractIntVector other = (RAbstractIntVector) fromVector;
         data[toIndex] = other.getDataAt(fromIndex);
     }
@@ -210,6 +213,7 @@ public final class RIntVector extends RVector<int[]> implements RAbstractIntVect
 
     @Override
     public void setElement(int i, Object value) {
+        elementsModified();
         data[i] = (int) value;
     }
 }
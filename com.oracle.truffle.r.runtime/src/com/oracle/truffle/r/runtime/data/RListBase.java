@@ -80,6 +80,7 @@ public abstract class RListBase extends RVector<Object[]> implements RAbstractLi
     @Override
     public void setDataAt(Object store, int index, Object valueArg) {
         assert valueArg != null : "lists must not contain nulls";
+        elementsModified();
         Object value = valueArg;
         assert store == data;
         ((Object[]) store)[index] = value;
@@ -129,6 +130,7 @@ public abstract class RListBase extends RVector<Object[]> implements RAbstractLi
     public final RListBase updateDataAt(int i, Object right, @SuppressWarnings("unused") NACheck rightNACheck) {
         assert !this.isShared() : "data in shared list must not be updated, make a copy";
         assert right != null : "lists must not contain nulls";
+        elementsModified();
         data[i] = right;
         return this;
     }
@@ -141,6 +143,7 @@ public abstract class RListBase extends RVector<Object[]> implements RAbstractLi
 
     @Override
     public final void transferElementSameType(int toIndex, RAbstractVector fromVector, int fromIndex) {
+        elementsModified();
         RAbstractListVector other = (RAbstractListVector) fromVector;
         data[toIndex] = other.getDataAtAsObject(fromIndex);
     }
@@ -182,6 +185,7 @@ public abstract class RListBase extends RVector<Object[]> implements RAbstractLi
 
     @Override
     public final void setElement(int i, Object value) {
+        elementsModified();
         data[i] = value;
     }
 }
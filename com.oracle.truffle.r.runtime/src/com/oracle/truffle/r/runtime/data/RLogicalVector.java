@@ -75,6 +75,7 @@ public final class RLogicalVector extends RVector<byte[]> implements RAbstractLo
     @Override
     public void setDataAt(Object store, int index, byte value) {
         assert data == store;
+        elementsModified();
         ((byte[]) store)[index] = value;
     }
 
@@ -131,6 +132,7 @@ public final class RLogicalVector extends RVector<byte[]> implements RAbstractLo
 
     private RLogicalVector updateDataAt(int index, byte right, NACheck valueNACheck) {
         assert !this.isShared();
+        elementsModified();
         data[index] = right;
         if (valueNACheck.check(right)) {
             setComplete(false);
@@ -174,6 +176,7 @@ public final class RLogicalVector extends RVector<byte[]> implements RAbstractLo
 
     @Override
     public void transferElementSameType(int toIndex, RAbstractVector fromVector, int fromIndex) {
+        elementsModified();
         RAbstractLogicalVector other = (RAbstractLogicalVector) fromVector;
         data[toIndex] = other.getDataAt(fromIndex);
     }
@@ -84,6 +84,7 @@ public final class RRawVector extends RVector<byte[]> implements RAbstractRawVec
     @Override
     public void setRawDataAt(Object store, int index, byte value) {
         assert data == store;
+        elementsModified();
         ((byte[]) store)[index] = value;
     }
 
@@ -138,6 +139,7 @@ public final class RRawVector extends RVector<byte[]> implements RAbstractRawVec
 
     public RRawVector updateDataAt(int i, RRaw right) {
         assert !this.isShared();
+        elementsModified();
         data[i] = right.getValue();
         return this;
     }
@@ -171,6 +173,7 @@ public final class RRawVector extends RVector<byte[]> implements RAbstractRawVec
 
     @Override
     public void transferElementSameType(int toIndex, RAbstractVector fromVector, int fromIndex) {
+        elementsModified();
         RAbstractRawVector other = (RAbstractRawVector) fromVector;
         data[toIndex] = other.getRawDataAt(fromIndex);
     }
@@ -28,6 +28,11 @@ package com.oracle.truffle.r.runtime.data;
 public abstract class RSharingAttributeStorage extends RAttributeStorage implements RShareable {
 
     private int refCount;
+    /**
+     * Whether {@link #sharingChanged()} has to be called, so that values without any state that
+     * depends on the sharing do not pay for the call on every reference count change.
+     */
+    private boolean notifySharing;
 
     @Override
     public final boolean isTemporary() {
@@ -43,6 +48,9 @@ public abstract class RSharingAttributeStorage extends RAttributeStorage impleme
     public final void incRefCount() {
         assert refCount != SHARED_PERMANENT_VAL : "cannot incRefCount of shared permanent value";
         refCount++;
+        if (refCount == 2 && notifySharing) {
+            sharingChanged();
+        }
     }
 
     @Override
@@ -50,6 +58,24 @@ public abstract class RSharingAttributeStorage extends RAttributeStorage impleme
         assert refCount != SHARED_PERMANENT_VAL : "cannot decRefCount of shared permanent value";
         assert refCount > 0 : "cannot decRefCount when refCount <= 0";
         refCount--;
+        if (refCount == 1 && notifySharing) {
+            sharingChanged();
+        }
+    }
+
+    /**
+     * Requests calls to {@link #sharingChanged()} from now on.
+     */
+    protected final void setNotifySharing() {
+        notifySharing = true;
+    }
+
+    /**
+     * Called when the value becomes shared, i.e., must no longer be updated in place, or stops
+     * being shared, once requested by {@link #setNotifySharing()}.
+     */
+    protected void sharingChanged() {
+        // nothing by default
     }
 
     @Override
@@ -59,6 +85,9 @@ public abstract class RSharingAttributeStorage extends RAttributeStorage impleme
 
     @Override
     public final RSharingAttributeStorage makeSharedPermanent() {
+        if (refCount <= 1 && notifySharing) {
+            sharingChanged();
+        }
         refCount = SHARED_PERMANENT_VAL;
         return this;
     }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.r.runtime.data.closures.RClosures;
+import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
+
+/**
+ * The character representation of an {@link RIntSequence} or {@link RDoubleSequence}, e.g., the
+ * result of {@code as.character(1:1e7)}. The strings are only created when the elements are
+ * accessed, i.e., the conversion is deferred until the vector is materialized or updated. The
+ * strings are formatted by the same closures as the casts of the sequences use, and the strings
+ * are kept once materialized, so that consumers materializing the sequence repeatedly convert the
+ * elements only once.
+ */
+public final class RStringSequence extends RSequence implements RAbstractStringVector {
+
+    private final RSequence sequence;
+    private final RAbstractStringVector strings;
+    /**
+     * Never handed out, {@link #materialize()} returns copies because its callers may update the
+     * result in place.
+     */
+    private volatile RStringVector materialized;
+
+    RStringSequence(RSequence sequence) {
+        super(sequence.getLength());
+        assert sequence instanceof RIntSequence || sequence instanceof RDoubleSequence;
+        this.sequence = sequence;
+        this.strings = sequence instanceof RIntSequence ? RClosures.createToStringVector((RIntSequence) sequence) : RClosures.createToStringVector((RDoubleSequence) sequence);
+    }
+
+    /**
+     * The numeric sequence whose elements are represented by this vector.
+     */
+    public RSequence getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String getDataAt(int index) {
+        assert index >= 0 && index < getLength();
+        RStringVector result = materialized;
+        return result != null ? result.getDataAt(index) : strings.getDataAt(index);
+    }
+
+    @Override
+    public Object getStartObject() {
+        return sequence.getStartObject();
+    }
+
+    @Override
+    public Object getStrideObject() {
+        return sequence.getStrideObject();
+    }
+
+    @Override
+    protected RStringVector internalCreateVector() {
+        RStringVector result = materialized;
+        if (result == null) {
+            result = strings.materialize();
+            materialized = result;
+        }
+        return (RStringVector) result.copy();
+    }
+
+    @Override
+    public RStringVector materialize() {
+        return internalCreateVector();
+    }
+
+    @Override
+    public RVector<?> copyResized(int size, boolean fillNA) {
+        return materialize().copyResized(size, fillNA);
+    }
+
+    @Override
+    public RVector<?> copyResizedWithDimensions(int[] newDimensions, boolean fillNA) {
+        return materialize().copyResizedWithDimensions(newDimensions, fillNA);
+    }
+
+    @Override
+    public RStringVector createEmptySameType(int newLength, boolean newIsComplete) {
+        return RDataFactory.createStringVector(new String[newLength], newIsComplete);
+    }
+
+    @Override
+    public String toString() {
+        CompilerAsserts.neverPartOfCompilation();
+        return "as.character(" + sequence + ")";
+    }
+}
@@ -68,6 +68,7 @@ public final class RStringVector extends RVector<String[]> implements RAbstractS
     @Override
     public void setDataAt(Object store, int index, String value) {
         assert data == store;
+        elementsModified();
         ((String[]) store)[index] = value;
     }
 
@@ -139,6 +140,7 @@ public final class RStringVector extends RVector<String[]> implements RAbstractS
     }
 
     public RStringVector updateDataAt(int i, String right, NACheck rightNACheck) {
+        elementsModified();
         if (this.isShared()) {
             throw RInternalError.shouldNotReachHere("update shared vector");
         }
@@ -193,6 +195,7 @@ public final class RStringVector extends RVector<String[]> implements RAbstractS
 
     @Override
     public void transferElementSameType(int toIndex, RAbstractVector fromVector, int fromIndex) {
+        elementsModified();
         RAbstractStringVector other = (RAbstractStringVector) fromVector;
         data[toIndex] = other.getDataAt(fromIndex);
     }
@@ -214,6 +217,7 @@ public final class RStringVector extends RVector<String[]> implements RAbstractS
 
     @Override
     public void setElement(int i, Object value) {
+        elementsModified();
         data[i] = (String) value;
     }
 }
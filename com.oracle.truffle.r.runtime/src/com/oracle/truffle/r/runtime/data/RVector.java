@@ -62,6 +62,12 @@ public abstract class RVector<ArrayT> extends RSharingAttributeStorage implement
 
     protected boolean complete; // "complete" means: does not contain NAs
 
+    /**
+     * Data derived from the elements, allocated only for the few vectors that need it (see
+     * {@link ElementCaches}).
+     */
+    private ElementCaches elementCaches;
+
     protected RVector(boolean complete, int length, int[] dimensions, RStringVector names) {
         this.complete = complete;
         assert names != this;
@@ -122,7 +128,12 @@ public abstract class RVector<ArrayT> extends RSharingAttributeStorage implement
      * @return vector data
      */
     public final ArrayT getDataNonShared() {
-        return isShared() ? getDataCopy() : getDataWithoutCopying();
+        if (isShared()) {
+            return getDataCopy();
+        }
+        // the caller is about to update the elements
+        elementsModified();
+        return getDataWithoutCopying();
     }
 
     /**
@@ -132,7 +143,11 @@ public abstract class RVector<ArrayT> extends RSharingAttributeStorage implement
      * @return vector data
      */
     public final ArrayT getDataTemp() {
-        return isTemporary() ? getDataWithoutCopying() : getDataCopy();
+        if (isTemporary()) {
+            elementsModified();
+            return getDataWithoutCopying();
+        }
+        return getDataCopy();
     }
 
     @Override
@@ -366,6 +381,111 @@ public abstract class RVector<ArrayT> extends RSharingAttributeStorage implement
         }
     }
 
+    /**
+     * Caches of data derived from the elements of a vector. The methods that update the elements in
+     * place advance {@link #storeVersion} (see {@link #elementsModified()}), which invalidates the
+     * caches built from the previous contents. Not every writer of the array returned by
+     * {@link #getDataWithoutCopying()} does so, therefore the caches are only trusted while the
+     * vector is shared (and so cannot be updated in place) and the version also advances whenever
+     * the vector becomes or stops being shared.
+     */
+    private static final class ElementCaches {
+        private int storeVersion;
+        private volatile Object elementIndex;
+        private int elementIndexVersion;
+        private Object nativeMirror;
+        private int nativeMirrorVersion;
+        private boolean externalStore;
+    }
+
+    private ElementCaches getElementCaches() {
+        if (elementCaches == null) {
+            elementCaches = new ElementCaches();
+            // without caches there is nothing to invalidate when the sharing changes
+            setNotifySharing();
+        }
+        return elementCaches;
+    }
+
+    @Override
+    protected final void sharingChanged() {
+        elementsModified();
+    }
+
+    /**
+     * Must be called by code that updates the elements in place other than through the update
+     * methods of the vector, e.g., after writing into the array returned by
+     * {@link #getDataWithoutCopying()}.
+     */
+    public final void elementsModified() {
+        if (elementCaches != null) {
+            elementCaches.storeVersion++;
+        }
+    }
+
+    /**
+     * Records that the elements may also be modified by code outside of FastR, e.g., because the
+     * store is a Java array that was wrapped without copying. No data derived from the elements of
+     * such a vector is trusted, since its store version is never advanced.
+     */
+    public final void setExternalStore() {
+        getElementCaches().externalStore = true;
+    }
+
+    /**
+     * Returns the hash index over the elements cached by lookup builtins such as {@code match}, or
+     * {@code null} if there is none, the vector is not shared, has an
+     * {@linkplain #setExternalStore() external store} or the elements may have been modified since
+     * it was set.
+     */
+    public final Object getElementIndex() {
+        ElementCaches caches = elementCaches;
+        return caches != null && !caches.externalStore && isShared() && caches.elementIndexVersion == caches.storeVersion ? caches.elementIndex : null;
+    }
+
+    public final void setElementIndex(Object elementIndex) {
+        ElementCaches caches = getElementCaches();
+        caches.elementIndex = elementIndex;
+        caches.elementIndexVersion = caches.storeVersion;
+    }
+
+    /**
+     * Returns the native memory that mirrors the elements while they are accessed from native code.
+     * It is kept for the lifetime of the vector so that subsequent native calls reuse it.
+     */
+    public final Object getNativeMirror() {
+        return elementCaches == null ? null : elementCaches.nativeMirror;
+    }
+
+    /**
+     * Attaches a new native mirror, which is not {@linkplain #isNativeMirrorCurrent() current} yet.
+     */
+    public final void setNativeMirror(Object nativeMirror) {
+        ElementCaches caches = getElementCaches();
+        caches.nativeMirror = nativeMirror;
+        caches.nativeMirrorVersion = caches.storeVersion - 1;
+    }
+
+    /**
+     * Tells whether the native mirror holds the current elements, i.e., the store is not
+     * {@linkplain #setExternalStore() external} and the elements have not been modified since
+     * {@link #nativeMirrorUpdated()}. Unlike the {@linkplain #getElementIndex() element index},
+     * the mirror is also trusted while the vector is not shared, so every writer of the array
+     * returned by {@link #getDataWithoutCopying()} has to call {@link #elementsModified()}.
+     */
+    public final boolean isNativeMirrorCurrent() {
+        ElementCaches caches = elementCaches;
+        return caches != null && caches.nativeMirror != null && !caches.externalStore && caches.nativeMirrorVersion == caches.storeVersion;
+    }
+
+    /**
+     * Records that the native mirror and the elements are in sync.
+     */
+    public final void nativeMirrorUpdated() {
+        ElementCaches caches = getElementCaches();
+        caches.nativeMirrorVersion = caches.storeVersion;
+    }
+
     @Override
     public final boolean isComplete() {
         return complete;
@@ -54,6 +54,7 @@ import com.oracle.truffle.r.runtime.env.frame.FrameSlotChangeMonitor;
 import com.oracle.truffle.r.runtime.env.frame.NSBaseMaterializedFrame;
 import com.oracle.truffle.r.runtime.env.frame.REnvEmptyFrameAccess;
 import com.oracle.truffle.r.runtime.env.frame.REnvFrameAccess;
+import com.oracle.truffle.r.runtime.env.frame.REnvHashedFrameAccess;
 import com.oracle.truffle.r.runtime.env.frame.REnvTruffleFrameAccess;
 
 /**
@@ -750,24 +751,40 @@ public abstract class REnvironment extends RAttributeStorage {
      * An environment associated with an already materialized frame.
      */
     private REnvironment(String name, MaterializedFrame frame) {
-        this(name, new REnvTruffleFrameAccess(frame));
+        this(name, frame, new REnvTruffleFrameAccess(frame));
+    }
+
+    /**
+     * An environment associated with an already materialized frame that is accessed via the given
+     * {@code frameAccess}.
+     */
+    private REnvironment(String name, MaterializedFrame frame, REnvFrameAccess frameAccess) {
+        this(name, frameAccess);
 
         // Associate frame with the environment
         RArguments.setEnvironment(frame, this);
     }
 
     public REnvironment getParent() {
-        MaterializedFrame enclosingFrame = RArguments.getEnclosingFrame(getFrame());
+        MaterializedFrame enclosingFrame = RArguments.getEnclosingFrame(frameAccess.getArgumentsFrame());
         return enclosingFrame == null ? emptyEnv : frameToEnvironment(enclosingFrame);
     }
 
+    /**
+     * Set the parent of a newly created environment, see
+     * {@link RArguments#initializeEnclosingFrame}.
+     */
+    public void initializeParent(REnvironment env) {
+        RArguments.initializeEnclosingFrame(frameAccess.getArgumentsFrame(), env.getFrame());
+    }
+
     /**
      * Explicitly set the parent of an environment. TODO Change the enclosingFrame of (any)
      * associated Truffle frame
      */
     public void setParent(REnvironment env) {
         if (getParent() != env) {
-            RArguments.setEnclosingFrame(getFrame(), env.getFrame(), true);
+            RArguments.setEnclosingFrame(frameAccess.getArgumentsFrame(), env.getFrame(), true);
         }
     }
 
@@ -1080,6 +1097,19 @@ public abstract class REnvironment extends RAttributeStorage {
             }
         }
 
+        /**
+         * A hashed environment keeps its bindings in a hash table until its frame is requested, see
+         * {@link REnvHashedFrameAccess}.
+         */
+        public NewEnv(MaterializedFrame frame, String name, boolean hashed, int initialSize) {
+            super(UNNAMED, frame, hashed ? new REnvHashedFrameAccess(frame, initialSize) : new REnvTruffleFrameAccess(frame));
+            if (name != null) {
+                setAttr(NAME_ATTR_KEY, name);
+            }
+            this.hashed = hashed;
+            this.initialSize = initialSize;
+        }
+
         public boolean isHashed() {
             return hashed;
         }
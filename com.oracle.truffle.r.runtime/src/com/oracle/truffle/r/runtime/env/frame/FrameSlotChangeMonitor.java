@@ -22,6 +22,8 @@
  */
 package com.oracle.truffle.r.runtime.env.frame;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.Arrays;
 import java.util.Collection;
@@ -30,6 +32,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
@@ -57,6 +60,12 @@ import com.oracle.truffle.r.runtime.data.RPromise;
  * This class maintains information about the current hierarchy of environments in the system. This
  * information is described as assumptions that will be invalidated if the layout changes, and thus
  * make sure that code is properly deoptimized.
+ *
+ * The information is shared by all contexts and threads. Queries (cached lookups, assumptions,
+ * stable values) do not take any lock: the per-descriptor state is kept in concurrent maps and
+ * volatile fields, and assumptions are replaced by publishing the new one before invalidating the
+ * old one. Only changes of the hierarchy and the computation of new lookups, which need a
+ * consistent view of several descriptors, are serialized on the class.
  */
 public final class FrameSlotChangeMonitor {
 
@@ -183,12 +192,18 @@ public final class FrameSlotChangeMonitor {
          */
         private final Set<Object> previousLookups = new HashSet<>();
         /**
-         * A set of all lookups that started in this frame descriptor.
+         * A set of all lookups that started in this frame descriptor. This map is read without
+         * locking, see {@link FrameSlotChangeMonitor#lookup}. The entries of collected results are
+         * removed via {@link #collectedLookupResults}.
          */
-        private final WeakHashMap<Object, WeakReference<LookupResult>> lookupResults = new WeakHashMap<>(2);
+        private final ConcurrentHashMap<Object, LookupResultReference> lookupResults = new ConcurrentHashMap<>(2);
+        private final ReferenceQueue<LookupResult> collectedLookupResults = new ReferenceQueue<>();
 
-        private WeakReference<FrameDescriptor> enclosingFrameDescriptor = new WeakReference<>(null);
-        private Assumption enclosingFrameDescriptorAssumption = Truffle.getRuntime().createAssumption("enclosing frame descriptor");
+        /**
+         * The enclosing frame descriptor together with the assumption that it does not change,
+         * replaced as a whole so that both can be read without locking.
+         */
+        private volatile EnclosingFrameDescriptor enclosing = new EnclosingFrameDescriptor(null);
         private final Assumption containsNoActiveBindingAssumption = Truffle.getRuntime().createAssumption("contains no active binding");
 
         private FrameDescriptorMetaData(String name, MaterializedFrame singletonFrame) {
@@ -198,39 +213,140 @@ public final class FrameSlotChangeMonitor {
 
         public void updateEnclosingFrameDescriptor(FrameDescriptor newEnclosingDescriptor) {
             CompilerAsserts.neverPartOfCompilation();
-            if (enclosingFrameDescriptorAssumption != null) {
-                enclosingFrameDescriptorAssumption.invalidate();
-            }
-            enclosingFrameDescriptor = new WeakReference<>(newEnclosingDescriptor);
-            enclosingFrameDescriptorAssumption = Truffle.getRuntime().createAssumption("enclosing frame descriptor");
+            EnclosingFrameDescriptor old = enclosing;
+            // publish the new state first, so that anyone seeing the invalidation finds it
+            enclosing = new EnclosingFrameDescriptor(newEnclosingDescriptor);
+            old.assumption.invalidate();
         }
 
         public FrameDescriptor getEnclosingFrameDescriptor() {
             CompilerAsserts.neverPartOfCompilation();
-            assert enclosingFrameDescriptorAssumption.isValid();
-            return enclosingFrameDescriptor.get();
+            EnclosingFrameDescriptor current = enclosing;
+            assert current.assumption.isValid();
+            return current.descriptor.get();
         }
 
         public Assumption getEnclosingFrameDescriptorAssumption() {
-            return enclosingFrameDescriptorAssumption;
+            return enclosing.assumption;
         }
 
         public Assumption getContainsNoActiveBindingAssumption() {
             return containsNoActiveBindingAssumption;
         }
+
+        /**
+         * Must be called with the class lock held, like all updates of {@link #lookupResults}.
+         */
+        private void putLookupResult(Object identifier, LookupResult lookupResult) {
+            Reference<? extends LookupResult> collected;
+            while ((collected = collectedLookupResults.poll()) != null) {
+                LookupResultReference reference = (LookupResultReference) collected;
+                lookupResults.remove(reference.identifier, reference);
+            }
+            lookupResults.put(identifier, new LookupResultReference(identifier, lookupResult, collectedLookupResults));
+        }
+    }
+
+    private static final class LookupResultReference extends WeakReference<LookupResult> {
+        private final Object identifier;
+
+        private LookupResultReference(Object identifier, LookupResult result, ReferenceQueue<LookupResult> queue) {
+            super(result, queue);
+            this.identifier = identifier;
+        }
+    }
+
+    private static final class EnclosingFrameDescriptor {
+        private final WeakReference<FrameDescriptor> descriptor;
+        private final Assumption assumption = Truffle.getRuntime().createAssumption("enclosing frame descriptor");
+
+        private EnclosingFrameDescriptor(FrameDescriptor descriptor) {
+            this.descriptor = new WeakReference<>(descriptor);
+        }
+    }
+
+    /**
+     * Weak identity key for {@link #frameDescriptors}, which gives the semantics of a
+     * {@link WeakHashMap} to a {@link ConcurrentHashMap}. Queries use a {@link DescriptorProbe}.
+     */
+    private static final class DescriptorKey extends WeakReference<FrameDescriptor> {
+        private final int hash;
+
+        private DescriptorKey(FrameDescriptor descriptor, ReferenceQueue<FrameDescriptor> queue) {
+            super(descriptor, queue);
+            this.hash = System.identityHashCode(descriptor);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof DescriptorKey)) {
+                return false;
+            }
+            FrameDescriptor descriptor = get();
+            return descriptor != null && descriptor == ((DescriptorKey) obj).get();
+        }
+    }
+
+    /**
+     * Identity key for looking up a {@link DescriptorKey} without allocating a weak reference.
+     */
+    private static final class DescriptorProbe {
+        private final FrameDescriptor descriptor;
+
+        private DescriptorProbe(FrameDescriptor descriptor) {
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(descriptor);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            // ConcurrentHashMap.get calls equals on the probe with the keys of the map
+            return obj instanceof DescriptorKey && ((DescriptorKey) obj).get() == descriptor;
+        }
     }
 
-    private static final WeakHashMap<FrameDescriptor, FrameDescriptorMetaData> frameDescriptors = new WeakHashMap<>();
+    private static final ConcurrentHashMap<DescriptorKey, FrameDescriptorMetaData> frameDescriptors = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<FrameDescriptor> collectedDescriptors = new ReferenceQueue<>();
+
+    private static void putMetaData(FrameDescriptor descriptor, FrameDescriptorMetaData metaData) {
+        Reference<? extends FrameDescriptor> collected;
+        while ((collected = collectedDescriptors.poll()) != null) {
+            frameDescriptors.remove(collected);
+        }
+        frameDescriptors.put(new DescriptorKey(descriptor, collectedDescriptors), metaData);
+    }
 
     /**
      * This function tries to fulfill the lookup for the given name in the given frame based only on
      * the static knowledge about the frame descriptor hierarchy and stable bindings. Returns
      * {@code null} in case this was not possible.
      */
-    public static synchronized LookupResult lookup(Frame frame, Object identifier) {
+    public static LookupResult lookup(Frame frame, Object identifier) {
         CompilerAsserts.neverPartOfCompilation();
         FrameDescriptorMetaData metaData = getMetaData(frame);
-        WeakReference<LookupResult> weakResult = metaData.lookupResults.get(identifier);
+        LookupResultReference weakResult = metaData.lookupResults.get(identifier);
+        LookupResult result = weakResult == null ? null : weakResult.get();
+        if (result != null && result.isValid()) {
+            return result;
+        }
+        return lookupSlowPath(frame, metaData, identifier);
+    }
+
+    private static synchronized LookupResult lookupSlowPath(Frame frame, FrameDescriptorMetaData metaData, Object identifier) {
+        // another thread may have computed the result in the meantime
+        LookupResultReference weakResult = metaData.lookupResults.get(identifier);
         LookupResult result = weakResult == null ? null : weakResult.get();
         if (result != null && result.isValid()) {
             return result;
@@ -254,7 +370,7 @@ public final class FrameSlotChangeMonitor {
                     }
                 }
                 addPreviousLookups(frame, current, identifier);
-                metaData.lookupResults.put(identifier, new WeakReference<>(lookupResult));
+                metaData.putLookupResult(identifier, lookupResult);
                 return lookupResult;
             }
             Frame next = RArguments.getEnclosingFrame(current);
@@ -269,7 +385,7 @@ public final class FrameSlotChangeMonitor {
         // not frame slot found: missing value
         addPreviousLookups(frame, current, identifier);
         LookupResult lookupResult = new MissingLookupResult(identifier.toString());
-        metaData.lookupResults.put(identifier, new WeakReference<>(lookupResult));
+        metaData.putLookupResult(identifier, lookupResult);
         return lookupResult;
     }
 
@@ -295,7 +411,7 @@ public final class FrameSlotChangeMonitor {
     private static synchronized void invalidateNames(FrameDescriptorMetaData metaData, Collection<Object> identifiers) {
         if (metaData.previousLookups.removeAll(identifiers)) {
             for (Object identifier : identifiers) {
-                WeakReference<LookupResult> result = metaData.lookupResults.remove(identifier);
+                LookupResultReference result = metaData.lookupResults.remove(identifier);
                 if (result != null) {
                     LookupResult lookup = result.get();
                     if (lookup != null) {
@@ -317,9 +433,9 @@ public final class FrameSlotChangeMonitor {
         return frame == null ? null : frame instanceof NSBaseMaterializedFrame ? ((NSBaseMaterializedFrame) frame).getMarkerFrameDescriptor() : frame.getFrameDescriptor();
     }
 
-    private static synchronized FrameDescriptorMetaData getMetaData(FrameDescriptor descriptor) {
+    private static FrameDescriptorMetaData getMetaData(FrameDescriptor descriptor) {
         CompilerAsserts.neverPartOfCompilation();
-        FrameDescriptorMetaData result = frameDescriptors.get(descriptor);
+        FrameDescriptorMetaData result = frameDescriptors.get(new DescriptorProbe(descriptor));
         assert result != null : "null metadata for " + descriptor;
         return result;
     }
@@ -335,7 +451,7 @@ public final class FrameSlotChangeMonitor {
         return target;
     }
 
-    public static synchronized boolean isEnclosingFrameDescriptor(FrameDescriptor descriptor, Frame newEnclosingFrame) {
+    public static boolean isEnclosingFrameDescriptor(FrameDescriptor descriptor, Frame newEnclosingFrame) {
         CompilerAsserts.neverPartOfCompilation();
         FrameDescriptorMetaData target = getDescriptorMetaData(descriptor);
         FrameDescriptor newEnclosingDescriptor = handleBaseNamespaceEnv(newEnclosingFrame);
@@ -396,7 +512,7 @@ public final class FrameSlotChangeMonitor {
     }
 
     private static void invalidateAllNames(FrameDescriptorMetaData target) {
-        for (Map.Entry<Object, WeakReference<LookupResult>> entry : target.lookupResults.entrySet()) {
+        for (Map.Entry<Object, LookupResultReference> entry : target.lookupResults.entrySet()) {
             LookupResult lookup = entry.getValue().get();
             if (lookup != null) {
                 lookup.invalidate();
@@ -561,14 +677,24 @@ public final class FrameSlotChangeMonitor {
 
         private void invalidateStableValue(StableValue<Object> sv, Object value, FrameSlot slot) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
-            sv.getAssumption().invalidate();
-            if (invalidationCount > 0) {
-                invalidationCount--;
-                out("setting singleton value %s = %s", slot.getIdentifier(), value == null ? "null" : value.getClass());
-                stableValue = new StableValue<>(value, String.valueOf(slot.getIdentifier()));
-            } else {
-                out("setting non-singleton value %s", slot.getIdentifier());
-                stableValue = null;
+            synchronized (this) {
+                sv.getAssumption().invalidate();
+                StableValue<Object> current = stableValue;
+                if (current != sv) {
+                    // replaced concurrently by another thread, which cannot be considered stable
+                    if (current != null) {
+                        current.getAssumption().invalidate();
+                    }
+                    invalidationCount = 0;
+                }
+                if (invalidationCount > 0) {
+                    invalidationCount--;
+                    out("setting singleton value %s = %s", slot.getIdentifier(), value == null ? "null" : value.getClass());
+                    stableValue = new StableValue<>(value, String.valueOf(slot.getIdentifier()));
+                } else {
+                    out("setting non-singleton value %s", slot.getIdentifier());
+                    stableValue = null;
+                }
             }
         }
 
@@ -891,28 +1017,28 @@ public final class FrameSlotChangeMonitor {
      * Initializes the internal data structures for a newly created frame descriptor that is
      * intended to be used for a non-function frame (and thus will only ever be used for one frame).
      */
-    public static synchronized void initializeNonFunctionFrameDescriptor(String name, MaterializedFrame frame) {
+    public static void initializeNonFunctionFrameDescriptor(String name, MaterializedFrame frame) {
         CompilerAsserts.neverPartOfCompilation();
-        frameDescriptors.put(handleBaseNamespaceEnv(frame), new FrameDescriptorMetaData(name, frame));
+        putMetaData(handleBaseNamespaceEnv(frame), new FrameDescriptorMetaData(name, frame));
     }
 
-    public static synchronized FrameDescriptor initializeFunctionFrameDescriptor(String name, FrameDescriptor frameDescriptor) {
+    public static FrameDescriptor initializeFunctionFrameDescriptor(String name, FrameDescriptor frameDescriptor) {
         CompilerAsserts.neverPartOfCompilation();
-        frameDescriptors.put(frameDescriptor, new FrameDescriptorMetaData(name, null));
+        putMetaData(frameDescriptor, new FrameDescriptorMetaData(name, null));
         return frameDescriptor;
     }
 
-    public static synchronized Assumption getEnclosingFrameDescriptorAssumption(FrameDescriptor descriptor) {
+    public static Assumption getEnclosingFrameDescriptorAssumption(FrameDescriptor descriptor) {
         CompilerAsserts.neverPartOfCompilation();
-        return frameDescriptors.get(descriptor).getEnclosingFrameDescriptorAssumption();
+        return getMetaData(descriptor).getEnclosingFrameDescriptorAssumption();
     }
 
-    public static synchronized Assumption getContainsNoActiveBindingAssumption(FrameDescriptor descriptor) {
+    public static Assumption getContainsNoActiveBindingAssumption(FrameDescriptor descriptor) {
         CompilerAsserts.neverPartOfCompilation();
-        return frameDescriptors.get(descriptor).getContainsNoActiveBindingAssumption();
+        return getMetaData(descriptor).getContainsNoActiveBindingAssumption();
     }
 
-    public static synchronized StableValue<Object> getStableValueAssumption(FrameDescriptor descriptor, FrameSlot frameSlot, Object value) {
+    public static StableValue<Object> getStableValueAssumption(FrameDescriptor descriptor, FrameSlot frameSlot, Object value) {
         CompilerAsserts.neverPartOfCompilation();
         StableValue<Object> stableValue = getFrameSlotInfo(frameSlot).getStableValue();
         if (stableValue != null) {
@@ -923,7 +1049,7 @@ public final class FrameSlotChangeMonitor {
         return stableValue;
     }
 
-    public static synchronized MaterializedFrame getSingletonFrame(FrameDescriptor descriptor) {
+    public static MaterializedFrame getSingletonFrame(FrameDescriptor descriptor) {
         WeakReference<MaterializedFrame> singleton = getMetaData(descriptor).singletonFrame;
         return singleton == null ? null : singleton.get();
     }
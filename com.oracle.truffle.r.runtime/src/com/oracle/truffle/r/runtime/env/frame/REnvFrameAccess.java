@@ -77,4 +77,13 @@ public abstract class REnvFrameAccess {
 
     public abstract MaterializedFrame getFrame();
 
+    /**
+     * Return the frame for operations that only access its arguments, e.g. the enclosing frame, and
+     * not the bindings. Unlike {@link #getFrame()}, this does not force a
+     * {@link REnvHashedFrameAccess} to move its bindings into the frame.
+     */
+    public MaterializedFrame getArgumentsFrame() {
+        return getFrame();
+    }
+
 }
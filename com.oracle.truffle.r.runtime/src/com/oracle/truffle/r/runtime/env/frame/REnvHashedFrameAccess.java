@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.env.frame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.MaterializedFrame;
+import com.oracle.truffle.r.runtime.RError;
+import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.env.REnvironment;
+import com.oracle.truffle.r.runtime.env.REnvironment.PutException;
+
+/**
+ * Variant of {@link REnvFrameAccess} for environments created by {@code new.env(hash = TRUE)}
+ * (and {@code R_NewHashedEnv}), which are often used as hash maps with a large number of keys.
+ *
+ * As long as the environment is only accessed through the {@link REnvironment} API (as is the
+ * case for {@code assign}, {@code get}, {@code exists}, {@code rm}, {@code ls}, {@code mget},
+ * {@code $} and {@code [[}), the bindings are kept in a hash table instead of the slots of the
+ * frame descriptor, so that these operations do not need to add frame slots, invalidate lookups
+ * and resize the frame. The first time the frame itself is requested via {@link #getFrame()},
+ * e.g. for evaluating code in the environment, for closures or child environments, or for active
+ * bindings, all bindings are moved into the frame and from then on this class simply delegates to
+ * a {@link REnvTruffleFrameAccess}.
+ */
+public final class REnvHashedFrameAccess extends REnvFrameAccess {
+
+    private final REnvTruffleFrameAccess frameAccess;
+
+    /**
+     * The bindings while they are not stored in the frame, {@code null} afterwards. The insertion
+     * order is kept, so that {@code ls(sorted = FALSE)} behaves like for frame based environments.
+     */
+    private LinkedHashMap<String, Object> bindings;
+    private Set<String> lockedBindings;
+
+    public REnvHashedFrameAccess(MaterializedFrame frame, int initialSize) {
+        this.frameAccess = new REnvTruffleFrameAccess(frame);
+        this.bindings = new LinkedHashMap<>(Math.max(initialSize, 16));
+    }
+
+    @Override
+    public MaterializedFrame getFrame() {
+        if (bindings != null) {
+            materialize();
+        }
+        return frameAccess.getFrame();
+    }
+
+    @Override
+    public MaterializedFrame getArgumentsFrame() {
+        return frameAccess.getFrame();
+    }
+
+    /**
+     * Moves the bindings into the frame. All frame slots are added first, so that the frame is
+     * resized only once.
+     */
+    @TruffleBoundary
+    private void materialize() {
+        LinkedHashMap<String, Object> values = bindings;
+        bindings = null;
+        FrameDescriptor fd = frameAccess.getFrame().getFrameDescriptor();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            FrameSlotChangeMonitor.findOrAddFrameSlot(fd, entry.getKey(), RRuntime.getSlotKind(entry.getValue()));
+        }
+        try {
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                frameAccess.put(entry.getKey(), entry.getValue());
+            }
+        } catch (PutException e) {
+            throw RInternalError.shouldNotReachHere(e);
+        }
+        if (lockedBindings != null) {
+            for (String key : lockedBindings) {
+                frameAccess.lockBinding(key);
+            }
+            lockedBindings = null;
+        }
+    }
+
+    @Override
+    public Object get(String key) {
+        CompilerAsserts.neverPartOfCompilation();
+        if (bindings == null) {
+            return frameAccess.get(key);
+        }
+        return bindings.get(key);
+    }
+
+    @Override
+    public void put(String key, Object value) throws PutException {
+        CompilerAsserts.neverPartOfCompilation();
+        assert key != null;
+        assert value != null;
+        if (bindings == null) {
+            frameAccess.put(key, value);
+            return;
+        }
+        if (lockedBindings != null && lockedBindings.contains(key)) {
+            throw new PutException(RError.Message.ENV_CHANGE_BINDING, key);
+        }
+        bindings.put(key, value);
+    }
+
+    @Override
+    public void rm(String key) throws PutException {
+        CompilerAsserts.neverPartOfCompilation();
+        assert key != null;
+        if (bindings == null) {
+            frameAccess.rm(key);
+            return;
+        }
+        if (lockedBindings != null) {
+            lockedBindings.remove(key);
+        }
+        if (bindings.remove(key) == null) {
+            throw new PutException(RError.Message.UNKNOWN_OBJECT, key);
+        }
+    }
+
+    @Override
+    @TruffleBoundary
+    public RStringVector ls(boolean allNames, Pattern pattern, boolean sorted) {
+        if (bindings == null) {
+            return frameAccess.ls(allNames, pattern, sorted);
+        }
+        ArrayList<String> matchedNamesList = new ArrayList<>(bindings.size());
+        for (String name : bindings.keySet()) {
+            if (REnvironment.includeName(name, allNames, pattern)) {
+                matchedNamesList.add(name);
+            }
+        }
+        String[] data = matchedNamesList.toArray(new String[matchedNamesList.size()]);
+        if (sorted) {
+            Arrays.sort(data);
+        }
+        return RDataFactory.createStringVector(data, RDataFactory.COMPLETE_VECTOR);
+    }
+
+    @Override
+    @TruffleBoundary
+    public void lockBindings() {
+        if (bindings == null) {
+            frameAccess.lockBindings();
+        } else {
+            for (String key : bindings.keySet()) {
+                lockBinding(key);
+            }
+        }
+    }
+
+    @Override
+    @TruffleBoundary
+    public void lockBinding(String key) {
+        if (bindings == null) {
+            frameAccess.lockBinding(key);
+        } else {
+            if (lockedBindings == null) {
+                lockedBindings = new HashSet<>();
+            }
+            lockedBindings.add(key);
+        }
+    }
+
+    @Override
+    @TruffleBoundary
+    public void unlockBinding(String key) {
+        if (bindings == null) {
+            frameAccess.unlockBinding(key);
+        } else if (lockedBindings != null) {
+            lockedBindings.remove(key);
+        }
+    }
+
+    @Override
+    @TruffleBoundary
+    public boolean bindingIsLocked(String key) {
+        if (bindings == null) {
+            return frameAccess.bindingIsLocked(key);
+        }
+        return lockedBindings != null && lockedBindings.contains(key);
+    }
+}
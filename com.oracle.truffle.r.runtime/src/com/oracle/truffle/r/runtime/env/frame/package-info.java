@@ -27,6 +27,7 @@
  * {@link com.oracle.truffle.r.runtime.env.frame.REnvFrameAccess}, which provides default
  * implementations, most of which fail. The subclass
  * {@link com.oracle.truffle.r.runtime.env.frame.REnvTruffleFrameAccess} handles Truffle frames and
- * locking/unlocking bindings.
+ * locking/unlocking bindings, {@link com.oracle.truffle.r.runtime.env.frame.REnvHashedFrameAccess}
+ * keeps the bindings of hashed environments in a hash table until the frame is needed.
  */
 package com.oracle.truffle.r.runtime.env.frame;
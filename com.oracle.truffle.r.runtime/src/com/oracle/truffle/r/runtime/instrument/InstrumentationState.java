@@ -29,7 +29,10 @@ import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.instrumentation.EventBinding;
 import com.oracle.truffle.api.instrumentation.ExecutionEventListener;
 import com.oracle.truffle.api.instrumentation.Instrumenter;
@@ -72,6 +75,29 @@ public final class InstrumentationState implements RContext.ContextState {
 
     Map<String, RprofState> rprofStates = new ConcurrentHashMap<>(7);
 
+    /**
+     * Valid while no sampling profiler is running in any context. Until it is invalidated, function
+     * calls need not check whether to publish themselves via {@link #enterSampledCall(RCaller)}.
+     * Replaced by a fresh assumption when the last profiler stops, compiled code reads it as a
+     * constant.
+     */
+    @CompilationFinal private static Assumption noCallSampling = Truffle.getRuntime().createAssumption("no call sampling");
+
+    /**
+     * The number of contexts with {@link #callSampling}, guarded by the class.
+     */
+    private static int callSamplingContexts;
+
+    /**
+     * Whether the function calls of this context publish themselves.
+     */
+    private boolean callSampling;
+
+    /**
+     * The innermost active function call of this context, read by a sampling thread.
+     */
+    private volatile RCaller sampledCall;
+
     /**
      * State used by the {@code tracemem} built-in.
      */
@@ -253,6 +279,67 @@ public final class InstrumentationState implements RContext.ContextState {
         rprofStates.put(name, state);
     }
 
+    public static Assumption getNoCallSamplingAssumption() {
+        return noCallSampling;
+    }
+
+    public boolean isCallSampling() {
+        return callSampling;
+    }
+
+    /**
+     * Makes all function calls of this context from now on publish themselves for
+     * {@link #getSampledCall()}.
+     */
+    public void enableCallSampling() {
+        synchronized (InstrumentationState.class) {
+            if (!callSampling) {
+                callSampling = true;
+                if (callSamplingContexts++ == 0) {
+                    noCallSampling.invalidate();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops function calls from publishing themselves, the counterpart of
+     * {@link #enableCallSampling()}.
+     */
+    public void disableCallSampling() {
+        synchronized (InstrumentationState.class) {
+            if (callSampling) {
+                callSampling = false;
+                sampledCall = null;
+                if (--callSamplingContexts == 0) {
+                    noCallSampling = Truffle.getRuntime().createAssumption("no call sampling");
+                }
+            }
+        }
+    }
+
+    /**
+     * Records {@code call} as the innermost active call and returns the previous one, which is to
+     * be passed to {@link #exitSampledCall(RCaller)} when the call returns.
+     */
+    public RCaller enterSampledCall(RCaller call) {
+        RCaller previous = sampledCall;
+        sampledCall = call;
+        return previous;
+    }
+
+    /**
+     * Restores the call returned by {@link #enterSampledCall(RCaller)}, unless sampling was
+     * disabled in the meantime, which must leave no call behind for a later sample.
+     */
+    public void exitSampledCall(RCaller previous) {
+        sampledCall = callSampling ? previous : null;
+    }
+
+    public RCaller getSampledCall() {
+        return sampledCall;
+    }
+
     public TracememContext getTracemem() {
         if (tracememContext == null) {
             tracememContext = new TracememContext();
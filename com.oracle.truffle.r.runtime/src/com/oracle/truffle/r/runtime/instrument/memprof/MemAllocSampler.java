@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.instrument.memprof;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.r.runtime.RArguments;
+import com.oracle.truffle.r.runtime.RCaller;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.Utils;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RTypedValue;
+import com.oracle.truffle.r.runtime.instrument.InstrumentationState;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxCall;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxElement;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxLookup;
+
+/**
+ * Aggregates the allocations of a context by R call stack and by type of the allocated value.
+ * Unlike {@link MemAllocProfilerInstrument}, no nodes are instrumented: the sampler is an
+ * {@link RDataFactory.Listener}, and the (expensive) walk of the call stack is only done for
+ * sampled allocations. An allocation is sampled whenever the bytes allocated since the previous
+ * sample reach the sampling interval, and it is then accounted for with the whole interval, so
+ * that the recorded bytes are an estimate of the allocated bytes with bounded overhead. Values
+ * larger than the interval are always sampled with their own size. An interval of {@code 0}
+ * records every allocation.
+ *
+ * The result can be exported as "folded" stacks, i.e., one line per distinct stack with the
+ * outermost call first, the type of the allocated value as the last frame and the bytes (or the
+ * number of samples) at the end, which is the input format of flame graph tools.
+ */
+public final class MemAllocSampler extends InstrumentationState.RprofState implements RDataFactory.Listener {
+
+    private static final String STATE_NAME = "memsample";
+
+    /**
+     * A node of the tree of sampled stacks, the leaves represent the types of the allocated values.
+     */
+    private static final class StackNode {
+        private final Map<String, StackNode> children = new TreeMap<>();
+        private long bytes;
+        private long count;
+
+        private StackNode child(String name) {
+            StackNode child = children.get(name);
+            if (child == null) {
+                child = new StackNode();
+                children.put(name, child);
+            }
+            return child;
+        }
+    }
+
+    private final RContext context;
+    private long interval;
+    private long untilSample;
+    private boolean active;
+    private StackNode root = new StackNode();
+    private final EnumMap<RType, long[]> typeTotals = new EnumMap<>(RType.class);
+    private final ArrayList<String> stack = new ArrayList<>();
+
+    private MemAllocSampler(RContext context) {
+        this.context = context;
+    }
+
+    /**
+     * @return the sampler of the current context
+     */
+    public static MemAllocSampler get() {
+        RContext ctx = RContext.getInstance();
+        MemAllocSampler state = (MemAllocSampler) ctx.stateInstrumentation.getRprofState(STATE_NAME);
+        if (state == null) {
+            state = new MemAllocSampler(ctx);
+            ctx.stateInstrumentation.setRprofState(STATE_NAME, state);
+        }
+        return state;
+    }
+
+    /**
+     * Starts a new sampling session, the data of a previous session are discarded.
+     */
+    public synchronized void start(long samplingInterval) {
+        clear();
+        this.interval = samplingInterval;
+        this.untilSample = samplingInterval;
+        if (!active) {
+            active = true;
+            RDataFactory.addListener(this);
+        }
+    }
+
+    /**
+     * Stops sampling, the data collected so far are retained.
+     */
+    public synchronized void stop() {
+        if (active) {
+            active = false;
+            RDataFactory.removeListener(this);
+        }
+    }
+
+    public synchronized void clear() {
+        root = new StackNode();
+        typeTotals.clear();
+    }
+
+    @Override
+    public void cleanup(int status) {
+        stop();
+    }
+
+    @Override
+    @TruffleBoundary
+    public synchronized void reportAllocation(RTypedValue data) {
+        if (!active || RContext.getInstance() != context) {
+            return;
+        }
+        long size = RDataFactory.getSize(data);
+        long weight;
+        if (size >= interval) {
+            weight = size;
+        } else {
+            untilSample -= size;
+            if (untilSample > 0) {
+                return;
+            }
+            untilSample += interval;
+            weight = interval;
+        }
+        record(data.getRType(), weight);
+    }
+
+    private void record(RType type, long weight) {
+        stack.clear();
+        Frame frame = Utils.getActualCurrentFrame();
+        if (frame != null) {
+            for (RCaller call = RArguments.getCall(frame); call != null; call = call.getParent()) {
+                if (call.isValidCaller() && !call.isPromise()) {
+                    stack.add(getFunctionName(call.getSyntaxNode()));
+                }
+            }
+        }
+        StackNode node = root;
+        for (int i = stack.size() - 1; i >= 0; i--) {
+            node = node.child(stack.get(i));
+        }
+        node = node.child("[" + type.getName() + "]");
+        node.bytes += weight;
+        node.count++;
+        long[] totals = typeTotals.get(type);
+        if (totals == null) {
+            totals = new long[2];
+            typeTotals.put(type, totals);
+        }
+        totals[0] += weight;
+        totals[1]++;
+    }
+
+    private static String getFunctionName(RSyntaxElement node) {
+        if (node instanceof RSyntaxCall) {
+            RSyntaxElement lhs = ((RSyntaxCall) node).getSyntaxLHS();
+            if (lhs instanceof RSyntaxLookup) {
+                return ((RSyntaxLookup) lhs).getIdentifier();
+            }
+        }
+        return "<Anonymous>";
+    }
+
+    /**
+     * Returns the sampled stacks in the folded format, with either the estimated bytes or the
+     * number of samples as the value of each stack.
+     */
+    @TruffleBoundary
+    public synchronized String[] getFoldedStacks(boolean samples) {
+        ArrayList<String> result = new ArrayList<>();
+        fold(root, null, samples, result);
+        return result.toArray(new String[result.size()]);
+    }
+
+    private static void fold(StackNode node, String path, boolean samples, ArrayList<String> result) {
+        if (path != null && node.count > 0) {
+            result.add(path + ' ' + (samples ? node.count : node.bytes));
+        }
+        for (Map.Entry<String, StackNode> entry : node.children.entrySet()) {
+            // ';' separates the frames of a folded stack
+            String name = entry.getKey().replace(';', ':');
+            fold(entry.getValue(), path == null ? name : path + ';' + name, samples, result);
+        }
+    }
+
+    /**
+     * @return the types for which allocations were sampled
+     */
+    public synchronized RType[] getSampledTypes() {
+        return typeTotals.keySet().toArray(new RType[typeTotals.size()]);
+    }
+
+    /**
+     * @return the estimated bytes and the number of samples for given type
+     */
+    public synchronized long[] getTypeTotals(RType type) {
+        long[] totals = typeTotals.get(type);
+        return totals == null ? new long[2] : totals.clone();
+    }
+}
@@ -43,6 +43,7 @@ import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.data.RVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.nodes.RBaseNode;
 
@@ -69,9 +70,13 @@ public abstract class ForeignArray2R extends RBaseNode {
             if (size == 0) {
                 return RDataFactory.createList();
             }
+            RAbstractVector ret = copyJavaArray(obj);
+            if (ret != null) {
+                return ret;
+            }
 
             CollectedElements ce = getArrayElements(size, obj);
-            RAbstractVector ret = toVector(ce);
+            ret = toVector(ce);
             if (ret != null) {
                 return ret;
             } else {
@@ -212,6 +217,90 @@ public abstract class ForeignArray2R extends RBaseNode {
         return null;
     }
 
+    /**
+     * Converts Java arrays of primitive types with a direct R counterpart in bulk, without going
+     * through the interop messages for every element. Returns {@code null} for all other arrays.
+     */
+    private static RAbstractVector copyJavaArray(TruffleObject obj) {
+        if (!JavaInterop.isJavaObject(obj)) {
+            return null;
+        }
+        Object array = JavaInterop.asJavaObject(Object.class, obj);
+        if (array instanceof double[]) {
+            double[] data = ((double[]) array).clone();
+            return RDataFactory.createDoubleVector(data, isComplete(data));
+        } else if (array instanceof int[]) {
+            int[] data = ((int[]) array).clone();
+            return RDataFactory.createIntVector(data, isComplete(data));
+        } else if (array instanceof boolean[]) {
+            boolean[] values = (boolean[]) array;
+            byte[] data = new byte[values.length];
+            for (int i = 0; i < values.length; i++) {
+                data[i] = RRuntime.asLogical(values[i]);
+            }
+            return RDataFactory.createLogicalVector(data, RDataFactory.COMPLETE_VECTOR);
+        } else if (array instanceof byte[]) {
+            byte[] values = (byte[]) array;
+            int[] data = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+                data[i] = values[i];
+            }
+            return RDataFactory.createIntVector(data, RDataFactory.COMPLETE_VECTOR);
+        } else if (array instanceof short[]) {
+            short[] values = (short[]) array;
+            int[] data = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+                data[i] = values[i];
+            }
+            return RDataFactory.createIntVector(data, RDataFactory.COMPLETE_VECTOR);
+        }
+        return null;
+    }
+
+    /**
+     * Creates an R vector that uses the given Java {@code double[]} or {@code int[]} array as its
+     * store, without copying. The vector is shared permanently, so that any modification on the R
+     * side copies the data first and never writes through to the Java array, while modifications
+     * made on the Java side remain visible in R (hence the store is marked as external). Returns
+     * {@code null} if {@code obj} is not such an array.
+     */
+    @TruffleBoundary
+    public static RAbstractVector wrapJavaArray(TruffleObject obj) {
+        if (!RRuntime.isForeignObject(obj) || !JavaInterop.isJavaObject(obj)) {
+            return null;
+        }
+        Object array = JavaInterop.asJavaObject(Object.class, obj);
+        RVector<?> result;
+        if (array instanceof double[]) {
+            result = RDataFactory.createDoubleVector((double[]) array, RDataFactory.INCOMPLETE_VECTOR);
+        } else if (array instanceof int[]) {
+            result = RDataFactory.createIntVector((int[]) array, RDataFactory.INCOMPLETE_VECTOR);
+        } else {
+            return null;
+        }
+        result.makeSharedPermanent();
+        result.setExternalStore();
+        return result;
+    }
+
+    private static boolean isComplete(double[] data) {
+        for (int i = 0; i < data.length; i++) {
+            if (RRuntime.isNA(data[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isComplete(int[] data) {
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] == RRuntime.INT_NA) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     protected boolean isArray(TruffleObject obj, Node hasSize) {
         return RRuntime.isForeignObject(obj) && ForeignAccess.sendHasSize(hasSize, obj);
     }
@@ -32,10 +32,20 @@ import com.oracle.truffle.r.runtime.rng.RandomNumberGenerator;
 /**
  * Defines common interface for math functions generating a random scalar value, which is used to
  * implement common code for the vectorized versions.
+ *
+ * The {@code executeBulk} methods fill a whole array with random values for the same parameters.
+ * Implementations that override them must produce the same values from the same random numbers
+ * as the repeated {@code execute}, so that the random stream is the same as in GnuR.
  */
 public class RandomFunctions {
     public abstract static class RandFunction3_Double extends RBaseNode {
         public abstract double execute(double a, double b, double c, RandomNumberProvider rand);
+
+        public void executeBulk(double a, double b, double c, RandomNumberProvider rand, double[] result) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = execute(a, b, c, rand);
+            }
+        }
     }
 
     public abstract static class RandFunction2_Double extends RandFunction3_Double {
@@ -45,6 +55,17 @@ public class RandomFunctions {
         public final double execute(double a, double b, double c, RandomNumberProvider rand) {
             return execute(a, b, rand);
         }
+
+        public void executeBulk(double a, double b, RandomNumberProvider rand, double[] result) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = execute(a, b, rand);
+            }
+        }
+
+        @Override
+        public final void executeBulk(double a, double b, double c, RandomNumberProvider rand, double[] result) {
+            executeBulk(a, b, rand, result);
+        }
     }
 
     public abstract static class RandFunction1_Double extends RandFunction2_Double {
@@ -54,6 +75,17 @@ public class RandomFunctions {
         public final double execute(double a, double b, RandomNumberProvider rand) {
             return execute(a, rand);
         }
+
+        public void executeBulk(double a, RandomNumberProvider rand, double[] result) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = execute(a, rand);
+            }
+        }
+
+        @Override
+        public final void executeBulk(double a, double b, RandomNumberProvider rand, double[] result) {
+            executeBulk(a, rand, result);
+        }
     }
 
     /**
@@ -87,5 +119,19 @@ public class RandomFunctions {
         public double expRand() {
             return SExp.expRand(generator);
         }
+
+        public void unifRand(double[] result) {
+            generator.genrandDoubles(result, 0, result.length);
+        }
+
+        public void normRand(double[] result) {
+            SNorm.normRand(generator, normKind, result);
+        }
+
+        public void expRand(double[] result) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = SExp.expRand(generator);
+            }
+        }
     }
 }
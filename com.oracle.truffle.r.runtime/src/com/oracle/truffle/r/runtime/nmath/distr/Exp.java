@@ -11,6 +11,8 @@
  */
 package com.oracle.truffle.r.runtime.nmath.distr;
 
+import java.util.Arrays;
+
 import com.oracle.truffle.r.runtime.nmath.DPQ;
 import com.oracle.truffle.r.runtime.nmath.DPQ.EarlyReturn;
 import com.oracle.truffle.r.runtime.nmath.MathFunctions.Function2_1;
@@ -52,6 +54,18 @@ public final class Exp {
             }
             return scale * rand.expRand();
         }
+
+        @Override
+        public void executeBulk(double scale, RandomNumberProvider rand, double[] result) {
+            if (!Double.isFinite(scale) || scale <= 0.0) {
+                Arrays.fill(result, scale == 0. ? 0. : RMathError.defaultError());
+                return;
+            }
+            rand.expRand(result);
+            for (int i = 0; i < result.length; i++) {
+                result[i] *= scale;
+            }
+        }
     }
 
     public static final class PExp implements Function2_2 {
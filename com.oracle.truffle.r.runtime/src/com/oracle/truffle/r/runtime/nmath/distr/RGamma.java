@@ -13,6 +13,8 @@ package com.oracle.truffle.r.runtime.nmath.distr;
 
 import static com.oracle.truffle.r.runtime.nmath.TOMS708.fabs;
 
+import java.util.Arrays;
+
 import com.oracle.truffle.r.runtime.nmath.RMath;
 import com.oracle.truffle.r.runtime.nmath.RMathError;
 import com.oracle.truffle.r.runtime.nmath.RandomFunctions.RandFunction2_Double;
@@ -44,29 +46,40 @@ public final class RGamma extends RandFunction2_Double {
 
     @Override
     public double execute(double a, double scale, RandomNumberProvider rand) {
+        if (!isValid(a, scale)) {
+            return invalidResult(a, scale);
+        }
+        if (a < 1.) {
+            return gsRand(a, scale, rand);
+        }
+        return new GDSetup(a).rand(scale, rand);
+    }
 
-        // TODO: state variables
-        double aa = Double.NaN;
-        double aaa = Double.NaN;
-        double s = 0;
-        double s2 = 0;
-        double d = 0; /* no. 1 (step 1) */
-        double q0 = 0;
-        double b = 0;
-        double si = 0;
-        double c = 0; /* no. 2 (step 4) */
-
-        double e;
-        double p;
-        double q;
-        double r;
-        double t;
-        double u;
-        double v;
-        double w;
-        double x;
-        double retVal;
+    /**
+     * Unlike {@link #execute}, the setup of the GD algorithm (the state variables that GnuR keeps
+     * in statics) is computed only once for all the values.
+     */
+    @Override
+    public void executeBulk(double a, double scale, RandomNumberProvider rand, double[] result) {
+        if (!isValid(a, scale)) {
+            Arrays.fill(result, invalidResult(a, scale));
+        } else if (a < 1.) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = gsRand(a, scale, rand);
+            }
+        } else {
+            GDSetup setup = new GDSetup(a);
+            for (int i = 0; i < result.length; i++) {
+                result[i] = setup.rand(scale, rand);
+            }
+        }
+    }
 
+    private static boolean isValid(double a, double scale) {
+        return !Double.isNaN(a) && !Double.isNaN(scale) && a > 0.0 && scale > 0.0 && Double.isFinite(a) && Double.isFinite(scale);
+    }
+
+    private static double invalidResult(double a, double scale) {
         if (Double.isNaN(a) || Double.isNaN(scale)) {
             return RMathError.defaultError();
         }
@@ -76,61 +89,54 @@ public final class RGamma extends RandFunction2_Double {
             }
             return RMathError.defaultError();
         }
-        if (!Double.isFinite(a) || !Double.isFinite(scale)) {
-            return Double.POSITIVE_INFINITY;
-        }
+        assert !Double.isFinite(a) || !Double.isFinite(scale);
+        return Double.POSITIVE_INFINITY;
+    }
 
-        if (a < 1.) { /* GS algorithm for parameters a < 1 */
-            e = 1.0 + exp_m1 * a;
-            while (true) {
-                p = e * rand.unifRand();
-                if (p >= 1.0) {
-                    x = -Math.log((e - p) / a);
-                    if (rand.expRand() >= (1.0 - a) * Math.log(x)) {
-                        break;
-                    }
-                } else {
-                    x = Math.exp(Math.log(p) / a);
-                    if (rand.expRand() >= x) {
-                        break;
-                    }
+    /**
+     * GS algorithm for parameters a < 1.
+     */
+    private static double gsRand(double a, double scale, RandomNumberProvider rand) {
+        double e = 1.0 + exp_m1 * a;
+        double p;
+        double x;
+        while (true) {
+            p = e * rand.unifRand();
+            if (p >= 1.0) {
+                x = -Math.log((e - p) / a);
+                if (rand.expRand() >= (1.0 - a) * Math.log(x)) {
+                    break;
+                }
+            } else {
+                x = Math.exp(Math.log(p) / a);
+                if (rand.expRand() >= x) {
+                    break;
                 }
             }
-            return scale * x;
         }
+        return scale * x;
+    }
 
-        /* --- a >= 1 : GD algorithm --- */
-
-        /* Step 1: Recalculations of s2, s, d if a has changed */
-        if (a != aa) {
-            aa = a;
+    /**
+     * GD algorithm for parameters a >= 1, the fields are the values that depend only on a.
+     */
+    private static final class GDSetup {
+        private final double s;
+        private final double s2;
+        private final double d; /* no. 1 (step 1) */
+        private final double q0;
+        private final double b;
+        private final double si;
+        private final double c; /* no. 2 (step 4) */
+
+        GDSetup(double a) {
+            /* Step 1: Recalculations of s2, s, d if a has changed */
             s2 = a - 0.5;
             s = Math.sqrt(s2);
             d = sqrt32 - s * 12.0;
-        }
-        /*
-         * Step 2: t = standard normal deviate, x = (s,1/2) -normal deviate.
-         */
-
-        /* immediate acceptance (i) */
-        t = rand.normRand();
-        x = s + 0.5 * t;
-        retVal = x * x;
-        if (t >= 0.0) {
-            return scale * retVal;
-        }
-
-        /* Step 3: u = 0,1 - uniform sample. squeeze acceptance (s) */
-        u = rand.unifRand();
-        if (d * u <= Math.pow(t, 3)) {
-            return scale * retVal;
-        }
 
-        /* Step 4: recalculations of q0, b, si, c if necessary */
-
-        if (a != aaa) {
-            aaa = a;
-            r = 1.0 / a;
+            /* Step 4: recalculations of q0, b, si, c if necessary */
+            double r = 1.0 / a;
             q0 = ((((((q7 * r + q6) * r + q5) * r + q4) * r + q3) * r + q2) * r + q1) * r;
 
             /* Approximation depending on size of parameter a */
@@ -151,59 +157,89 @@ public final class RGamma extends RandFunction2_Double {
                 c = 0.1515 / s;
             }
         }
-        /* Step 5: no quotient test if x not positive */
 
-        if (x > 0.0) {
-            /* Step 6: calculation of v and quotient q */
-            v = t / (s + s);
-            if (fabs(v) <= 0.25) {
-                q = q0 + 0.5 * t * t * ((((((a7 * v + a6) * v + a5) * v + a4) * v + a3) * v + a2) * v + a1) * v;
-            } else {
-                q = q0 - s * t + 0.25 * t * t + (s2 + s2) * Math.log(1.0 + v);
-            }
+        double rand(double scale, RandomNumberProvider rand) {
+            double e;
+            double q;
+            double t;
+            double u;
+            double v;
+            double w;
+            double x;
+            double retVal;
 
-            /* Step 7: quotient acceptance (q) */
-            if (Math.log(1.0 - u) <= q) {
+            /*
+             * Step 2: t = standard normal deviate, x = (s,1/2) -normal deviate.
+             */
+
+            /* immediate acceptance (i) */
+            t = rand.normRand();
+            x = s + 0.5 * t;
+            retVal = x * x;
+            if (t >= 0.0) {
                 return scale * retVal;
             }
-        }
 
-        while (true) {
-            /*
-             * Step 8: e = standard exponential deviate u = 0,1 -uniform deviate t = (b,si)-double
-             * exponential (laplace) sample
-             */
-            e = rand.expRand();
+            /* Step 3: u = 0,1 - uniform sample. squeeze acceptance (s) */
             u = rand.unifRand();
-            u = u + u - 1.0;
-            if (u < 0.0) {
-                t = b - si * e;
-            } else {
-                t = b + si * e;
+            if (d * u <= Math.pow(t, 3)) {
+                return scale * retVal;
             }
-            /* Step 9: rejection if t < tau(1) = -0.71874483771719 */
-            if (t >= -0.71874483771719) {
-                /* Step 10: calculation of v and quotient q */
+
+            /* Step 5: no quotient test if x not positive */
+
+            if (x > 0.0) {
+                /* Step 6: calculation of v and quotient q */
                 v = t / (s + s);
                 if (fabs(v) <= 0.25) {
-                    q = q0 + 0.5 * t * t *
-                                    ((((((a7 * v + a6) * v + a5) * v + a4) * v + a3) * v + a2) * v + a1) * v;
+                    q = q0 + 0.5 * t * t * ((((((a7 * v + a6) * v + a5) * v + a4) * v + a3) * v + a2) * v + a1) * v;
                 } else {
                     q = q0 - s * t + 0.25 * t * t + (s2 + s2) * Math.log(1.0 + v);
                 }
-                /* Step 11: hat acceptance (h) */
-                /* (if q not positive go to step 8) */
-                if (q > 0.0) {
-                    w = RMath.expm1(q);
-                    /* ^^^^^ original code had approximation with rel.err < 2e-7 */
-                    /* if t is rejected sample again at step 8 */
-                    if (c * fabs(u) <= w * Math.exp(e - 0.5 * t * t)) {
-                        break;
-                    }
+
+                /* Step 7: quotient acceptance (q) */
+                if (Math.log(1.0 - u) <= q) {
+                    return scale * retVal;
                 }
             }
-        } /* repeat .. until `t' is accepted */
-        x = s + 0.5 * t;
-        return scale * x * x;
+
+            while (true) {
+                /*
+                 * Step 8: e = standard exponential deviate u = 0,1 -uniform deviate t = (b,si)-double
+                 * exponential (laplace) sample
+                 */
+                e = rand.expRand();
+                u = rand.unifRand();
+                u = u + u - 1.0;
+                if (u < 0.0) {
+                    t = b - si * e;
+                } else {
+                    t = b + si * e;
+                }
+                /* Step 9: rejection if t < tau(1) = -0.71874483771719 */
+                if (t >= -0.71874483771719) {
+                    /* Step 10: calculation of v and quotient q */
+                    v = t / (s + s);
+                    if (fabs(v) <= 0.25) {
+                        q = q0 + 0.5 * t * t *
+                                        ((((((a7 * v + a6) * v + a5) * v + a4) * v + a3) * v + a2) * v + a1) * v;
+                    } else {
+                        q = q0 - s * t + 0.25 * t * t + (s2 + s2) * Math.log(1.0 + v);
+                    }
+                    /* Step 11: hat acceptance (h) */
+                    /* (if q not positive go to step 8) */
+                    if (q > 0.0) {
+                        w = RMath.expm1(q);
+                        /* ^^^^^ original code had approximation with rel.err < 2e-7 */
+                        /* if t is rejected sample again at step 8 */
+                        if (c * fabs(u) <= w * Math.exp(e - 0.5 * t * t)) {
+                            break;
+                        }
+                    }
+                }
+            } /* repeat .. until `t' is accepted */
+            x = s + 0.5 * t;
+            return scale * x * x;
+        }
     }
 }
@@ -245,4 +245,48 @@ public final class Rbinom extends RandFunction2_Double {
         }
         return ix;
     }
+
+    /**
+     * The inverse cdf logic used for {@code n * p < 30} is set up only once for all the values,
+     * otherwise {@link #execute} is used for every value.
+     */
+    @Override
+    public void executeBulk(double nin, double pp, RandomNumberProvider rand, double[] result) {
+        double r = RMath.forceint(nin);
+        if (!Double.isFinite(nin) || r != nin || !Double.isFinite(pp) || r <= 0 || pp <= 0. || pp >= 1. || r >= Integer.MAX_VALUE) {
+            super.executeBulk(nin, pp, rand, result);
+            return;
+        }
+        int n = (int) r;
+        double p = Math.min(pp, 1. - pp);
+        double q = 1. - p;
+        double np = n * p;
+        if (np >= 30.0) {
+            super.executeBulk(nin, pp, rand, result);
+            return;
+        }
+        r = p / q;
+        double g = r * (n + 1);
+        double qn = Arithmetic.powDi(q, n);
+        for (int i = 0; i < result.length; i++) {
+            int ix;
+            finis: while (true) {
+                ix = 0;
+                double f = qn;
+                double u = rand.unifRand();
+                while (true) {
+                    if (u < f) {
+                        break finis;
+                    }
+                    if (ix > 110) {
+                        break;
+                    }
+                    u -= f;
+                    ix++;
+                    f *= (g / ix - r);
+                }
+            }
+            result[i] = pp > 0.5 ? n - ix : ix;
+        }
+    }
 }
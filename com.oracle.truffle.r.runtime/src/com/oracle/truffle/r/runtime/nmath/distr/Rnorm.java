@@ -11,6 +11,8 @@
  */
 package com.oracle.truffle.r.runtime.nmath.distr;
 
+import java.util.Arrays;
+
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.ValueProfile;
@@ -38,4 +40,19 @@ public final class Rnorm extends RandFunction2_Double {
             return mu + sigma * rand.normRand();
         }
     }
+
+    @Override
+    public void executeBulk(double mu, double sigma, RandomNumberProvider rand, double[] result) {
+        if (Double.isNaN(mu) || !Double.isFinite(sigma) || sigma < 0.) {
+            errorProfile.enter();
+            Arrays.fill(result, RMathError.defaultError());
+        } else if (zeroSigmaProfile.profile(sigma == 0. || !Double.isFinite(mu))) {
+            Arrays.fill(result, mu);
+        } else {
+            rand.normRand(result);
+            for (int i = 0; i < result.length; i++) {
+                result[i] = mu + sigma * result[i];
+            }
+        }
+    }
 }
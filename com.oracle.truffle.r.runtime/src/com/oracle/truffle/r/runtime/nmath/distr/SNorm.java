@@ -111,6 +111,34 @@ public final class SNorm {
         // only static members
     }
 
+    /**
+     * Number of values generated at once by the bulk {@code normRand}.
+     */
+    private static final int BULK_CHUNK = 4096;
+
+    /**
+     * Fills {@code result} with the same values as repeated
+     * {@link #normRand(RandomNumberGenerator, NormKind)}. The {@link NormKind#INVERSION} method
+     * always takes two uniform values, which are therefore generated in bulk.
+     */
+    public static void normRand(RandomNumberGenerator rand, NormKind normKind, double[] result) {
+        if (normKind != NormKind.INVERSION) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = normRand(rand, normKind);
+            }
+            return;
+        }
+        double[] u = new double[2 * Math.min(result.length, BULK_CHUNK)];
+        for (int start = 0; start < result.length; start += BULK_CHUNK) {
+            int count = Math.min(result.length - start, BULK_CHUNK);
+            rand.genrandDoubles(u, 0, 2 * count);
+            for (int i = 0; i < count; i++) {
+                double u1 = (int) (BIG * u[2 * i]) + u[2 * i + 1];
+                result[start + i] = Qnorm.qnorm(u1 / BIG, 0.0, 1.0, true, false);
+            }
+        }
+    }
+
     public static double normRand(RandomNumberGenerator rand, NormKind normKind) {
         double s;
         double u1;
@@ -11,6 +11,8 @@
  */
 package com.oracle.truffle.r.runtime.nmath.distr;
 
+import java.util.Arrays;
+
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.ValueProfile;
@@ -47,6 +49,22 @@ public final class Unif {
             }
             return min + rand.unifRand() * (max - min);
         }
+
+        @Override
+        public void executeBulk(double min, double max, RandomNumberProvider rand, double[] result) {
+            if (!RRuntime.isFinite(min) || !RRuntime.isFinite(max) || max < min) {
+                errorProfile.enter();
+                Arrays.fill(result, RMathError.defaultError());
+            } else if (minEqualsMaxProfile.profile(min == max)) {
+                Arrays.fill(result, min);
+            } else {
+                rand.unifRand(result);
+                double range = max - min;
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = min + result[i] * range;
+                }
+            }
+        }
     }
 
     public static final class PUnif implements Function3_2 {
@@ -10,57 +10,63 @@
  */
 package com.oracle.truffle.r.runtime.nodes;
 
-import java.util.HashSet;
+import java.util.HashMap;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapCharacter;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapComplex;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapDouble;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapInt;
 import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.data.model.RAbstractComplexVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractContainer;
+import com.oracle.truffle.r.runtime.data.model.RAbstractDoubleVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractIntVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractLogicalVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractRawVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractStringVector;
 
 /**
  * Code sharing vehicle for the slight differences in behavior between {@code duplicated} and
  * {@code anyDuplicated} (both internal and native versions) and whether {@code fromLast} is
  * {@code TRUE/FALSE}.
+ *
+ * Every distinct element value gets an id in the order of appearance, the incomparables (if any)
+ * come first, so an element is a duplicate iff its value already has an id that does not belong
+ * to an incomparable.
  */
 public class DuplicationHelper {
     private final RAbstractContainer x;
-    private final HashSet<Object> vectorContents = new HashSet<>();
-    private final HashSet<Object> incompContents;
+    private final ElementIds ids;
+    private final int incomparableCount;
     private final byte[] dupVec;
     private int index;
 
-    public DuplicationHelper(RAbstractContainer x, RAbstractContainer incomparables, boolean justIndex, boolean fromLast) {
+    public DuplicationHelper(RAbstractContainer x, RAbstractContainer incomparables, boolean justIndex) {
         this.x = x;
-        vectorContents.add(x.getDataAtAsObject(fromLast ? x.getLength() - 1 : 0));
-
+        this.ids = ElementIds.create(x, x.getLength() + (incomparables == null ? 0 : incomparables.getLength()));
         if (incomparables != null) {
-            incompContents = new HashSet<>();
             for (int i = 0; i < incomparables.getLength(); i++) {
-                incompContents.add(incomparables.getDataAtAsObject(i));
+                ids.add(incomparables, i);
             }
-        } else {
-            incompContents = null;
         }
+        incomparableCount = ids.count;
         dupVec = justIndex ? null : new byte[x.getLength()];
     }
 
     public boolean doIt(int i) {
-        if (incompContents == null || !incompContents.contains(x.getDataAtAsObject(i))) {
-            if (vectorContents.contains(x.getDataAtAsObject(i))) {
-                if (dupVec == null) {
-                    index = i + 1;
-                    return true;
-                } else {
-                    dupVec[i] = RRuntime.LOGICAL_TRUE;
-                }
-            } else {
-                vectorContents.add(x.getDataAtAsObject(i));
-            }
+        int id = ids.add(x, i);
+        if (id == -1 || id < incomparableCount) {
+            // first occurrence or an incomparable value, dupVec[i] stays FALSE
+            return false;
+        }
+        if (dupVec == null) {
+            index = i + 1;
+            return true;
         } else {
-            if (dupVec != null) {
-                dupVec[i] = RRuntime.LOGICAL_FALSE;
-            }
+            dupVec[i] = RRuntime.LOGICAL_TRUE;
+            return false;
         }
-        return false;
     }
 
     public int getIndex() {
@@ -73,15 +79,15 @@ public class DuplicationHelper {
 
     @TruffleBoundary
     public static DuplicationHelper analyze(RAbstractContainer x, RAbstractContainer incomparables, boolean justIndex, boolean fromLast) {
-        DuplicationHelper ds = new DuplicationHelper(x, incomparables, justIndex, fromLast);
+        DuplicationHelper ds = new DuplicationHelper(x, incomparables, justIndex);
         if (fromLast) {
-            for (int i = x.getLength() - 2; i >= 0; i--) {
+            for (int i = x.getLength() - 1; i >= 0; i--) {
                 if (ds.doIt(i)) {
                     break;
                 }
             }
         } else {
-            for (int i = 1; i < x.getLength(); i++) {
+            for (int i = 0; i < x.getLength(); i++) {
                 if (ds.doIt(i)) {
                     break;
                 }
@@ -89,4 +95,125 @@ public class DuplicationHelper {
         }
         return ds;
     }
+
+    /**
+     * Assigns consecutive ids to the distinct values of the elements of a vector (and of the
+     * incomparables, which have been cast to the same type).
+     */
+    private abstract static class ElementIds {
+
+        protected int count;
+
+        /**
+         * Returns the id of the value of element {@code i} of {@code vector} or {@code -1} if the
+         * value is new, in which case it gets the next id.
+         */
+        final int add(RAbstractContainer vector, int i) {
+            int id = putIfAbsent(vector, i, count);
+            if (id == -1) {
+                count++;
+            }
+            return id;
+        }
+
+        protected abstract int putIfAbsent(RAbstractContainer vector, int i, int id);
+
+        static ElementIds create(RAbstractContainer x, int approxCapacity) {
+            if (x instanceof RAbstractIntVector) {
+                return new IntIds(approxCapacity);
+            } else if (x instanceof RAbstractDoubleVector) {
+                return new DoubleIds(approxCapacity);
+            } else if (x instanceof RAbstractStringVector) {
+                return new StringIds(approxCapacity);
+            } else if (x instanceof RAbstractLogicalVector || x instanceof RAbstractRawVector) {
+                return new ByteIds();
+            } else if (x instanceof RAbstractComplexVector) {
+                return new ComplexIds(approxCapacity);
+            } else {
+                return new ObjectIds();
+            }
+        }
+    }
+
+    private static final class IntIds extends ElementIds {
+        private final NonRecursiveHashMapInt map;
+
+        IntIds(int approxCapacity) {
+            map = new NonRecursiveHashMapInt(approxCapacity);
+        }
+
+        @Override
+        protected int putIfAbsent(RAbstractContainer vector, int i, int id) {
+            return map.putIfAbsent(((RAbstractIntVector) vector).getDataAt(i), id);
+        }
+    }
+
+    private static final class DoubleIds extends ElementIds {
+        private final NonRecursiveHashMapDouble map;
+
+        DoubleIds(int approxCapacity) {
+            map = new NonRecursiveHashMapDouble(approxCapacity);
+        }
+
+        @Override
+        protected int putIfAbsent(RAbstractContainer vector, int i, int id) {
+            return map.putIfAbsent(((RAbstractDoubleVector) vector).getDataAt(i), id);
+        }
+    }
+
+    private static final class StringIds extends ElementIds {
+        private final NonRecursiveHashMapCharacter map;
+
+        StringIds(int approxCapacity) {
+            map = new NonRecursiveHashMapCharacter(approxCapacity);
+        }
+
+        @Override
+        protected int putIfAbsent(RAbstractContainer vector, int i, int id) {
+            return map.putIfAbsent(((RAbstractStringVector) vector).getDataAt(i), id);
+        }
+    }
+
+    private static final class ComplexIds extends ElementIds {
+        private final NonRecursiveHashMapComplex map;
+
+        ComplexIds(int approxCapacity) {
+            map = new NonRecursiveHashMapComplex(approxCapacity);
+        }
+
+        @Override
+        protected int putIfAbsent(RAbstractContainer vector, int i, int id) {
+            return map.putIfAbsent(((RAbstractComplexVector) vector).getDataAt(i), id);
+        }
+    }
+
+    /**
+     * Logical and raw vectors have at most 256 distinct values, a plain array will do.
+     */
+    private static final class ByteIds extends ElementIds {
+        private final int[] ids = new int[256];
+
+        @Override
+        protected int putIfAbsent(RAbstractContainer vector, int i, int id) {
+            byte value = vector instanceof RAbstractRawVector ? ((RAbstractRawVector) vector).getRawDataAt(i) : ((RAbstractLogicalVector) vector).getDataAt(i);
+            int old = ids[value & 0xff] - 1;
+            if (old == -1) {
+                ids[value & 0xff] = id + 1;
+            }
+            return old;
+        }
+    }
+
+    /**
+     * Lists and other containers, compared as Java objects.
+     */
+    private static final class ObjectIds extends ElementIds {
+        private final HashMap<Object, Integer> map = new HashMap<>();
+
+        @Override
+        protected int putIfAbsent(RAbstractContainer vector, int i, int id) {
+            Integer old = map.putIfAbsent(vector.getDataAtAsObject(i), id);
+            return old == null ? -1 : old;
+        }
+    }
 }
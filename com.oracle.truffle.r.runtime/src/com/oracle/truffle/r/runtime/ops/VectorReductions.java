@@ -0,0 +1,532 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.ops;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.ParallelTasks;
+import com.oracle.truffle.r.runtime.RRuntime;
+
+/**
+ * Reductions over the raw data of double and integer vectors, used by {@code sum}, {@code prod},
+ * {@code min}, {@code max}, {@code range}, {@code mean} and the row/column sums and means.
+ *
+ * The data is split into blocks of {@link #BLOCK_SIZE} elements, which are reduced independently
+ * (in parallel if the vector is large enough, see {@link ParallelTasks}) and whose results are
+ * then combined in a fixed order. The result therefore does not depend on the number of threads.
+ * Sums are compensated (Neumaier) and use several independent accumulators, which gives an
+ * accuracy comparable to the {@code long double} accumulation of GNU R.
+ *
+ * The NA handling follows {@code UnaryArithmeticReduceNode}: NA and NaN are ignored if
+ * {@code naRm}, infinite values if {@code finite}, and otherwise an NA gives NA and a NaN is
+ * propagated by the operation.
+ */
+public final class VectorReductions {
+
+    /**
+     * The minimal length of a vector for which the callers use these methods instead of their own
+     * loops.
+     */
+    public static final int MIN_LENGTH = 4096;
+
+    private static final int BLOCK_SIZE = 1 << 14;
+    private static final int LANES = 4;
+
+    public enum Operation {
+        SUM,
+        PRODUCT,
+        MIN,
+        MAX
+    }
+
+    /**
+     * The value of a reduction and the number of elements that were not ignored. {@code na} is
+     * set if the result is NA because of an NA element.
+     */
+    public static final class Result {
+        public final double value;
+        public final long longValue;
+        public final int count;
+        public final boolean na;
+
+        private Result(double value, long longValue, int count, boolean na) {
+            this.value = value;
+            this.longValue = longValue;
+            this.count = count;
+            this.na = na;
+        }
+    }
+
+    private VectorReductions() {
+        // only static members
+    }
+
+    /**
+     * Returns the operation computed by {@link BinaryArithmetic} operations created by
+     * {@code factory}, or {@code null} if it is not a reduction supported by this class.
+     */
+    public static Operation getOperation(BinaryArithmeticFactory factory) {
+        if (factory == BinaryArithmetic.ADD) {
+            return Operation.SUM;
+        } else if (factory == BinaryArithmetic.MULTIPLY) {
+            return Operation.PRODUCT;
+        } else if (factory == BinaryArithmetic.MIN) {
+            return Operation.MIN;
+        } else if (factory == BinaryArithmetic.MAX) {
+            return Operation.MAX;
+        }
+        return null;
+    }
+
+    private static int blockCount(int length) {
+        return (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+
+    private static double identity(Operation op) {
+        switch (op) {
+            case SUM:
+                return 0;
+            case PRODUCT:
+                return 1;
+            case MIN:
+                return Double.POSITIVE_INFINITY;
+            case MAX:
+                return Double.NEGATIVE_INFINITY;
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
+    /*
+     * Same semantics as BinaryArithmetic.Max/Min for doubles.
+     */
+
+    private static double max(double left, double right) {
+        if (left != left) {
+            return left;
+        } else if (left == 0.0d && right == 0.0d && Double.doubleToRawLongBits(left) == Double.doubleToRawLongBits(-0.0d)) {
+            return right;
+        }
+        return left >= right ? left : right;
+    }
+
+    private static double min(double left, double right) {
+        if (left != left) {
+            return left;
+        } else if (left == 0.0d && right == 0.0d && Double.doubleToRawLongBits(right) == Double.doubleToRawLongBits(-0.0d)) {
+            return right;
+        }
+        return left <= right ? left : right;
+    }
+
+    private static double apply(Operation op, double left, double right) {
+        switch (op) {
+            case PRODUCT:
+                return left * right;
+            case MIN:
+                return min(left, right);
+            case MAX:
+                return max(left, right);
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Reduces {@code data[0..length)}.
+     */
+    @TruffleBoundary
+    public static Result reduce(Operation op, double[] data, int length, boolean naRm, boolean finite) {
+        int blocks = blockCount(length);
+        double[] values = new double[blocks];
+        double[] compensations = new double[blocks];
+        int[] counts = new int[blocks];
+        boolean[] nas = new boolean[blocks];
+        ParallelTasks.forEach(blocks, length, b -> {
+            int from = b * BLOCK_SIZE;
+            int to = Math.min(length, from + BLOCK_SIZE);
+            if (op == Operation.SUM) {
+                sumBlock(data, from, to, 0, naRm, finite, b, values, compensations, counts, nas);
+            } else {
+                reduceBlock(op, data, from, to, naRm, finite, b, values, counts, nas);
+            }
+        });
+        int count = 0;
+        for (int b = 0; b < blocks; b++) {
+            if (nas[b]) {
+                return new Result(RRuntime.DOUBLE_NA, 0, count, true);
+            }
+            count += counts[b];
+        }
+        if (op == Operation.SUM) {
+            return new Result(combineSums(values, compensations), 0, count, false);
+        }
+        double result = identity(op);
+        for (int b = 0; b < blocks; b++) {
+            result = apply(op, result, values[b]);
+        }
+        return new Result(result, 0, count, false);
+    }
+
+    /**
+     * Computes the mean of {@code data[0..length)} like GNU R: the sum divided by the length is
+     * refined by the mean of the deviations from it.
+     */
+    @TruffleBoundary
+    public static double mean(double[] data, int length) {
+        double mean = sum(data, length, 0) / length;
+        if (RRuntime.isFinite(mean)) {
+            mean += sum(data, length, mean) / length;
+        }
+        return mean;
+    }
+
+    /**
+     * Sums {@code data[i] - shift}; NA if there is an NA.
+     */
+    private static double sum(double[] data, int length, double shift) {
+        int blocks = blockCount(length);
+        double[] values = new double[blocks];
+        double[] compensations = new double[blocks];
+        int[] counts = new int[blocks];
+        boolean[] nas = new boolean[blocks];
+        ParallelTasks.forEach(blocks, length, b -> {
+            int from = b * BLOCK_SIZE;
+            sumBlock(data, from, Math.min(length, from + BLOCK_SIZE), shift, false, false, b, values, compensations, counts, nas);
+        });
+        for (int b = 0; b < blocks; b++) {
+            if (nas[b]) {
+                return RRuntime.DOUBLE_NA;
+            }
+        }
+        return combineSums(values, compensations);
+    }
+
+    private static double combineSums(double[] values, double[] compensations) {
+        double sum = 0;
+        double compensation = 0;
+        for (int b = 0; b < values.length; b++) {
+            double value = values[b];
+            double t = sum + value;
+            compensation += Math.abs(sum) >= Math.abs(value) ? (sum - t) + value : (value - t) + sum;
+            compensation += compensations[b];
+            sum = t;
+        }
+        // with infinite values, the compensation is meaningless (or NaN)
+        return RRuntime.isFinite(sum) ? sum + compensation : sum;
+    }
+
+    /**
+     * Tells whether a partial product is finite and not zero.
+     */
+    private static boolean isRegular(double product) {
+        return product != 0 && RRuntime.isFinite(product);
+    }
+
+    private static boolean containsNA(double[] data, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (RRuntime.isNA(data[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sumBlock(double[] data, int from, int to, double shift, boolean naRm, boolean finite, int b, double[] values, double[] compensations, int[] counts, boolean[] nas) {
+        double sum = 0;
+        double compensation = 0;
+        int count = 0;
+        if (!naRm && !finite) {
+            // no element is ignored, NaN (including NA) propagates through the sum
+            double[] s = new double[LANES];
+            double[] c = new double[LANES];
+            int i = from;
+            for (; i + LANES <= to; i += LANES) {
+                for (int lane = 0; lane < LANES; lane++) {
+                    double x = data[i + lane] - shift;
+                    double t = s[lane] + x;
+                    c[lane] += Math.abs(s[lane]) >= Math.abs(x) ? (s[lane] - t) + x : (x - t) + s[lane];
+                    s[lane] = t;
+                }
+            }
+            boolean lanesFinite = true;
+            for (int lane = 0; lane < LANES; lane++) {
+                lanesFinite &= RRuntime.isFinite(s[lane]);
+            }
+            if (lanesFinite) {
+                for (int lane = 0; lane < LANES; lane++) {
+                    double t = sum + s[lane];
+                    compensation += (Math.abs(sum) >= Math.abs(s[lane]) ? (sum - t) + s[lane] : (s[lane] - t) + sum) + c[lane];
+                    sum = t;
+                }
+            } else {
+                /*
+                 * A lane sums only every LANES-th element, so it may overflow where the sequential
+                 * sum does not (e.g. alternating 1e308 and -1e308), sum the block sequentially.
+                 */
+                i = from;
+            }
+            for (; i < to; i++) {
+                double x = data[i] - shift;
+                double t = sum + x;
+                compensation += Math.abs(sum) >= Math.abs(x) ? (sum - t) + x : (x - t) + sum;
+                sum = t;
+            }
+            count = to - from;
+            if (Double.isNaN(sum) && containsNA(data, from, to)) {
+                nas[b] = true;
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                double x = data[i];
+                if (Double.isNaN(x) || (finite && Double.isInfinite(x))) {
+                    // NA and NaN are ignored as naRm || finite
+                    continue;
+                }
+                x -= shift;
+                double t = sum + x;
+                compensation += Math.abs(sum) >= Math.abs(x) ? (sum - t) + x : (x - t) + sum;
+                sum = t;
+                count++;
+            }
+        }
+        values[b] = sum;
+        compensations[b] = compensation;
+        counts[b] = count;
+    }
+
+    private static void reduceBlock(Operation op, double[] data, int from, int to, boolean naRm, boolean finite, int b, double[] values, int[] counts, boolean[] nas) {
+        double result = identity(op);
+        int count = 0;
+        if (!naRm && !finite) {
+            switch (op) {
+                case PRODUCT: {
+                    double[] p = {1, 1, 1, 1};
+                    int i = from;
+                    for (; i + LANES <= to; i += LANES) {
+                        for (int lane = 0; lane < LANES; lane++) {
+                            p[lane] *= data[i + lane];
+                        }
+                    }
+                    if (isRegular(p[0]) && isRegular(p[1]) && isRegular(p[2]) && isRegular(p[3])) {
+                        result = (p[0] * p[1]) * (p[2] * p[3]);
+                    } else {
+                        /*
+                         * A lane multiplies only every LANES-th element, so it may overflow or
+                         * underflow where the sequential product does not (e.g. alternating 1e200
+                         * and 1e-200), multiply the block sequentially.
+                         */
+                        i = from;
+                    }
+                    for (; i < to; i++) {
+                        result *= data[i];
+                    }
+                    break;
+                }
+                case MIN:
+                    for (int i = from; i < to; i++) {
+                        result = min(result, data[i]);
+                    }
+                    break;
+                case MAX:
+                    for (int i = from; i < to; i++) {
+                        result = max(result, data[i]);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException();
+            }
+            count = to - from;
+            if (Double.isNaN(result) && containsNA(data, from, to)) {
+                nas[b] = true;
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                double x = data[i];
+                if (Double.isNaN(x) || (finite && Double.isInfinite(x))) {
+                    continue;
+                }
+                result = apply(op, result, x);
+                count++;
+            }
+        }
+        values[b] = result;
+        counts[b] = count;
+    }
+
+    /**
+     * Reduces {@code data[0..length)} of an integer (or logical, widened to integer) vector. The
+     * sum is computed exactly in {@link Result#longValue}, the caller has to check whether it fits
+     * into an integer.
+     */
+    @TruffleBoundary
+    public static Result reduce(Operation op, int[] data, int length, boolean naRm) {
+        assert op != Operation.PRODUCT;
+        int blocks = blockCount(length);
+        long[] values = new long[blocks];
+        int[] counts = new int[blocks];
+        boolean[] nas = new boolean[blocks];
+        ParallelTasks.forEach(blocks, length, b -> {
+            int from = b * BLOCK_SIZE;
+            int to = Math.min(length, from + BLOCK_SIZE);
+            long result = op == Operation.SUM ? 0 : op == Operation.MIN ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                int x = data[i];
+                if (x == RRuntime.INT_NA) {
+                    if (naRm) {
+                        continue;
+                    }
+                    nas[b] = true;
+                    break;
+                }
+                switch (op) {
+                    case SUM:
+                        result += x;
+                        break;
+                    case MIN:
+                        result = Math.min(result, x);
+                        break;
+                    default:
+                        result = Math.max(result, x);
+                        break;
+                }
+                count++;
+            }
+            values[b] = result;
+            counts[b] = count;
+        });
+        long result = op == Operation.SUM ? 0 : op == Operation.MIN ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+        int count = 0;
+        for (int b = 0; b < blocks; b++) {
+            if (nas[b]) {
+                return new Result(RRuntime.DOUBLE_NA, RRuntime.INT_NA, count, true);
+            }
+            count += counts[b];
+            switch (op) {
+                case SUM:
+                    result += values[b];
+                    break;
+                case MIN:
+                    result = Math.min(result, values[b]);
+                    break;
+                default:
+                    result = Math.max(result, values[b]);
+                    break;
+            }
+        }
+        return new Result(result, result, count, false);
+    }
+
+    /**
+     * Computes the sums (or means if {@code mean}) of the columns of a {@code rows x cols} matrix.
+     * Without {@code naRm}, the result of a column is the first NA or NaN in it.
+     */
+    @TruffleBoundary
+    public static double[] columnSums(double[] data, int rows, int cols, boolean naRm, boolean mean) {
+        double[] result = new double[cols];
+        int columnsPerTask = Math.max(1, BLOCK_SIZE / Math.max(1, rows));
+        int tasks = (cols + columnsPerTask - 1) / columnsPerTask;
+        ParallelTasks.forEach(tasks, (long) rows * cols, task -> {
+            int to = Math.min(cols, (task + 1) * columnsPerTask);
+            for (int c = task * columnsPerTask; c < to; c++) {
+                result[c] = columnSum(data, c * rows, rows, naRm, mean);
+            }
+        });
+        return result;
+    }
+
+    private static double columnSum(double[] data, int from, int rows, boolean naRm, boolean mean) {
+        double sum = 0;
+        double compensation = 0;
+        int count = 0;
+        for (int i = from; i < from + rows; i++) {
+            double x = data[i];
+            if (Double.isNaN(x)) {
+                if (naRm) {
+                    continue;
+                }
+                return x;
+            }
+            double t = sum + x;
+            compensation += Math.abs(sum) >= Math.abs(x) ? (sum - t) + x : (x - t) + sum;
+            sum = t;
+            count++;
+        }
+        double result = RRuntime.isFinite(sum) ? sum + compensation : sum;
+        if (mean) {
+            return count == 0 ? Double.NaN : result / count;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the sums (or means if {@code mean}) of the rows of a {@code rows x cols} matrix.
+     * Without {@code naRm}, the result of a row is the first NA or NaN in it. The rows are split
+     * into blocks, and every block is accumulated column by column to access the memory
+     * sequentially.
+     */
+    @TruffleBoundary
+    public static double[] rowSums(double[] data, int rows, int cols, boolean naRm, boolean mean) {
+        double[] result = new double[rows];
+        int rowsPerTask = Math.max(64, BLOCK_SIZE / Math.max(1, cols));
+        int tasks = (rows + rowsPerTask - 1) / rowsPerTask;
+        ParallelTasks.forEach(tasks, (long) rows * cols, task -> {
+            int from = task * rowsPerTask;
+            int to = Math.min(rows, from + rowsPerTask);
+            double[] compensations = new double[to - from];
+            int[] counts = new int[to - from];
+            // NA or NaN if the row already contains one
+            double[] special = new double[to - from];
+            for (int c = 0; c < cols; c++) {
+                int offset = c * rows;
+                for (int r = from; r < to; r++) {
+                    double x = data[offset + r];
+                    int k = r - from;
+                    if (Double.isNaN(x)) {
+                        if (!naRm && special[k] == 0) {
+                            special[k] = x;
+                        }
+                        continue;
+                    }
+                    double sum = result[r];
+                    double t = sum + x;
+                    compensations[k] += Math.abs(sum) >= Math.abs(x) ? (sum - t) + x : (x - t) + sum;
+                    result[r] = t;
+                    counts[k]++;
+                }
+            }
+            for (int r = from; r < to; r++) {
+                int k = r - from;
+                if (special[k] != 0) {
+                    // 0 is not NaN, so this denotes an NA or NaN
+                    result[r] = special[k];
+                    continue;
+                }
+                double sum = result[r];
+                sum = RRuntime.isFinite(sum) ? sum + compensations[k] : sum;
+                result[r] = mean ? (counts[k] == 0 ? Double.NaN : sum / counts[k]) : sum;
+            }
+        });
+        return result;
+    }
+}
@@ -26,14 +26,16 @@ import com.oracle.truffle.r.runtime.data.RPromise;
 import com.oracle.truffle.r.runtime.data.RTypedValue;
 import com.oracle.truffle.r.runtime.env.REnvironment;
 import com.oracle.truffle.r.runtime.ffi.BaseRFFI;
+import com.oracle.truffle.r.runtime.rng.lecuyer.LecuyerCMRG;
 import com.oracle.truffle.r.runtime.rng.mm.MarsagliaMulticarry;
 import com.oracle.truffle.r.runtime.rng.mt.MersenneTwister;
 import com.oracle.truffle.r.runtime.rng.user.UserRNG;
 
 /**
  * Facade class to the R random number generators, (see src/main/RNG.c in GnuR). The individual
- * generators are implemented in their own class. Currently there are only two implemented, the
- * default, {@link MersenneTwister} and {@link MarsagliaMulticarry}.
+ * generators are implemented in their own class. Currently there are only three implemented, the
+ * default, {@link MersenneTwister}, {@link MarsagliaMulticarry} and {@link LecuyerCMRG}, which
+ * also supports the stream splitting of the parallel package.
  *
  * The fact that the R programmer can set {@code .Random.seed} explicitly, as opposed to the
  * recommended approach of calling {@code set.seed}, is something of a pain as it changes the
@@ -58,7 +60,7 @@ public class RRNG {
         KNUTH_TAOCP(),
         USER_UNIF(UserRNG::new),
         KNUTH_TAOCP2(),
-        LECUYER_CMRG();
+        LECUYER_CMRG(LecuyerCMRG::new);
 
         @CompilationFinal(dimensions = 1) static final Kind[] VALUES = values();
 
@@ -115,7 +117,7 @@ public class RRNG {
 
         @Override
         public RContext.ContextState initialize(RContext context) {
-            int seed = timeToSeed();
+            int seed = timeToSeed(context);
             RandomNumberGenerator rng = DEFAULT_KIND.create();
             initGenerator(rng, seed);
             this.currentGenerator = rng;
@@ -293,9 +295,17 @@ public class RRNG {
      * Create a random integer.
      */
     public static Integer timeToSeed() {
+        return timeToSeed(RContext.getInstance());
+    }
+
+    /**
+     * Unlike in GnuR, the process id does not distinguish the contexts running in parallel (e.g.
+     * the workers of a cluster), therefore the id of the context is mixed into the seed.
+     */
+    private static int timeToSeed(RContext context) {
         int pid = (int) BaseRFFI.GetpidRootNode.create().getCallTarget().call();
         int millis = (int) (System.currentTimeMillis() & 0xFFFFFFFFL);
-        return (millis << 16) ^ pid;
+        return ((millis << 16) ^ pid) + 69069 * context.getId();
     }
 
     private static void randomize(Kind kind) {
@@ -411,6 +421,8 @@ public class RRNG {
         int[] seeds = currentGenerator().getSeeds();
         seeds[0] = currentKind().ordinal() + 100 * currentNormKind().ordinal();
         RIntVector vector = RDataFactory.createIntVector(seeds, RDataFactory.COMPLETE_VECTOR);
+        // the generator keeps updating the seeds in place
+        vector.setExternalStore();
         REnvironment.globalEnv().safePut(RANDOM_SEED, vector.makeSharedPermanent());
     }
 }
@@ -5,7 +5,7 @@
  *
  * Copyright (c) 1995-2012, The R Core Team
  * Copyright (c) 2003, The R Foundation
- * Copyright (c) 2014, 2016, Oracle and/or its affiliates
+ * Copyright (c) 2014, 2017, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -29,6 +29,17 @@ public interface RandomNumberGenerator {
 
     double genrandDouble();
 
+    /**
+     * Stores the next {@code length} values of {@link #genrandDouble()} into {@code result}
+     * starting at {@code offset}. Generators that produce their values in blocks override this to
+     * avoid the call per value.
+     */
+    default void genrandDoubles(double[] result, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            result[i] = genrandDouble();
+        }
+    }
+
     Kind getKind();
 
     /**
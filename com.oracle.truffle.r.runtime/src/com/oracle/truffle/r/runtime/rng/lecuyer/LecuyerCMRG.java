@@ -0,0 +1,207 @@
+/*
+ * This material is distributed under the GNU General Public License
+ * Version 2. You may review the terms of this license at
+ * http://www.gnu.org/licenses/gpl-2.0.html
+ *
+ * Copyright (c) 1995-2012, The R Core Team
+ * Copyright (c) 2003, The R Foundation
+ * Copyright (c) 2017, Oracle and/or its affiliates
+ *
+ * All rights reserved.
+ */
+package com.oracle.truffle.r.runtime.rng.lecuyer;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.rng.RNGInitAdapter;
+import com.oracle.truffle.r.runtime.rng.RRNG;
+import com.oracle.truffle.r.runtime.rng.RRNG.Kind;
+
+/**
+ * "L'Ecuyer-CMRG" RNG, the combined multiple-recursive generator MRG32k3a. Transcribed from GnuR
+ * RNG.c, the stream splitting ({@link #nextStream} and {@link #nextSubStream}) from rngstream.c of
+ * the parallel package.
+ *
+ * The state consists of two sets of three seeds, the first one in {@code [0, m1)}, the second one
+ * in {@code [0, m2)}. Since the seeds are unsigned 32 bit values stored in {@code int}s, they are
+ * always converted with {@link Integer#toUnsignedLong(int)} before the arithmetic.
+ */
+public final class LecuyerCMRG extends RNGInitAdapter {
+
+    private static final int NSEED = 6;
+
+    private static final long M1 = 4294967087L;
+    private static final long M2 = 4294944443L;
+    private static final double NORMC = 2.328306549295727688e-10;
+    private static final long A12 = 1403580L;
+    private static final long A13N = 810728L;
+    private static final long A21 = 527612L;
+    private static final long A23N = 1370589L;
+
+    /*
+     * The transition matrices of the two components advanced by 2^127 steps (the start of the next
+     * stream) and by 2^76 steps (the start of the next sub-stream).
+     */
+    private static final long[][] A1P127 = {
+                    {2427906178L, 3580155704L, 949770784L},
+                    {226153695L, 1230515664L, 3580155704L},
+                    {1988835001L, 986791581L, 1230515664L}};
+    private static final long[][] A2P127 = {
+                    {1464411153L, 277697599L, 1610723613L},
+                    {32183930L, 1464411153L, 1022607788L},
+                    {2824425944L, 32183930L, 2093834863L}};
+    private static final long[][] A1P76 = {
+                    {82758667L, 1871391091L, 4127413238L},
+                    {3672831523L, 69195019L, 1871391091L},
+                    {3672091415L, 3528743235L, 69195019L}};
+    private static final long[][] A2P76 = {
+                    {1511326704L, 3759209742L, 1610795712L},
+                    {4292754251L, 1511326704L, 3889917532L},
+                    {3859662829L, 4292754251L, 3708466080L}};
+
+    public LecuyerCMRG() {
+        // unlike GnuR, .Random.seed has exactly the length used by this generator
+        super(NSEED);
+    }
+
+    @Override
+    @TruffleBoundary
+    public void init(int seedParam) {
+        int seed = seedParam;
+        for (int i = 0; i < NSEED; i++) {
+            seed = (69069 * seed + 1);
+            while (Integer.toUnsignedLong(seed) >= M2) {
+                seed = (69069 * seed + 1);
+            }
+            setISeedItem(i, seed);
+        }
+    }
+
+    @Override
+    @TruffleBoundary
+    public void fixupSeeds(boolean initial) {
+        if (!isValid(0, M1) || !isValid(3, M2)) {
+            init(RRNG.timeToSeed());
+        }
+    }
+
+    /**
+     * Checks that the three seeds starting at {@code start} are not all zero and less than
+     * {@code m}.
+     */
+    private boolean isValid(int start, long m) {
+        boolean notAllZero = false;
+        for (int i = start; i < start + 3; i++) {
+            long seed = Integer.toUnsignedLong(getISeedItem(i));
+            if (seed >= m) {
+                return false;
+            }
+            notAllZero |= seed != 0;
+        }
+        return notAllZero;
+    }
+
+    @Override
+    public double genrandDouble() {
+        long p1 = A12 * Integer.toUnsignedLong(getISeedItem(1)) - A13N * Integer.toUnsignedLong(getISeedItem(0));
+        p1 %= M1;
+        if (p1 < 0) {
+            p1 += M1;
+        }
+        setISeedItem(0, getISeedItem(1));
+        setISeedItem(1, getISeedItem(2));
+        setISeedItem(2, (int) p1);
+
+        long p2 = A21 * Integer.toUnsignedLong(getISeedItem(5)) - A23N * Integer.toUnsignedLong(getISeedItem(3));
+        p2 %= M2;
+        if (p2 < 0) {
+            p2 += M2;
+        }
+        setISeedItem(3, getISeedItem(4));
+        setISeedItem(4, getISeedItem(5));
+        setISeedItem(5, (int) p2);
+
+        return ((p1 > p2) ? (p1 - p2) : (p1 - p2 + M1)) * NORMC;
+    }
+
+    @Override
+    public void genrandDoubles(double[] result, int offset, int length) {
+        // same as genrandDouble, but with the state kept in locals
+        long s0 = Integer.toUnsignedLong(getISeedItem(0));
+        long s1 = Integer.toUnsignedLong(getISeedItem(1));
+        long s2 = Integer.toUnsignedLong(getISeedItem(2));
+        long s3 = Integer.toUnsignedLong(getISeedItem(3));
+        long s4 = Integer.toUnsignedLong(getISeedItem(4));
+        long s5 = Integer.toUnsignedLong(getISeedItem(5));
+        for (int i = offset; i < offset + length; i++) {
+            long p1 = (A12 * s1 - A13N * s0) % M1;
+            if (p1 < 0) {
+                p1 += M1;
+            }
+            s0 = s1;
+            s1 = s2;
+            s2 = p1;
+
+            long p2 = (A21 * s5 - A23N * s3) % M2;
+            if (p2 < 0) {
+                p2 += M2;
+            }
+            s3 = s4;
+            s4 = s5;
+            s5 = p2;
+
+            result[i] = ((p1 > p2) ? (p1 - p2) : (p1 - p2 + M1)) * NORMC;
+        }
+        setISeedItem(0, (int) s0);
+        setISeedItem(1, (int) s1);
+        setISeedItem(2, (int) s2);
+        setISeedItem(3, (int) s3);
+        setISeedItem(4, (int) s4);
+        setISeedItem(5, (int) s5);
+    }
+
+    @Override
+    public Kind getKind() {
+        return Kind.LECUYER_CMRG;
+    }
+
+    @Override
+    public int getNSeed() {
+        return NSEED;
+    }
+
+    /**
+     * Returns the seed of the stream following the stream of given seed in the format of
+     * {@code .Random.seed}, i.e. advances the generator by 2^127 steps.
+     */
+    public static int[] nextStream(int[] seed) {
+        return advance(seed, A1P127, A2P127);
+    }
+
+    /**
+     * Returns the seed of the sub-stream following the sub-stream of given seed in the format of
+     * {@code .Random.seed}, i.e. advances the generator by 2^76 steps.
+     */
+    public static int[] nextSubStream(int[] seed) {
+        return advance(seed, A1P76, A2P76);
+    }
+
+    private static int[] advance(int[] seed, long[][] a1, long[][] a2) {
+        assert seed.length > NSEED;
+        int[] result = new int[NSEED + 1];
+        result[0] = seed[0];
+        multiply(seed, 1, a1, M1, result);
+        multiply(seed, 4, a2, M2, result);
+        return result;
+    }
+
+    private static void multiply(int[] seed, int start, long[][] a, long m, int[] result) {
+        for (int i = 0; i < 3; i++) {
+            long tmp = 0;
+            for (int j = 0; j < 3; j++) {
+                // both operands are less than 2^32, the unsigned product may exceed 2^63
+                tmp = Long.remainderUnsigned(tmp + a[i][j] * Integer.toUnsignedLong(seed[start + j]), m);
+            }
+            result[start + i] = (int) tmp;
+        }
+    }
+}
@@ -332,3 +332,12 @@ SEXP test_stringNA(void) {
     SET_STRING_ELT(x, 0, NA_STRING);
     return x;
 }
+
+SEXP incrementIntVectorInPlace(SEXP x) {
+    int *data = INTEGER(x);
+    int i;
+    for (i = 0; i < LENGTH(x); i++) {
+        data[i]++;
+    }
+    return R_NilValue;
+}
@@ -91,3 +91,5 @@ extern SEXP test_coerceVector(SEXP x, SEXP mode);
 extern SEXP test_ATTRIB(SEXP);
 
 extern SEXP test_stringNA(void);
+
+extern SEXP incrementIntVectorInPlace(SEXP x);
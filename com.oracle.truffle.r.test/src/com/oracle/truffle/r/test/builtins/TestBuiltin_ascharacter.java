@@ -268,4 +268,25 @@ public class TestBuiltin_ascharacter extends TestBase {
         assertEval("{ f1<-function() 7; f2<-function(x) { sys.call() }; as.character(f2(f1())) }");
         assertEval("{ f1<-function(x) 7; f2<-function(y) { sys.call() }; as.character(f2(f1(42))) }");
     }
+
+    @Test
+    public void testAsCharacterSequence() {
+        assertEval("{ x <- as.character(1:5); list(x, typeof(x), length(x)) }");
+        assertEval("{ x <- as.character(5:1); x[2] <- 'a'; x }");
+        assertEval("{ x <- as.character(1:1e7); c(x[1], x[1e7], length(x)) }");
+        assertEval("{ as.character(seq(0.5, 3)) }");
+        assertEval("{ x <- as.character(1:3); c(x, 'b', max(x), paste0(x, collapse = '')) }");
+        assertEval("{ x <- 1:3; names(x) <- as.character(3:1); class(x) <- as.character(1:2); unclass(x) }");
+        assertEval("{ cat(as.character(1:3), '\\n'); identical(as.character(1:3), c('1', '2', '3')) }");
+        assertEval("{ as.numeric(as.character(1:3)) }");
+        assertEval("{ as.integer(as.character(seq(1.5, by = 1, length.out = 3))) }");
+        assertEval("{ as.logical(as.character(0:2)) }");
+        assertEval("{ as.complex(as.character(1:3)) }");
+        assertEval("{ as.raw(as.character(1:3)) }");
+        assertEval("{ as.symbol(as.character(3:1)) }");
+        assertEval("{ is.na(as.character(1:3)) }");
+        assertEval("{ nchar(as.character(8:12)) }");
+        assertEval("{ paste(as.character(1:3), collapse = '+') }");
+        assertEval("{ paste('x', as.character(seq(0.5, 2.5))) }");
+    }
 }
@@ -94,4 +94,14 @@ public class TestBuiltin_colSums extends TestBase {
         // colSums on array have correct values
         assertEval("{ a = colSums(array(1:24,c(2,3,4))); c(a[1,1],a[2,2],a[3,3],a[3,4]) }");
     }
+
+    @Test
+    public void testColSumsLarge() {
+        assertEval("{ m <- matrix((1:20000) / 3, 200, 100); all.equal(colSums(m), apply(m, 2, sum)) }");
+        assertEval("{ m <- matrix((1:20000) / 3, 200, 100); all.equal(rowSums(m), apply(m, 1, sum)) }");
+        assertEval("{ m <- matrix((1:20000) / 3, 200, 100); all.equal(colMeans(m), apply(m, 2, mean)) }");
+        assertEval("{ m <- matrix((1:20000) / 3, 200, 100); all.equal(rowMeans(m), apply(m, 1, mean)) }");
+        assertEval("{ m <- matrix((1:20000) / 3, 200, 100); m[3, 4] <- NA; m[5, 4] <- NaN; m[7, 8] <- NaN; x <- list(colSums(m), rowSums(m), colMeans(m), rowMeans(m)); lapply(x, function(v) v[is.na(v)]) }");
+        assertEval("{ m <- matrix((1:20000) / 3, 200, 100); m[3, 4] <- NA; m[, 5] <- NA; x <- list(colSums(m, na.rm = TRUE), rowSums(m, na.rm = TRUE), colMeans(m, na.rm = TRUE), rowMeans(m, na.rm = TRUE)); lapply(x, function(v) v[is.na(v)]) }");
+    }
 }
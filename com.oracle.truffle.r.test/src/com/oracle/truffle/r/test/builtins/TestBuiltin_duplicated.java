@@ -135,5 +135,11 @@ public class TestBuiltin_duplicated extends TestBase {
         assertEval("{ x<-function() 42; duplicated(x) }");
         assertEval(Output.IgnoreErrorContext, "{ duplicated(c(1,2,1), incomparables=function() 42) }");
 
+        assertEval("{ duplicated(c(NA, NaN, -0, 0, NA, NaN)) }");
+        assertEval("{ duplicated(c(NA, 'NA', NA)) }");
+        assertEval("{ duplicated(c(NA, 1, NA, 1, 2), incomparables = NA) }");
+        assertEval("{ anyDuplicated(c(NA, NaN, 1, NaN)) }");
+        assertEval("{ anyDuplicated(c(1, 2, 3, 2, 1), fromLast=TRUE) }");
+
     }
 }
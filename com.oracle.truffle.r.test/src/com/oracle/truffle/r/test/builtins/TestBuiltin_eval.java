@@ -66,4 +66,15 @@ public class TestBuiltin_eval extends TestBase {
         assertEval("f1 <- function(x) { eval(quote(if(x>2){return()}else 1)); 10 };f1(5);f1(0)");
     }
 
+    @Test
+    public void testRepeatedEval() {
+        assertEval("{ e <- quote(x + 1); r <- 0; for (x in 1:100) r <- r + eval(e); r }");
+        assertEval("{ e <- quote(x * 2); f <- function(x) eval(e); g <- function(y, x) eval(e); c(f(1), g(0, 2), f(3L), g(1, 4L), eval(e, list(x = 5))) }");
+        assertEval("{ e <- quote(x); envs <- lapply(1:10, function(i) { env <- new.env(); assign('x', i, envir = env); env }); sapply(envs, function(env) eval(e, env)) }");
+        assertEval("{ e <- quote(if (is.character(x)) nchar(x) else x); sapply(list(1, 'abc', 2L, 'de'), function(x) eval(e)) }");
+        assertEval("{ e <- expression(a <- a + 1, a * 10); a <- 0; for (i in 1:5) r <- eval(e); c(a, r) }");
+        assertEval("{ f <- function(n) if (n <= 1) 1 else n * eval(quote(f(n - 1))); f(10) }");
+        assertEval("{ e <- quote(x + y); for (i in 1:20) eval(e, list(x = i, y = 1)); for (i in 1:20) eval(e, new.env()); f <- function(x, y) eval(e); r <- 0; for (i in 1:10) r <- r + f(i, 1); r }");
+    }
+
 }
@@ -79,5 +79,14 @@ public class TestBuiltin_grepl extends TestBase {
         assertEval("{ .Internal(grepl(7, \"7\", F, F, F, F, F, F)) }");
         assertEval("{ .Internal(grepl(character(), \"7\", F, F, F, F, F, F)) }");
         assertEval("{ .Internal(grepl(\"7\", 7, F, F, F, F, F, F)) }");
+
+        assertEval("{ grepl('abc', c('xabc', 'ab', NA)) }");
+        assertEval("{ grepl('^abc$', c('abc', 'abcd', 'xabc')) }");
+        assertEval("{ grepl('abc$', c('xabc', 'abcx'), perl = TRUE) }");
+        assertEval("{ x <- rep(c('abc', 'xyz', NA), 5000); r <- grepl('b', x); c(sum(r), which(r)[1:3], r[15000]) }");
+        assertEval("{ x <- paste0(rep(c('ab', 'cd'), 5000), 1:10000); r <- grepl('[ab]9+$', x); c(sum(r), which(r)[1:3]) }");
+        assertEval("{ x <- rep(c('a.c', 'abc'), 5000); c(sum(grepl('.', x, fixed = TRUE)), sum(grepl('.', x))) }");
+        // more characters than the default ParallelThreshold
+        assertEval("{ x <- paste0(strrep(c('ab', 'cd'), 150), 1:10000); r <- grepl('b[0-9]*7$', x); c(sum(nchar(x)) > 2097152, sum(r), which(r)[1:3]) }");
     }
 }
@@ -203,5 +203,16 @@ public class TestBuiltin_gsub extends TestBase {
         // Expected output: [1] "xaxbx"
         // FastR output: [1] "axxxxxb"
         assertEval(Ignored.ImplementationError, "{ gsub(pattern = 'Ä*', replacement = 'x', x = 'aÄÄÄÄÄb', perl = TRUE) }");
+
+        assertEval("{ gsub('abc', 'x', c('abcabc', 'xabcx', NA, 'ab')) }");
+        assertEval("{ gsub('^ab', 'x', c('abab', 'cab')) }");
+        assertEval("{ gsub('ab$', 'x', c('abab', 'abc')) }");
+        assertEval("{ gsub('a\\\\.b', '$', 'a.ba.b') }");
+        assertEval("{ sub('ab', 'x', 'ABab', ignore.case = TRUE, perl = TRUE) }");
+        assertEval("{ x <- paste0(rep(c('abab', 'cd', NA), 5000), 1:15000); r <- gsub('b', 'X', x); c(r[1:4], r[15000], length(r)) }");
+        assertEval("{ x <- paste0(rep(c('abab', 'cd'), 5000), 1:10000); r <- sub('[bd]([0-9])', '<\\\\1>', x); c(r[1:4], r[10000]) }");
+        assertEval("{ x <- rep(c('a.b.c', 'abc'), 5000); r <- gsub('.', '-', x, fixed = TRUE); c(r[1:2], r[9999]) }");
+        // more characters than the default ParallelThreshold
+        assertEval("{ x <- paste0(strrep(c('ab', 'cd'), 150), 1:10000); r <- gsub('b+', '-', x); c(sum(nchar(x)) > 2097152, identical(r, paste0(strrep(c('a-', 'cd'), 150), 1:10000))) }");
     }
 }
@@ -206,5 +206,14 @@ public class TestBuiltin_match extends TestBase {
         assertEval(Ignored.ImplementationError, "{ match(c(7, 42), NULL, integer()) }");
         assertEval("{ match(c(7, 42), NULL, 1L) }");
         assertEval("{ match(NULL, NULL) }");
+
+        assertEval("{ match(c(-0, NaN, NA), c(NA, NaN, 0)) }");
+        assertEval("{ match(c(1L, NA, 3L), c(NaN, NA, 1, 3.5, 3)) }");
+        assertEval("{ match(c(1, NaN, NA, 2.5), c(3L, NA, 1L)) }");
+        assertEval("{ t <- seq(2, 4000, by=2); r1 <- c(10, 11) %in% t; t[5] <- 11; r2 <- c(10, 11) %in% t; list(r1, r2) }");
+        assertEval("{ t <- as.character(1:2000); r1 <- match(c('5', '2001'), t); t[2000] <- '2001'; r2 <- match(c('5', '2001'), t); list(r1, r2) }");
+        assertEval("{ t <- rep(1:1000, 2); r1 <- match(c(5L, 0L), t); t[1] <- 0L; r2 <- match(c(5L, 0L), t); list(r1, r2) }");
+        assertEval("{ t <- as.integer(seq(2, 4000, by=2)); u <- t; r1 <- match(c(10L, 11L), t); t[5] <- 11L; list(r1, match(c(10L, 11L), t), match(c(10L, 11L), u)) }");
+        assertEval("{ f <- function(tab) match(c(7, 4001), tab); t <- as.double(1:4000); r1 <- f(t); t[7] <- 4001; list(r1, f(t), f(t)) }");
     }
 }
@@ -34,4 +34,12 @@ public class TestBuiltin_matmul extends TestBase {
         assertEval("m1 <- matrix(1:6,3,2,dimnames=list(c('a','b','c'),c('c1','c2')));m2 <- matrix(c(3,4),2,1,dimnames=list(c('a2','b2'),c('col'))); m1 %*% m2; ");
         assertEval("vec <- c(1,2); names(vec) <- c('a','b'); mat <- matrix(c(8,3),1,2,dimnames=list('row',c('c1','c2'))); vec %*% mat; ");
     }
+
+    @Test
+    public void testMatmulLarge() {
+        // large enough to be split between multiple threads
+        assertEval("{ x <- matrix(seq(0, 1, length.out=300 * 200), 300); y <- matrix(seq(1, 0, length.out=200 * 250), 200); r <- x %*% y; c(dim(r), sum(r), r[123, 45], r[300, 250]) }");
+        assertEval("{ x <- matrix(seq(0, 1, length.out=300 * 200), 300); x[5, 7] <- NA; r <- x %*% t(x); c(sum(is.na(r)), r[1, 2], r[300, 299]) }");
+        assertEval("{ x <- matrix(seq(0, 1, length.out=300 * 200), 300); r <- crossprod(x); c(dim(r), isSymmetric(r), r[17, 150]) }");
+    }
 }
@@ -37,4 +37,20 @@ public class TestBuiltin_newenv extends TestBase {
         assertEval(Output.ContainsReferences, "parent.env(new.env())");
         assertEval(Output.ContainsReferences, "e <- new.env(); e; parent.env(new.env(TRUE, e))");
     }
+
+    @Test
+    public void testHashedEnv() {
+        assertEval("{ e <- new.env(hash = TRUE); for (i in 1:10000) assign(paste0('k', i), i, envir = e); c(length(ls(e)), get('k5000', envir = e), exists('k10001', envir = e)) }");
+        assertEval("{ e <- new.env(); assign('b', 1, e); assign('a', 2, e); assign('.c', 3, e); rm('b', envir = e); list(ls(e), ls(e, all.names = TRUE), exists('b', envir = e, inherits = FALSE)) }");
+        assertEval("{ e <- new.env(); e$x <- 1; e[['y']] <- 2; e$x <- e$x + 10; mget(c('x', 'y'), envir = e) }");
+        assertEval("{ e <- new.env(); assign('x', 1, e); y <- 42; c(exists('y', envir = e), exists('y', envir = e, inherits = FALSE)) }");
+        assertEval("{ e <- new.env(); assign('x', 1, e); assign('y', 2, e); eval(quote(x + y), e) }");
+        assertEval("{ e <- new.env(); assign('x', 1, e); f <- local(function() x, e); assign('x', 5, e); f() }");
+        assertEval("{ e <- new.env(); assign('x', 1, e); e2 <- new.env(parent = e); assign('x', 3, e); get('x', envir = e2) }");
+        assertEval("{ e <- new.env(); assign('x', 1, e); lockBinding('x', e); tryCatch(assign('x', 2, e), error = function(e) 'locked') }");
+        assertEval("{ e <- new.env(); assign('x', 1, e); lockBinding('x', e); local(x, e); tryCatch(assign('x', 2, e), error = function(e) 'locked') }");
+        assertEval("{ e <- new.env(); assign('x', 1, e); rm('x', envir = e); tryCatch(rm('x', envir = e), warning = function(w) 'missing') }");
+        assertEval("{ e <- new.env(); assign('x', 1, e); rm(list = c('y', 'x'), envir = e); exists('x', envir = e, inherits = FALSE) }");
+        assertEval("{ e <- new.env(hash = TRUE); for (i in 1:100) assign(paste0('k', i), i, envir = e); rm('k101', envir = e); length(ls(e)) }");
+    }
 }
@@ -54,4 +54,25 @@ public class TestBuiltin_radixsort extends TestBase {
         // at InternalNode$InternalCallWrapNode.prepareArgs(InternalNode.java:309)
         assertEval(Ignored.ImplementationError, "argv <- list(structure(integer(0), .Label = character(0), class = 'factor'), TRUE, FALSE); .Internal(radixsort(argv[[1]], argv[[2]], argv[[3]]))");
     }
+
+    @Test
+    public void testradixsortKeys() {
+        assertEval(".Internal(radixsort(TRUE, FALSE, FALSE, TRUE, c(3L, 1L, NA, 2L, 1L)))");
+        assertEval(".Internal(radixsort(FALSE, TRUE, FALSE, TRUE, c(3L, 1L, NA, 2L, 1L)))");
+        assertEval(".Internal(radixsort(NA, FALSE, FALSE, TRUE, c(3.5, NaN, -1, NA, 0, -0)))");
+        assertEval(".Internal(radixsort(TRUE, FALSE, FALSE, TRUE, c(3.5, NaN, -1, NA, 0, NaN)))");
+        assertEval(".Internal(radixsort(FALSE, TRUE, FALSE, TRUE, c(3.5, NA, -1, NaN, 0, NA)))");
+        assertEval(".Internal(radixsort(TRUE, FALSE, TRUE, TRUE, c(NaN, NA, 1, NA, NaN)))");
+        assertEval("order(c(NaN, NA, 1), method = 'radix')");
+        assertEval(".Internal(radixsort(TRUE, c(FALSE, TRUE), FALSE, TRUE, c(2L, 1L, 2L, 1L), c('b', 'a', 'c', NA)))");
+        assertEval(".Internal(radixsort(TRUE, c(TRUE, FALSE), FALSE, TRUE, c(TRUE, FALSE, NA, TRUE), c(1.5, 2, 3, -1)))");
+        assertEval(".Internal(radixsort(TRUE, FALSE, TRUE, TRUE, c(5L, 3L, 5L, 3L, 1L)))");
+        assertEval(".Internal(radixsort(TRUE, c(FALSE, FALSE), TRUE, FALSE, c('b', 'a', 'b', 'a'), c(1, 1, 2, 1)))");
+        assertEval(".Internal(radixsort(TRUE, FALSE, TRUE, TRUE, integer(0)))");
+        assertEval(".Internal(radixsort(TRUE, c(FALSE, FALSE), FALSE, TRUE, 1:3, 1:2))");
+        assertEval(".Internal(radixsort(TRUE, FALSE, FALSE, TRUE, 1:3, 1:3))");
+        assertEval("order(c(3, 1, 2, 1), c('b', 'b', 'a', 'a'), method = 'radix')");
+        assertEval("order(c(3, 1, 2, 1), c('b', 'b', 'a', 'a'), decreasing = c(TRUE, FALSE), method = 'radix')");
+        assertEval("sort.list(c(10L, NA, -5L, 3L), method = 'radix', na.last = NA)");
+    }
 }
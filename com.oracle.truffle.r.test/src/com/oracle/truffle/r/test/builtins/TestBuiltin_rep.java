@@ -235,4 +235,26 @@ public class TestBuiltin_rep extends TestBase {
         assertEval("v <- 1; class(v) <- 'asdf'; rep(v, 1)");
         assertEval("v <- 1; class(v) <- 'asdf'; rep(v, 2)");
     }
+
+    @Test
+    public void testRepConstant() {
+        assertEval("{ x <- rep(2.5, 5); x[3] <- 1; x }");
+        assertEval("{ x <- rep(3L, 4); x[[2]] <- 7L; list(x, typeof(x)) }");
+        assertEval("{ x <- rep(1L, 3); y <- 1:5; y[x] <- 9L; y }");
+        assertEval("{ x <- rep(0, 1e6); c(length(x), sum(x), x[1e6]) }");
+        assertEval("{ x <- rep(4L, 3); names(x) <- c('a', 'b', 'c'); x }");
+        assertEval("{ deparse(rep(5L, 3)) }");
+        assertEval("{ deparse(seq(1L, 9L, 2L)) }");
+        assertEval("{ list(rep(NA_integer_, 3), rep(NaN, 2), rep(-Inf, 2)) }");
+        assertEval("{ rep_len(2L, 4) + rep_len(0.5, 4) }");
+        assertEval("{ rep_len(seq(0.5, 3), 5) }");
+        assertEval("{ rep(1, 3) / 0 }");
+        assertEval("{ rep(2, 3) * Inf }");
+        assertEval("{ rep(-2, 3) %/% 0 }");
+        assertEval("{ rep(0, 3) / 0 }");
+        assertEval("{ Inf * rep_len(3, 4) }");
+        assertEval("{ seq(-1, 1) / 0 }");
+        assertEval("{ (-1:1) / 0 }");
+        assertEval("{ rep(Inf, 3) + 1 }");
+    }
 }
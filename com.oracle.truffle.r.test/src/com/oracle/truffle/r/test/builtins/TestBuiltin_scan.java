@@ -75,6 +75,22 @@ public class TestBuiltin_scan extends TestBase {
         assertEval("fileConn<-file('" + TEST_CVS_FILE + "'); writeLines(c('" + testData + "'), fileConn); m <- read.csv('" + TEST_CVS_FILE + "'); m");
     }
 
+    @Test
+    public void testScanFile() {
+        String write = "writeLines(c('a,b,c,d', '1,2.5,x,TRUE', '2,,\"y, z\",NA', '# comment', '3,1e-3,NA,F', '', '4,-7.25,\"q\"\"q\",T'), '" + TEST_CVS_FILE + "'); ";
+        assertEval(write + "scan('" + TEST_CVS_FILE + "', what=list(1L, 1, '', NA), sep=',', skip=1, comment.char='#', quiet=TRUE)");
+        assertEval(write + "scan('" + TEST_CVS_FILE + "', what=list(a=1L, b=1, c='', d=NA), sep=',', skip=1, comment.char='#', nmax=2)");
+        assertEval(write + "scan('" + TEST_CVS_FILE + "', what=list('', ''), sep=',', skip=1, comment.char='#', fill=TRUE, quiet=TRUE)");
+        assertEval(write + "read.csv('" + TEST_CVS_FILE + "', comment.char='#', colClasses=c('integer', 'numeric', 'character', 'logical'))");
+        assertEval(write + "read.csv('" + TEST_CVS_FILE + "', comment.char='#')");
+        assertEval("writeLines(c('x y', '1,5 a', '2 b', '3,25 \"c d\"'), '" + TEST_CVS_FILE + "'); read.table('" + TEST_CVS_FILE + "', header=TRUE, dec=',', colClasses=c('numeric', 'character'))");
+        assertEval("writeLines(paste(1:5000, (1:5000) / 8, sep=';'), '" + TEST_CVS_FILE + "'); x <- scan('" + TEST_CVS_FILE +
+                        "', what=list(0L, 0), sep=';', quiet=TRUE); c(length(x[[1]]), sum(x[[1]]), sum(x[[2]]))");
+        // large enough for the conversion of the blocks to be done in parallel
+        assertEval("writeLines(paste(1:300000, (1:300000) / 4, sprintf('\"s%d\"', 1:300000), sep=','), '" + TEST_CVS_FILE + "'); d <- read.table('" + TEST_CVS_FILE +
+                        "', sep=','); list(dim(d), sapply(d, class), sum(d$V1), sum(d$V2), d$V3[c(1, 150000, 300000)])");
+    }
+
     @Test
     public void testArgsCasts() {
         // Empty 2nd 'what' parameter
@@ -51,7 +51,7 @@ public class TestBuiltin_setseed extends TestBase {
 
     @Test
     public void testsetseed7() {
-        assertEval(Ignored.Unimplemented, "argv <- list(123, 7L, NULL); .Internal(set.seed(argv[[1]], argv[[2]], argv[[3]]))");
+        assertEval("argv <- list(123, 7L, NULL); .Internal(set.seed(argv[[1]], argv[[2]], argv[[3]]))");
     }
 
     @Test
@@ -64,4 +64,22 @@ public class TestBuiltin_setseed extends TestBase {
         assertEval(Output.IgnoreErrorMessage, "set.seed('hello world')");
         assertEval("set.seed(FALSE)");
     }
+
+    @Test
+    public void testLecuyerCMRG() {
+        assertEval("{ set.seed(123, \"L'Ecuyer-CMRG\"); .Random.seed }");
+        assertEval("{ set.seed(123, \"L'Ecuyer-CMRG\"); runif(5) }");
+        assertEval("{ set.seed(42, \"L'Ecuyer-CMRG\"); x <- sample(100, 10); RNGkind(\"default\"); x }");
+        assertEval("{ set.seed(1, \"L'Ecuyer-CMRG\"); rnorm(3) }");
+        assertEval("{ RNGkind(\"L'Ecuyer-CMRG\"); set.seed(7); x <- runif(2); .Random.seed <- c(407L, 1L, 2L, 3L, 4L, 5L, 6L); c(x, runif(2)) }");
+    }
+
+    @Test
+    public void testRNGStreams() {
+        assertEval("{ set.seed(123, \"L'Ecuyer-CMRG\"); s <- .Random.seed; for (i in 1:3) { s <- parallel::nextRNGStream(s); print(s) } }");
+        assertEval("{ set.seed(123, \"L'Ecuyer-CMRG\"); parallel::nextRNGSubStream(.Random.seed) }");
+        assertEval("{ set.seed(123, \"L'Ecuyer-CMRG\"); .Random.seed <- parallel::nextRNGStream(.Random.seed); runif(3) }");
+        assertEval("{ set.seed(123, \"L'Ecuyer-CMRG\"); .Random.seed <- parallel::nextRNGSubStream(parallel::nextRNGStream(.Random.seed)); runif(3) }");
+        assertEval("{ set.seed(123); parallel::nextRNGStream(.Random.seed) }");
+    }
 }
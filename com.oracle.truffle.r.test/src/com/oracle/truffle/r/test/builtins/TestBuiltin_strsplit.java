@@ -144,5 +144,8 @@ public class TestBuiltin_strsplit extends TestBase {
         assertEval("strsplit(c('a1a', 'a1b'), '1', fixed=FALSE)");
         assertEval("strsplit(c('','a , b'), '[[:space:]]*,[[:space:]]*')");
 
+        assertEval("{ strsplit(c('a::b::c', '::x'), '::') }");
+        assertEval("{ strsplit('a.b.c', '\\\\.') }");
+        assertEval("{ strsplit('a.b.c', '\\\\.', perl = TRUE) }");
     }
 }
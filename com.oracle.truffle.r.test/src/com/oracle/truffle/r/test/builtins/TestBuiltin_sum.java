@@ -197,5 +197,31 @@ public class TestBuiltin_sum extends TestBase {
         assertEval(Output.IgnoreCase, "sum(c(2147483647L), TRUE)");
         assertEval("sum(c(2147483647L), 1)");
         assertEval("sum(c(-2147483647L), -1)");
+        assertEval("sum(c(2147483647L, 1L, -1L))");
+        assertEval("sum(c(-2147483647L, -1L, 2L))");
+        assertEval("sum(c(2147483647L, 1L, NA), na.rm = TRUE)");
+    }
+
+    @Test
+    public void testSumLarge() {
+        // c() materializes the sequences, so that the vectors are long enough for the bulk
+        // reductions
+        assertEval("{ x <- c(0.5, (1:100000) / 7); sum(x) }");
+        assertEval("{ x <- c(0.5, (1:100000) / 7); x[[5000]] <- NA; sum(x) }");
+        assertEval("{ x <- c(0.5, (1:100000) / 7); x[[5000]] <- NA; sum(x, na.rm = TRUE) }");
+        assertEval("{ x <- c(0.5, (1:100000) / 7); x[[5000]] <- NaN; x[[7000]] <- NA; sum(x) }");
+        assertEval("{ x <- c(rep(1e100, 5000), 1, rep(-1e100, 5000)); sum(x) }");
+        assertEval("{ x <- c(0.5, (1:100000) / 7); c(mean(x), prod(x / 5000), min(x), max(x), range(x)) }");
+        assertEval("{ x <- c(0.5, (1:100000) / 7); x[[5000]] <- NA; c(mean(x), prod(x), min(x), max(x), range(x)) }");
+        assertEval("{ x <- c(0.5, (1:100000) / 7); x[[5000]] <- NA; c(mean(x, na.rm = TRUE), prod(x / 5000, na.rm = TRUE), min(x, na.rm = TRUE), max(x, na.rm = TRUE), range(x, na.rm = TRUE)) }");
+        assertEval("{ x <- c(0.5, (1:100000) / 7); x[[5000]] <- NaN; c(mean(x), prod(x), min(x), max(x), range(x)) }");
+        assertEval("{ x <- c(0.5, (1:100000) / 7); x[[5000]] <- NaN; x[[90000]] <- NA; c(prod(x), min(x), max(x)) }");
+        assertEval("{ x <- c(0.5, (1:100000) / 7); x[[5000]] <- Inf; c(sum(x), prod(x), max(x), range(x, finite = TRUE)) }");
+        assertEval("{ x <- rep(c(1e308, -1e308), 5000); c(mean(x), sum(x)) }");
+        assertEval("{ x <- rep(c(1e200, 1e-200), 5000); prod(x) }");
+        assertEval("{ x <- c(1L, rep(.Machine$integer.max, 5000L)); sum(x) }");
+        assertEval("{ x <- c(-1L, rep(-.Machine$integer.max, 5000L)); sum(x) }");
+        assertEval("{ x <- c(0L, 1:100000); c(sum(x), mean(x), min(x), max(x), range(x)) }");
+        assertEval("{ x <- c(0L, 1:100000); x[[5000]] <- NA; c(sum(x), sum(x, na.rm = TRUE), mean(x), min(x), max(x, na.rm = TRUE), range(x, na.rm = TRUE)) }");
     }
 }
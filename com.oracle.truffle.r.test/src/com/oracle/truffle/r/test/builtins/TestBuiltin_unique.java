@@ -192,5 +192,11 @@ public class TestBuiltin_unique extends TestBase {
         // seems a bit better than GnuR's "cannot coerce type 'closure' to vector of type 'double'"
         assertEval(Ignored.ReferenceError, "{ unique(c(1,2,1), incomparables=function() 42) }");
 
+        assertEval("{ unique(c(NA, NaN, 1, NA, -0, NaN, 0, 1)) }");
+        assertEval("{ unique(c(NA, 'NA', 'a', NA, 'NA')) }");
+        assertEval("{ unique(c(NA_complex_, complex(real=NA, imaginary=1), complex(real=NaN, imaginary=1), complex(real=NaN, imaginary=1), -0+1i, 0+1i)) }");
+        assertEval("{ unique(as.raw(c(1, 255, 1, 0, 255))) }");
+        assertEval("{ x <- rep(c(3L, 1L, NA, 2L), 1000); unique(x) }");
+
     }
 }
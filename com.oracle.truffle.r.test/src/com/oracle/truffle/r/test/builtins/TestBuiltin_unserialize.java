@@ -38,6 +38,14 @@ public class TestBuiltin_unserialize extends TestBase {
         assertEval(template("unserialize(serialize(%0, NULL))", BASIC_TYPE_VALUES));
     }
 
+    @Test
+    public void testLargeVectors() {
+        // larger than the read buffer, exercises the bulk decoding across buffer refills
+        assertEval("x <- list(as.double(1:20000) / 3, c(1:20000, NA), rep(c(TRUE, NA, FALSE), 3000), complex(real = 1:5000, imaginary = -1), as.raw(1:50000 %% 256)); identical(unserialize(serialize(x, NULL)), x)");
+        assertEval("x <- list(a = as.double(1:20000) / 3, b = c(1:20000, NA), s = paste0('s', 1:5000)); f <- tempfile(); saveRDS(x, f, compress = FALSE); y <- readRDS(f); unlink(f); identical(x, y)");
+        assertEval("x <- list(a = as.double(1:20000) / 3, b = c(1:20000, NA)); f <- tempfile(); saveRDS(x, f); y <- readRDS(f); unlink(f); identical(x, y)");
+    }
+
     @Test
     public void testserializeAndUnserializeClosure() {
         // N.B.: FastR does not preserve code formatting like GNU R does
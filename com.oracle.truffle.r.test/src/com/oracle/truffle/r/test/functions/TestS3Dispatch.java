@@ -144,6 +144,21 @@ public class TestS3Dispatch extends TestRBase {
         assertEval("{ assign('[[.myclass', function(a,b) 42, envir=.__S3MethodsTable__.); x<-1; class(x)<-'myclass'; res <- x[[99]]; rm('[[.myclass', envir=.__S3MethodsTable__.); res; }");
     }
 
+    @Test
+    public void testMegamorphicDispatch() {
+        // more classes than the inline caches of a single UseMethod call site can hold
+        assertEval("{ f <- function(x) UseMethod('f'); f.default <- function(x) 0; for (i in 1:8) assign(paste0('f.c', i), eval(substitute(function(x) K, list(K=i)))); " +
+                        "res <- integer(); for (k in 1:3) for (i in 1:10) res <- c(res, f(structure(1, class=paste0('c', i)))); res }");
+        assertEval("{ f <- function(x) UseMethod('f'); f.default <- function(x) 'default'; objs <- lapply(1:8, function(i) structure(1, class=paste0('c', i))); r1 <- sapply(objs, f); " +
+                        "f.c7 <- function(x) 'c7'; r2 <- sapply(objs, f); rm(f.c7); r3 <- sapply(objs, f); list(r1, r2, r3) }");
+        assertEval("{ f <- function(x) UseMethod('f'); f.b <- function(x) 'b'; objs <- lapply(1:8, function(i) structure(1, class=c(paste0('a', i), 'b'))); r1 <- sapply(objs, f); " +
+                        "f.a2 <- function(x) 'a2'; r2 <- sapply(objs, f); f.a2 <- function(x) 'new a2'; r3 <- sapply(objs, f); list(r1, r2, r3) }");
+        assertEval("{ g <- function(x) UseMethod('g'); g.default <- function(x) 0; for (i in 1:8) assign(paste0('g.c', i), eval(substitute(function(x) K + NextMethod(), list(K=i)))); " +
+                        "sapply(1:8, function(i) g(structure(1, class=c(paste0('c', i), paste0('c', i %% 8 + 1))))) }");
+        assertEval("{ h <- function(x) UseMethod('h'); h.default <- function(x) 'global'; k <- function(x) { h.c1 <- function(x) 'local'; h(x) }; " +
+                        "objs <- lapply(1:8, function(i) structure(1, class=paste0('c', i))); list(sapply(objs, k), sapply(objs, h)) }");
+    }
+
     @Override
     public String getTestDir() {
         return "S3";
@@ -104,6 +104,29 @@ public class TestConnections extends TestRBase {
         assertEval(TestBase.template("{ cat('abc', file = '%0'); readBin(file('%0', 'rb'), character(), 2) }", testDir.subDir("wb3")));
     }
 
+    @Test
+    public void testFileReadBinLarge() {
+        // large enough to be memory-mapped
+        assertEval(TestBase.template("{ x <- c(1:300000 / 7, NA); writeBin(x, '%0'); zz <- file('%0', 'rb'); a <- readBin(zz, 'double', 10); seek(zz, 8 * 299995); b <- readBin(zz, 'double', 10); " +
+                        "c <- readBin(zz, 'double', 10); seek(zz, 8); d <- readBin(zz, 'integer', 2); close(zz); list(a, b, c, d, identical(readBin('%0', 'double', 400000), x)) }", testDir.subDir("rbl1")));
+        assertEval(TestBase.template("{ x <- c(1:500000, NA); writeBin(x, '%0', size = 4); y <- readBin('%0', 'integer', 600000); c(length(y), identical(x, y)) }", testDir.subDir("rbl2")));
+        // the file grows and shrinks while mapped, and can be removed right after closing
+        assertEval(TestBase.template("{ x <- 1:300000 / 7; writeBin(x, '%0'); zz <- file('%0', 'rb'); a <- readBin(zz, 'double', 400000); zw <- file('%0', 'ab'); writeBin(c(1.5, 2.5), zw); close(zw); " +
+                        "b <- readBin(zz, 'double', 10); writeBin(x[1:10], '%0'); seek(zz, 0); c <- readBin(zz, 'double', 400000); close(zz); list(identical(a, x), b, identical(c, x[1:10]), file.remove('%0')) }",
+                        testDir.subDir("rbl3")));
+    }
+
+    @Test
+    public void testGzipWriteRead() {
+        // large enough to be compressed in several blocks
+        assertEval(TestBase.template("{ x <- paste0('line', 1:200000, ':', (1:200000) %% 97); zz <- gzfile('%0', 'w'); writeLines(x, zz); close(zz); y <- readLines(gzfile('%0')); c(length(y), identical(x, y)) }",
+                        testDir.subDir("gz1")));
+        assertEval(TestBase.template("{ x <- list(a=runif(300000) > 2, b=1:300000, c=rep(c('foo', 'bar'), 1000)); saveRDS(x, '%0'); identical(readRDS('%0'), x) }", testDir.subDir("gz2")));
+        assertEval(TestBase.template("{ zz <- gzfile('%0', 'w'); writeLines('abc', zz); close(zz); zz <- gzfile('%0', 'a'); writeLines('def', zz); close(zz); readLines(gzfile('%0')) }",
+                        testDir.subDir("gz3")));
+        assertEval(TestBase.template("{ zz <- gzfile('%0', 'w'); close(zz); readLines(gzfile('%0')) }", testDir.subDir("gz4")));
+    }
+
     @Test
     public void testWriteTextReadConnection() {
         assertEval(Output.IgnoreErrorContext, "{ writeChar(\"x\", textConnection(\"abc\")) }");
@@ -34,4 +34,33 @@ public class TestSharedCluster extends TestBase {
         assertEval(TestBase.template("fun <- function(data) { cl <- makeCluster(%0, 'SHARED'); parLapply(cl, data, function(x) x+1); stopCluster(cl) }; fun(1:100)", "123456789".split("")));
     }
 
+    @Test
+    public void testSharedClusterKind() {
+        assertEval("{ cl <- makeCluster(2, 'SHARED', kind = 'SHARED_CODE'); y <- 10; clusterExport(cl, 'y', envir = environment()); r <- parLapply(cl, 1:4, function(x) x + y); stopCluster(cl); r }");
+        assertEval("{ cl <- makeForkCluster(2); r <- parLapply(cl, 1:4, function(x) x * 2); stopCluster(cl); r }");
+    }
+
+    @Test
+    public void testMclapply() {
+        assertEval("library(parallel); unlist(mclapply(1:10, function(x) x * 2, mc.cores = 2))");
+        assertEval("library(parallel); unlist(mclapply(1:10, function(x) x * 2, mc.cores = 2, mc.preschedule = FALSE))");
+        assertEval("library(parallel); f <- function(n) { unlist(mclapply(1:n, function(x) x + n, mc.cores = 3)) }; list(f(5), f(7))");
+        assertEval("library(parallel); k <- 3; g <- function(x) x * k; unlist(mclapply(1:6, function(x) g(x) + 1, mc.cores = 2))");
+        assertEval("library(parallel); k <- 3; unlist(mclapply(1:4, function(x) { k <<- x; k }, mc.cores = 2)); k");
+        assertEval("library(parallel); options(fastr.mc.reuse = TRUE); b <- 1; invisible(mclapply(1:2, function(i) b, mc.cores = 2)); rm(b); r <- unlist(mclapply(1:2, function(i) exists('b'), mc.cores = 2)); options(fastr.mc.reuse = NULL); r");
+        assertEval("library(parallel); set.seed(42); r <- unlist(mclapply(1:2, function(i) runif(1), mc.cores = 2, mc.preschedule = FALSE)); r[[1L]] != r[[2L]]");
+    }
+
+    @Test
+    public void testMcparallel() {
+        assertEval("library(parallel); y <- 21; j1 <- mcparallel(y * 2, name = 'a'); j2 <- mcparallel(sum(1:10), name = 'b'); mccollect(list(j1, j2))");
+        assertEval("library(parallel); j <- mcparallel(stop('boom')); inherits(mccollect(j)[[1]], 'try-error')");
+        assertEval("library(parallel); y <- 21; g <- function(x) x + y; j <- mcparallel({ y <- 1; g(y) }); c(mccollect(j)[[1]], y)");
+        assertEval("library(parallel); f <- function() { z <- 5; mcparallel(z + 1) }; mccollect(f())[[1]]");
+        assertEval("library(parallel); set.seed(42); r <- mccollect(list(mcparallel(runif(1)), mcparallel(runif(1)))); r[[1L]] != r[[2L]]");
+        assertEval("library(parallel); invisible(mcparallel(1, detached = TRUE)); invisible(mcparallel(2, detached = TRUE)); mccollect(mcparallel(3))[[1]]");
+        assertEval("library(parallel); invisible(mcparallel(NULL, detached = TRUE)); j <- mcparallel(NULL); r <- NULL; while (is.null(r)) r <- mccollect(j, wait = FALSE, timeout = 1); r[[1]]");
+        assertEval("library(parallel); j <- mcparallel(invisible(NULL)); r <- NULL; while (is.null(r)) r <- mccollect(j, wait = FALSE); c(length(r), is.null(r[[1]]), is.null(mccollect(j)))");
+    }
+
 }
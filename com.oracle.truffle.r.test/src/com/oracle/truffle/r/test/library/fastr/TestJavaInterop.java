@@ -173,9 +173,28 @@ public class TestJavaInterop extends TestBase {
         assertEvalFastR("tc <- new.java.class('" + TEST_CLASS + "'); to <- new.external(tc); a <- as.java.array(to); is.external.array(a)", "TRUE");
         assertEvalFastR("tc <- new.java.class('" + TEST_CLASS + "'); to <- new.external(tc); a <- as.java.array(c(to, to)); is.external.array(a)", "TRUE");
 
+        assertEvalFastR("a <- as.java.array(c(1.1, 1.2)); java.class(a);", "'[D'");
+        assertEvalFastR("a <- as.java.array(1:3); java.class(a);", "'[I'");
+        assertEvalFastR("a <- as.java.array(as.raw(c(1, 2))); java.class(a);", "'[B'");
+        assertEvalFastR("a <- as.java.array(as.raw(c(1, 2)), 'byte'); a[2];", "2");
+        assertEvalFastR("a <- as.java.array(c(1L, NA)); .fastr.interop.fromArray(a);", "c(1L, NA)");
+
         assertEvalFastR(Ignored.Unimplemented, "a <- as.java.array(1L,,F); a;", getRValue(new int[]{1}));
     }
 
+    @Test
+    public void testFromArray() {
+        assertEvalFastR("a <- as.java.array(c(1.5, 2.5)); .fastr.interop.fromArray(a);", "c(1.5, 2.5)");
+        assertEvalFastR("a <- as.java.array(c(T, F)); .fastr.interop.fromArray(a);", "c(TRUE, FALSE)");
+        assertEvalFastR("a <- as.java.array(1:3); v <- .fastr.interop.fromArray(a); a[1] <- 42L; v;", "1:3");
+        assertEvalFastR("a <- as.java.array(1:3); v <- .fastr.interop.fromArray(a, TRUE); a[1] <- 42L; v;", "c(42L, 2L, 3L)");
+        assertEvalFastR("a <- as.java.array(c(1.5, 2.5)); v <- .fastr.interop.fromArray(a, TRUE); v[1] <- 0; a[1];", "1.5");
+        assertEvalFastR("a <- new.java.array('double', 2L); v <- .fastr.interop.fromArray(a, TRUE); a[2] <- NA_real_; anyNA(v);", "TRUE");
+        assertEvalFastR("a <- as.java.array(1:5000); v <- .fastr.interop.fromArray(a, TRUE); m <- match(10L, v); a[10] <- -1L; c(m, match(10L, v), match(-1L, v));", "c(10L, NA, 10L)");
+        assertEvalFastR("a <- as.java.array(as.numeric(1:5000)); v <- .fastr.interop.fromArray(a, TRUE); m <- 10 %in% v; a[10] <- -1; c(m, 10 %in% v, -1 %in% v);", "c(TRUE, FALSE, TRUE)");
+        assertEvalFastR("a <- as.java.array(c('a', 'b')); .fastr.interop.fromArray(a, TRUE);", "c('a', 'b')");
+    }
+
     @Test
     public void testNewArray() {
         testNewArray("java.lang.Boolean", true);
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastr;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+public class TestProfmem extends TestBase {
+
+    @Test
+    public void testSampling() {
+        assertEvalFastR("{ .fastr.profmem.sample(TRUE, 0); f <- function(n) double(n); g <- function() f(1000); g(); .fastr.profmem.sample(FALSE); any(.fastr.profmem.folded() == 'g;f;[double] 8032') }",
+                        "TRUE");
+        assertEvalFastR("{ .fastr.profmem.sample(TRUE, 0); f <- function() integer(10); f(); .fastr.profmem.sample(FALSE); any(grepl('^f;\\\\[integer\\\\] 1$', .fastr.profmem.folded('samples'))) }", "TRUE");
+        assertEvalFastR("{ .fastr.profmem.sample(TRUE, 1000); for (i in 1:10) x <- double(1000); .fastr.profmem.sample(FALSE); t <- .fastr.profmem.types(); t$samples[t$type == 'double'] >= 10 }", "TRUE");
+    }
+}
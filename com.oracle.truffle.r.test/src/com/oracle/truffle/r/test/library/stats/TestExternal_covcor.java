@@ -39,5 +39,6 @@ public class TestExternal_covcor extends TestBase {
         assertEval(".Call(stats:::C_cov, c('1','2','3','4','5'), 1:5, 4, FALSE)");
         assertEval(".Call(stats:::C_cov, NULL, 1:5, 4, FALSE)");
         assertEval(".Call(stats:::C_cov, 1:3, 1:5, 4, FALSE)");
+        assertEval(".Call(stats:::C_cov, 1:5, 1:5, 6, FALSE)");
     }
 }
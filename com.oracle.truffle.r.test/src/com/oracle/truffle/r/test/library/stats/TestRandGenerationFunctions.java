@@ -102,4 +102,17 @@ public class TestRandGenerationFunctions extends TestBase {
         assertEval("for(gen in c(\"Buggy Kinderman-Ramage\", \"Ahrens-Dieter\", \"Box-Muller\", \"Inversion\", \"Kinderman-Ramage\", \"default\")) { print(paste0(gen, \":\")); RNGkind(NULL,gen); set.seed(42); print(rnorm(30)); }");
     }
 
+    @Test
+    public void testScalarParameters() {
+        // long vectors with scalar parameters are generated in bulk, the stream must stay the same
+        assertEval("{ set.seed(4); x <- runif(10000, -2, 3); c(length(x), sum(x), x[c(1, 624, 625, 10000)]) }");
+        assertEval("{ set.seed(4); x <- rnorm(5000, 10, 2); c(sum(x), x[c(1, 5000)], runif(1)) }");
+        assertEval("{ set.seed(4); x <- rexp(5000, 3); c(sum(x), x[c(1, 5000)], runif(1)) }");
+        assertEval("{ set.seed(4); c(sum(rgamma(3000, 0.7)), sum(rgamma(3000, 4, 2)), runif(1)) }");
+        assertEval("{ set.seed(4); x <- rbinom(5000, 20, 0.7); c(sum(x), table(x)[1:3], runif(1)) }");
+        assertEval("{ set.seed(4); c(rbinom(3, 1000, 0.4), rnorm(2, 1, 0), runif(2, 1, 1), rexp(2, 0)) }");
+        assertEval("{ set.seed(4, \"L'Ecuyer-CMRG\"); c(sum(runif(5000)), sum(rnorm(5000)), runif(1)) }");
+        assertEval("{ set.seed(4); RNGkind(normal.kind = \"Box-Muller\"); x <- rnorm(1001); RNGkind(normal.kind = \"default\"); sum(x) }");
+    }
+
 }
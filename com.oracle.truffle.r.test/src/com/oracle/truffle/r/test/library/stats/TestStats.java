@@ -35,6 +35,20 @@ public class TestStats extends TestBase {
         assertEval(Output.IgnoreWarningContext, "{ cor(cbind(c(1, 1, 1), c(1, 1, 1))) }");
         assertEval("{ cor(cbind(c(1:9,0/0), 101:110)) }");
         assertEval("{ round( cor(cbind(c(10,5,4,1), c(2,5,10,5))), digits=5 ) }");
+        assertEval("{ x <- cbind(c(1,2,NA,4,5), c(2,1,4,3,6), c(5,NA,1,3,2)); round(cor(x, use='complete.obs'), digits=5) }");
+        assertEval("{ x <- cbind(c(1,2,NA,4,5), c(2,1,4,3,6), c(5,NA,1,3,2)); round(cor(x, use='pairwise.complete.obs'), digits=5) }");
+        assertEval("{ x <- cbind(c(1,2,NA,4,5), c(2,1,4,3,6)); round(cor(x, c(5,4,1,3,2), use='na.or.complete'), digits=5) }");
+        assertEval("{ cor(cbind(c(1,2,NA), c(2,1,4)), use='all.obs') }");
+        assertEval("{ cor(cbind(c(1,NA,3), c(NA,2,NA)), use='complete.obs') }");
+        assertEval("{ cov(c(1,NA,3), c(NA,2,NA), use='complete.obs') }");
+        assertEval("{ cov(c(1,NA,3), c(NA,2,NA), use='na.or.complete') }");
+        assertEval("{ x <- matrix(sin(1:(500 * 40)), 500); r <- cor(x); c(dim(r), isSymmetric(r), round(r[3, 17], digits=5), round(sum(r), digits=5)) }");
+    }
+
+    @Test
+    public void testDist() {
+        assertEval("{ x <- cbind(c(1,2,3,4), c(5,1,NA,2), c(0,0,1,1)); for (m in c('euclidean', 'maximum', 'manhattan', 'canberra', 'binary', 'minkowski')) print(dist(x, method=m, p=3)) }");
+        assertEval("{ x <- matrix(cos(1:(300 * 20)), 300); d <- dist(x); c(length(d), round(sum(d), digits=5), round(d[1234], digits=5)) }");
     }
 
     @Test
@@ -42,6 +56,8 @@ public class TestStats extends TestBase {
         assertEval("{ cov(c(1,2,3),c(1,2,3)) }");
         assertEval("{ cov(c(1,2,3),c(1,2,4)) }");
         assertEval("{ cov(c(1,2,3),c(1,2,5)) }");
+        assertEval("{ cov(cbind(c(1,2,NA,4), c(2,1,4,3)), use='pairwise.complete.obs') }");
+        assertEval("{ cov(cbind(c(1,2,NA,4), c(2,1,4,3)), use='complete.obs') }");
     }
 
     @Test
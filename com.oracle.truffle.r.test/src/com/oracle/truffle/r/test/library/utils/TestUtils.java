@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2016, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2017, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -43,4 +43,10 @@ public class TestUtils extends TestBase {
     public void testMethods() {
         assertEval("methods(plot)");
     }
+
+    @Test
+    public void testRprof() {
+        assertEval("{ f <- tempfile(); Rprof(f, interval=0.01); g <- function(n) { s <- 0; for (i in 1:n) s <- s + i; s }; g(1e5); Rprof(NULL); l <- readLines(f); unlink(f); l[1] }");
+        assertEval("{ f <- tempfile(); Rprof(f, interval=0.05, line.profiling=TRUE, memory.profiling=TRUE); Rprof(NULL); l <- readLines(f); unlink(f); l }");
+    }
 }